@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.finitedifference;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMBlackScholesModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMHestonModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
+import net.finmath.finitedifference.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.finitedifference.grids.Grid;
+import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
+import net.finmath.finitedifference.grids.UniformGrid;
+import net.finmath.modelling.products.CallOrPut;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Benchmarks the theta method finite difference solvers, valuing a European option in a
+ * Black-Scholes model (one dimensional) and a Heston model (two dimensional).
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FDMThetaMethodBenchmark {
+
+	public enum Model {
+		BLACK_SCHOLES,
+		HESTON
+	}
+
+	@Param({ "BLACK_SCHOLES", "HESTON" })
+	public Model modelType;
+
+	private final double maturity = 1.0;
+	private final double theta = 0.5;
+
+	private FiniteDifferenceEquityModel model;
+
+	@Setup
+	public void setup() {
+		switch(modelType) {
+		case HESTON:
+		{
+			final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+					new Grid[] { new UniformGrid(140, 0.0, 250.0), new UniformGrid(90, 0.0, 0.5) },
+					new TimeDiscretizationFromArray(0.0, 60, maturity / 60),
+					theta,
+					new double[] { 100.0, 0.04 });
+			model = new FDMHestonModel(100.0, 0.04, 0.05, 0.0, 1.5, 0.04, 0.3, -0.7, spaceTimeDiscretization);
+			break;
+		}
+		case BLACK_SCHOLES:
+		default:
+		{
+			final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+					new UniformGrid(220, 20.0, 220.0),
+					new TimeDiscretizationFromArray(0.0, 160, maturity / 160),
+					theta,
+					new double[] { 100.0 });
+			model = new FDMBlackScholesModel(100.0, 0.05, 0.0, 0.2, spaceTimeDiscretization);
+			break;
+		}
+		}
+	}
+
+	@Benchmark
+	public double[] europeanOption() {
+		return new EuropeanOption(maturity, 100.0, CallOrPut.CALL).getValue(0.0, model);
+	}
+}
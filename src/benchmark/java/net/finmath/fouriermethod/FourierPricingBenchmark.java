@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.products.EuropeanOption;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmile;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByCOS;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByCarrMadan;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByFractionalFFT;
+
+/**
+ * Benchmarks the Fourier transform valuation of a European option and of a smile of European options
+ * in a Black-Scholes model and a Heston model.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FourierPricingBenchmark {
+
+	public enum Model {
+		BLACK_SCHOLES,
+		HESTON
+	}
+
+	@Param({ "BLACK_SCHOLES", "HESTON" })
+	public Model modelType;
+
+	private static final double[] strikes = { 0.7, 0.8, 0.9, 0.95, 1.0, 1.05, 1.1, 1.2, 1.4 };
+
+	private final EuropeanOption product = new EuropeanOption(1.0, 0.95);
+	private final EuropeanOptionSmile smileByCarrMadan = new EuropeanOptionSmileByCarrMadan(1.0, strikes);
+	private final EuropeanOptionSmile smileByFractionalFFT = new EuropeanOptionSmileByFractionalFFT(1.0, strikes);
+	private final EuropeanOptionSmile smileByCOS = new EuropeanOptionSmileByCOS(1.0, strikes);
+
+	private CharacteristicFunctionModel model;
+
+	@Setup
+	public void setup() {
+		model = modelType == Model.HESTON
+				? new HestonModel(1.0, 0.05, 0.3, 0.09, 0.1, 0.5, 0.1)
+						: new BlackScholesModel(1.0, 0.05, 0.3);
+	}
+
+	@Benchmark
+	public double europeanOption() throws CalculationException {
+		return product.getValue(model);
+	}
+
+	@Benchmark
+	public double smileByCarrMadan() throws CalculationException {
+		return smileByCarrMadan.getValue(0.0, model).get("valuePerStrike").apply(0.95);
+	}
+
+	@Benchmark
+	public double smileByFractionalFFT() throws CalculationException {
+		return smileByFractionalFFT.getValue(0.0, model).get("valuePerStrike").apply(0.95);
+	}
+
+	@Benchmark
+	public double smileByCOS() throws CalculationException {
+		return smileByCOS.getValue(0.0, model).get("valuePerStrike").apply(0.95);
+	}
+}
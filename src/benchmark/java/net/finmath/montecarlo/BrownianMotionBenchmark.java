@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Benchmarks the generation of the increments of a Brownian motion.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BrownianMotionBenchmark {
+
+	public enum Implementation {
+		SEQUENTIAL,
+		PARALLEL
+	}
+
+	@Param({ "SEQUENTIAL", "PARALLEL" })
+	public Implementation implementation;
+
+	@Param({ "1", "5" })
+	public int numberOfFactors;
+
+	@Param({ "100000" })
+	public int numberOfPaths;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 100, 0.01);
+
+	/**
+	 * Creates a Brownian motion and accesses its last increment, which triggers the generation of all increments.
+	 *
+	 * @return The average of the last increment.
+	 */
+	@Benchmark
+	public double generate() {
+		final BrownianMotion brownianMotion = implementation == Implementation.PARALLEL
+				? new BrownianMotionFromMersenneRandomNumbersParallel(timeDiscretization, numberOfFactors, numberOfPaths, 3141)
+						: new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		final RandomVariable increment = brownianMotion.getBrownianIncrement(timeDiscretization.getNumberOfTimeSteps()-1, numberOfFactors-1);
+		return increment.getAverage();
+	}
+}
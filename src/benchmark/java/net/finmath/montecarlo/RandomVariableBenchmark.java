@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Benchmarks the arithmetic of the random variable implementations.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RandomVariableBenchmark {
+
+	public enum Implementation {
+		DOUBLE_ARRAY,
+		FLOAT_ARRAY,
+		LAZY_EXPRESSION
+	}
+
+	@Param({ "DOUBLE_ARRAY", "FLOAT_ARRAY", "LAZY_EXPRESSION" })
+	public Implementation implementation;
+
+	@Param({ "10000", "1000000" })
+	public int numberOfPaths;
+
+	private RandomVariable x;
+	private RandomVariable y;
+
+	@Setup
+	public void setup() {
+		final RandomVariableFactory randomVariableFactory;
+		switch(implementation) {
+		case FLOAT_ARRAY:
+			randomVariableFactory = new RandomVariableFromArrayFactory(false);
+			break;
+		case LAZY_EXPRESSION:
+			randomVariableFactory = new RandomVariableLazyExpressionFactory();
+			break;
+		case DOUBLE_ARRAY:
+		default:
+			randomVariableFactory = new RandomVariableFromArrayFactory(true);
+			break;
+		}
+
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final double[] valuesX = new double[numberOfPaths];
+		final double[] valuesY = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			valuesX[i] = mersenneTwister.nextGaussian();
+			valuesY[i] = mersenneTwister.nextDouble();
+		}
+		x = randomVariableFactory.createRandomVariable(0.0, valuesX);
+		y = randomVariableFactory.createRandomVariable(0.0, valuesY);
+	}
+
+	/**
+	 * A discounted call payoff max(S exp(a x + b) - K, 0) / N.
+	 *
+	 * @return The average of the payoff.
+	 */
+	@Benchmark
+	public double payoff() {
+		return x.mult(0.2).add(-0.02).exp().mult(100.0).sub(100.0).floor(0.0).div(y.mult(0.01).add(1.0)).getAverage();
+	}
+
+	@Benchmark
+	public double addProduct() {
+		return y.addProduct(x, y).addRatio(x, y.add(1.0)).getAverage();
+	}
+
+	@Benchmark
+	public double discountAndChoose() {
+		return x.choose(y.discount(x.abs(), 0.5), y.accrue(x.abs(), 0.5)).getAverage();
+	}
+
+	@Benchmark
+	public double variance() {
+		return x.getVariance();
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.AsianOption;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiableFactory;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Benchmarks the valuation and the AAD gradient (delta, rho, vega) of an Asian option in a Black-Scholes model,
+ * for the operator tree and the tape implementation of AAD.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RandomVariableDifferentiableAADBenchmark {
+
+	public enum Implementation {
+		OPERATOR_TREE,
+		TAPE
+	}
+
+	@Param({ "OPERATOR_TREE", "TAPE" })
+	public Implementation implementation;
+
+	@Param({ "10000" })
+	public int numberOfPaths;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.05);
+	private final AsianOption product = new AsianOption(2.0, 1.05, new TimeDiscretizationFromArray(0.0, 8, 0.25));
+
+	private BrownianMotion brownianMotion;
+	private RandomVariableDifferentiableFactory randomVariableFactory;
+
+	@Setup
+	public void setup() {
+		brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, numberOfPaths, 3141);
+		brownianMotion.getBrownianIncrement(0, 0);
+
+		randomVariableFactory = implementation == Implementation.TAPE
+				? new RandomVariableDifferentiableAADTapeFactory(new RandomVariableFromArrayFactory())
+						: new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory());
+	}
+
+	/**
+	 * Values the product and calculates the gradient with respect to the model parameters.
+	 *
+	 * @return The sum of the sensitivities.
+	 * @throws CalculationException Thrown if the valuation fails.
+	 */
+	@Benchmark
+	public double gradient() throws CalculationException {
+		final RandomVariableDifferentiable initialValue	= randomVariableFactory.createRandomVariable(1.0);
+		final RandomVariableDifferentiable riskFreeRate	= randomVariableFactory.createRandomVariable(0.05);
+		final RandomVariableDifferentiable volatility	= randomVariableFactory.createRandomVariable(0.30);
+
+		final BlackScholesModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility, randomVariableFactory);
+		final RandomVariable value = product.getValue(0.0, new MonteCarloAssetModel(model, new EulerSchemeFromProcessModel(model, brownianMotion)));
+
+		final Map<Long, RandomVariable> gradient = ((RandomVariableDifferentiable)value).getGradient();
+
+		return gradient.get(initialValue.getID()).getAverage() + gradient.get(riskFreeRate.getID()).getAverage() + gradient.get(volatility.getID()).getAverage();
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.conditionalexpectation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Benchmarks the calculation of regression coefficients by {@link LinearRegression} with polynomial basis functions.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinearRegressionBenchmark {
+
+	@Param({ "100000" })
+	public int numberOfPaths;
+
+	@Param({ "4", "8" })
+	public int numberOfBasisFunctions;
+
+	private RandomVariable[] basisFunctions;
+	private RandomVariable value;
+
+	@Setup
+	public void setup() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final double[] valuesX = new double[numberOfPaths];
+		final double[] valuesY = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			valuesX[i] = mersenneTwister.nextGaussian();
+			valuesY[i] = Math.max(Math.exp(valuesX[i]) - 1.0, 0.0) + 0.1 * mersenneTwister.nextGaussian();
+		}
+		final RandomVariable x = new RandomVariableFromDoubleArray(0.0, valuesX);
+
+		basisFunctions = new RandomVariable[numberOfBasisFunctions];
+		basisFunctions[0] = new RandomVariableFromDoubleArray(1.0);
+		for(int i=1; i<numberOfBasisFunctions; i++) {
+			basisFunctions[i] = basisFunctions[i-1].mult(x);
+		}
+		value = new RandomVariableFromDoubleArray(0.0, valuesY);
+	}
+
+	@Benchmark
+	public double[] regressionCoefficients() {
+		return new LinearRegression(basisFunctions).getRegressionCoefficients(value);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Benchmarks the time stepping of {@link EulerSchemeFromProcessModel} for a Black-Scholes model and a LIBOR market model.
+ * The Brownian motion is generated once in the setup.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EulerSchemeFromProcessModelBenchmark {
+
+	public enum Model {
+		BLACK_SCHOLES,
+		LIBOR_MARKET_MODEL
+	}
+
+	@Param({ "BLACK_SCHOLES", "LIBOR_MARKET_MODEL" })
+	public Model modelType;
+
+	@Param({ "10000" })
+	public int numberOfPaths;
+
+	private ProcessModel model;
+	private BrownianMotion brownianMotion;
+
+	@Setup
+	public void setup() throws CalculationException {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.5);
+
+		switch(modelType) {
+		case LIBOR_MARKET_MODEL:
+		{
+			final int numberOfFactors = 3;
+			final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+					"forwardCurve",
+					new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0},
+					new double[] {0.02, 0.025, 0.03, 0.035, 0.04},
+					0.5);
+
+			final LIBORCovarianceModelFromVolatilityAndCorrelation covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, timeDiscretization,
+					new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, timeDiscretization, 0.2, 0.0, 0.25, 0.3, false),
+					new LIBORCorrelationModelExponentialDecay(timeDiscretization, timeDiscretization, numberOfFactors, 0.1));
+
+			final Map<String, String> properties = new HashMap<>();
+			properties.put("measure", LIBORMarketModelFromCovarianceModel.Measure.SPOT.name());
+			properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.LOGNORMAL.name());
+
+			model = LIBORMarketModelFromCovarianceModel.of(timeDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve),
+					new RandomVariableFromArrayFactory(), covarianceModel, null, properties);
+			brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+			break;
+		}
+		case BLACK_SCHOLES:
+		default:
+			model = new BlackScholesModel(100.0, 0.05, 0.30);
+			brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, numberOfPaths, 3141);
+			break;
+		}
+
+		// Generate the increments
+		brownianMotion.getBrownianIncrement(0, 0);
+	}
+
+	/**
+	 * Simulates all time steps of the process.
+	 *
+	 * @return The average of the first component at the last time.
+	 * @throws CalculationException Thrown if the simulation fails.
+	 */
+	@Benchmark
+	public double simulate() throws CalculationException {
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+		return process.getProcessValue(process.getTimeDiscretization().getNumberOfTimeSteps(), model.getNumberOfComponents()-1).getAverage();
+	}
+}
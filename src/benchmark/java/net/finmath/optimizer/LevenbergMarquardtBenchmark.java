@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.optimizer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the calibration of a Nelson-Siegel curve to given points by {@link LevenbergMarquardt}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LevenbergMarquardtBenchmark {
+
+	@Param({ "1", "4" })
+	public int numberOfThreads;
+
+	@Param({ "0", "5" })
+	public int maxNumberOfBroydenUpdates;
+
+	private final double[] times = new double[100];
+	private final double[] targetValues = new double[times.length];
+
+	@Setup
+	public void setup() {
+		final double[] parameters = new double[] { 0.04, -0.02, 0.01, 2.0 };
+		for(int i=0; i<times.length; i++) {
+			times[i] = 0.25 * (i+1);
+			targetValues[i] = getNelsonSiegel(parameters, times[i]);
+		}
+	}
+
+	/**
+	 * Calibrates the four Nelson-Siegel parameters.
+	 *
+	 * @return The first parameter of the best fit.
+	 * @throws SolverException Thrown if the solver fails.
+	 */
+	@Benchmark
+	public double calibrate() throws SolverException {
+		final LevenbergMarquardt optimizer = new LevenbergMarquardt(new double[] { 0.03, 0.0, 0.0, 1.0 }, targetValues, 100, numberOfThreads) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void setValues(final double[] parameters, final double[] values) {
+				for(int i=0; i<times.length; i++) {
+					values[i] = getNelsonSiegel(parameters, times[i]);
+				}
+			}
+		};
+		optimizer.setMaxNumberOfBroydenUpdates(maxNumberOfBroydenUpdates);
+		optimizer.run();
+
+		return optimizer.getBestFitParameters()[0];
+	}
+
+	private static double getNelsonSiegel(final double[] parameters, final double time) {
+		final double x = time / parameters[3];
+		final double decay = (1.0 - Math.exp(-x)) / x;
+		return parameters[0] + parameters[1] * decay + parameters[2] * (decay - Math.exp(-x));
+	}
+}
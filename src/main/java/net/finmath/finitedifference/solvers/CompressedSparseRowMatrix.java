@@ -0,0 +1,200 @@
+package net.finmath.finitedifference.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Square sparse matrix in compressed sparse row (CSR) format.
+ * <p>
+ * The non-zero pattern is given by the row pointers and the column indices:
+ * the entries of row {@code i} are stored at the positions
+ * {@code rowPointers[i], ..., rowPointers[i+1]-1} of the arrays
+ * {@code columnIndices} and {@code values}. Within each row the column
+ * indices are strictly increasing and every row contains its diagonal entry.
+ * <p>
+ * Matrices with the same non-zero pattern share the (immutable) arrays
+ * {@code rowPointers} and {@code columnIndices}, while the array of values is
+ * owned by each matrix and may be modified in place, e.g., to overwrite rows
+ * by Dirichlet conditions.
+ *
+ * @author agent
+ */
+public class CompressedSparseRowMatrix {
+
+	/**
+	 * The offsets of the rows in {@code columnIndices} and {@code values}, of
+	 * length {@code n+1}.
+	 */
+	private final int[] rowPointers;
+
+	/**
+	 * The column indices of the non-zero entries, increasing within each row.
+	 */
+	private final int[] columnIndices;
+
+	/**
+	 * The positions of the diagonal entries in {@code columnIndices} and
+	 * {@code values}.
+	 */
+	private final int[] diagonalPositions;
+
+	/**
+	 * The values of the non-zero entries.
+	 */
+	private final double[] values;
+
+	/**
+	 * Creates a sparse matrix from its CSR representation.
+	 *
+	 * @param rowPointers The offsets of the rows, of length {@code n+1}.
+	 * @param columnIndices The column indices of the entries, strictly
+	 *     increasing within each row.
+	 * @param values The values of the entries.
+	 * @throws IllegalArgumentException If the arrays are inconsistent or a row
+	 *     does not contain its diagonal entry.
+	 */
+	public CompressedSparseRowMatrix(final int[] rowPointers, final int[] columnIndices, final double[] values) {
+		this(rowPointers, columnIndices, getDiagonalPositions(rowPointers, columnIndices), values);
+
+		if (values.length != columnIndices.length || rowPointers[rowPointers.length - 1] != columnIndices.length) {
+			throw new IllegalArgumentException("Arrays of column indices and values have to match the row pointers.");
+		}
+	}
+
+	private CompressedSparseRowMatrix(final int[] rowPointers, final int[] columnIndices, final int[] diagonalPositions, final double[] values) {
+		this.rowPointers = rowPointers;
+		this.columnIndices = columnIndices;
+		this.diagonalPositions = diagonalPositions;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the matrix {@code alpha * I + beta * this}, sharing the non-zero
+	 * pattern of this matrix.
+	 *
+	 * @param alpha The factor of the identity.
+	 * @param beta The factor of this matrix.
+	 * @return A new matrix {@code alpha * I + beta * this}.
+	 */
+	public CompressedSparseRowMatrix getLinearCombinationWithIdentity(final double alpha, final double beta) {
+		final double[] newValues = new double[values.length];
+		for (int k = 0; k < values.length; k++) {
+			newValues[k] = beta * values[k];
+		}
+		for (int i = 0; i < diagonalPositions.length; i++) {
+			newValues[diagonalPositions[i]] += alpha;
+		}
+
+		return new CompressedSparseRowMatrix(rowPointers, columnIndices, diagonalPositions, newValues);
+	}
+
+	/**
+	 * Returns a copy of this matrix with an independent array of values.
+	 *
+	 * @return A copy of this matrix.
+	 */
+	public CompressedSparseRowMatrix copy() {
+		return new CompressedSparseRowMatrix(rowPointers, columnIndices, diagonalPositions, values.clone());
+	}
+
+	/**
+	 * Overwrites a row by the corresponding row of the identity matrix.
+	 *
+	 * @param row The row index.
+	 */
+	public void setRowToIdentity(final int row) {
+		Arrays.fill(values, rowPointers[row], rowPointers[row + 1], 0.0);
+		values[diagonalPositions[row]] = 1.0;
+	}
+
+	/**
+	 * Computes {@code result = this * vector}.
+	 *
+	 * @param vector The vector to multiply.
+	 * @param result The array receiving the result. Must not be the same array
+	 *     as {@code vector}.
+	 */
+	public void multiply(final double[] vector, final double[] result) {
+		for (int i = 0; i < diagonalPositions.length; i++) {
+			double sum = 0.0;
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				sum += values[k] * vector[columnIndices[k]];
+			}
+			result[i] = sum;
+		}
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of the matrix.
+	 *
+	 * @return The dimension of the matrix.
+	 */
+	public int getDimension() {
+		return diagonalPositions.length;
+	}
+
+	/**
+	 * Returns the value of an entry (zero if the entry is not part of the
+	 * non-zero pattern).
+	 *
+	 * @param row The row index.
+	 * @param column The column index.
+	 * @return The value of the entry.
+	 */
+	public double getEntry(final int row, final int column) {
+		final int position = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+		return position >= 0 ? values[position] : 0.0;
+	}
+
+	/**
+	 * Returns the offsets of the rows, of length {@code n+1}.
+	 *
+	 * @return The row pointers.
+	 */
+	public int[] getRowPointers() {
+		return rowPointers;
+	}
+
+	/**
+	 * Returns the column indices of the non-zero entries.
+	 *
+	 * @return The column indices.
+	 */
+	public int[] getColumnIndices() {
+		return columnIndices;
+	}
+
+	/**
+	 * Returns the positions of the diagonal entries.
+	 *
+	 * @return The diagonal positions.
+	 */
+	public int[] getDiagonalPositions() {
+		return diagonalPositions;
+	}
+
+	/**
+	 * Returns the values of the non-zero entries (not a copy).
+	 *
+	 * @return The values.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	private static int[] getDiagonalPositions(final int[] rowPointers, final int[] columnIndices) {
+		final int n = rowPointers.length - 1;
+		final int[] diagonalPositions = new int[n];
+		for (int i = 0; i < n; i++) {
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				if (k > rowPointers[i] && columnIndices[k] <= columnIndices[k - 1]) {
+					throw new IllegalArgumentException("Column indices have to be strictly increasing in row " + i + ".");
+				}
+			}
+			diagonalPositions[i] = Arrays.binarySearch(columnIndices, rowPointers[i], rowPointers[i + 1], i);
+			if (diagonalPositions[i] < 0) {
+				throw new IllegalArgumentException("Row " + i + " does not contain its diagonal entry.");
+			}
+		}
+		return diagonalPositions;
+	}
+}
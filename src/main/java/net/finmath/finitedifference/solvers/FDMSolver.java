@@ -1,5 +1,6 @@
 package net.finmath.finitedifference.solvers;
 
+import java.util.List;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 
@@ -45,10 +46,16 @@ public interface FDMSolver {
 	 * Typical shapes are:
 	 * </p>
 	 * <ul>
-	 *   <li>1D: {@code [nT][nS]}</li>
-	 *   <li>2D: {@code [nT][nS * nV]}</li>
+	 *   <li>1D: {@code [nS][nT]}</li>
+	 *   <li>2D: {@code [nS * nV][nT]}</li>
 	 * </ul>
 	 *
+	 * <p>
+	 * The memory required is of order {@code O(space * time)}. Callers needing
+	 * the solution at a few times only should use
+	 * {@link #getValuesAtTimes(double, DoubleUnaryOperator, double[])}.
+	 * </p>
+	 *
 	 * @param time            The maturity (time to maturity).
 	 * @param valueAtMaturity The payoff function applied at maturity.
 	 * @return The full time-space solution.
@@ -57,6 +64,55 @@ public interface FDMSolver {
 			double time,
 			DoubleUnaryOperator valueAtMaturity);
 
+	/**
+	 * Returns the solution at several evaluation times without keeping the
+	 * full time history.
+	 *
+	 * <p>
+	 * Solvers overriding this method roll back over two time layers only and
+	 * store snapshots at the requested times, so memory is of order
+	 * {@code O(space)} instead of {@code O(space * time)}. The result has shape
+	 * {@code [evaluationTimes.length][nS]} (respectively
+	 * {@code [evaluationTimes.length][nS * nV]}), each row being what
+	 * {@link #getValue(double, double, DoubleUnaryOperator)} returns for the
+	 * corresponding evaluation time. The default implementation performs one
+	 * solve per evaluation time.
+	 * </p>
+	 *
+	 * @param time             The maturity (time to maturity).
+	 * @param valueAtMaturity  The payoff function applied at maturity.
+	 * @param evaluationTimes  The evaluation times.
+	 * @return The solution at the requested evaluation times.
+	 */
+	default double[][] getValuesAtTimes(
+			final double time,
+			final DoubleUnaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		final double[][] values = new double[evaluationTimes.length][];
+		for (int k = 0; k < evaluationTimes.length; k++) {
+			values[k] = getValue(evaluationTimes[k], time, valueAtMaturity);
+		}
+		return values;
+	}
+
+	/**
+	 * Default binary-payoff version of
+	 * {@link #getValuesAtTimes(double, DoubleUnaryOperator, double[])}.
+	 * For solvers that are effectively 1D, the second state variable is
+	 * ignored.
+	 *
+	 * @param time             The maturity (time to maturity).
+	 * @param valueAtMaturity  The payoff function applied at maturity.
+	 * @param evaluationTimes  The evaluation times.
+	 * @return The solution at the requested evaluation times.
+	 */
+	default double[][] getValuesAtTimes(
+			final double time,
+			final DoubleBinaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return getValuesAtTimes(time, x -> valueAtMaturity.applyAsDouble(x, 0.0), evaluationTimes);
+	}
+
 	/**
 	 * Returns the solution at a given evaluation time using a precomputed
 	 * terminal value vector on the spatial grid.
@@ -104,6 +160,40 @@ public interface FDMSolver {
 				getClass().getSimpleName() + " does not support direct terminal-vector initialization.");
 	}
 
+	/**
+	 * Returns the solution at a given evaluation time for a batch of terminal
+	 * conditions valued on the same model and grid.
+	 *
+	 * <p>
+	 * Solvers overriding this method assemble and factorize the time step
+	 * operator once per distinct set of Dirichlet rows and solve all
+	 * right-hand sides against it, so the cost grows with the number of
+	 * distinct operators rather than with the number of terminal conditions.
+	 * The default implementation performs one solve per terminal condition
+	 * and supports only entries without their own product.
+	 * </p>
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param time The maturity time.
+	 * @param terminalConditions The terminal conditions.
+	 * @return The value vectors at the evaluation time, one per terminal condition.
+	 */
+	default double[][] getBatchValues(
+			final double evaluationTime,
+			final double time,
+			final List<FDMTerminalCondition> terminalConditions) {
+		final double[][] values = new double[terminalConditions.size()][];
+		for (int k = 0; k < values.length; k++) {
+			final FDMTerminalCondition terminalCondition = terminalConditions.get(k);
+			if (terminalCondition.getProduct() != null) {
+				throw new UnsupportedOperationException(
+						getClass().getSimpleName() + " does not support batch entries with their own product.");
+			}
+			values[k] = getValue(evaluationTime, time, terminalCondition.getTerminalValues());
+		}
+		return values;
+	}
+
 	/**
 	 * Default binary-payoff version.
 	 * For solvers that are effectively 1D, the second state variable is
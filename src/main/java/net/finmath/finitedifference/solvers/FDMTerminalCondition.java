@@ -0,0 +1,80 @@
+package net.finmath.finitedifference.solvers;
+
+import net.finmath.finitedifference.FiniteDifferenceModel;
+import net.finmath.finitedifference.FiniteDifferenceProduct;
+
+/**
+ * One entry of a batched finite difference valuation, see
+ * {@link FDMSolver#getBatchValues(double, double, java.util.List)}.
+ *
+ * <p>
+ * An entry consists of a terminal value vector on the spatial grid of the
+ * solver and, optionally, a product providing the boundary conditions,
+ * internal state constraints (e.g. barriers) and event conditions of this
+ * entry. If no product is given, the product of the solver is used.
+ * </p>
+ *
+ * <p>
+ * Entries whose products lead to the same Dirichlet rows (outer boundaries
+ * and active internal constraints) share the assembled and factorized time
+ * step operator; only the right-hand sides differ.
+ * </p>
+ *
+ * @author agent
+ */
+public final class FDMTerminalCondition {
+
+	/**
+	 * The product, may be null.
+	 */
+	private final FiniteDifferenceProduct<? extends FiniteDifferenceModel> product;
+	/**
+	 * The terminal values.
+	 */
+	private final double[] terminalValues;
+
+	/**
+	 * Creates a terminal condition using the product of the solver for boundary
+	 * conditions and constraints.
+	 *
+	 * @param terminalValues The terminal values on the (flattened) spatial grid.
+	 */
+	public FDMTerminalCondition(final double[] terminalValues) {
+		this(null, terminalValues);
+	}
+
+	/**
+	 * Creates a terminal condition with its own product specification.
+	 *
+	 * @param product The product providing boundary conditions, internal constraints
+	 *     and event conditions, or null to use the product of the solver.
+	 * @param terminalValues The terminal values on the (flattened) spatial grid.
+	 */
+	public FDMTerminalCondition(
+			final FiniteDifferenceProduct<? extends FiniteDifferenceModel> product,
+			final double[] terminalValues) {
+		if (terminalValues == null) {
+			throw new IllegalArgumentException("terminalValues must not be null.");
+		}
+		this.product = product;
+		this.terminalValues = terminalValues;
+	}
+
+	/**
+	 * Returns the product providing boundary conditions and constraints.
+	 *
+	 * @return The product, or null if the product of the solver is to be used.
+	 */
+	public FiniteDifferenceProduct<? extends FiniteDifferenceModel> getProduct() {
+		return product;
+	}
+
+	/**
+	 * Returns the terminal values on the (flattened) spatial grid.
+	 *
+	 * @return The terminal values.
+	 */
+	public double[] getTerminalValues() {
+		return terminalValues;
+	}
+}
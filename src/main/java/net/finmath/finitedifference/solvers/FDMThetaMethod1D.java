@@ -1,5 +1,8 @@
 package net.finmath.finitedifference.solvers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 
@@ -138,6 +141,53 @@ public class FDMThetaMethod1D implements FDMSolver {
 		}
 	}
 
+	private static final class ThetaTimeStep {
+
+		/**
+		 * The left-hand side operator (at the next time).
+		 */
+		private final TridiagonalMatrix lhs;
+		/**
+		 * The right-hand side operator (at the current time).
+		 */
+		private final TridiagonalMatrix rhsOperator;
+		/**
+		 * The time to maturity at the end of the time step.
+		 */
+		private final double timeToMaturity;
+		/**
+		 * The time at which boundary conditions and constraints are evaluated.
+		 */
+		private final double boundaryTime;
+
+		private ThetaTimeStep(
+				final TridiagonalMatrix lhs,
+				final TridiagonalMatrix rhsOperator,
+				final double timeToMaturity,
+				final double boundaryTime) {
+			this.lhs = lhs;
+			this.rhsOperator = rhsOperator;
+			this.timeToMaturity = timeToMaturity;
+			this.boundaryTime = boundaryTime;
+		}
+
+		private TridiagonalMatrix getLhs() {
+			return lhs;
+		}
+
+		private TridiagonalMatrix getRhsOperator() {
+			return rhsOperator;
+		}
+
+		private double getTimeToMaturity() {
+			return timeToMaturity;
+		}
+
+		private double getBoundaryTime() {
+			return boundaryTime;
+		}
+	}
+
 	/**
 	 * Creates a theta-method finite-difference solver for a one-dimensional
 	 * backward PDE.
@@ -217,15 +267,8 @@ public class FDMThetaMethod1D implements FDMSolver {
 
 	@Override
 	public double[][] getValues(final double time, final DoubleUnaryOperator valueAtMaturity) {
-
-		final double[] xGrid = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
-		final double[] terminalValues = new double[xGrid.length];
-
-		for (int i = 0; i < xGrid.length; i++) {
-			terminalValues[i] = valueAtMaturity.applyAsDouble(xGrid[i]);
-		}
-
-		return getValuesInternal(time, terminalValues, valueAtMaturity, null);
+		return getValuesInternal(time, getTerminalValues(valueAtMaturity), valueAtMaturity, null, createFullHistoryRecorder())
+				.getFullHistory();
 	}
 
 	@Override
@@ -233,14 +276,124 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleUnaryOperator valueAtMaturity) {
+		return getValuesInternal(time, getTerminalValues(valueAtMaturity), valueAtMaturity, null, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
+	}
+
+	@Override
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleUnaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return getValuesInternal(time, getTerminalValues(valueAtMaturity), valueAtMaturity, null, createSnapshotRecorder(time, evaluationTimes))
+				.getSnapshots();
+	}
+
+	/**
+	 * Returns the values at evaluation time for a batch of terminal conditions.
+	 *
+	 * <p>
+	 * The model coefficients and the theta operators are assembled once per
+	 * time step. Entries with the same Dirichlet rows (outer boundaries and
+	 * active internal constraints of their products) share one factorization
+	 * of the left-hand side, see {@link ThomasSolver#solve(double[], double[], double[], double[][])}.
+	 * For each entry the result is identical to the corresponding single
+	 * valuation. Only European exercise is supported.
+	 * </p>
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param time The maturity time.
+	 * @param terminalConditions The terminal conditions.
+	 * @return The value vectors at the evaluation time, one per terminal condition.
+	 */
+	@Override
+	public double[][] getBatchValues(
+			final double evaluationTime,
+			final double time,
+			final List<FDMTerminalCondition> terminalConditions) {
+
+		if (exercise.isBermudan() || exercise.isAmerican()) {
+			throw new IllegalArgumentException("Batch valuation supports European exercise only.");
+		}
+
+		final double[] xGrid = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		final int numberOfGridPoints = xGrid.length;
+		final int numberOfConditions = terminalConditions.size();
+
+		final int numberOfTimeSteps = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps();
+		final int lastTimeIndex = Math.min(
+				TimeLayerRecorder.getTimeIndices(spaceTimeDiscretization.getTimeDiscretization(), time, evaluationTime)[0],
+				numberOfTimeSteps);
+		final double horizon = spaceTimeDiscretization.getTimeDiscretization().getLastTime();
+
+		final FDMThetaMethod1D[] entrySolvers = new FDMThetaMethod1D[numberOfConditions];
+		final double[][] u = new double[numberOfConditions][];
+
+		for (int k = 0; k < numberOfConditions; k++) {
+			final FDMTerminalCondition terminalCondition = terminalConditions.get(k);
+			if (terminalCondition.getTerminalValues().length != numberOfGridPoints) {
+				throw new IllegalArgumentException("terminalValues length does not match spatial grid length.");
+			}
+
+			final FDMThetaMethod1D entrySolver = terminalCondition.getProduct() == null || terminalCondition.getProduct() == product
+					? this
+					: new FDMThetaMethod1D(model, terminalCondition.getProduct(), spaceTimeDiscretization, exercise);
+
+			final BoundaryCondition lowerTerminalCondition = entrySolver.getLowerBoundaryCondition(horizon, xGrid[0]);
+			final BoundaryCondition upperTerminalCondition = entrySolver.getUpperBoundaryCondition(horizon, xGrid[numberOfGridPoints - 1]);
+
+			double[] uk = terminalCondition.getTerminalValues().clone();
+			entrySolver.reimposeInternalConstraints(uk, xGrid, horizon);
+			entrySolver.reimposeBoundaryValues(uk, lowerTerminalCondition, upperTerminalCondition);
+			uk = entrySolver.applyProductEventConditionIfNeeded(horizon, uk);
+			entrySolver.reimposeInternalConstraints(uk, xGrid, horizon);
+			entrySolver.reimposeBoundaryValues(uk, lowerTerminalCondition, upperTerminalCondition);
+
+			entrySolvers[k] = entrySolver;
+			u[k] = uk;
+		}
 
-		final double[][] values = getValues(time, valueAtMaturity);
-		return extractTimeSlice(values, time, evaluationTime);
+		final BoundaryCondition[] lowerConditions = new BoundaryCondition[numberOfConditions];
+		final BoundaryCondition[] upperConditions = new BoundaryCondition[numberOfConditions];
+		final boolean[][] dirichletRows = new boolean[numberOfConditions][];
+		final double[][] rhs = new double[numberOfConditions][];
+
+		for (int m = 0; m < lastTimeIndex; m++) {
+
+			final ThetaTimeStep timeStep = buildThetaTimeStep(xGrid, m);
+			final double boundaryTime = timeStep.getBoundaryTime();
+
+			for (int k = 0; k < numberOfConditions; k++) {
+				final FDMThetaMethod1D entrySolver = entrySolvers[k];
+
+				rhs[k] = ThetaMethod1DAssembly.apply(timeStep.getRhsOperator(), u[k]);
+
+				lowerConditions[k] = entrySolver.getLowerBoundaryCondition(boundaryTime, xGrid[0]);
+				upperConditions[k] = entrySolver.getUpperBoundaryCondition(boundaryTime, xGrid[numberOfGridPoints - 1]);
+
+				dirichletRows[k] = entrySolver.imposeDirichletValues(rhs[k], xGrid, boundaryTime, lowerConditions[k], upperConditions[k]);
+			}
+
+			final double[][] nextU = solveGroupedByDirichletRows(timeStep.getLhs(), dirichletRows, rhs);
+
+			for (int k = 0; k < numberOfConditions; k++) {
+				final FDMThetaMethod1D entrySolver = entrySolvers[k];
+
+				entrySolver.reimposeInternalConstraints(nextU[k], xGrid, boundaryTime);
+				entrySolver.reimposeBoundaryValues(nextU[k], lowerConditions[k], upperConditions[k]);
+
+				u[k] = entrySolver.applyProductEventConditionIfNeeded(boundaryTime, nextU[k]);
+				entrySolver.reimposeInternalConstraints(u[k], xGrid, boundaryTime);
+				entrySolver.reimposeBoundaryValues(u[k], lowerConditions[k], upperConditions[k]);
+			}
+		}
+
+		return u;
 	}
 
 	@Override
 	public double[][] getValues(final double time, final double[] terminalValues) {
-		return getValuesInternal(time, terminalValues, null, null);
+		return getValuesInternal(time, terminalValues, null, null, createFullHistoryRecorder()).getFullHistory();
 	}
 
 	@Override
@@ -248,9 +401,7 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final double[] terminalValues) {
-
-		final double[][] values = getValues(time, terminalValues);
-		return extractTimeSlice(values, time, evaluationTime);
+		return getValuesInternal(time, terminalValues, null, null, createSnapshotRecorder(time, evaluationTime)).getSnapshot();
 	}
 
 	@Override
@@ -258,7 +409,7 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double time,
 			final double[] terminalValues,
 			final DoubleUnaryOperator exerciseValue) {
-		return getValuesInternal(time, terminalValues, exerciseValue, null);
+		return getValuesInternal(time, terminalValues, exerciseValue, null, createFullHistoryRecorder()).getFullHistory();
 	}
 
 	@Override
@@ -267,9 +418,8 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double time,
 			final double[] terminalValues,
 			final DoubleUnaryOperator exerciseValue) {
-
-		final double[][] values = getValues(time, terminalValues, exerciseValue);
-		return extractTimeSlice(values, time, evaluationTime);
+		return getValuesInternal(time, terminalValues, exerciseValue, null, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
 	}
 
 	/**
@@ -284,7 +434,8 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double time,
 			final double[] terminalValues,
 			final DoubleBinaryOperator continuousObstacleValue) {
-		return getValuesInternal(time, terminalValues, null, continuousObstacleValue);
+		return getValuesInternal(time, terminalValues, null, continuousObstacleValue, createFullHistoryRecorder())
+				.getFullHistory();
 	}
 
 	/**
@@ -301,31 +452,43 @@ public class FDMThetaMethod1D implements FDMSolver {
 			final double time,
 			final double[] terminalValues,
 			final DoubleBinaryOperator continuousObstacleValue) {
-
-		final double[][] values = getValues(time, terminalValues, continuousObstacleValue);
-		return extractTimeSlice(values, time, evaluationTime);
+		return getValuesInternal(time, terminalValues, null, continuousObstacleValue, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
 	}
 
-	private double[] extractTimeSlice(
-			final double[][] values,
-			final double time,
-			final double evaluationTime) {
+	private double[] getTerminalValues(final DoubleUnaryOperator valueAtMaturity) {
 
-		final double tau = time - evaluationTime;
-		final int timeIndex = spaceTimeDiscretization.getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
+		final double[] xGrid = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		final double[] terminalValues = new double[xGrid.length];
 
-		final double[] column = new double[values.length];
-		for (int i = 0; i < values.length; i++) {
-			column[i] = values[i][timeIndex];
+		for (int i = 0; i < xGrid.length; i++) {
+			terminalValues[i] = valueAtMaturity.applyAsDouble(xGrid[i]);
 		}
-		return column;
+		return terminalValues;
+	}
+
+	private TimeLayerRecorder createFullHistoryRecorder() {
+		return TimeLayerRecorder.ofFullHistory(
+				spaceTimeDiscretization.getSpaceGrid(0).getGrid().length,
+				spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps() + 1);
 	}
 
-	private double[][] getValuesInternal(
+	private TimeLayerRecorder createSnapshotRecorder(final double time, final double... evaluationTimes) {
+		return TimeLayerRecorder.ofTimeIndices(
+				TimeLayerRecorder.getTimeIndices(spaceTimeDiscretization.getTimeDiscretization(), time, evaluationTimes));
+	}
+
+	/**
+	 * Rolls the solution back from maturity, keeping only the current time layer
+	 * and passing every computed layer to the recorder. The roll-back stops at the
+	 * last time index required by the recorder.
+	 */
+	private TimeLayerRecorder getValuesInternal(
 			final double time,
 			final double[] terminalValues,
 			final DoubleUnaryOperator exerciseValue,
-			final DoubleBinaryOperator continuousObstacleValue) {
+			final DoubleBinaryOperator continuousObstacleValue,
+			final TimeLayerRecorder recorder) {
 
 		final double[] xGrid = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
 		final int numberOfGridPoints = xGrid.length;
@@ -347,13 +510,11 @@ public class FDMThetaMethod1D implements FDMSolver {
 					"Non-European exercise requires a pointwise exercise payoff function.");
 		}
 
-		final double theta = spaceTimeDiscretization.getTheta();
-		final int timeLength = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps() + 1;
 		final int numberOfTimeSteps = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps();
+		final int lastTimeIndex = Math.min(recorder.getLastTimeIndex(), numberOfTimeSteps);
 		final double horizon = spaceTimeDiscretization.getTimeDiscretization().getLastTime();
 
 		double[] u = terminalValues.clone();
-		final double[][] z = new double[numberOfGridPoints][timeLength];
 
 		final BoundaryCondition lowerTerminalCondition = getLowerBoundaryCondition(horizon, xGrid[0]);
 		final BoundaryCondition upperTerminalCondition = getUpperBoundaryCondition(horizon, xGrid[numberOfGridPoints - 1]);
@@ -364,73 +525,28 @@ public class FDMThetaMethod1D implements FDMSolver {
 		reimposeInternalConstraints(u, xGrid, horizon);
 		reimposeBoundaryValues(u, lowerTerminalCondition, upperTerminalCondition);
 
-		for (int i = 0; i < numberOfGridPoints; i++) {
-			z[i][0] = u[i];
-		}
-
-		for (int m = 0; m < numberOfTimeSteps; m++) {
-
-			final double deltaTau = spaceTimeDiscretization.getTimeDiscretization().getTimeStep(m);
-
-			final double tm = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - m);
-			final double tmp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - (m + 1));
-
-			final ModelCoefficients coefficientsAtCurrentTime = buildModelCoefficients(xGrid, tm);
-			final ModelCoefficients coefficientsAtNextTime = buildModelCoefficients(xGrid, tmp1);
-
-			final TridiagonalMatrix lhs = new TridiagonalMatrix(numberOfGridPoints);
-			final TridiagonalMatrix rhsOperator = new TridiagonalMatrix(numberOfGridPoints);
+		recorder.record(0, u);
 
-			ThetaMethod1DAssembly.buildThetaLeftHandSide(
-					lhs,
-					xGrid,
-					coefficientsAtNextTime.getDrift(),
-					coefficientsAtNextTime.getVariance(),
-					coefficientsAtNextTime.getLocalDiscountRate(),
-					deltaTau,
-					theta
-					);
-
-			ThetaMethod1DAssembly.buildThetaRightHandSide(
-					rhsOperator,
-					xGrid,
-					coefficientsAtCurrentTime.getDrift(),
-					coefficientsAtCurrentTime.getVariance(),
-					coefficientsAtCurrentTime.getLocalDiscountRate(),
-					deltaTau,
-					theta
-					);
+		for (int m = 0; m < lastTimeIndex; m++) {
 
-			final double[] rhs = ThetaMethod1DAssembly.apply(rhsOperator, u);
+			final ThetaTimeStep timeStep = buildThetaTimeStep(xGrid, m);
+			final TridiagonalMatrix lhs = timeStep.getLhs();
+			final double boundaryTime = timeStep.getBoundaryTime();
 
-			final double tauMp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(m + 1);
-			final double boundaryTime = horizon - tauMp1;
+			final double[] rhs = ThetaMethod1DAssembly.apply(timeStep.getRhsOperator(), u);
 
 			final BoundaryCondition lowerCondition = getLowerBoundaryCondition(boundaryTime, xGrid[0]);
 			final BoundaryCondition upperCondition = getUpperBoundaryCondition(boundaryTime, xGrid[numberOfGridPoints - 1]);
 
-			if (lowerCondition.isDirichlet()) {
-				ThetaMethod1DAssembly.overwriteAsDirichlet(lhs, rhs, 0, lowerCondition.getValue());
-			}
-
-			if (upperCondition.isDirichlet()) {
-				ThetaMethod1DAssembly.overwriteAsDirichlet(lhs, rhs, numberOfGridPoints - 1, upperCondition.getValue());
-			}
-
-			for (int i = 1; i < numberOfGridPoints - 1; i++) {
-				final double x = xGrid[i];
-				if (isInternalConstraintActive(boundaryTime, x)) {
-					ThetaMethod1DAssembly.overwriteAsDirichlet(
-							lhs,
-							rhs,
-							i,
-							getInternalConstrainedValue(boundaryTime, x)
-							);
+			final boolean[] dirichletRows = imposeDirichletValues(rhs, xGrid, boundaryTime, lowerCondition, upperCondition);
+			for (int i = 0; i < numberOfGridPoints; i++) {
+				if (dirichletRows[i]) {
+					ThetaMethod1DAssembly.overwriteAsDirichlet(lhs, rhs, i, rhs[i]);
 				}
 			}
 
 			final boolean isExerciseDate =
-					FiniteDifferenceExerciseUtil.isExerciseAllowedAtTimeToMaturity(tauMp1, exercise);
+					FiniteDifferenceExerciseUtil.isExerciseAllowedAtTimeToMaturity(timeStep.getTimeToMaturity(), exercise);
 
 			final double[] nextU;
 
@@ -499,12 +615,142 @@ public class FDMThetaMethod1D implements FDMSolver {
 			reimposeInternalConstraints(u, xGrid, boundaryTime);
 			reimposeBoundaryValues(u, lowerCondition, upperCondition);
 
+			recorder.record(m + 1, u);
+		}
+
+		return recorder;
+	}
+
+	/**
+	 * Assembles the theta operators of the time step m, i.e., from time to maturity
+	 * tau_m to tau_{m+1}, using the model coefficients at both ends of the step.
+	 * Used by the single and the batched valuation.
+	 */
+	private ThetaTimeStep buildThetaTimeStep(final double[] xGrid, final int m) {
+
+		final int numberOfGridPoints = xGrid.length;
+		final double theta = spaceTimeDiscretization.getTheta();
+		final int numberOfTimeSteps = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps();
+		final double horizon = spaceTimeDiscretization.getTimeDiscretization().getLastTime();
+
+		final double deltaTau = spaceTimeDiscretization.getTimeDiscretization().getTimeStep(m);
+
+		final double tm = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - m);
+		final double tmp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - (m + 1));
+
+		final ModelCoefficients coefficientsAtCurrentTime = buildModelCoefficients(xGrid, tm);
+		final ModelCoefficients coefficientsAtNextTime = buildModelCoefficients(xGrid, tmp1);
+
+		final TridiagonalMatrix lhs = new TridiagonalMatrix(numberOfGridPoints);
+		final TridiagonalMatrix rhsOperator = new TridiagonalMatrix(numberOfGridPoints);
+
+		ThetaMethod1DAssembly.buildThetaLeftHandSide(
+				lhs,
+				xGrid,
+				coefficientsAtNextTime.getDrift(),
+				coefficientsAtNextTime.getVariance(),
+				coefficientsAtNextTime.getLocalDiscountRate(),
+				deltaTau,
+				theta
+				);
+
+		ThetaMethod1DAssembly.buildThetaRightHandSide(
+				rhsOperator,
+				xGrid,
+				coefficientsAtCurrentTime.getDrift(),
+				coefficientsAtCurrentTime.getVariance(),
+				coefficientsAtCurrentTime.getLocalDiscountRate(),
+				deltaTau,
+				theta
+				);
+
+		final double tauMp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(m + 1);
+		final double boundaryTime = horizon - tauMp1;
+
+		return new ThetaTimeStep(lhs, rhsOperator, tauMp1, boundaryTime);
+	}
+
+	/**
+	 * Overwrites the entries of the right-hand side belonging to Dirichlet rows,
+	 * i.e., Dirichlet outer boundaries and active internal constraints, by their
+	 * values and returns the flags of these rows.
+	 */
+	private boolean[] imposeDirichletValues(
+			final double[] rhs,
+			final double[] xGrid,
+			final double boundaryTime,
+			final BoundaryCondition lowerCondition,
+			final BoundaryCondition upperCondition) {
+
+		final int numberOfGridPoints = xGrid.length;
+		final boolean[] dirichletRows = new boolean[numberOfGridPoints];
+
+		if (lowerCondition.isDirichlet()) {
+			dirichletRows[0] = true;
+			rhs[0] = lowerCondition.getValue();
+		}
+		if (upperCondition.isDirichlet()) {
+			dirichletRows[numberOfGridPoints - 1] = true;
+			rhs[numberOfGridPoints - 1] = upperCondition.getValue();
+		}
+		for (int i = 1; i < numberOfGridPoints - 1; i++) {
+			if (isInternalConstraintActive(boundaryTime, xGrid[i])) {
+				dirichletRows[i] = true;
+				rhs[i] = getInternalConstrainedValue(boundaryTime, xGrid[i]);
+			}
+		}
+
+		return dirichletRows;
+	}
+
+	/**
+	 * Solves {@code lhs x = rhs[k]} for all right-hand sides, where the rows
+	 * flagged in {@code dirichletRows[k]} are replaced by identity rows. Right-hand
+	 * sides with equal Dirichlet rows share one factorization.
+	 */
+	private static double[][] solveGroupedByDirichletRows(
+			final TridiagonalMatrix lhs,
+			final boolean[][] dirichletRows,
+			final double[][] rhs) {
+
+		final int numberOfGridPoints = lhs.getMainDiagonal().length;
+		final double[][] solutions = new double[rhs.length][];
+
+		for (int k = 0; k < rhs.length; k++) {
+			if (solutions[k] != null) {
+				continue;
+			}
+
+			final List<Integer> group = new ArrayList<>();
+			for (int l = k; l < rhs.length; l++) {
+				if (solutions[l] == null && Arrays.equals(dirichletRows[k], dirichletRows[l])) {
+					group.add(l);
+				}
+			}
+
+			final double[] lower = lhs.getLowerDiagonal().clone();
+			final double[] diagonal = lhs.getMainDiagonal().clone();
+			final double[] upper = lhs.getUpperDiagonal().clone();
 			for (int i = 0; i < numberOfGridPoints; i++) {
-				z[i][m + 1] = u[i];
+				if (dirichletRows[k][i]) {
+					lower[i] = 0.0;
+					diagonal[i] = 1.0;
+					upper[i] = 0.0;
+				}
+			}
+
+			final double[][] groupRhs = new double[group.size()][];
+			for (int g = 0; g < group.size(); g++) {
+				groupRhs[g] = rhs[group.get(g)];
+			}
+
+			final double[][] groupSolutions = ThomasSolver.solve(lower, diagonal, upper, groupRhs);
+			for (int g = 0; g < group.size(); g++) {
+				solutions[group.get(g)] = groupSolutions[g];
 			}
 		}
 
-		return z;
+		return solutions;
 	}
 
 	private void validateModelProductCompatibility() {
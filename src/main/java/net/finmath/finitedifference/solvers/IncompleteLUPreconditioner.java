@@ -0,0 +1,105 @@
+package net.finmath.finitedifference.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Incomplete LU factorization with zero fill-in (ILU(0)) of a
+ * {@link CompressedSparseRowMatrix}.
+ * <p>
+ * The factors {@code L} (unit lower triangular) and {@code U} (upper
+ * triangular) have the non-zero pattern of the matrix {@code A} and satisfy
+ * {@code (L U)_{ij} = A_{ij}} on that pattern. For the banded nine-point
+ * stencils of two-dimensional finite difference operators the factorization
+ * and each application cost {@code O(nnz)}.
+ * <p>
+ * The preconditioner is immutable after construction and may be shared
+ * across time steps as long as the matrix does not change.
+ *
+ * @author agent
+ */
+public class IncompleteLUPreconditioner {
+
+	/**
+	 * The matrix whose values are replaced by the factors.
+	 */
+	private final CompressedSparseRowMatrix factors;
+
+	/**
+	 * Computes the ILU(0) factorization of a matrix.
+	 *
+	 * @param matrix The matrix. It is not modified.
+	 * @throws IllegalArgumentException If a pivot is numerically zero.
+	 */
+	public IncompleteLUPreconditioner(final CompressedSparseRowMatrix matrix) {
+		factors = matrix.copy();
+
+		final int n = factors.getDimension();
+		final int[] rowPointers = factors.getRowPointers();
+		final int[] columnIndices = factors.getColumnIndices();
+		final int[] diagonalPositions = factors.getDiagonalPositions();
+		final double[] values = factors.getValues();
+
+		// Maps a column index to its position in the current row (or -1)
+		final int[] positionOfColumn = new int[n];
+		Arrays.fill(positionOfColumn, -1);
+
+		for (int i = 0; i < n; i++) {
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				positionOfColumn[columnIndices[k]] = k;
+			}
+
+			for (int k = rowPointers[i]; k < diagonalPositions[i]; k++) {
+				final int pivotRow = columnIndices[k];
+				final double pivot = values[diagonalPositions[pivotRow]];
+				if (Math.abs(pivot) < 1E-300) {
+					throw new IllegalArgumentException("Incomplete LU factorization failed due to zero pivot at row " + pivotRow + ".");
+				}
+
+				final double factor = values[k] / pivot;
+				values[k] = factor;
+				for (int l = diagonalPositions[pivotRow] + 1; l < rowPointers[pivotRow + 1]; l++) {
+					final int position = positionOfColumn[columnIndices[l]];
+					if (position >= 0) {
+						values[position] -= factor * values[l];
+					}
+				}
+			}
+
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				positionOfColumn[columnIndices[k]] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code result = (L U)^{-1} vector} by forward and backward
+	 * substitution.
+	 *
+	 * @param vector The vector.
+	 * @param result The array receiving the result. May be the same array as
+	 *     {@code vector}.
+	 */
+	public void apply(final double[] vector, final double[] result) {
+		final int n = factors.getDimension();
+		final int[] rowPointers = factors.getRowPointers();
+		final int[] columnIndices = factors.getColumnIndices();
+		final int[] diagonalPositions = factors.getDiagonalPositions();
+		final double[] values = factors.getValues();
+
+		for (int i = 0; i < n; i++) {
+			double sum = vector[i];
+			for (int k = rowPointers[i]; k < diagonalPositions[i]; k++) {
+				sum -= values[k] * result[columnIndices[k]];
+			}
+			result[i] = sum;
+		}
+
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = result[i];
+			for (int k = diagonalPositions[i] + 1; k < rowPointers[i + 1]; k++) {
+				sum -= values[k] * result[columnIndices[k]];
+			}
+			result[i] = sum / values[diagonalPositions[i]];
+		}
+	}
+}
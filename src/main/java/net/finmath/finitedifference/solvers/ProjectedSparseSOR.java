@@ -0,0 +1,102 @@
+package net.finmath.finitedifference.solvers;
+
+/**
+ * Utility class providing a projected successive over-relaxation (PSOR)
+ * algorithm for sparse linear complementarity problems.
+ * <p>
+ * The class solves problems of the form
+ * </p>
+ * <pre>
+ *     A x >= b
+ *     x >= obstacle
+ *     (A x - b)_i (x_i - obstacle_i) = 0
+ * </pre>
+ * <p>
+ * where {@code A} is given as a {@link CompressedSparseRowMatrix}. It is the
+ * sparse counterpart of {@link ProjectedTridiagonalSOR} and is used for the
+ * nine-point stencils of two-dimensional finite difference discretizations,
+ * where each sweep costs {@code O(nnz)}.
+ * </p>
+ *
+ * @author agent
+ */
+public final class ProjectedSparseSOR {
+
+	/**
+	 * Creates no instances of this utility class.
+	 */
+	private ProjectedSparseSOR() {
+	}
+
+	/**
+	 * Solves a sparse linear complementarity problem using projected SOR.
+	 * <p>
+	 * Before the iteration starts, the initial guess is projected onto the
+	 * admissible region {@code x >= obstacle}. The iteration stops early once
+	 * the maximum absolute update size falls below the tolerance.
+	 * </p>
+	 *
+	 * @param matrix The system matrix.
+	 * @param rhs The right-hand side vector {@code b}.
+	 * @param obstacle The obstacle vector defining the lower bound constraint
+	 * 		{@code x >= obstacle}.
+	 * @param initialGuess The initial iterate used to start the PSOR iteration.
+	 * @param omega The relaxation parameter.
+	 * @param maxIterations The maximum number of PSOR iterations.
+	 * @param tolerance The stopping tolerance for the maximum absolute change
+	 * 		between two consecutive iterates.
+	 * @return An approximate solution of the linear complementarity problem.
+	 * @throws IllegalArgumentException If a diagonal entry is numerically zero.
+	 */
+	public static double[] solve(
+			final CompressedSparseRowMatrix matrix,
+			final double[] rhs,
+			final double[] obstacle,
+			final double[] initialGuess,
+			final double omega,
+			final int maxIterations,
+			final double tolerance) {
+
+		final int n = matrix.getDimension();
+		final int[] rowPointers = matrix.getRowPointers();
+		final int[] columnIndices = matrix.getColumnIndices();
+		final int[] diagonalPositions = matrix.getDiagonalPositions();
+		final double[] values = matrix.getValues();
+
+		final double[] x = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = Math.max(initialGuess[i], obstacle[i]);
+		}
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			double maxChange = 0.0;
+
+			for (int i = 0; i < n; i++) {
+				final double diagonal = values[diagonalPositions[i]];
+				if (Math.abs(diagonal) < 1E-14) {
+					throw new IllegalArgumentException("Projected SOR failed due to near-zero diagonal entry at row " + i + ".");
+				}
+
+				double sum = 0.0;
+				for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+					if (k != diagonalPositions[i]) {
+						sum += values[k] * x[columnIndices[k]];
+					}
+				}
+
+				final double gaussSeidelValue = (rhs[i] - sum) / diagonal;
+				final double relaxedValue = (1.0 - omega) * x[i] + omega * gaussSeidelValue;
+				final double projectedValue = Math.max(obstacle[i], relaxedValue);
+
+				maxChange = Math.max(maxChange, Math.abs(projectedValue - x[i]));
+				x[i] = projectedValue;
+			}
+
+			if (maxChange < tolerance) {
+				break;
+			}
+		}
+
+		return x;
+	}
+}
@@ -0,0 +1,164 @@
+package net.finmath.finitedifference.solvers;
+
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Collects the time layers produced by a backward finite difference roll-back.
+ *
+ * <p>
+ * A solver rolling back from maturity only needs the current and the next time
+ * layer to advance. This class decides which of the produced layers are kept:
+ * </p>
+ * <ul>
+ *   <li>{@link #ofFullHistory(int, int)} keeps every layer and returns the
+ *       legacy {@code [space][time]} surface,</li>
+ *   <li>{@link #ofTimeIndices(int[])} keeps only snapshots at the requested
+ *       time indices, so memory stays {@code O(space)} for a fixed number of
+ *       snapshots.</li>
+ * </ul>
+ *
+ * <p>
+ * Time indices refer to the time-to-maturity discretization of the solver,
+ * that is, index {@code 0} is the maturity layer. The roll-back may stop once
+ * {@link #getLastTimeIndex()} has been recorded.
+ * </p>
+ *
+ * @author agent
+ */
+public final class TimeLayerRecorder {
+
+	private final int[] timeIndices;
+	private final double[][] snapshots;
+	private final double[][] fullHistory;
+	private final int lastTimeIndex;
+
+	private TimeLayerRecorder(final int[] timeIndices, final double[][] fullHistory, final int lastTimeIndex) {
+		this.timeIndices = timeIndices;
+		this.snapshots = timeIndices != null ? new double[timeIndices.length][] : null;
+		this.fullHistory = fullHistory;
+		this.lastTimeIndex = lastTimeIndex;
+	}
+
+	/**
+	 * Creates a recorder keeping every time layer.
+	 *
+	 * @param numberOfSpacePoints The number of (flattened) space points.
+	 * @param numberOfTimeLayers The number of time layers, i.e. number of time steps plus one.
+	 * @return A recorder for the full time history.
+	 */
+	public static TimeLayerRecorder ofFullHistory(final int numberOfSpacePoints, final int numberOfTimeLayers) {
+		return new TimeLayerRecorder(null, new double[numberOfSpacePoints][numberOfTimeLayers], numberOfTimeLayers - 1);
+	}
+
+	/**
+	 * Creates a recorder keeping snapshots at the given time-to-maturity indices only.
+	 *
+	 * @param timeIndices The time indices of the snapshots (in any order, duplicates allowed).
+	 * @return A recorder for the given snapshots.
+	 */
+	public static TimeLayerRecorder ofTimeIndices(final int... timeIndices) {
+		if (timeIndices == null || timeIndices.length == 0) {
+			throw new IllegalArgumentException("At least one time index is required.");
+		}
+
+		int lastTimeIndex = 0;
+		for (final int timeIndex : timeIndices) {
+			if (timeIndex < 0) {
+				throw new IllegalArgumentException("Time indices must not be negative.");
+			}
+			lastTimeIndex = Math.max(lastTimeIndex, timeIndex);
+		}
+		return new TimeLayerRecorder(timeIndices.clone(), null, lastTimeIndex);
+	}
+
+	/**
+	 * Maps evaluation times to the time-to-maturity indices used by the solvers,
+	 * applying the same nearest-less-or-equal convention as the single time
+	 * {@code getValue} methods.
+	 *
+	 * @param timeDiscretization The time-to-maturity discretization of the solver.
+	 * @param time The maturity time.
+	 * @param evaluationTimes The evaluation times.
+	 * @return The corresponding time indices.
+	 */
+	public static int[] getTimeIndices(
+			final TimeDiscretization timeDiscretization,
+			final double time,
+			final double... evaluationTimes) {
+
+		final int[] timeIndices = new int[evaluationTimes.length];
+		for (int k = 0; k < evaluationTimes.length; k++) {
+			final int timeIndex = timeDiscretization.getTimeIndexNearestLessOrEqual(time - evaluationTimes[k]);
+			if (timeIndex < 0) {
+				throw new IllegalArgumentException("Evaluation time " + evaluationTimes[k] + " is after the maturity " + time + ".");
+			}
+			timeIndices[k] = timeIndex;
+		}
+		return timeIndices;
+	}
+
+	/**
+	 * Returns the largest time index this recorder needs. Layers beyond it do not
+	 * have to be computed.
+	 *
+	 * @return The largest time index required.
+	 */
+	public int getLastTimeIndex() {
+		return lastTimeIndex;
+	}
+
+	/**
+	 * Records a time layer. The layer is copied where it has to be kept, so the
+	 * caller may reuse or overwrite the array afterwards.
+	 *
+	 * @param timeIndex The time-to-maturity index of the layer.
+	 * @param layer The solution on the (flattened) space grid.
+	 */
+	public void record(final int timeIndex, final double[] layer) {
+		if (fullHistory != null) {
+			for (int i = 0; i < layer.length; i++) {
+				fullHistory[i][timeIndex] = layer[i];
+			}
+			return;
+		}
+
+		for (int k = 0; k < timeIndices.length; k++) {
+			if (timeIndices[k] == timeIndex) {
+				snapshots[k] = layer.clone();
+			}
+		}
+	}
+
+	/**
+	 * Returns the full time history, indexed by space index and time index.
+	 *
+	 * @return The full time history.
+	 */
+	public double[][] getFullHistory() {
+		if (fullHistory == null) {
+			throw new IllegalStateException("This recorder keeps snapshots only.");
+		}
+		return fullHistory;
+	}
+
+	/**
+	 * Returns the snapshots, indexed by the position of the requested time index and space index.
+	 *
+	 * @return The snapshots.
+	 */
+	public double[][] getSnapshots() {
+		if (snapshots == null) {
+			throw new IllegalStateException("This recorder keeps the full history.");
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Returns the single snapshot of a recorder created for one time index.
+	 *
+	 * @return The snapshot.
+	 */
+	public double[] getSnapshot() {
+		return getSnapshots()[0];
+	}
+}
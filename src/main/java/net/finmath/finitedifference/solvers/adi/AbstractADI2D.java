@@ -3,9 +3,6 @@ package net.finmath.finitedifference.solvers.adi;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
-
 import net.finmath.finitedifference.FiniteDifferenceExerciseUtil;
 import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
 import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityEventProduct;
@@ -15,7 +12,7 @@ import net.finmath.finitedifference.boundaries.BoundaryCondition;
 import net.finmath.finitedifference.grids.Grid;
 import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
 import net.finmath.finitedifference.solvers.FDMSolver;
-import net.finmath.finitedifference.solvers.ThomasSolver;
+import net.finmath.finitedifference.solvers.TimeLayerRecorder;
 import net.finmath.finitedifference.solvers.TridiagonalMatrix;
 import net.finmath.modelling.Exercise;
 
@@ -254,7 +251,8 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
 			final DoubleTernaryOperator continuousObstacleValue) {
-		return getValuesInternal(time, valueAtMaturity, null, continuousObstacleValue);
+		return rollBack(time, valueAtMaturity, null, continuousObstacleValue, createFullHistoryRecorder())
+				.getFullHistory();
 	}
 
 	/**
@@ -272,13 +270,8 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
 			final DoubleTernaryOperator continuousObstacleValue) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(
-				getValuesWithContinuousObstacle(time, valueAtMaturity, continuousObstacleValue)
-				);
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return rollBack(time, valueAtMaturity, null, continuousObstacleValue, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
 	}
 
 	/**
@@ -293,29 +286,81 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
 			final DoubleTernaryOperator exerciseValue) {
-		return getValuesInternal(time, valueAtMaturity, exerciseValue, null);
+		return rollBack(time, valueAtMaturity, exerciseValue, null, createFullHistoryRecorder()).getFullHistory();
+	}
+
+	/**
+	 * Returns the values at several evaluation times, keeping only the current
+	 * time layer and the requested snapshots in memory.
+	 *
+	 * @param time Maturity time.
+	 * @param valueAtMaturity Terminal payoff.
+	 * @param evaluationTimes Evaluation times.
+	 * @return Value vectors on the flattened space grid, one per evaluation time.
+	 */
+	@Override
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleUnaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return getValuesAtTimes(time, (x0, x1) -> valueAtMaturity.applyAsDouble(x0), evaluationTimes);
+	}
+
+	/**
+	 * Returns the values at several evaluation times for a two-dimensional
+	 * terminal payoff, keeping only the current time layer and the requested
+	 * snapshots in memory.
+	 *
+	 * @param time Maturity time.
+	 * @param valueAtMaturity Terminal payoff.
+	 * @param evaluationTimes Evaluation times.
+	 * @return Value vectors on the flattened space grid, one per evaluation time.
+	 */
+	@Override
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleBinaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return rollBack(
+				time,
+				valueAtMaturity,
+				(runningTime, x0, x1) -> valueAtMaturity.applyAsDouble(x0, x1),
+				null,
+				createSnapshotRecorder(time, evaluationTimes)).getSnapshots();
 	}
 
-	private double[][] getValuesInternal(
+	/**
+	 * Rolls the solution back from maturity, passing every computed time layer to
+	 * the given recorder. Only the current layer is kept by the time stepping;
+	 * the roll-back stops at the last time index required by the recorder.
+	 *
+	 * <p>
+	 * Subclasses with additional per-step conditions override this method, so
+	 * that full surfaces and snapshots share the same time stepping.
+	 * </p>
+	 *
+	 * @param time Maturity time.
+	 * @param valueAtMaturity Terminal payoff.
+	 * @param exerciseValue Exercise payoff, may be null.
+	 * @param continuousObstacleValue Continuous obstacle value, may be null.
+	 * @param recorder Recorder receiving the time layers.
+	 * @return The recorder.
+	 */
+	protected TimeLayerRecorder rollBack(
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
 			final DoubleTernaryOperator exerciseValue,
-			final DoubleTernaryOperator continuousObstacleValue) {
+			final DoubleTernaryOperator continuousObstacleValue,
+			final TimeLayerRecorder recorder) {
 
 		if (exerciseValue != null && continuousObstacleValue != null) {
 			throw new IllegalArgumentException(
 					"Provide either a discrete exercise obstacle or a continuous obstacle, not both.");
 		}
 
-		final int timeLength = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps() + 1;
-		final int numberOfTimeSteps = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps();
+		final int lastTimeIndex = getLastTimeIndex(recorder);
 
-		double[] u = new double[getN()];
-		for (int j = 0; j < getN1(); j++) {
-			for (int i = 0; i < getN0(); i++) {
-				u[flatten(i, j)] = valueAtMaturity.applyAsDouble(getX0Grid()[i], getX1Grid()[j]);
-			}
-		}
+		double[] u = getTerminalValues(valueAtMaturity);
 
 		applyOuterBoundaries(time, u);
 		applyInternalConstraints(time, u);
@@ -324,10 +369,9 @@ public abstract class AbstractADI2D implements FDMSolver {
 		applyOuterBoundaries(time, u);
 		u = sanitize(u);
 
-		final RealMatrix solutionSurface = new Array2DRowRealMatrix(getN(), timeLength);
-		solutionSurface.setColumn(0, u.clone());
+		recorder.record(0, u);
 
-		for (int m = 0; m < numberOfTimeSteps; m++) {
+		for (int m = 0; m < lastTimeIndex; m++) {
 			final double dt = getSpaceTimeDiscretization().getTimeDiscretization().getTimeStep(m);
 
 			final double tauNext = getSpaceTimeDiscretization().getTimeDiscretization().getTime(m + 1);
@@ -352,10 +396,49 @@ public abstract class AbstractADI2D implements FDMSolver {
 
 			u = sanitize(u);
 
-			solutionSurface.setColumn(m + 1, u.clone());
+			recorder.record(m + 1, u);
 		}
 
-		return solutionSurface.getData();
+		return recorder;
+	}
+
+	/**
+	 * Returns the terminal layer on the flattened space grid.
+	 *
+	 * @param valueAtMaturity Terminal payoff.
+	 * @return Terminal values.
+	 */
+	protected double[] getTerminalValues(final DoubleBinaryOperator valueAtMaturity) {
+		final double[] u = new double[getN()];
+		for (int j = 0; j < getN1(); j++) {
+			for (int i = 0; i < getN0(); i++) {
+				u[flatten(i, j)] = valueAtMaturity.applyAsDouble(getX0Grid()[i], getX1Grid()[j]);
+			}
+		}
+		return u;
+	}
+
+	/**
+	 * Returns the number of time steps to perform for the given recorder.
+	 *
+	 * @param recorder Recorder receiving the time layers.
+	 * @return Index of the last time layer to compute.
+	 */
+	protected int getLastTimeIndex(final TimeLayerRecorder recorder) {
+		return Math.min(
+				recorder.getLastTimeIndex(),
+				getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps());
+	}
+
+	private TimeLayerRecorder createFullHistoryRecorder() {
+		return TimeLayerRecorder.ofFullHistory(
+				getN(),
+				getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps() + 1);
+	}
+
+	private TimeLayerRecorder createSnapshotRecorder(final double time, final double... evaluationTimes) {
+		return TimeLayerRecorder.ofTimeIndices(
+				TimeLayerRecorder.getTimeIndices(getSpaceTimeDiscretization().getTimeDiscretization(), time, evaluationTimes));
 	}
 
 	/**
@@ -372,11 +455,7 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleUnaryOperator valueAtMaturity) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getValue(evaluationTime, time, (x0, x1) -> valueAtMaturity.applyAsDouble(x0));
 	}
 
 	/**
@@ -393,11 +472,11 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getValue(
+				evaluationTime,
+				time,
+				valueAtMaturity,
+				(runningTime, x0, x1) -> valueAtMaturity.applyAsDouble(x0, x1));
 	}
 
 	/**
@@ -415,11 +494,8 @@ public abstract class AbstractADI2D implements FDMSolver {
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
 			final DoubleTernaryOperator exerciseValue) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity, exerciseValue));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return rollBack(time, valueAtMaturity, exerciseValue, null, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
 	}
 
 	/**
@@ -621,10 +697,10 @@ public abstract class AbstractADI2D implements FDMSolver {
 
 		final double[] out = rhs.clone();
 
-		for (int j = 0; j < getN1(); j++) {
+		ADILineSolver.forEachLine(getN1(), getN0(), (j, workspace) -> {
 			final TridiagonalMatrix m = getStencilBuilder().buildFirstDirectionLineMatrix(time, dt, getTheta(), j);
 
-			final double[] lineRhs = new double[getN0()];
+			final double[] lineRhs = workspace.getLineRhs();
 			for (int i = 0; i < getN0(); i++) {
 				lineRhs[i] = rhs[flatten(i, j)];
 			}
@@ -635,12 +711,12 @@ public abstract class AbstractADI2D implements FDMSolver {
 			overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
 			overwriteBoundaryRow(m, lineRhs, getN0() - 1, upperBoundaryValue);
 
-			final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			final double[] solved = workspace.solve(m);
 
 			for (int i = 0; i < getN0(); i++) {
 				out[flatten(i, j)] = solved[i];
 			}
-		}
+		});
 
 		return out;
 	}
@@ -652,10 +728,10 @@ public abstract class AbstractADI2D implements FDMSolver {
 
 		final double[] out = rhs.clone();
 
-		for (int i = 0; i < getN0(); i++) {
+		ADILineSolver.forEachLine(getN0(), getN1(), (i, workspace) -> {
 			final TridiagonalMatrix m = getStencilBuilder().buildSecondDirectionLineMatrix(time, dt, getTheta(), i);
 
-			final double[] lineRhs = new double[getN1()];
+			final double[] lineRhs = workspace.getLineRhs();
 			for (int j = 0; j < getN1(); j++) {
 				lineRhs[j] = rhs[flatten(i, j)];
 			}
@@ -666,12 +742,12 @@ public abstract class AbstractADI2D implements FDMSolver {
 			overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
 			overwriteBoundaryRow(m, lineRhs, getN1() - 1, upperBoundaryValue);
 
-			final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			final double[] solved = workspace.solve(m);
 
 			for (int j = 0; j < getN1(); j++) {
 				out[flatten(i, j)] = solved[j];
 			}
-		}
+		});
 
 		return out;
 	}
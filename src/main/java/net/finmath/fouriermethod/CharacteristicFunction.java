@@ -22,4 +22,27 @@ import org.apache.commons.math3.complex.Complex;
 @FunctionalInterface
 public interface CharacteristicFunction extends Function<Complex, Complex> {
 
+	/**
+	 * Evaluates the characteristic function for a vector of arguments \( z_{j} = x_{j} + i y_{j} \),
+	 * writing the real and imaginary parts of the values into the given arrays.
+	 *
+	 * The default implementation calls {@link #apply(Object)} for each argument. Implementations may override this method
+	 * with an evaluation on the primitive arrays, avoiding the allocation of objects for each argument.
+	 *
+	 * @param argumentsReal The real parts \( x_{j} \) of the arguments.
+	 * @param argumentsImaginary The imaginary parts \( y_{j} \) of the arguments.
+	 * @param valuesReal Array receiving the real parts of the values.
+	 * @param valuesImaginary Array receiving the imaginary parts of the values.
+	 */
+	default void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+		if(argumentsImaginary.length != argumentsReal.length || valuesReal.length < argumentsReal.length || valuesImaginary.length < argumentsReal.length) {
+			throw new IllegalArgumentException("Arrays of arguments and values have to be of the same length.");
+		}
+
+		for(int i=0; i<argumentsReal.length; i++) {
+			final Complex value = apply(new Complex(argumentsReal[i], argumentsImaginary[i]));
+			valuesReal[i] = value.getReal();
+			valuesImaginary[i] = value.getImaginary();
+		}
+	}
 }
@@ -141,6 +141,34 @@ public class MertonModel implements CharacteristicFunctionModel{
 						.add(logDiscountFactorForDiscounting).add(jumpTransform.subtract(jumpTransformCompensator))
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+				final double variance = 0.5*volatility*volatility*time;
+				final double drift = Math.log(initialValue)-0.5*volatility*volatility*time-logDiscountFactorForForward;
+				final double jumpVariance = jumpSizeStdDev*jumpSizeStdDev/2.0;
+				final double jumpTransformCompensator = jumpIntensity*time*(Math.exp(transformedMean+jumpSizeStdDev*jumpSizeStdDev/2.0)-1.0);
+				for(int i=0; i<argumentsReal.length; i++) {
+					// iargument = i z
+					final double ur = -argumentsImaginary[i];
+					final double ui = argumentsReal[i];
+					final double usquaredReal = ur*ur - ui*ui;
+					final double usquaredImag = 2.0*ur*ui;
+
+					// jumpTransform = (exp(u m + u^2 s^2/2) - 1) lambda T
+					final double jumpModulus = Math.exp(transformedMean * ur + jumpVariance * usquaredReal);
+					final double jumpPhase = transformedMean * ui + jumpVariance * usquaredImag;
+					final double jumpTransformReal = (jumpModulus * Math.cos(jumpPhase) - 1.0) * jumpIntensity*time;
+					final double jumpTransformImag = jumpModulus * Math.sin(jumpPhase) * jumpIntensity*time;
+
+					final double exponentReal = variance * usquaredReal + drift * ur + logDiscountFactorForDiscounting + jumpTransformReal - jumpTransformCompensator;
+					final double exponentImag = variance * usquaredImag + drift * ui + jumpTransformImag;
+
+					final double modulus = Math.exp(exponentReal);
+					valuesReal[i] = modulus * Math.cos(exponentImag);
+					valuesImaginary[i] = modulus * Math.sin(exponentImag);
+				}
+			}
 		};
 
 	}
@@ -84,37 +84,41 @@ public class EuropeanOptionSmileByCarrMadan extends EuropeanOptionSmile{
 		final double lambda = 2*Math.PI/(numberOfPoints*gridSpacing); //Equation 23 Carr and Madan
 		final double upperBound = (numberOfPoints * lambda)/2.0; //Equation 20 Carr and Madan
 
-		final Complex[] integrandEvaluations = new Complex[numberOfPoints];
+		//The characteristic function is already discounted: evaluate phi(z - i) on the line z = u - i lineOfIntegration
+		final double[] argumentsReal = new double[numberOfPoints];
+		final double[] argumentsImaginary = new double[numberOfPoints];
+		for(int i = 0; i<numberOfPoints; i++) {
+			argumentsReal[i] = gridSpacing * i;
+			argumentsImaginary[i] = -lineOfIntegration - 1.0;
+		}
+		final double[][] integrandEvaluations = new double[2][numberOfPoints];
+		modelCF.apply(argumentsReal, argumentsImaginary, integrandEvaluations[0], integrandEvaluations[1]);
 
 		for(int i = 0; i<numberOfPoints; i++) {
 
 			final double u = gridSpacing * i;
 
-			//Integration over a line parallel to the real axis
-			final Complex z = new Complex(u,-lineOfIntegration);
-
-			//The characteristic function is already discounted
-			final Complex numerator = modelCF.apply(z.subtract(Complex.I));
+			//Integration over a line parallel to the real axis, z = u - i lineOfIntegration, denominator -(z - i) z
+			final double zr = u;
+			final double zi = -lineOfIntegration;
+			final double denominatorReal = -(zr * zr - (zi - 1.0) * zi);
+			final double denominatorImag = -(zr * zi + (zi - 1.0) * zr);
+			final double denominatorNormSquared = denominatorReal * denominatorReal + denominatorImag * denominatorImag;
+			final double ratioReal = (integrandEvaluations[0][i] * denominatorReal + integrandEvaluations[1][i] * denominatorImag) / denominatorNormSquared;
+			final double ratioImag = (integrandEvaluations[1][i] * denominatorReal - integrandEvaluations[0][i] * denominatorImag) / denominatorNormSquared;
 
-			final Complex denominator = apply(z);
-			Complex ratio = numerator.divide(denominator);
-			ratio = (ratio.multiply(((Complex.I).multiply(upperBound*u)).exp())).multiply(gridSpacing);
-
-			double delta;
-			if (i==0){
-				delta=1.0;
-			}else{
-				delta = 0.0;
-			}
+			final double delta = (i == 0) ? 1.0 : 0.0;
 			final double simpsonWeight = (3+Math.pow(-1,i+1)-delta)/3;
 
-			integrandEvaluations[i] = ratio.multiply(simpsonWeight);
+			// Multiply by exp(i upperBound u) gridSpacing simpsonWeight
+			final double cos = Math.cos(upperBound*u);
+			final double sin = Math.sin(upperBound*u);
+			integrandEvaluations[0][i] = (ratioReal * cos - ratioImag * sin) * gridSpacing * simpsonWeight;
+			integrandEvaluations[1][i] = (ratioReal * sin + ratioImag * cos) * gridSpacing * simpsonWeight;
 		}
 
 		//Compute the FFT
-		Complex[] transformedVector = new Complex[numberOfPoints];
-		final FastFourierTransformer fft=new FastFourierTransformer(DftNormalization.STANDARD);
-		transformedVector=	fft.transform(integrandEvaluations,TransformType.FORWARD);
+		FastFourierTransformer.transformInPlace(integrandEvaluations, DftNormalization.STANDARD, TransformType.FORWARD);
 
 		//Find relevant prices via interpolation
 		final double[] logStrikeVector = new double[numberOfPoints];
@@ -124,7 +128,7 @@ public class EuropeanOptionSmileByCarrMadan extends EuropeanOptionSmile{
 		for(int j = 0; j<numberOfPoints; j++) {
 			logStrikeVector[j] = -upperBound+lambda*j;
 			strikeVector[j] = Math.exp(logStrikeVector[j]);
-			optionPriceVector[j] = (transformedVector[j].multiply(Math.exp(-lineOfIntegration * logStrikeVector[j]))).getReal()/Math.PI;
+			optionPriceVector[j] = integrandEvaluations[0][j] * Math.exp(-lineOfIntegration * logStrikeVector[j])/Math.PI;
 		}
 
 		final RationalFunctionInterpolation interpolation = new RationalFunctionInterpolation(strikeVector, optionPriceVector,intMethod, extMethod);
@@ -148,7 +152,7 @@ public class EuropeanOptionSmileByCarrMadan extends EuropeanOptionSmile{
 
 	@Override
 	public EuropeanOptionSmile getCloneWithModifiedParameters(final double maturity, final double[] strikes) {
-		return new EuropeanOptionSmileByCarrMadan(maturity, strikes);
+		return new EuropeanOptionSmileByCarrMadan(getUnderlyingName(), maturity, strikes, numberOfPoints, gridSpacing, intMethod, extMethod);
 	}
 
 }
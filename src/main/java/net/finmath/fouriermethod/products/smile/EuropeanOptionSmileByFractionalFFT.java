@@ -0,0 +1,213 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod.products.smile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.interpolation.RationalFunctionInterpolation;
+import net.finmath.interpolation.RationalFunctionInterpolation.ExtrapolationMethod;
+import net.finmath.interpolation.RationalFunctionInterpolation.InterpolationMethod;
+
+/**
+ * This class computes the prices of a collection of call options for a fixed maturity and a family of strikes
+ * using the fractional fast Fourier transform (FrFT).
+ *
+ * The integrand is the same as in {@link EuropeanOptionSmileByCarrMadan}. However, while the FFT used by
+ * Carr and Madan (1999) ties the spacing of the log-strike grid \( \lambda \) to the spacing of the
+ * integration grid \( \eta \) via \( \lambda \eta = 2 \pi / N \), the fractional FFT allows to
+ * choose both independently, see Chourdakis (2005). Here the log-strike grid is chosen to span the quoted strikes,
+ * such that a much smaller number of points \( N \) (and hence of evaluations of the characteristic function)
+ * is sufficient to obtain a fine strike grid. The prices at the quoted strikes are obtained by interpolation.
+ *
+ * The fractional transform
+ * \( G_{m} = \sum_{j=0}^{N-1} x_{j} \exp(-2 \pi i \alpha j m) \)
+ * is computed via Bluestein's algorithm using three FFTs of length \( 2N \), i.e., in \( O(N \log N) \).
+ *
+ * The default integration grid uses \( N = 2048 \) points with spacing \( \eta = 0.05 \). Since the log-strike
+ * grid no longer constrains \( \eta \), it can be chosen small enough to avoid the aliasing error of the Carr-Madan grid.
+ *
+ * References:
+ * <ul>
+ *  <li> Carr. P. and Madan, D. (1999) Option Valuation Using the Fast Fourier Transform. Journal of Computational Finance.</li>
+ *  <li> Chourdakis, K. (2005) Option pricing using the fractional FFT. Journal of Computational Finance.</li>
+ *  <li> Bailey, D. H. and Swarztrauber, P. N. (1991) The fractional Fourier transform and applications. SIAM Review.</li>
+ * </ul>
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class EuropeanOptionSmileByFractionalFFT extends EuropeanOptionSmile {
+
+	private static final int defaultNumberOfPoints = 2048;
+	private static final double defaultGridSpacing = 0.05;
+
+	/*
+	 * Relative width of the log-strike grid beyond the range of the quoted strikes
+	 * and the width used if only a single strike is quoted.
+	 */
+	private static final double strikeRangeExtension = 0.1;
+	private static final double minimumLogStrikeRange = 0.2;
+
+	private final int numberOfPoints;
+	private final double gridSpacing;
+	private final InterpolationMethod intMethod;
+	private final ExtrapolationMethod extMethod;
+
+	/**
+	 * Create the valuation method.
+	 *
+	 * @param underlyingName The name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 * @param numberOfPoints The number of points \( N \) of the integration grid. Has to be a power of two.
+	 * @param gridSpacing The spacing \( \eta \) of the integration grid.
+	 * @param intMethod The interpolation method used to obtain prices at the quoted strikes.
+	 * @param extMethod The extrapolation method used to obtain prices at the quoted strikes.
+	 */
+	public EuropeanOptionSmileByFractionalFFT(final String underlyingName, final double maturity, final double[] strikes, final int numberOfPoints,
+			final double gridSpacing, final InterpolationMethod intMethod, final ExtrapolationMethod extMethod) {
+		super(underlyingName, maturity, strikes);
+		if(numberOfPoints < 2 || Integer.bitCount(numberOfPoints) != 1) {
+			throw new IllegalArgumentException("The number of points has to be a power of two.");
+		}
+		if(!(gridSpacing > 0)) {
+			throw new IllegalArgumentException("The grid spacing has to be positive.");
+		}
+		this.numberOfPoints = numberOfPoints;
+		this.gridSpacing = gridSpacing;
+		this.intMethod = intMethod;
+		this.extMethod = extMethod;
+	}
+
+	public EuropeanOptionSmileByFractionalFFT(final String underlyingName, final double maturity, final double[] strikes) {
+		this(underlyingName, maturity, strikes, defaultNumberOfPoints, defaultGridSpacing, InterpolationMethod.HARMONIC_SPLINE, ExtrapolationMethod.CONSTANT);
+	}
+
+	public EuropeanOptionSmileByFractionalFFT(final double maturity, final double[] strikes) {
+		this(null, maturity, strikes);
+	}
+
+	@Override
+	public Map<String, Function<Double, Double>> getValue(final double evaluationTime, final CharacteristicFunctionModel model) throws CalculationException {
+
+		final CharacteristicFunction modelCF = model.apply(getMaturity());
+
+		final double lineOfIntegration = 0.5 * (getIntegrationDomainImagUpperBound()+getIntegrationDomainImagLowerBound());
+
+		/*
+		 * Log-strike grid k_m = logStrikeLowerBound + logStrikeSpacing * m spanning the quoted strikes.
+		 */
+		double logStrikeMin = Double.POSITIVE_INFINITY;
+		double logStrikeMax = Double.NEGATIVE_INFINITY;
+		for(final double strike : getStrikes()) {
+			logStrikeMin = Math.min(logStrikeMin, Math.log(strike));
+			logStrikeMax = Math.max(logStrikeMax, Math.log(strike));
+		}
+		final double logStrikeRange = Math.max(logStrikeMax - logStrikeMin, minimumLogStrikeRange) * (1.0 + 2.0 * strikeRangeExtension);
+		final double logStrikeLowerBound = 0.5 * (logStrikeMin + logStrikeMax) - 0.5 * logStrikeRange;
+		final double logStrikeSpacing = logStrikeRange / (numberOfPoints - 1);
+
+		// The fractional parameter alpha with exp(-i u_j k_m) = exp(-i u_j k_0) exp(-2 pi i alpha j m)
+		final double alpha = gridSpacing * logStrikeSpacing / (2.0 * Math.PI);
+
+		/*
+		 * Sequence y_j = x_j exp(-i pi alpha j^2) (zero padded to 2N) and the chirp z_j = exp(i pi alpha j^2).
+		 */
+		final int numberOfPointsPadded = 2 * numberOfPoints;
+		final double[][] sequence = new double[2][numberOfPointsPadded];
+		final double[][] chirp = new double[2][numberOfPointsPadded];
+		//The characteristic function is already discounted: evaluate phi(z - i) on the line z = u - i lineOfIntegration
+		final double[] argumentsReal = new double[numberOfPoints];
+		final double[] argumentsImaginary = new double[numberOfPoints];
+		for(int j = 0; j<numberOfPoints; j++) {
+			argumentsReal[j] = gridSpacing * j;
+			argumentsImaginary[j] = -lineOfIntegration - 1.0;
+		}
+		modelCF.apply(argumentsReal, argumentsImaginary, sequence[0], sequence[1]);
+
+		for(int j = 0; j<numberOfPoints; j++) {
+
+			final double u = gridSpacing * j;
+
+			//Integration over a line parallel to the real axis, z = u - i lineOfIntegration, denominator -(z - i) z
+			final double zr = u;
+			final double zi = -lineOfIntegration;
+			final double denominatorReal = -(zr * zr - (zi - 1.0) * zi);
+			final double denominatorImag = -(zr * zi + (zi - 1.0) * zr);
+			final double denominatorNormSquared = denominatorReal * denominatorReal + denominatorImag * denominatorImag;
+
+			final double simpsonWeight = (3+((j % 2 == 0) ? -1 : 1)-(j == 0 ? 1 : 0))/3.0;
+
+			final double integrandReal = (sequence[0][j] * denominatorReal + sequence[1][j] * denominatorImag) / denominatorNormSquared * simpsonWeight * gridSpacing;
+			final double integrandImag = (sequence[1][j] * denominatorReal - sequence[0][j] * denominatorImag) / denominatorNormSquared * simpsonWeight * gridSpacing;
+
+			// Shift to the lower bound of the log-strike grid and apply the chirp (the phase of j^2 is reduced mod 2 to avoid loss of precision)
+			final double chirpPhase = Math.PI * alpha * (((double)j * j) % (2.0 / alpha));
+			final double phase = -u * logStrikeLowerBound - chirpPhase;
+			final double cos = Math.cos(phase);
+			final double sin = Math.sin(phase);
+			sequence[0][j] = integrandReal * cos - integrandImag * sin;
+			sequence[1][j] = integrandReal * sin + integrandImag * cos;
+
+			chirp[0][j] = Math.cos(chirpPhase);
+			chirp[1][j] = Math.sin(chirpPhase);
+			if(j > 0) {
+				chirp[0][numberOfPointsPadded-j] = chirp[0][j];
+				chirp[1][numberOfPointsPadded-j] = chirp[1][j];
+			}
+		}
+
+		// Circular convolution of y and z via FFT
+		FastFourierTransformer.transformInPlace(sequence, DftNormalization.STANDARD, TransformType.FORWARD);
+		FastFourierTransformer.transformInPlace(chirp, DftNormalization.STANDARD, TransformType.FORWARD);
+		for(int i = 0; i<numberOfPointsPadded; i++) {
+			final double real = sequence[0][i] * chirp[0][i] - sequence[1][i] * chirp[1][i];
+			final double imag = sequence[0][i] * chirp[1][i] + sequence[1][i] * chirp[0][i];
+			sequence[0][i] = real;
+			sequence[1][i] = imag;
+		}
+		FastFourierTransformer.transformInPlace(sequence, DftNormalization.STANDARD, TransformType.INVERSE);
+
+		//Find relevant prices via interpolation
+		final double[] strikeVector = new double[numberOfPoints];
+		final double[] optionPriceVector = new double[numberOfPoints];
+
+		for(int m = 0; m<numberOfPoints; m++) {
+			final double logStrike = logStrikeLowerBound + logStrikeSpacing * m;
+			final double chirpPhase = -Math.PI * alpha * (((double)m * m) % (2.0 / alpha));
+			final double transformedReal = sequence[0][m] * Math.cos(chirpPhase) - sequence[1][m] * Math.sin(chirpPhase);
+
+			strikeVector[m] = Math.exp(logStrike);
+			optionPriceVector[m] = transformedReal * Math.exp(-lineOfIntegration * logStrike) / Math.PI;
+		}
+
+		final RationalFunctionInterpolation interpolation = new RationalFunctionInterpolation(strikeVector, optionPriceVector, intMethod, extMethod);
+
+		final Complex minusI = new Complex(0,-1);
+		final double residueTerm = (modelCF.apply(minusI)).getReal();
+
+		final Function<Double, Double> strikeToPrice = strike -> residueTerm + interpolation.getValue(strike);
+
+		final HashMap<String, Function<Double, Double>> results = new HashMap<>();
+		results.put("valuePerStrike", strikeToPrice);
+		return results;
+	}
+
+	@Override
+	public EuropeanOptionSmile getCloneWithModifiedParameters(final double maturity, final double[] strikes) {
+		return new EuropeanOptionSmileByFractionalFFT(getUnderlyingName(), maturity, strikes, numberOfPoints, gridSpacing, intMethod, extMethod);
+	}
+}
@@ -3,6 +3,7 @@ package net.finmath.marketdata.model.volatilities;
 import java.util.Objects;
 
 import net.finmath.marketdata.model.volatilities.VolatilitySurface.QuotingConvention;
+import net.finmath.time.TimeDiscretization;
 
 /**
  * Local volatility provider based on an interpolated option surface.
@@ -45,6 +46,15 @@ import net.finmath.marketdata.model.volatilities.VolatilitySurface.QuotingConven
  * ention)}.
  * </p>
  *
+ * <p>
+ * Each evaluation requires several finite differences of the interpolated
+ * surface. For Monte Carlo simulations, which evaluate the local volatility
+ * per path and time step, use
+ * {@link #getGridLocalVolatility(TimeDiscretization, double, double, int)} to
+ * evaluate the formula once on a grid adapted to the simulation time
+ * discretization.
+ * </p>
+ *
  * @author Alessandro Gnoatto
  */
 public class DupireLocalVolatility implements LocalVolatility {
@@ -381,6 +391,24 @@ public class DupireLocalVolatility implements LocalVolatility {
 		return Math.sqrt(handleLocalVariance(getLocalVarianceFromImpliedVolatilities(time, strike), time, strike));
 	}
 
+	/**
+	 * Returns this local volatility evaluated once on a (time, log-asset value)
+	 * grid and served by bilinear interpolation.
+	 *
+	 * @param timeDiscretization The time discretization, e.g. of the Monte Carlo simulation.
+	 * @param assetValueMin The smallest asset value of the grid (positive).
+	 * @param assetValueMax The largest asset value of the grid.
+	 * @param numberOfAssetValues The number of log-equidistant asset values of the grid.
+	 * @return The local volatility on the grid.
+	 */
+	public GridLocalVolatility getGridLocalVolatility(
+			final TimeDiscretization timeDiscretization,
+			final double assetValueMin,
+			final double assetValueMax,
+			final int numberOfAssetValues) {
+		return GridLocalVolatility.of(this, timeDiscretization, assetValueMin, assetValueMax, numberOfAssetValues);
+	}
+
 	/**
 	 * Returns the input quote surface.
 	 *
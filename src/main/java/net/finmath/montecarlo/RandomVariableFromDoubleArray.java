@@ -18,6 +18,7 @@ import java.util.stream.IntStream;
 import net.finmath.functions.DoubleTernaryOperator;
 import net.finmath.stochastic.ConditionalExpectationEstimator;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.util.QuickSelect;
 
 /**
  * The class RandomVariableFromDoubleArray represents a random variable being the evaluation of a stochastic process
@@ -42,6 +43,12 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 
 	private static final int typePriorityDefault = 1;
 
+	private static boolean isCacheSortedRealizations;
+	static {
+		// Default value is false
+		isCacheSortedRealizations = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.RandomVariableFromDoubleArray.isCacheSortedRealizations","false"));
+	}
+
 	private final int typePriority;
 
 	private final double      time;	                // Time (filtration)
@@ -52,6 +59,9 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
+	// Sorted realizations, only used if isCacheSortedRealizations is true (lazy initialized)
+	private transient volatile double[] realizationsSorted;
+
 	/**
 	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
 	 *
@@ -451,12 +461,36 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final int indexOfQuantileValue = getIndexOfQuantileValue(quantile);
+
+		if(realizationsSorted != null || isCacheSortedRealizations) {
+			return getRealizationsSorted()[indexOfQuantileValue];
+		}
+		else {
+			// Selection of the order statistic in O(n), avoiding a full sort.
+			return QuickSelect.select(realizations.clone(), indexOfQuantileValue);
+		}
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		final double[] quantileValues = new double[quantiles.length];
+		if(isDeterministic()) {
+			Arrays.fill(quantileValues, valueIfNonStochastic);
+			return quantileValues;
+		}
+		if(size() == 0) {
+			Arrays.fill(quantileValues, Double.NaN);
+			return quantileValues;
+		}
 
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+		// Sort once for all quantiles
+		final double[] realizationsSorted = getRealizationsSorted();
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = realizationsSorted[getIndexOfQuantileValue(quantiles[i])];
+		}
 
-		return realizationsSorted[indexOfQuantileValue];
+		return quantileValues;
 	}
 
 	@Override
@@ -468,7 +502,57 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		throw new RuntimeException("Method not implemented.");
+		return getQuantiles(new double[] { quantile }, probabilities)[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The quantile value is the smallest realization x such that the sum of the probabilities of all realizations
+	 * less or equal x is greater or equal quantile (relative to the sum of all probabilities).
+	 * The realizations are sorted once for all quantile levels.
+	 */
+	@Override
+	public double[] getQuantiles(final double[] quantiles, final RandomVariable probabilities) {
+		final double[] quantileValues = new double[quantiles.length];
+		if(isDeterministic()) {
+			Arrays.fill(quantileValues, valueIfNonStochastic);
+			return quantileValues;
+		}
+		if(size() == 0) {
+			Arrays.fill(quantileValues, Double.NaN);
+			return quantileValues;
+		}
+
+		// Sort the path indices by the value of the realizations
+		final int[] indicesSorted = IntStream.range(0, size()).boxed()
+				.sorted((i, j) -> Double.compare(realizations[i], realizations[j]))
+				.mapToInt(Integer::intValue).toArray();
+
+		// Cumulative probabilities along the sorted realizations
+		final double[] probabilitiesCumulative = new double[size()];
+		double probabilitySum = 0.0;
+		for(int i=0; i<size(); i++) {
+			probabilitySum += probabilities.get(indicesSorted[i]);
+			probabilitiesCumulative[i] = probabilitySum;
+		}
+
+		for(int i=0; i<quantiles.length; i++) {
+			final double probabilityOfQuantile = quantiles[i] * probabilitySum;
+			int index = Arrays.binarySearch(probabilitiesCumulative, probabilityOfQuantile);
+			if(index < 0) {
+				index = -index-1;
+			}
+			else {
+				// Find the first index with this cumulative probability
+				while(index > 0 && probabilitiesCumulative[index-1] == probabilityOfQuantile) {
+					index--;
+				}
+			}
+			quantileValues[i] = realizations[indicesSorted[Math.min(Math.max(index, 0), size()-1)]];
+		}
+
+		return quantileValues;
 	}
 
 	@Override
@@ -483,11 +567,23 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final double[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final int indexOfQuantileValueStart	= getIndexOfQuantileValue(quantileStart);
+		final int indexOfQuantileValueEnd		= getIndexOfQuantileValue(quantileEnd);
 
-		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
-		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
+		final double[] realizationsSorted;
+		if(this.realizationsSorted != null || isCacheSortedRealizations) {
+			realizationsSorted = getRealizationsSorted();
+		}
+		else {
+			/*
+			 * Move the order statistics indexOfQuantileValueStart,...,indexOfQuantileValueEnd to their position
+			 * using two selections and sort only this range (which agrees with a full sort on that range).
+			 */
+			realizationsSorted = realizations.clone();
+			QuickSelect.select(realizationsSorted, indexOfQuantileValueStart);
+			QuickSelect.select(realizationsSorted, indexOfQuantileValueEnd, indexOfQuantileValueStart, size()-1);
+			java.util.Arrays.sort(realizationsSorted, indexOfQuantileValueStart, indexOfQuantileValueEnd+1);
+		}
 
 		double quantileExpectation = 0.0;
 		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
@@ -525,8 +621,7 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 			 * There is one exception:
 			 * If the size of the random variable is 0, all entries will be zero.
 			 */
-			final double[] realizationsSorted = realizations.clone();
-			java.util.Arrays.sort(realizationsSorted);
+			final double[] realizationsSorted = getRealizationsSorted();
 
 			int sampleIndex=0;
 			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
@@ -553,6 +648,34 @@ public class RandomVariableFromDoubleArray implements RandomVariable {
 		return histogramValues;
 	}
 
+	/**
+	 * Returns the index of the realization representing the given quantile level in the sorted array of realizations.
+	 *
+	 * @param quantile The quantile level.
+	 * @return The index in the sorted array of realizations.
+	 */
+	private int getIndexOfQuantileValue(final double quantile) {
+		return Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+	}
+
+	/**
+	 * Returns the sorted realizations. The array is cached if <code>isCacheSortedRealizations</code> is true.
+	 * The returned array must not be modified.
+	 *
+	 * @return The sorted realizations.
+	 */
+	private double[] getRealizationsSorted() {
+		double[] sorted = realizationsSorted;
+		if(sorted == null) {
+			sorted = realizations.clone();
+			java.util.Arrays.sort(sorted);
+			if(isCacheSortedRealizations) {
+				realizationsSorted = sorted;
+			}
+		}
+		return sorted;
+	}
+
 	@Override
 	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
 		final double[] intervalPoints = new double[numberOfPoints];
@@ -603,6 +603,11 @@ public class RandomVariableDifferentiableAD implements RandomVariableDifferentia
 		return getValues().getQuantile(quantile);
 	}
 
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return getValues().getQuantiles(quantiles);
+	}
+
 	@Override
 	public double getQuantile(final double quantile, final RandomVariable probabilities) {
 		return getValues().getQuantile(quantile, probabilities);
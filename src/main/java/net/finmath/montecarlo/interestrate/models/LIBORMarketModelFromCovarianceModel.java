@@ -18,6 +18,7 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.functions.AnalyticFormulas;
@@ -30,6 +31,7 @@ import net.finmath.marketdata.products.Swap;
 import net.finmath.marketdata.products.SwapAnnuity;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.interestrate.CalibrationProduct;
 import net.finmath.montecarlo.interestrate.LIBORMarketModel;
 import net.finmath.montecarlo.interestrate.models.covariance.AbstractLIBORCovarianceModelParametric;
@@ -162,6 +164,10 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 
 	private static final long serialVersionUID = 4166077559001066615L;
 
+	private static final boolean isUseFusedDriftKernel = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel.isUseFusedDriftKernel","true"));
+
+	private static final int fusedDriftKernelPathBlockSize = 1024;
+
 	public enum Measure				{ SPOT, TERMINAL }
 	public enum StateSpace			{ NORMAL, LOGNORMAL }
 	public enum Driftapproximation	{ EULER, LINE_INTEGRAL, PREDICTOR_CORRECTOR }
@@ -1119,6 +1125,11 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 	 * @param process The discretization process generating this model. The process provides call backs for TimeDiscretization and allows calls to getProcessValue for timeIndices less or equal the given one.
 	 * @param timeIndex Time index <i>i</i> for which the drift should be returned <i>&mu;(t<sub>i</sub>)</i>.
 	 * @param realizationAtTimeIndex Time current forward rate vector at time index <i>i</i> which should be used in the calculation.
+	 * Note: If the forward rates, the factor loadings and the covariances are given by {@link RandomVariableFromDoubleArray} (or {@link Scalar}),
+	 * the drift is calculated by a fused kernel, see {@link #getDriftFused(MonteCarloProcess, int, int, RandomVariable[])}.
+	 * The fused kernel may be disabled by setting the system property
+	 * <code>net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel.isUseFusedDriftKernel</code> to false.
+	 *
 	 * @return The drift vector &mu;(t<sub>i</sub>) as <code>RandomVariableFromDoubleArray[]</code>
 	 */
 	@Override
@@ -1129,6 +1140,13 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 			firstForwardRateIndex = -firstForwardRateIndex-1 + 1;
 		}
 
+		if(isUseFusedDriftKernel) {
+			final RandomVariable[] drift = getDriftFused(process, timeIndex, firstForwardRateIndex, realizationAtTimeIndex);
+			if(drift != null) {
+				return drift;
+			}
+		}
+
 		final RandomVariable		zero	= Scalar.of(0.0);
 
 		// Allocate drift vector and initialize to zero (will be used to sum up drift components)
@@ -1190,6 +1208,149 @@ public class LIBORMarketModelFromCovarianceModel extends AbstractProcessModel im
 		return drift;
 	}
 
+	/**
+	 * Calculates the drift in a single path-major loop over the realizations, avoiding the temporary random variables of the
+	 * generic implementation in {@link #getDrift(MonteCarloProcess, int, RandomVariable[], RandomVariable[])}. The path range is
+	 * split into blocks which are processed in parallel.
+	 *
+	 * For each path the running sums of the factor loadings and the drift of each component are calculated using
+	 * the same sequence of floating point operations as the generic implementation, such that the results agree.
+	 *
+	 * @param process The discretization process generating this model.
+	 * @param timeIndex Time index <i>i</i> for which the drift should be returned <i>&mu;(t<sub>i</sub>)</i>.
+	 * @param firstForwardRateIndex The index of the first forward rate with non-zero drift.
+	 * @param realizationAtTimeIndex Time current forward rate vector at time index <i>i</i> which should be used in the calculation.
+	 * @return The drift vector &mu;(t<sub>i</sub>) or null if the random variables are not supported by the fused kernel.
+	 */
+	private RandomVariable[] getDriftFused(final MonteCarloProcess process, final int timeIndex, final int firstForwardRateIndex, final RandomVariable[] realizationAtTimeIndex) {
+		final int numberOfComponents = getNumberOfComponents();
+		if(measure != Measure.SPOT && measure != Measure.TERMINAL) {
+			return null;
+		}
+
+		final double time = process.getTime(timeIndex);
+
+		int numberOfPaths = 1;
+		double filtrationTime = Double.NEGATIVE_INFINITY;
+
+		final RandomVariable[] forwardRates = new RandomVariable[numberOfComponents];
+		for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+			forwardRates[componentIndex] = realizationAtTimeIndex[componentIndex];
+			if(!isSupportedByFusedDriftKernel(forwardRates[componentIndex])) {
+				return null;
+			}
+			numberOfPaths = Math.max(numberOfPaths, forwardRates[componentIndex].size());
+			filtrationTime = Math.max(filtrationTime, forwardRates[componentIndex].getFiltrationTime());
+		}
+
+		final RandomVariable[][] factorLoadings = new RandomVariable[numberOfComponents][];
+		final RandomVariable[] variances = new RandomVariable[numberOfComponents];
+		for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+			factorLoadings[componentIndex] = getFactorLoading(process, timeIndex, componentIndex, realizationAtTimeIndex);
+			for(final RandomVariable factorLoading : factorLoadings[componentIndex]) {
+				if(!isSupportedByFusedDriftKernel(factorLoading)) {
+					return null;
+				}
+				numberOfPaths = Math.max(numberOfPaths, factorLoading.size());
+				filtrationTime = Math.max(filtrationTime, factorLoading.getFiltrationTime());
+			}
+
+			if(stateSpace == StateSpace.LOGNORMAL) {
+				variances[componentIndex] = covarianceModel.getCovariance(time, componentIndex, componentIndex, realizationAtTimeIndex);
+				if(!isSupportedByFusedDriftKernel(variances[componentIndex])) {
+					return null;
+				}
+				numberOfPaths = Math.max(numberOfPaths, variances[componentIndex].size());
+				filtrationTime = Math.max(filtrationTime, variances[componentIndex].getFiltrationTime());
+			}
+		}
+
+		/*
+		 * The one step measure transform is +/- periodLength / (1 + forwardRate * periodLength), for spot/terminal measure.
+		 * It is evaluated as 1 / (forwardRate * rateFactor + constant), the operations of Scalar.discount used in the generic implementation.
+		 */
+		final double[] rateFactors = new double[numberOfComponents];
+		final double[] constants = new double[numberOfComponents];
+		for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+			final double periodLength = getLiborPeriodDiscretization().getTimeStep(componentIndex);
+			final double scale = measure == Measure.SPOT ? periodLength : -periodLength;
+			rateFactors[componentIndex] = periodLength / scale;
+			constants[componentIndex] = 1.0 / scale;
+		}
+
+		final double[][] driftRealizations = new double[numberOfComponents][];
+		for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+			driftRealizations[componentIndex] = new double[numberOfPaths];
+		}
+
+		final int numberOfPathsFinal = numberOfPaths;
+		final int numberOfBlocks = (numberOfPaths + fusedDriftKernelPathBlockSize - 1) / fusedDriftKernelPathBlockSize;
+		IntStream.range(0, numberOfBlocks).parallel().forEach(blockIndex -> {
+			final int pathStart = blockIndex * fusedDriftKernelPathBlockSize;
+			final int pathEnd = Math.min(pathStart + fusedDriftKernelPathBlockSize, numberOfPathsFinal);
+
+			final double[] factorLoadingsSums = new double[getNumberOfFactors()];
+			for(int path=pathStart; path<pathEnd; path++) {
+				Arrays.fill(factorLoadingsSums, 0.0);
+				if(measure == Measure.SPOT) {
+					for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+						final double forwardRate = forwardRates[componentIndex].get(path);
+						double oneStepMeasureTransform = 1.0 / (forwardRate * rateFactors[componentIndex] + constants[componentIndex]);
+						if(stateSpace == StateSpace.LOGNORMAL) {
+							oneStepMeasureTransform = oneStepMeasureTransform * forwardRate;
+						}
+
+						final RandomVariable[] factorLoading = factorLoadings[componentIndex];
+						double drift = 0.0;
+						for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
+							final double factorLoadingOfFactor = factorLoading[factorIndex].get(path);
+							factorLoadingsSums[factorIndex] = factorLoadingsSums[factorIndex] + oneStepMeasureTransform * factorLoadingOfFactor;
+							drift = drift + factorLoadingsSums[factorIndex] * factorLoadingOfFactor;
+						}
+						driftRealizations[componentIndex][path] = drift;
+					}
+				}
+				else {
+					for(int componentIndex=numberOfComponents-1; componentIndex>=firstForwardRateIndex; componentIndex--) {
+						final double forwardRate = forwardRates[componentIndex].get(path);
+						double oneStepMeasureTransform = 1.0 / (forwardRate * rateFactors[componentIndex] + constants[componentIndex]);
+						if(stateSpace == StateSpace.LOGNORMAL) {
+							oneStepMeasureTransform = oneStepMeasureTransform * forwardRate;
+						}
+
+						final RandomVariable[] factorLoading = factorLoadings[componentIndex];
+						double drift = 0.0;
+						for(int factorIndex=0; factorIndex<factorLoading.length; factorIndex++) {
+							final double factorLoadingOfFactor = factorLoading[factorIndex].get(path);
+							drift = drift + factorLoadingsSums[factorIndex] * factorLoadingOfFactor;
+							factorLoadingsSums[factorIndex] = factorLoadingsSums[factorIndex] + oneStepMeasureTransform * factorLoadingOfFactor;
+						}
+						driftRealizations[componentIndex][path] = drift;
+					}
+				}
+
+				if(stateSpace == StateSpace.LOGNORMAL) {
+					// Drift adjustment for log-coordinate in each component
+					for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+						driftRealizations[componentIndex][path] = driftRealizations[componentIndex][path] + variances[componentIndex].get(path) * -0.5;
+					}
+				}
+			}
+		});
+
+		final RandomVariable[] drift = new RandomVariable[numberOfComponents];
+		for(int componentIndex=firstForwardRateIndex; componentIndex<numberOfComponents; componentIndex++) {
+			drift[componentIndex] = numberOfPaths == 1
+					? new RandomVariableFromDoubleArray(filtrationTime, driftRealizations[componentIndex][0])
+							: new RandomVariableFromDoubleArray(filtrationTime, driftRealizations[componentIndex]);
+		}
+		return drift;
+	}
+
+	private static boolean isSupportedByFusedDriftKernel(final RandomVariable randomVariable) {
+		return randomVariable != null && (randomVariable.getClass() == RandomVariableFromDoubleArray.class || randomVariable.getClass() == Scalar.class);
+	}
+
 	@Override
 	public	RandomVariable[]	getFactorLoading(final MonteCarloProcess process, final int timeIndex, final int componentIndex, final RandomVariable[] realizationAtTimeIndex)
 	{
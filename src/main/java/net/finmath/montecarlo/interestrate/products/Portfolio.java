@@ -8,9 +8,11 @@ package net.finmath.montecarlo.interestrate.products;
 import java.util.Set;
 
 import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.products.components.AbstractProductComponent;
+import net.finmath.montecarlo.products.MonteCarloProductComposite;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -26,7 +28,7 @@ import net.finmath.stochastic.RandomVariable;
  * @date 08.09.2006
  * @version 1.2
  */
-public class Portfolio extends AbstractProductComponent {
+public class Portfolio extends AbstractProductComponent implements MonteCarloProductComposite {
 
 	private static final long serialVersionUID = -1360506093081238482L;
 
@@ -155,4 +157,14 @@ public class Portfolio extends AbstractProductComponent {
 	public double[] getWeights() {
 		return weights.clone();
 	}
+
+	@Override
+	public MonteCarloProduct[] getComponents() {
+		return products.clone();
+	}
+
+	@Override
+	public double[] getComponentWeights() {
+		return weights.clone();
+	}
 }
@@ -8,9 +8,11 @@ package net.finmath.montecarlo.interestrate.products;
 
 
 import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.products.components.Notional;
 import net.finmath.montecarlo.interestrate.products.indices.AbstractIndex;
+import net.finmath.montecarlo.products.MonteCarloProductComposite;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.Schedule;
 
@@ -26,7 +28,7 @@ import net.finmath.time.Schedule;
  * @author Christian Fries
  * @version 1.0
  */
-public class Swap extends AbstractTermStructureMonteCarloProduct {
+public class Swap extends AbstractTermStructureMonteCarloProduct implements MonteCarloProductComposite {
 
 	private final TermStructureMonteCarloProduct legReceiver;
 	private final TermStructureMonteCarloProduct legPayer;
@@ -93,6 +95,16 @@ public class Swap extends AbstractTermStructureMonteCarloProduct {
 		return value;
 	}
 
+	@Override
+	public MonteCarloProduct[] getComponents() {
+		return legPayer != null ? new MonteCarloProduct[] { legReceiver, legPayer } : new MonteCarloProduct[] { legReceiver };
+	}
+
+	@Override
+	public double[] getComponentWeights() {
+		return legPayer != null ? new double[] { 1.0, -1.0 } : new double[] { 1.0 };
+	}
+
 	@Override
 	public String toString() {
 		return "Swap [legReceiver=" + legReceiver + ", legPayer=" + legPayer + "]";
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
 import net.finmath.montecarlo.interestrate.products.components.AbstractProductComponent;
 import net.finmath.montecarlo.interestrate.products.components.AccruingNotional;
@@ -21,6 +22,7 @@ import net.finmath.montecarlo.interestrate.products.components.ProductCollection
 import net.finmath.montecarlo.interestrate.products.indices.AbstractIndex;
 import net.finmath.montecarlo.interestrate.products.indices.FixedCoupon;
 import net.finmath.montecarlo.interestrate.products.indices.LinearCombinationIndex;
+import net.finmath.montecarlo.products.MonteCarloProductComposite;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.Schedule;
 
@@ -29,7 +31,7 @@ import net.finmath.time.Schedule;
  *
  * @version 1.0
  */
-public class SwapLeg extends AbstractTermStructureMonteCarloProduct {
+public class SwapLeg extends AbstractTermStructureMonteCarloProduct implements MonteCarloProductComposite {
 
 	private final ProductCollection				components;
 
@@ -174,4 +176,14 @@ public class SwapLeg extends AbstractTermStructureMonteCarloProduct {
 		return components.getValue(evaluationTime, model);
 	}
 
+	@Override
+	public MonteCarloProduct[] getComponents() {
+		return new MonteCarloProduct[] { components };
+	}
+
+	@Override
+	public double[] getComponentWeights() {
+		return new double[] { 1.0 };
+	}
+
 }
@@ -17,6 +17,7 @@ import net.finmath.concurrency.FutureWrapper;
 import net.finmath.exception.CalculationException;
 import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.interestrate.TermStructureMonteCarloSimulationModel;
+import net.finmath.montecarlo.products.MonteCarloProductComposite;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -25,7 +26,7 @@ import net.finmath.stochastic.RandomVariable;
  * @author Christian Fries
  * @version 1.1
  */
-public class ProductCollection extends AbstractProductComponent {
+public class ProductCollection extends AbstractProductComponent implements MonteCarloProductComposite {
 
 	/**
 	 *
@@ -67,6 +68,18 @@ public class ProductCollection extends AbstractProductComponent {
 		return Collections.unmodifiableCollection(products);
 	}
 
+	@Override
+	public MonteCarloProduct[] getComponents() {
+		return products.toArray(new MonteCarloProduct[products.size()]);
+	}
+
+	@Override
+	public double[] getComponentWeights() {
+		final double[] weights = new double[products.size()];
+		Arrays.fill(weights, 1.0);
+		return weights;
+	}
+
 	@Override
 	public Set<String> queryUnderlyings() {
 		Set<String> underlyingNames = null;
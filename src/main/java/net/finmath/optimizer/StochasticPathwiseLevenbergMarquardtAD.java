@@ -11,6 +11,7 @@ import java.util.concurrent.ExecutorService;
 
 import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
 
 /**
  * This class implements a stochastic Levenberg Marquardt non-linear least-squares fit
@@ -101,6 +102,8 @@ public abstract class StochasticPathwiseLevenbergMarquardtAD extends net.finmath
 	 */
 	private static final long serialVersionUID = -8852002990042152135L;
 
+	private static final RandomVariable ZERO = new Scalar(0.0);
+
 	public StochasticPathwiseLevenbergMarquardtAD(final List<RandomVariable> initialParameters, final List<RandomVariable> targetValues, final int maxIteration, final ExecutorService executorService) {
 		super(initialParameters, targetValues, maxIteration, executorService);
 	}
@@ -155,7 +158,9 @@ public abstract class StochasticPathwiseLevenbergMarquardtAD extends net.finmath
 			for (int valueIndex = 0; valueIndex < values.length; valueIndex++) {
 				final Map<Long, RandomVariable> gradient = ((RandomVariableDifferentiable)values[valueIndex]).getGradient();
 				for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
-					derivatives[parameterIndex][valueIndex] = gradient.get(((RandomVariableDifferentiable)parameters[parameterIndex]).getID());
+					final RandomVariable derivative = gradient.get(((RandomVariableDifferentiable)parameters[parameterIndex]).getID());
+					// A missing gradient entry means that the value does not depend on the parameter
+					derivatives[parameterIndex][valueIndex] = derivative != null ? derivative : ZERO;
 				}
 			}
 		}
@@ -163,4 +168,18 @@ public abstract class StochasticPathwiseLevenbergMarquardtAD extends net.finmath
 			setDerivatives(parameters, derivatives);
 		}
 	}
+
+	@Override
+	public RandomVariable getMeanSquaredError(final RandomVariable[] value) {
+		/*
+		 * The error is only used to accept or reject a point. Calculating it from the values without their
+		 * operator tree ensures that the accepted parameters and values do not keep references to the
+		 * operator trees of all previous iterations.
+		 */
+		final RandomVariable[] valueWithoutOperatorTree = new RandomVariable[value.length];
+		for(int valueIndex=0; valueIndex<value.length; valueIndex++) {
+			valueWithoutOperatorTree[valueIndex] = value[valueIndex].getValues();
+		}
+		return super.getMeanSquaredError(valueWithoutOperatorTree);
+	}
 }
@@ -22,4 +22,20 @@ public interface ConditionalExpectationEstimator {
 	 * @return The conditional expectation of <code>randomVariable</code>.
 	 */
 	RandomVariable getConditionalExpectation(RandomVariable randomVariable);
+
+	/**
+	 * Return the conditional expectations of a vector of random variables.
+	 * Implementations may override this method to share calculations among the random variables
+	 * (e.g., the decomposition of a regression matrix).
+	 *
+	 * @param randomVariables Given vector of random variables.
+	 * @return The vector of conditional expectations, where element [k] is the conditional expectation of <code>randomVariables[k]</code>.
+	 */
+	default RandomVariable[] getConditionalExpectations(final RandomVariable[] randomVariables) {
+		final RandomVariable[] conditionalExpectations = new RandomVariable[randomVariables.length];
+		for(int k=0; k<randomVariables.length; k++) {
+			conditionalExpectations[k] = getConditionalExpectation(randomVariables[k]);
+		}
+		return conditionalExpectations;
+	}
 }
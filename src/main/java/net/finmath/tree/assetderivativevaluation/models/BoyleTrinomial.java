@@ -158,7 +158,8 @@ public class BoyleTrinomial extends AbstractRecombiningTreeModel {
 	@Override
 	public int[] getChildStateIndexShift() {
 		// Convention: childIndex = parentIndex + shift[branchIndex]
-		// children at next level correspond to indices stateIndex + {0,1,2} for {up, mid, down}.
-		return new int[] { 0, 1, 2};
+		// The spot level is stored in increasing order (index = #up - #down + k), hence the
+		// children of stateIndex are stateIndex + {2,1,0} for {up, mid, down}.
+		return new int[] { 2, 1, 0 };
 	}
 }
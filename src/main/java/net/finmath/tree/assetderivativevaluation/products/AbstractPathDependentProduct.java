@@ -8,13 +8,19 @@ import net.finmath.tree.AbstractTreeProduct;
 import net.finmath.tree.TreeModel;
 
 /**
- * Base class for full (non-recombining) path-dependent products on a tree.
+ * Base class for path-dependent products on a tree.
  *
- * Key property:
+ * Two valuation engines are provided:
  * <ul>
- * 	<li>The number of nodes grows exponentially with the number of time steps:
- * 		level j has branchingFactor^j nodes.</li>
- * 	<li>No recombination / compression / bucketing.</li>
+ * 	<li>Full (non-recombining) path tree (default): the number of nodes grows exponentially with the number
+ * 		of time steps, level j has branchingFactor^j nodes. No recombination / compression / bucketing.</li>
+ * 	<li>Node-compressed tree: if constructed with a positive number of representative states and the product
+ * 		specifies a {@link #getRepresentativeStateIndex() representative state variable}, each recombining node
+ * 		carries that many representative values of the state variable and values are interpolated between them
+ * 		(Hull–White style). Memory and time grow polynomially in the number of time steps, so several hundred
+ * 		time steps are practical. In this case, for levels j &gt; 0, {@link #getValues(double, TreeModel)} returns
+ * 		the values at the representative states, flattened as recombining state index times number of
+ * 		representative states plus representative index.</li>
  * </ul>
  *
  * This class builds a full path tree of:
@@ -42,7 +48,7 @@ import net.finmath.tree.TreeModel;
  * 		For the existing models (CRR/JR/Boyle) this matches their internal layout:
  * 		<ul>
  * 			<li>Binomial: childShift = {0, 1}</li>
- * 			<li>Trinomial (Boyle): childShift = {0, 1, 2}</li>
+ * 			<li>Trinomial (Boyle): childShift = {2, 1, 0}</li>
  * 		</ul>
  * 		For a general multinomial model, childShift must be provided explicitly.</li>
  * </ul>
@@ -57,11 +63,40 @@ public abstract class AbstractPathDependentProduct extends AbstractTreeProduct {
 	 */
 	private final int[] fixingTimeIndices;
 
+	/**
+	 * Number of representative states per recombining node of the node-compressed engine, 0 for the full path tree.
+	 */
+	private final int numberOfRepresentativeStates;
+
+	/**
+	 * Creates a path-dependent product valued on the full (non-recombining) path tree.
+	 *
+	 * @param maturity Maturity in model time units.
+	 * @param fixingTimeIndices Fixing time indices on the model grid.
+	 */
 	protected AbstractPathDependentProduct(
 			final double maturity,
 			final int[] fixingTimeIndices) {
+		this(maturity, fixingTimeIndices, 0);
+	}
+
+	/**
+	 * Creates a path-dependent product valued on a node-compressed tree.
+	 *
+	 * @param maturity Maturity in model time units.
+	 * @param fixingTimeIndices Fixing time indices on the model grid.
+	 * @param numberOfRepresentativeStates Number of representative states per recombining node (at least 2), or 0 to use the full path tree.
+	 */
+	protected AbstractPathDependentProduct(
+			final double maturity,
+			final int[] fixingTimeIndices,
+			final int numberOfRepresentativeStates) {
 		super(maturity);
+		if(numberOfRepresentativeStates != 0 && numberOfRepresentativeStates < 2) {
+			throw new IllegalArgumentException("numberOfRepresentativeStates must be 0 (full tree) or at least 2.");
+		}
 		this.fixingTimeIndices = fixingTimeIndices != null ? fixingTimeIndices.clone() : new int[0];
+		this.numberOfRepresentativeStates = numberOfRepresentativeStates;
 		Arrays.sort(this.fixingTimeIndices);
 	}
 
@@ -96,6 +131,27 @@ public abstract class AbstractPathDependentProduct extends AbstractTreeProduct {
 			double[] terminalState,
 			double spotAtMaturity);
 
+	/**
+	 * Index of the state variable used as representative state in the node-compressed engine,
+	 * e.g. the running sum of an Asian option. All other state variables have to be path independent,
+	 * i.e. depend on the time index only, and {@link #evolveState(double[], double, int, boolean, double[])}
+	 * has to be monotone in the representative state.
+	 *
+	 * @return The index of the representative state variable, or -1 if the product does not support node compression.
+	 */
+	protected int getRepresentativeStateIndex() {
+		return -1;
+	}
+
+	/**
+	 * Returns the number of representative states per recombining node.
+	 *
+	 * @return The number of representative states per node, 0 if the full path tree is used.
+	 */
+	public int getNumberOfRepresentativeStates() {
+		return numberOfRepresentativeStates;
+	}
+
 	/**
 	 * Converts a double time to a time index by rounding.
 	 */
@@ -130,8 +186,20 @@ public abstract class AbstractPathDependentProduct extends AbstractTreeProduct {
 				"No childStateShift provided for branching factor " + branchingFactor + ".");
 	}
 
+	@Override
+	public RandomVariable getValue(final double evaluationTime, final TreeModel model) {
+		if(numberOfRepresentativeStates > 0 && timeToIndex(evaluationTime, model) == 0) {
+			// Only the root is requested: do not keep the representative state values of all levels.
+			return getValuesNodeCompressed(0.0, model, false)[0];
+		}
+		return super.getValue(evaluationTime, model);
+	}
+
 	@Override
 	public final RandomVariable[] getValues(final double evaluationTime, final TreeModel model) {
+		if(numberOfRepresentativeStates > 0) {
+			return getValuesNodeCompressed(evaluationTime, model, true);
+		}
 
 		final int k0 = timeToIndex(evaluationTime, model);
 		final int n = timeToIndex(getMaturity(), model);
@@ -249,6 +317,19 @@ public abstract class AbstractPathDependentProduct extends AbstractTreeProduct {
 		return levels;
 	}
 
+	private RandomVariable[] getValuesNodeCompressed(final double evaluationTime, final TreeModel model, final boolean isKeepLevels) {
+
+		final int k0 = timeToIndex(evaluationTime, model);
+		final int n = timeToIndex(getMaturity(), model);
+		if(n < k0) {
+			throw new IllegalArgumentException("Maturity is before evaluation time.");
+		}
+
+		final int[] childShift = resolveChildShift(model, k0, 0);
+
+		return NodeCompressedPathDependentTree.getValues(this, model, k0, n, childShift, numberOfRepresentativeStates, isKeepLevels);
+	}
+
 	private void evolveState(
 			final double[] parentStateFlat,
 			final int parentOffset,
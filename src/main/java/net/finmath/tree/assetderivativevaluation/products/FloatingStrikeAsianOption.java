@@ -15,10 +15,12 @@ package net.finmath.tree.assetderivativevaluation.products;
  * 	<li>state[1] = fixing count</li>
  * </ul>
  *
- * No recombination / compression:
+ * By default no recombination / compression:
  * <ul>
  * 	<li>Number of nodes at step j is B^j (B = branching factor of the model).</li>
  * </ul>
+ * If a number of representative states is given, the running sum is used as representative state of a
+ * node-compressed tree, see {@link AbstractPathDependentProduct}.
  *
  * @author Alessandro Gnoatto
  */
@@ -34,11 +36,28 @@ public class FloatingStrikeAsianOption extends AbstractPathDependentProduct {
 		super(maturity, fixingTimeIndices);
 	}
 
+	/**
+	 * @param maturity Maturity in model time units.
+	 * @param fixingTimeIndices Subset of model time indices included in the average.
+	 * @param numberOfRepresentativeStates Number of representative running sums per node of the node-compressed tree.
+	 */
+	public FloatingStrikeAsianOption(
+			final double maturity,
+			final int[] fixingTimeIndices,
+			final int numberOfRepresentativeStates) {
+		super(maturity, fixingTimeIndices, numberOfRepresentativeStates);
+	}
+
 	@Override
 	protected int getNumberOfStateVariables() {
 		return 2; // running sum, fixing count
 	}
 
+	@Override
+	protected int getRepresentativeStateIndex() {
+		return 0; // running sum, the fixing count only depends on the time index
+	}
+
 	@Override
 	protected void initializeState(
 			final double spotAtNode,
@@ -298,17 +298,21 @@ public class AsianOption implements FiniteDifferenceEquityProduct {
 
 	@Override
 	public double[] getValue(final double evaluationTime, final FiniteDifferenceEquityModel model) {
-		final double[][] values = getValues(model);
 
-		final double tau = maturity - evaluationTime;
-		final int timeIndex = model.getSpaceTimeDiscretization().getTimeDiscretization()
-				.getTimeIndexNearestLessOrEqual(tau);
+		/*
+		 * Only the layer at evaluation time is needed, so the solver rolls back
+		 * without storing the full time history (relevant for the 3D lifted models).
+		 */
+		final FiniteDifferenceEquityModel liftedModel = getLiftedModel(model);
+		final FDMSolver solver = getSolver(liftedModel);
 
-		final double[] column = new double[values.length];
-		for (int i = 0; i < values.length; i++) {
-			column[i] = values[i][timeIndex];
+		if (solver instanceof AbstractADI2D) {
+			return ((AbstractADI2D) solver).getValue(evaluationTime, maturity, getPayoffAtMaturity2D(), getExercisePayoff2D());
+		} else if (solver instanceof AbstractADI3D) {
+			return ((AbstractADI3D) solver).getValue(evaluationTime, maturity, getPayoffAtMaturity3D(), getExercisePayoff3D());
 		}
-		return column;
+
+		throw new IllegalArgumentException("Unsupported solver type for AsianOption.");
 	}
 
 	@Override
@@ -317,29 +321,35 @@ public class AsianOption implements FiniteDifferenceEquityProduct {
 		final FiniteDifferenceEquityModel liftedModel = getLiftedModel(model);
 		final FDMSolver solver = getSolver(liftedModel);
 
-		final DoubleBinaryOperator payoffAtMaturity2D = (S, I) -> {
+		if (solver instanceof AbstractADI2D) {
+			return ((AbstractADI2D) solver).getValues(maturity, getPayoffAtMaturity2D(), getExercisePayoff2D());
+		} else if (solver instanceof AbstractADI3D) {
+			return ((AbstractADI3D) solver).getValues(maturity, getPayoffAtMaturity3D(), getExercisePayoff3D());
+		}
+
+		throw new IllegalArgumentException("Unsupported solver type for AsianOption.");
+	}
+
+	private DoubleBinaryOperator getPayoffAtMaturity2D() {
+		return (S, I) -> {
 			final double averageAtMaturity = I / maturity;
 			return payoff(averageAtMaturity, S);
 		};
+	}
 
-		final AbstractADI2D.DoubleTernaryOperator exercisePayoff2D = (runningTime, S, I) ->
-		getExercisePayoff(runningTime, S, I);
+	private AbstractADI2D.DoubleTernaryOperator getExercisePayoff2D() {
+		return (runningTime, S, I) -> getExercisePayoff(runningTime, S, I);
+	}
 
-		final AbstractADI3D.DoubleTernaryOperator payoffAtMaturity3D = (S, v, I) -> {
+	private AbstractADI3D.DoubleTernaryOperator getPayoffAtMaturity3D() {
+		return (S, v, I) -> {
 			final double averageAtMaturity = I / maturity;
 			return payoff(averageAtMaturity, S);
 		};
+	}
 
-		final AbstractADI3D.DoubleQuaternaryOperator exercisePayoff3D = (runningTime, S, v, I) ->
-		getExercisePayoff(runningTime, S, I);
-
-		if (solver instanceof AbstractADI2D) {
-			return ((AbstractADI2D) solver).getValues(maturity, payoffAtMaturity2D, exercisePayoff2D);
-		} else if (solver instanceof AbstractADI3D) {
-			return ((AbstractADI3D) solver).getValues(maturity, payoffAtMaturity3D, exercisePayoff3D);
-		}
-
-		throw new IllegalArgumentException("Unsupported solver type for AsianOption.");
+	private AbstractADI3D.DoubleQuaternaryOperator getExercisePayoff3D() {
+		return (runningTime, S, v, I) -> getExercisePayoff(runningTime, S, I);
 	}
 
 	/**
@@ -1,13 +1,11 @@
 package net.finmath.finitedifference.solvers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.DecompositionSolver;
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.OpenMapRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 
 import net.finmath.finitedifference.FiniteDifferenceExerciseUtil;
@@ -44,6 +42,15 @@ import net.finmath.modelling.Exercise;
  * </ul>
  *
  * <p>
+ * The operator is assembled directly as a nine-point stencil in compressed
+ * sparse row form ({@link CompressedSparseRowMatrix}), such that memory and
+ * assembly cost are linear in the number of grid nodes. If the model
+ * coefficients and the time step do not change between two steps (e.g., for
+ * time-homogeneous models on a uniform time discretization), the assembled
+ * operator and its preconditioner are reused.
+ * </p>
+ *
+ * <p>
  * Boundary conditions are enforced via explicit {@link BoundaryCondition}
  * objects.
  * Dirichlet rows are overwritten only if the corresponding boundary condition
@@ -61,8 +68,11 @@ import net.finmath.modelling.Exercise;
  * <p>
  * For American exercise, the solver formulates each backward step as a linear
  * complementarity
- * problem and solves it with projected SOR. For non-American exercise, a direct
- * linear solve is used.
+ * problem and solves it with projected SOR ({@link ProjectedSparseSOR}). For
+ * non-American exercise, the linear system is solved with BiCGSTAB
+ * ({@link SparseBiCGStab}) preconditioned by an incomplete LU factorization
+ * ({@link IncompleteLUPreconditioner}), starting from the solution of the
+ * previous time step.
  * </p>
  *
  * <p>
@@ -90,6 +100,21 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 */
 	private static final double PSOR_TOLERANCE = 1E-10;
 
+	/**
+	 * The BiCGSTAB max iterations.
+	 */
+	private static final int BICGSTAB_MAX_ITERATIONS = 1000;
+	/**
+	 * The BiCGSTAB tolerance on the relative residual.
+	 */
+	private static final double BICGSTAB_TOLERANCE = 1E-12;
+
+	/**
+	 * The relative tolerance below which model coefficients of two time levels
+	 * are considered equal, such that the assembled operator is reused.
+	 */
+	private static final double COEFFICIENT_REUSE_TOLERANCE = 1E-12;
+
 	/**
 	 * The model.
 	 */
@@ -167,8 +192,11 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * At each time step, the method
 	 * </p>
 	 * <ul>
-	 *   <li>builds model coefficients at the two theta evaluation times,</li>
-	 *   <li>assembles the left- and right-hand-side theta operators,</li>
+	 * <li>evaluates the model coefficients at the implicit theta time level
+	 * (the coefficients of the explicit level are those of the previous
+	 * step),</li>
+	 * <li>assembles the sparse generator and the left-hand-side operator,
+	 * unless both can be reused from the previous step,</li>
 	 *   <li>enforces outer boundary conditions and internal constraints,</li>
 	 * <li>solves either a linear system or a linear complementarity
 	 * problem,</li>
@@ -199,51 +227,76 @@ public class FDMThetaMethod2D implements FDMSolver {
 
 		final int n0 = x0Grid.length;
 		final int n1 = x1Grid.length;
+		final int n = n0 * n1;
 
 		final int numberOfTimeSteps = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps();
 		final int timeLength = numberOfTimeSteps + 1;
 		final double theta = spaceTimeDiscretization.getTheta();
 
-		final DifferentialOperators2D operators = buildDifferentialOperators(x0Grid, x1Grid);
+		final FiniteDifferenceStencil2D stencil = buildStencil(x0Grid, x1Grid);
 		final boolean[] isBoundary = buildBoundaryMask(n0, n1);
 
-		RealMatrix u = buildTerminalValues(x0Grid, x1Grid, valueAtMaturity);
-		final RealMatrix z = MatrixUtils.createRealMatrix(n0 * n1, timeLength);
-		z.setColumnMatrix(0, u);
+		double[] u = buildTerminalValues(x0Grid, x1Grid, valueAtMaturity);
+		final double[][] z = new double[n][timeLength];
+		setColumn(z, 0, u);
+
+		ModelCoefficients2D coefficientsM = buildModelCoefficients(x0Grid, x1Grid,
+				spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps));
+		CompressedSparseRowMatrix generatorM = buildGenerator(stencil, coefficientsM);
+
+		/*
+		 * The left-hand side (with Dirichlet rows) and its preconditioner, together with
+		 * the quantities they have been built from.
+		 */
+		CompressedSparseRowMatrix lhs = null;
+		IncompleteLUPreconditioner preconditioner = null;
+		CompressedSparseRowMatrix lhsGenerator = null;
+		double lhsDeltaTau = Double.NaN;
+		boolean[] lhsDirichletRows = null;
 
 		for (int m = 0; m < numberOfTimeSteps; m++) {
 
 			final double deltaTau = spaceTimeDiscretization.getTimeDiscretization().getTimeStep(m);
 
-			final double tm = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - m);
 			final double tmp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - (m + 1));
 
-			final ModelCoefficients2D coefficientsM = buildModelCoefficients(x0Grid, x1Grid, tm);
 			final ModelCoefficients2D coefficientsMp1 = buildModelCoefficients(x0Grid, x1Grid, tmp1);
+			final CompressedSparseRowMatrix generatorMp1 = coefficientsMp1.isEqualTo(coefficientsM)
+					? generatorM
+					: buildGenerator(stencil, coefficientsMp1);
 
-			final RealMatrix lhs = buildThetaLeftHandSide(operators, coefficientsMp1, deltaTau, theta);
-			final RealMatrix rhsOperator = buildThetaRightHandSide(operators, coefficientsM, deltaTau, theta);
-			final RealMatrix rhs = rhsOperator.multiply(u);
+			final double[] rhs = buildThetaRightHandSide(generatorM, u, deltaTau, theta);
 
 			final double tauMp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(m + 1);
 			final double boundaryTime = spaceTimeDiscretization.getTimeDiscretization().getLastTime() - tauMp1;
 
-			applyOuterBoundaryConditions(lhs, rhs, x0Grid, x1Grid, isBoundary, boundaryTime);
-			applyInternalConstraints(lhs, rhs, x0Grid, x1Grid, boundaryTime);
+			final boolean[] dirichletRows = new boolean[n];
+			applyOuterBoundaryConditions(dirichletRows, rhs, x0Grid, x1Grid, isBoundary, boundaryTime);
+			applyInternalConstraints(dirichletRows, rhs, x0Grid, x1Grid, boundaryTime);
+
+			if (generatorMp1 != lhsGenerator || deltaTau != lhsDeltaTau || !Arrays.equals(dirichletRows, lhsDirichletRows)) {
+				lhs = buildThetaLeftHandSide(generatorMp1, dirichletRows, deltaTau, theta);
+				preconditioner = null;
+				lhsGenerator = generatorMp1;
+				lhsDeltaTau = deltaTau;
+				lhsDirichletRows = dirichletRows;
+			}
 
 			final boolean isExerciseDate =
 					FiniteDifferenceExerciseUtil.isExerciseAllowedAtTimeToMaturity(tauMp1, exercise);
 
-			final RealMatrix nextU;
+			final double[] nextU;
 			if (exercise.isAmerican() && isExerciseDate) {
-				final RealMatrix obstacle = buildObstacleVector(x0Grid, x1Grid, boundaryTime, valueAtMaturity);
-				nextU = solveProjectedSOR(lhs, rhs, obstacle, u, PSOR_OMEGA, PSOR_MAX_ITERATIONS, PSOR_TOLERANCE);
+				final double[] obstacle = buildObstacleVector(x0Grid, x1Grid, boundaryTime, valueAtMaturity);
+				nextU = ProjectedSparseSOR.solve(lhs, rhs, obstacle, u, PSOR_OMEGA, PSOR_MAX_ITERATIONS, PSOR_TOLERANCE);
 
 				reimposeInternalConstraints(nextU, x0Grid, x1Grid, boundaryTime);
 				reimposeBoundaryValues(nextU, x0Grid, x1Grid, isBoundary, boundaryTime);
 			} else {
-				final DecompositionSolver solver = new LUDecomposition(lhs).getSolver();
-				nextU = solver.solve(rhs);
+				if (preconditioner == null) {
+					preconditioner = new IncompleteLUPreconditioner(lhs);
+				}
+				nextU = SparseBiCGStab.solve(lhs, preconditioner, rhs, u, BICGSTAB_MAX_ITERATIONS, BICGSTAB_TOLERANCE);
 
 				if (isExerciseDate) {
 					applyExerciseProjection(nextU, x0Grid, x1Grid, boundaryTime, valueAtMaturity);
@@ -254,10 +307,13 @@ public class FDMThetaMethod2D implements FDMSolver {
 			}
 
 			u = nextU;
-			z.setColumnMatrix(m + 1, u);
+			setColumn(z, m + 1, u);
+
+			coefficientsM = coefficientsMp1;
+			generatorM = generatorMp1;
 		}
 
-		return z.getData();
+		return z;
 	}
 
 	/**
@@ -273,10 +329,10 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 */
 	@Override
 	public double[] getValue(final double evaluationTime, final double time, final DoubleUnaryOperator valueAtMaturity) {
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
+		final double[][] values = getValues(time, valueAtMaturity);
 		final double tau = time - evaluationTime;
 		final int timeIndex = this.spaceTimeDiscretization.getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getColumn(values, timeIndex);
 	}
 
 	/**
@@ -291,10 +347,181 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 */
 	@Override
 	public double[] getValue(final double evaluationTime, final double time, final DoubleBinaryOperator valueAtMaturity) {
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
+		final double[][] values = getValues(time, valueAtMaturity);
 		final double tau = time - evaluationTime;
 		final int timeIndex = this.spaceTimeDiscretization.getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getColumn(values, timeIndex);
+	}
+
+	/**
+	 * Returns the flattened value vectors at evaluation time for a batch of
+	 * terminal conditions.
+	 *
+	 * <p>
+	 * The model coefficients and the sparse generator are assembled once per
+	 * time step (and reused across steps as in
+	 * {@link #getValues(double, DoubleBinaryOperator)}). Entries with the same
+	 * Dirichlet rows share the left-hand side and its incomplete LU
+	 * preconditioner, so the number of assemblies and factorizations grows
+	 * with the number of distinct operators only. Each right-hand side is then
+	 * solved by preconditioned BiCGSTAB. Only European exercise is supported.
+	 * </p>
+	 *
+	 * @param evaluationTime The time at which the values are requested.
+	 * @param time The maturity time of the claims.
+	 * @param terminalConditions The terminal conditions on the flattened grid.
+	 *     Products given with the entries have to be
+	 *     {@link FiniteDifferenceEquityProduct}s.
+	 * @return The flattened value vectors at the evaluation time, one per
+	 *     terminal condition.
+	 */
+	@Override
+	public double[][] getBatchValues(
+			final double evaluationTime,
+			final double time,
+			final List<FDMTerminalCondition> terminalConditions) {
+
+		if (exercise.isBermudan() || exercise.isAmerican()) {
+			throw new IllegalArgumentException("Batch valuation supports European exercise only.");
+		}
+
+		final double[] x0Grid = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		final double[] x1Grid = spaceTimeDiscretization.getSpaceGrid(1).getGrid();
+
+		final int n0 = x0Grid.length;
+		final int n1 = x1Grid.length;
+		final int n = n0 * n1;
+		final int numberOfConditions = terminalConditions.size();
+
+		final int numberOfTimeSteps = spaceTimeDiscretization.getTimeDiscretization().getNumberOfTimeSteps();
+		final int lastTimeIndex = Math.min(
+				TimeLayerRecorder.getTimeIndices(spaceTimeDiscretization.getTimeDiscretization(), time, evaluationTime)[0],
+				numberOfTimeSteps);
+		final double theta = spaceTimeDiscretization.getTheta();
+
+		final FiniteDifferenceStencil2D stencil = buildStencil(x0Grid, x1Grid);
+		final boolean[] isBoundary = buildBoundaryMask(n0, n1);
+
+		final FDMThetaMethod2D[] entrySolvers = new FDMThetaMethod2D[numberOfConditions];
+		final double[][] u = new double[numberOfConditions][];
+		for (int k = 0; k < numberOfConditions; k++) {
+			final FDMTerminalCondition terminalCondition = terminalConditions.get(k);
+			if (terminalCondition.getTerminalValues().length != n) {
+				throw new IllegalArgumentException("terminalValues length does not match spatial grid length.");
+			}
+
+			if (terminalCondition.getProduct() == null || terminalCondition.getProduct() == product) {
+				entrySolvers[k] = this;
+			} else if (terminalCondition.getProduct() instanceof FiniteDifferenceEquityProduct) {
+				entrySolvers[k] = new FDMThetaMethod2D(
+						model, (FiniteDifferenceEquityProduct) terminalCondition.getProduct(), spaceTimeDiscretization, exercise);
+			} else {
+				throw new IllegalArgumentException("FDMThetaMethod2D requires FiniteDifferenceEquityProduct batch entries.");
+			}
+			u[k] = terminalCondition.getTerminalValues().clone();
+		}
+
+		ModelCoefficients2D coefficientsM = buildModelCoefficients(x0Grid, x1Grid,
+				spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps));
+		CompressedSparseRowMatrix generatorM = buildGenerator(stencil, coefficientsM);
+
+		/*
+		 * The left-hand sides used in the previous step (one per distinct set of
+		 * Dirichlet rows) and their preconditioners, built from lhsGenerator and
+		 * lhsDeltaTau.
+		 */
+		List<boolean[]> lhsDirichletRows = new ArrayList<>();
+		List<CompressedSparseRowMatrix> lhsMatrices = new ArrayList<>();
+		List<IncompleteLUPreconditioner> preconditioners = new ArrayList<>();
+		CompressedSparseRowMatrix lhsGenerator = null;
+		double lhsDeltaTau = Double.NaN;
+
+		for (int m = 0; m < lastTimeIndex; m++) {
+
+			final double deltaTau = spaceTimeDiscretization.getTimeDiscretization().getTimeStep(m);
+
+			final double tmp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(numberOfTimeSteps - (m + 1));
+
+			final ModelCoefficients2D coefficientsMp1 = buildModelCoefficients(x0Grid, x1Grid, tmp1);
+			final CompressedSparseRowMatrix generatorMp1 = coefficientsMp1.isEqualTo(coefficientsM)
+					? generatorM
+					: buildGenerator(stencil, coefficientsMp1);
+
+			if (generatorMp1 != lhsGenerator || deltaTau != lhsDeltaTau) {
+				lhsDirichletRows.clear();
+				lhsMatrices.clear();
+				preconditioners.clear();
+				lhsGenerator = generatorMp1;
+				lhsDeltaTau = deltaTau;
+			}
+
+			final List<boolean[]> stepDirichletRows = new ArrayList<>();
+			final List<CompressedSparseRowMatrix> stepMatrices = new ArrayList<>();
+			final List<IncompleteLUPreconditioner> stepPreconditioners = new ArrayList<>();
+
+			final double tauMp1 = spaceTimeDiscretization.getTimeDiscretization().getTime(m + 1);
+			final double boundaryTime = spaceTimeDiscretization.getTimeDiscretization().getLastTime() - tauMp1;
+
+			for (int k = 0; k < numberOfConditions; k++) {
+				final FDMThetaMethod2D entrySolver = entrySolvers[k];
+
+				final double[] rhs = buildThetaRightHandSide(generatorM, u[k], deltaTau, theta);
+
+				final boolean[] dirichletRows = new boolean[n];
+				entrySolver.applyOuterBoundaryConditions(dirichletRows, rhs, x0Grid, x1Grid, isBoundary, boundaryTime);
+				entrySolver.applyInternalConstraints(dirichletRows, rhs, x0Grid, x1Grid, boundaryTime);
+
+				int operatorIndex = indexOf(stepDirichletRows, dirichletRows);
+				if (operatorIndex < 0) {
+					final int previousIndex = indexOf(lhsDirichletRows, dirichletRows);
+					final CompressedSparseRowMatrix lhs = previousIndex >= 0
+							? lhsMatrices.get(previousIndex)
+							: buildThetaLeftHandSide(generatorMp1, dirichletRows, deltaTau, theta);
+					stepDirichletRows.add(dirichletRows);
+					stepMatrices.add(lhs);
+					stepPreconditioners.add(previousIndex >= 0 ? preconditioners.get(previousIndex) : new IncompleteLUPreconditioner(lhs));
+					operatorIndex = stepDirichletRows.size() - 1;
+				}
+
+				final double[] nextU = SparseBiCGStab.solve(
+						stepMatrices.get(operatorIndex),
+						stepPreconditioners.get(operatorIndex),
+						rhs,
+						u[k],
+						BICGSTAB_MAX_ITERATIONS,
+						BICGSTAB_TOLERANCE);
+
+				entrySolver.reimposeInternalConstraints(nextU, x0Grid, x1Grid, boundaryTime);
+				entrySolver.reimposeBoundaryValues(nextU, x0Grid, x1Grid, isBoundary, boundaryTime);
+
+				u[k] = nextU;
+			}
+
+			lhsDirichletRows = stepDirichletRows;
+			lhsMatrices = stepMatrices;
+			preconditioners = stepPreconditioners;
+
+			coefficientsM = coefficientsMp1;
+			generatorM = generatorMp1;
+		}
+
+		return u;
+	}
+
+	/**
+	 * Returns the position of a Dirichlet row mask in a list of masks.
+	 *
+	 * @param dirichletRowsList The list of masks.
+	 * @param dirichletRows The mask to look up.
+	 * @return The index of an equal mask, or {@code -1} if there is none.
+	 */
+	private static int indexOf(final List<boolean[]> dirichletRowsList, final boolean[] dirichletRows) {
+		for (int index = 0; index < dirichletRowsList.size(); index++) {
+			if (Arrays.equals(dirichletRowsList.get(index), dirichletRows)) {
+				return index;
+			}
+		}
+		return -1;
 	}
 
 	/**
@@ -303,9 +530,9 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * @param x0Grid The spatial grid in the first dimension.
 	 * @param x1Grid The spatial grid in the second dimension.
 	 * @param valueAtMaturity The payoff function evaluated at maturity.
-	 * @return A column matrix containing the flattened terminal values.
+	 * @return The flattened terminal values.
 	 */
-	private RealMatrix buildTerminalValues(
+	private double[] buildTerminalValues(
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final DoubleBinaryOperator valueAtMaturity) {
@@ -314,12 +541,12 @@ public class FDMThetaMethod2D implements FDMSolver {
 		final int n1 = x1Grid.length;
 		final int n = n0 * n1;
 
-		final RealMatrix u = MatrixUtils.createRealMatrix(n, 1);
+		final double[] u = new double[n];
 
 		for (int j = 0; j < n1; j++) {
 			for (int i = 0; i < n0; i++) {
 				final int k = flatten(i, j, n0);
-				u.setEntry(k, 0, valueAtMaturity.applyAsDouble(x0Grid[i], x1Grid[j]));
+				u[k] = valueAtMaturity.applyAsDouble(x0Grid[i], x1Grid[j]);
 			}
 		}
 
@@ -349,43 +576,67 @@ public class FDMThetaMethod2D implements FDMSolver {
 	}
 
 	/**
-	 * Builds the discrete first- and second-order differential operators on the
-	 * flattened two-dimensional grid.
+	 * Builds the nine-point stencil on the flattened two-dimensional grid.
 	 *
 	 * <p>
-	 * The flattening convention is {@code k = i0 + i1*n0}, where the first
-	 * dimension is the fast index.
+	 * Each row {@code k = i0 + i1*n0} couples the node to all neighbours
+	 * {@code (i0+d0, i1+d1)} with {@code d0, d1} in {@code {-1, 0, 1}} lying
+	 * inside the grid. The column indices are ordered by {@code d1} first and
+	 * {@code d0} second, hence increasing. The one-dimensional first- and
+	 * second-order difference weights are taken from
+	 * {@link FiniteDifferenceMatrixBuilder}, whose matrices are tridiagonal.
 	 * </p>
 	 *
 	 * @param x0Grid The spatial grid in the first dimension.
 	 * @param x1Grid The spatial grid in the second dimension.
-	 * @return The assembled differential operators.
+	 * @return The stencil.
 	 */
-	private DifferentialOperators2D buildDifferentialOperators(final double[] x0Grid, final double[] x1Grid) {
+	private FiniteDifferenceStencil2D buildStencil(final double[] x0Grid, final double[] x1Grid) {
 
-		final FiniteDifferenceMatrixBuilder builder0 = new FiniteDifferenceMatrixBuilder(x0Grid);
-		final RealMatrix t10 = builder0.getFirstDerivativeMatrix();
-		final RealMatrix t20 = builder0.getSecondDerivativeMatrix();
+		final int n0 = x0Grid.length;
+		final int n1 = x1Grid.length;
 
-		final FiniteDifferenceMatrixBuilder builder1 = new FiniteDifferenceMatrixBuilder(x1Grid);
-		final RealMatrix t11 = builder1.getFirstDerivativeMatrix();
-		final RealMatrix t21 = builder1.getSecondDerivativeMatrix();
+		final int[] rowPointers = new int[n0 * n1 + 1];
+		int numberOfEntries = 0;
+		for (int j = 0; j < n1; j++) {
+			for (int i = 0; i < n0; i++) {
+				final int neighbours0 = (i > 0 ? 1 : 0) + 1 + (i < n0 - 1 ? 1 : 0);
+				final int neighbours1 = (j > 0 ? 1 : 0) + 1 + (j < n1 - 1 ? 1 : 0);
+				numberOfEntries += neighbours0 * neighbours1;
+				rowPointers[flatten(i, j, n0) + 1] = numberOfEntries;
+			}
+		}
 
-		final RealMatrix d0 = buildBlockDiagonal(t10, x1Grid.length);
-		final RealMatrix d00 = buildBlockDiagonal(t20, x1Grid.length);
-		final RealMatrix d1 = buildKronWithIdentityLeft(t11, x0Grid.length);
-		final RealMatrix d11 = buildKronWithIdentityLeft(t21, x0Grid.length);
-		final RealMatrix d01 = buildKron(t11, t10);
+		final int[] columnIndices = new int[numberOfEntries];
+		int position = 0;
+		for (int j = 0; j < n1; j++) {
+			for (int i = 0; i < n0; i++) {
+				for (int j1 = Math.max(j - 1, 0); j1 <= Math.min(j + 1, n1 - 1); j1++) {
+					for (int i1 = Math.max(i - 1, 0); i1 <= Math.min(i + 1, n0 - 1); i1++) {
+						columnIndices[position++] = flatten(i1, j1, n0);
+					}
+				}
+			}
+		}
+
+		final FiniteDifferenceMatrixBuilder builder0 = new FiniteDifferenceMatrixBuilder(x0Grid);
+		final FiniteDifferenceMatrixBuilder builder1 = new FiniteDifferenceMatrixBuilder(x1Grid);
 
-		return new DifferentialOperators2D(d0, d1, d00, d11, d01);
+		return new FiniteDifferenceStencil2D(
+				rowPointers,
+				columnIndices,
+				getTridiagonalWeights(builder0.getFirstDerivativeMatrix()),
+				getTridiagonalWeights(builder0.getSecondDerivativeMatrix()),
+				getTridiagonalWeights(builder1.getFirstDerivativeMatrix()),
+				getTridiagonalWeights(builder1.getSecondDerivativeMatrix()));
 	}
 
 	/**
-	 * Builds the model coefficient matrices at a given time.
+	 * Builds the model coefficients at a given time.
 	 *
 	 * <p>
-	 * The returned object contains diagonal matrices for drift and covariance
-	 * entries, together with
+	 * The returned object contains the drift and covariance entries at each
+	 * flattened grid node, together with
 	 * the instantaneous short rate implied by the risk-free discount curve.
 	 * </p>
 	 *
@@ -444,94 +695,137 @@ public class FDMThetaMethod2D implements FDMSolver {
 			}
 		}
 
-		return new ModelCoefficients2D(
-				MatrixUtils.createRealDiagonalMatrix(mu0),
-				MatrixUtils.createRealDiagonalMatrix(mu1),
-				MatrixUtils.createRealDiagonalMatrix(a00),
-				MatrixUtils.createRealDiagonalMatrix(a11),
-				MatrixUtils.createRealDiagonalMatrix(a01),
-				getShortRate(time));
+		return new ModelCoefficients2D(mu0, mu1, a00, a11, a01, getShortRate(time));
 	}
 
 	/**
-	 * Builds the theta-method left-hand-side matrix for one backward step.
+	 * Assembles the sparse generator
+	 * {@code L = mu0 D0 + mu1 D1 + 0.5 a00 D00 + 0.5 a11 D11 + a01 D01 - r I}
+	 * on the nine-point stencil.
 	 *
-	 * @param operators The discrete differential operators.
-	 * @param coefficients The model coefficients evaluated at the implicit
-	 *     theta time level.
+	 * <p>
+	 * Here {@code D0} and {@code D00} act along the first dimension,
+	 * {@code D1} and {@code D11} along the second dimension, and the mixed
+	 * derivative {@code D01} is the tensor product of the two first derivative
+	 * operators.
+	 * </p>
+	 *
+	 * @param stencil The stencil providing the sparsity pattern and the
+	 *     one-dimensional difference weights.
+	 * @param coefficients The model coefficients.
+	 * @return The generator as a sparse matrix.
+	 */
+	private CompressedSparseRowMatrix buildGenerator(
+			final FiniteDifferenceStencil2D stencil,
+			final ModelCoefficients2D coefficients) {
+
+		final double[][] t10 = stencil.getFirstDerivative0();
+		final double[][] t20 = stencil.getSecondDerivative0();
+		final double[][] t11 = stencil.getFirstDerivative1();
+		final double[][] t21 = stencil.getSecondDerivative1();
+
+		final int n0 = t10.length;
+		final int n1 = t11.length;
+
+		final double[] mu0 = coefficients.getMu0();
+		final double[] mu1 = coefficients.getMu1();
+		final double[] a00 = coefficients.getA00();
+		final double[] a11 = coefficients.getA11();
+		final double[] a01 = coefficients.getA01();
+		final double shortRate = coefficients.getShortRate();
+
+		final double[] values = new double[stencil.getColumnIndices().length];
+		int position = 0;
+		for (int j = 0; j < n1; j++) {
+			for (int i = 0; i < n0; i++) {
+				final int k = flatten(i, j, n0);
+
+				for (int j1 = Math.max(j - 1, 0); j1 <= Math.min(j + 1, n1 - 1); j1++) {
+					final int d1 = j1 - j + 1;
+					for (int i1 = Math.max(i - 1, 0); i1 <= Math.min(i + 1, n0 - 1); i1++) {
+						final int d0 = i1 - i + 1;
+
+						double value = a01[k] * t10[i][d0] * t11[j][d1];
+						if (j1 == j) {
+							value += mu0[k] * t10[i][d0] + 0.5 * a00[k] * t20[i][d0];
+						}
+						if (i1 == i) {
+							value += mu1[k] * t11[j][d1] + 0.5 * a11[k] * t21[j][d1];
+						}
+						if (i1 == i && j1 == j) {
+							value -= shortRate;
+						}
+
+						values[position++] = value;
+					}
+				}
+			}
+		}
+
+		return new CompressedSparseRowMatrix(stencil.getRowPointers(), stencil.getColumnIndices(), values);
+	}
+
+	/**
+	 * Builds the theta-method left-hand-side matrix {@code I - theta * deltaTau * L}
+	 * for one backward step and overwrites the Dirichlet rows.
+	 *
+	 * @param generator The generator evaluated at the implicit theta time
+	 *     level.
+	 * @param dirichletRows The mask of rows to be overwritten as Dirichlet
+	 *     rows.
 	 * @param deltaTau The backward time step size in time-to-maturity
 	 *     coordinates.
 	 * @param theta The theta-method parameter.
 	 * @return The left-hand-side matrix of the theta step.
 	 */
-	private RealMatrix buildThetaLeftHandSide(
-			final DifferentialOperators2D operators,
-			final ModelCoefficients2D coefficients,
+	private CompressedSparseRowMatrix buildThetaLeftHandSide(
+			final CompressedSparseRowMatrix generator,
+			final boolean[] dirichletRows,
 			final double deltaTau,
 			final double theta) {
 
-		final int n = operators.getD0().getRowDimension();
-		final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(n);
-
-		final RealMatrix driftTerm =
-				coefficients.getMu0().scalarMultiply(deltaTau).multiply(operators.getD0())
-				.add(coefficients.getMu1().scalarMultiply(deltaTau).multiply(operators.getD1()));
-
-		final RealMatrix diffusionTerm =
-				coefficients.getA00().multiply(operators.getD00().scalarMultiply(0.5 * deltaTau))
-				.add(coefficients.getA11().multiply(operators.getD11().scalarMultiply(0.5 * deltaTau)))
-				.add(coefficients.getA01().multiply(operators.getD01().scalarMultiply(deltaTau)));
-
-		final RealMatrix generatorStep =
-				identity.scalarMultiply(1.0 + coefficients.getShortRate() * deltaTau)
-				.subtract(driftTerm)
-				.subtract(diffusionTerm);
+		final CompressedSparseRowMatrix lhs = generator.getLinearCombinationWithIdentity(1.0, -theta * deltaTau);
+		for (int k = 0; k < dirichletRows.length; k++) {
+			if (dirichletRows[k]) {
+				lhs.setRowToIdentity(k);
+			}
+		}
 
-		return generatorStep.scalarMultiply(theta).add(identity.scalarMultiply(1.0 - theta));
+		return lhs;
 	}
 
 	/**
-	 * Builds the theta-method right-hand-side operator for one backward step.
+	 * Builds the theta-method right-hand side
+	 * {@code u + (1 - theta) * deltaTau * L u} for one backward step.
 	 *
-	 * @param operators The discrete differential operators.
-	 * @param coefficients The model coefficients evaluated at the explicit
-	 *     theta time level.
+	 * @param generator The generator evaluated at the explicit theta time
+	 *     level.
+	 * @param u The solution of the previous time step.
 	 * @param deltaTau The backward time step size in time-to-maturity
 	 *     coordinates.
 	 * @param theta The theta-method parameter.
-	 * @return The right-hand-side operator of the theta step.
+	 * @return The right-hand-side vector of the theta step.
 	 */
-	private RealMatrix buildThetaRightHandSide(
-			final DifferentialOperators2D operators,
-			final ModelCoefficients2D coefficients,
+	private double[] buildThetaRightHandSide(
+			final CompressedSparseRowMatrix generator,
+			final double[] u,
 			final double deltaTau,
 			final double theta) {
 
-		final int n = operators.getD0().getRowDimension();
-		final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(n);
-
-		final RealMatrix driftTerm =
-				coefficients.getMu0().scalarMultiply(deltaTau).multiply(operators.getD0())
-				.add(coefficients.getMu1().scalarMultiply(deltaTau).multiply(operators.getD1()));
-
-		final RealMatrix diffusionTerm =
-				coefficients.getA00().multiply(operators.getD00().scalarMultiply(0.5 * deltaTau))
-				.add(coefficients.getA11().multiply(operators.getD11().scalarMultiply(0.5 * deltaTau)))
-				.add(coefficients.getA01().multiply(operators.getD01().scalarMultiply(deltaTau)));
-
-		final RealMatrix generatorStep =
-				identity.scalarMultiply(1.0 - coefficients.getShortRate() * deltaTau)
-				.add(driftTerm)
-				.add(diffusionTerm);
+		final double[] rhs = new double[u.length];
+		generator.multiply(u, rhs);
+		for (int k = 0; k < rhs.length; k++) {
+			rhs[k] = u[k] + (1.0 - theta) * deltaTau * rhs[k];
+		}
 
-		return generatorStep.scalarMultiply(1.0 - theta).add(identity.scalarMultiply(theta));
+		return rhs;
 	}
 
 	/**
-	 * Applies outer Dirichlet boundary conditions by overwriting the
-	 * corresponding matrix rows.
+	 * Applies outer Dirichlet boundary conditions by marking the corresponding
+	 * rows and setting the boundary values in the right-hand side.
 	 *
-	 * @param lhs The left-hand-side matrix to be modified.
+	 * @param dirichletRows The mask of Dirichlet rows to be modified.
 	 * @param rhs The right-hand-side vector to be modified.
 	 * @param x0Grid The spatial grid in the first dimension.
 	 * @param x1Grid The spatial grid in the second dimension.
@@ -541,8 +835,8 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 *     evaluated.
 	 */
 	private void applyOuterBoundaryConditions(
-			final RealMatrix lhs,
-			final RealMatrix rhs,
+			final boolean[] dirichletRows,
+			final double[] rhs,
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final boolean[] isBoundary,
@@ -550,7 +844,6 @@ public class FDMThetaMethod2D implements FDMSolver {
 
 		final int n0 = x0Grid.length;
 		final int n1 = x1Grid.length;
-		final int n = n0 * n1;
 
 		for (int j = 0; j < n1; j++) {
 			for (int i = 0; i < n0; i++) {
@@ -561,17 +854,19 @@ public class FDMThetaMethod2D implements FDMSolver {
 
 				final BoundaryCondition boundaryCondition = chooseBoundaryCondition(i, j, x0Grid, x1Grid, boundaryTime);
 				if (boundaryCondition != null && boundaryCondition.isDirichlet()) {
-					overwriteAsDirichlet(lhs, rhs, k, boundaryCondition.getValue(), n);
+					dirichletRows[k] = true;
+					rhs[k] = boundaryCondition.getValue();
 				}
 			}
 		}
 	}
 
 	/**
-	 * Applies internal state constraints by overwriting the corresponding
-	 * matrix rows as internal Dirichlet rows.
+	 * Applies internal state constraints by marking the corresponding rows as
+	 * internal Dirichlet rows and setting the constrained values in the
+	 * right-hand side.
 	 *
-	 * @param lhs The left-hand-side matrix to be modified.
+	 * @param dirichletRows The mask of Dirichlet rows to be modified.
 	 * @param rhs The right-hand-side vector to be modified.
 	 * @param x0Grid The spatial grid in the first dimension.
 	 * @param x1Grid The spatial grid in the second dimension.
@@ -579,15 +874,14 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 *     evaluated.
 	 */
 	private void applyInternalConstraints(
-			final RealMatrix lhs,
-			final RealMatrix rhs,
+			final boolean[] dirichletRows,
+			final double[] rhs,
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final double boundaryTime) {
 
 		final int n0 = x0Grid.length;
 		final int n1 = x1Grid.length;
-		final int n = n0 * n1;
 
 		for (int j = 0; j < n1; j++) {
 			for (int i = 0; i < n0; i++) {
@@ -596,7 +890,8 @@ public class FDMThetaMethod2D implements FDMSolver {
 				final double x1 = x1Grid[j];
 
 				if (isInternalConstraintActive(boundaryTime, x0, x1)) {
-					overwriteAsDirichlet(lhs, rhs, k, getInternalConstrainedValue(boundaryTime, x0, x1), n);
+					dirichletRows[k] = true;
+					rhs[k] = getInternalConstrainedValue(boundaryTime, x0, x1);
 				}
 			}
 		}
@@ -619,9 +914,9 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * @param x1Grid The spatial grid in the second dimension.
 	 * @param boundaryTime The current model time.
 	 * @param valueAtMaturity The intrinsic exercise value.
-	 * @return The obstacle vector as a column matrix.
+	 * @return The obstacle vector.
 	 */
-	private RealMatrix buildObstacleVector(
+	private double[] buildObstacleVector(
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final double boundaryTime,
@@ -629,7 +924,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 
 		final int n0 = x0Grid.length;
 		final int n1 = x1Grid.length;
-		final RealMatrix obstacle = MatrixUtils.createRealMatrix(n0 * n1, 1);
+		final double[] obstacle = new double[n0 * n1];
 
 		for (int j = 0; j < n1; j++) {
 			for (int i = 0; i < n0; i++) {
@@ -640,11 +935,11 @@ public class FDMThetaMethod2D implements FDMSolver {
 				final BoundaryCondition boundaryCondition = chooseBoundaryCondition(i, j, x0Grid, x1Grid, boundaryTime);
 
 				if (boundaryCondition != null && boundaryCondition.isDirichlet()) {
-					obstacle.setEntry(k, 0, boundaryCondition.getValue());
+					obstacle[k] = boundaryCondition.getValue();
 				} else if (isInternalConstraintActive(boundaryTime, x0, x1)) {
-					obstacle.setEntry(k, 0, getInternalConstrainedValue(boundaryTime, x0, x1));
+					obstacle[k] = getInternalConstrainedValue(boundaryTime, x0, x1);
 				} else {
-					obstacle.setEntry(k, 0, valueAtMaturity.applyAsDouble(x0, x1));
+					obstacle[k] = valueAtMaturity.applyAsDouble(x0, x1);
 				}
 			}
 		}
@@ -652,80 +947,6 @@ public class FDMThetaMethod2D implements FDMSolver {
 		return obstacle;
 	}
 
-	/**
-	 * Solves the linear complementarity problem
-	 * {@code lhs * u >= rhs}, {@code u >= obstacle},
-	 * together with the complementarity condition, using projected SOR.
-	 *
-	 * <p>
-	 * The iteration performs a Gauss-Seidel SOR update at each row and then
-	 * projects the result
-	 * onto the obstacle set. The initial guess is typically the previous time-
-	 * step solution.
-	 * </p>
-	 *
-	 * @param lhs The system matrix.
-	 * @param rhs The right-hand-side column vector.
-	 * @param obstacle The obstacle column vector.
-	 * @param initialGuess The initial guess for the iteration.
-	 * @param omega The relaxation parameter.
-	 * @param maxIterations The maximum number of SOR iterations.
-	 * @param tolerance The convergence tolerance in supremum norm.
-	 * @return The projected SOR solution as a column matrix.
-	 * @throws IllegalArgumentException If a diagonal entry is numerically zero.
-	 */
-	private RealMatrix solveProjectedSOR(
-			final RealMatrix lhs,
-			final RealMatrix rhs,
-			final RealMatrix obstacle,
-			final RealMatrix initialGuess,
-			final double omega,
-			final int maxIterations,
-			final double tolerance) {
-
-		final int n = lhs.getRowDimension();
-		final double[] u = new double[n];
-		for (int i = 0; i < n; i++) {
-			u[i] = Math.max(initialGuess.getEntry(i, 0), obstacle.getEntry(i, 0));
-		}
-
-		for (int iteration = 0; iteration < maxIterations; iteration++) {
-			double maxChange = 0.0;
-
-			for (int i = 0; i < n; i++) {
-				final double diagonal = lhs.getEntry(i, i);
-				if (Math.abs(diagonal) < 1E-14) {
-					throw new IllegalArgumentException("Projected SOR failed due to near-zero diagonal entry at row " + i + ".");
-				}
-
-				double sum = 0.0;
-				for (int j = 0; j < n; j++) {
-					if (j != i) {
-						sum += lhs.getEntry(i, j) * u[j];
-					}
-				}
-
-				final double gaussSeidelValue = (rhs.getEntry(i, 0) - sum) / diagonal;
-				final double relaxedValue = (1.0 - omega) * u[i] + omega * gaussSeidelValue;
-				final double projectedValue = Math.max(obstacle.getEntry(i, 0), relaxedValue);
-
-				maxChange = Math.max(maxChange, Math.abs(projectedValue - u[i]));
-				u[i] = projectedValue;
-			}
-
-			if (maxChange < tolerance) {
-				break;
-			}
-		}
-
-		final RealMatrix solution = MatrixUtils.createRealMatrix(n, 1);
-		for (int i = 0; i < n; i++) {
-			solution.setEntry(i, 0, u[i]);
-		}
-
-		return solution;
-	}
-
 	/**
 	 * Applies pointwise exercise projection to a solution vector at an exercise
 	 * date.
@@ -744,7 +965,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * @param valueAtMaturity The intrinsic exercise value.
 	 */
 	private void applyExerciseProjection(
-			final RealMatrix u,
+			final double[] u,
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final double boundaryTime,
@@ -762,11 +983,11 @@ public class FDMThetaMethod2D implements FDMSolver {
 				final BoundaryCondition boundaryCondition = chooseBoundaryCondition(i, j, x0Grid, x1Grid, boundaryTime);
 
 				if (boundaryCondition != null && boundaryCondition.isDirichlet()) {
-					u.setEntry(k, 0, boundaryCondition.getValue());
+					u[k] = boundaryCondition.getValue();
 				} else if (isInternalConstraintActive(boundaryTime, x0, x1)) {
-					u.setEntry(k, 0, getInternalConstrainedValue(boundaryTime, x0, x1));
+					u[k] = getInternalConstrainedValue(boundaryTime, x0, x1);
 				} else {
-					u.setEntry(k, 0, Math.max(u.getEntry(k, 0), valueAtMaturity.applyAsDouble(x0, x1)));
+					u[k] = Math.max(u[k], valueAtMaturity.applyAsDouble(x0, x1));
 				}
 			}
 		}
@@ -781,7 +1002,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * @param boundaryTime The current model time.
 	 */
 	private void reimposeInternalConstraints(
-			final RealMatrix u,
+			final double[] u,
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final double boundaryTime) {
@@ -795,7 +1016,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 				final double x1 = x1Grid[j];
 
 				if (isInternalConstraintActive(boundaryTime, x0, x1)) {
-					u.setEntry(flatten(i, j, n0), 0, getInternalConstrainedValue(boundaryTime, x0, x1));
+					u[flatten(i, j, n0)] = getInternalConstrainedValue(boundaryTime, x0, x1);
 				}
 			}
 		}
@@ -811,7 +1032,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 	 * @param boundaryTime The current model time.
 	 */
 	private void reimposeBoundaryValues(
-			final RealMatrix u,
+			final double[] u,
 			final double[] x0Grid,
 			final double[] x1Grid,
 			final boolean[] isBoundary,
@@ -829,7 +1050,7 @@ public class FDMThetaMethod2D implements FDMSolver {
 
 				final BoundaryCondition boundaryCondition = chooseBoundaryCondition(i, j, x0Grid, x1Grid, boundaryTime);
 				if (boundaryCondition != null && boundaryCondition.isDirichlet()) {
-					u.setEntry(k, 0, boundaryCondition.getValue());
+					u[k] = boundaryCondition.getValue();
 				}
 			}
 		}
@@ -880,30 +1101,6 @@ public class FDMThetaMethod2D implements FDMSolver {
 		return null;
 	}
 
-	/**
-	 * Overwrites a matrix row as a Dirichlet condition.
-	 *
-	 * @param lhs The left-hand-side matrix to modify.
-	 * @param rhs The right-hand-side vector to modify.
-	 * @param row The row index to overwrite.
-	 * @param value The Dirichlet value to impose.
-	 * @param dimension The matrix dimension.
-	 */
-	private void overwriteAsDirichlet(
-			final RealMatrix lhs,
-			final RealMatrix rhs,
-			final int row,
-			final double value,
-			final int dimension) {
-
-		for (int col = 0; col < dimension; col++) {
-			lhs.setEntry(row, col, 0.0);
-		}
-
-		lhs.setEntry(row, row, 1.0);
-		rhs.setEntry(row, 0, value);
-	}
-
 	/**
 	 * Computes the instantaneous short rate implied by the risk-free discount
 	 * curve.
@@ -960,206 +1157,170 @@ public class FDMThetaMethod2D implements FDMSolver {
 	}
 
 	/**
-	 * Builds a block-diagonal sparse matrix with identical blocks on the
-	 * diagonal.
+	 * Extracts the entries of a tridiagonal matrix.
 	 *
-	 * @param block The block to replicate.
-	 * @param numBlocks The number of blocks.
-	 * @return The block-diagonal sparse matrix.
+	 * @param matrix The tridiagonal matrix.
+	 * @return The array {@code weights[i][d]} holding the entry
+	 *     {@code (i, i+d-1)} for {@code d = 0, 1, 2} (zero outside the
+	 *     matrix).
 	 */
-	private static RealMatrix buildBlockDiagonal(final RealMatrix block, final int numBlocks) {
-		final int rowDimension = block.getRowDimension();
-		final int blockDimension = rowDimension * numBlocks;
-		final OpenMapRealMatrix out = new OpenMapRealMatrix(blockDimension, blockDimension);
-
-		for (int b = 0; b < numBlocks; b++) {
-			final int row0 = b * rowDimension;
-			final int col0 = b * rowDimension;
-
-			for (int i = 0; i < rowDimension; i++) {
-				for (int j = Math.max(0, i - 2); j <= Math.min(rowDimension - 1, i + 2); j++) {
-					final double value = block.getEntry(i, j);
-					if (value != 0.0) {
-						out.setEntry(row0 + i, col0 + j, value);
-					}
-				}
+	private static double[][] getTridiagonalWeights(final RealMatrix matrix) {
+		final int n = matrix.getRowDimension();
+		final double[][] weights = new double[n][3];
+
+		for (int i = 0; i < n; i++) {
+			for (int j = Math.max(0, i - 1); j <= Math.min(n - 1, i + 1); j++) {
+				weights[i][j - i + 1] = matrix.getEntry(i, j);
 			}
 		}
 
-		return out;
+		return weights;
 	}
 
 	/**
-	 * Builds the sparse Kronecker product of two matrices.
+	 * Stores a vector as a column of the solution surface.
 	 *
-	 * @param a The left matrix.
-	 * @param b The right matrix.
-	 * @return The sparse Kronecker product {@code a ⊗ b}.
+	 * @param values The solution surface {@code values[flattenedSpaceIndex][timeIndex]}.
+	 * @param timeIndex The column index.
+	 * @param column The vector to store.
 	 */
-	private static RealMatrix buildKron(final RealMatrix a, final RealMatrix b) {
-		final int aRows = a.getRowDimension();
-		final int aCols = a.getColumnDimension();
-		final int bRows = b.getRowDimension();
-		final int bCols = b.getColumnDimension();
-
-		final OpenMapRealMatrix out = new OpenMapRealMatrix(aRows * bRows, aCols * bCols);
-
-		for (int i = 0; i < aRows; i++) {
-			for (int j = Math.max(0, i - 2); j <= Math.min(aCols - 1, i + 2); j++) {
-				final double aValue = a.getEntry(i, j);
-				if (aValue == 0.0) {
-					continue;
-				}
-
-				final int rowBase = i * bRows;
-				final int colBase = j * bCols;
-
-				for (int p = 0; p < bRows; p++) {
-					for (int q = Math.max(0, p - 2); q <= Math.min(bCols - 1, p + 2); q++) {
-						final double bValue = b.getEntry(p, q);
-						if (bValue == 0.0) {
-							continue;
-						}
-
-						out.setEntry(rowBase + p, colBase + q, aValue * bValue);
-					}
-				}
-			}
+	private static void setColumn(final double[][] values, final int timeIndex, final double[] column) {
+		for (int k = 0; k < column.length; k++) {
+			values[k][timeIndex] = column[k];
 		}
-
-		return out;
 	}
 
 	/**
-	 * Builds the sparse Kronecker product {@code A ⊗ I}, where {@code I} is an
-	 * identity matrix.
+	 * Extracts a column of the solution surface.
 	 *
-	 * @param a The left matrix.
-	 * @param nIdentity The dimension of the identity matrix.
-	 * @return The sparse matrix {@code a ⊗ I}.
+	 * @param values The solution surface {@code values[flattenedSpaceIndex][timeIndex]}.
+	 * @param timeIndex The column index.
+	 * @return The flattened value vector at the given time index.
 	 */
-	private static RealMatrix buildKronWithIdentityLeft(final RealMatrix a, final int nIdentity) {
-		final int aRows = a.getRowDimension();
-		final int aCols = a.getColumnDimension();
-		final int N = aRows * nIdentity;
-
-		final OpenMapRealMatrix out = new OpenMapRealMatrix(N, aCols * nIdentity);
-
-		for (int i = 0; i < aRows; i++) {
-			for (int j = Math.max(0, i - 2); j <= Math.min(aCols - 1, i + 2); j++) {
-				final double aValue = a.getEntry(i, j);
-				if (aValue == 0.0) {
-					continue;
-				}
-
-				for (int k = 0; k < nIdentity; k++) {
-					out.setEntry(i * nIdentity + k, j * nIdentity + k, aValue);
-				}
-			}
+	private static double[] getColumn(final double[][] values, final int timeIndex) {
+		final double[] column = new double[values.length];
+		for (int k = 0; k < values.length; k++) {
+			column[k] = values[k][timeIndex];
 		}
-
-		return out;
+		return column;
 	}
 
 	/**
-	 * Container for the discrete two-dimensional differential operators.
+	 * Container for the sparsity pattern of the nine-point stencil and the
+	 * one-dimensional difference weights.
 	 */
-	private static final class DifferentialOperators2D {
+	private static final class FiniteDifferenceStencil2D {
 
 		/**
-		 * The d0.
+		 * The row pointers of the sparsity pattern.
 		 */
-		private final RealMatrix d0;
+		private final int[] rowPointers;
 		/**
-		 * The d1.
+		 * The column indices of the sparsity pattern.
 		 */
-		private final RealMatrix d1;
+		private final int[] columnIndices;
 		/**
-		 * The d00.
+		 * The first derivative weights in the first dimension.
 		 */
-		private final RealMatrix d00;
+		private final double[][] firstDerivative0;
 		/**
-		 * The d11.
+		 * The second derivative weights in the first dimension.
 		 */
-		private final RealMatrix d11;
+		private final double[][] secondDerivative0;
 		/**
-		 * The d01.
+		 * The first derivative weights in the second dimension.
 		 */
-		private final RealMatrix d01;
+		private final double[][] firstDerivative1;
+		/**
+		 * The second derivative weights in the second dimension.
+		 */
+		private final double[][] secondDerivative1;
+
+		/**
+		 * Creates a container for the stencil.
+		 *
+		 * @param rowPointers The row pointers of the sparsity pattern.
+		 * @param columnIndices The column indices of the sparsity pattern.
+		 * @param firstDerivative0 The first derivative weights with respect
+		 *     to the first state variable.
+		 * @param secondDerivative0 The second derivative weights with respect
+		 *     to the first state variable.
+		 * @param firstDerivative1 The first derivative weights with respect
+		 *     to the second state variable.
+		 * @param secondDerivative1 The second derivative weights with respect
+		 *     to the second state variable.
+		 */
+		private FiniteDifferenceStencil2D(
+				final int[] rowPointers,
+				final int[] columnIndices,
+				final double[][] firstDerivative0,
+				final double[][] secondDerivative0,
+				final double[][] firstDerivative1,
+				final double[][] secondDerivative1) {
+			this.rowPointers = rowPointers;
+			this.columnIndices = columnIndices;
+			this.firstDerivative0 = firstDerivative0;
+			this.secondDerivative0 = secondDerivative0;
+			this.firstDerivative1 = firstDerivative1;
+			this.secondDerivative1 = secondDerivative1;
+		}
 
 		/**
-		 * Creates a container for the discrete differential operators.
+		 * Returns the row pointers of the sparsity pattern.
 		 *
-		 * @param d0 The first derivative operator with respect to the first
-		 *     state variable.
-		 * @param d1 The first derivative operator with respect to the second
-		 *     state variable.
-		 * @param d00 The second derivative operator with respect to the first
-		 *     state variable.
-		 * @param d11 The second derivative operator with respect to the second
-		 *     state variable.
-		 * @param d01 The mixed derivative operator.
+		 * @return The row pointers.
 		 */
-		private DifferentialOperators2D(
-				final RealMatrix d0,
-				final RealMatrix d1,
-				final RealMatrix d00,
-				final RealMatrix d11,
-				final RealMatrix d01) {
-			this.d0 = d0;
-			this.d1 = d1;
-			this.d00 = d00;
-			this.d11 = d11;
-			this.d01 = d01;
+		private int[] getRowPointers() {
+			return rowPointers;
 		}
 
 		/**
-		 * Returns the first derivative operator with respect to the first state
-		 * variable.
+		 * Returns the column indices of the sparsity pattern.
 		 *
-		 * @return The operator {@code d/dx0}.
+		 * @return The column indices.
 		 */
-		private RealMatrix getD0() {
-			return d0;
+		private int[] getColumnIndices() {
+			return columnIndices;
 		}
 
 		/**
-		 * Returns the first derivative operator with respect to the second
+		 * Returns the first derivative weights with respect to the first
 		 * state variable.
 		 *
-		 * @return The operator {@code d/dx1}.
+		 * @return The weights of {@code d/dx0}.
 		 */
-		private RealMatrix getD1() {
-			return d1;
+		private double[][] getFirstDerivative0() {
+			return firstDerivative0;
 		}
 
 		/**
-		 * Returns the second derivative operator with respect to the first
+		 * Returns the second derivative weights with respect to the first
 		 * state variable.
 		 *
-		 * @return The operator {@code d^2/dx0^2}.
+		 * @return The weights of {@code d^2/dx0^2}.
 		 */
-		private RealMatrix getD00() {
-			return d00;
+		private double[][] getSecondDerivative0() {
+			return secondDerivative0;
 		}
 
 		/**
-		 * Returns the second derivative operator with respect to the second
+		 * Returns the first derivative weights with respect to the second
 		 * state variable.
 		 *
-		 * @return The operator {@code d^2/dx1^2}.
+		 * @return The weights of {@code d/dx1}.
 		 */
-		private RealMatrix getD11() {
-			return d11;
+		private double[][] getFirstDerivative1() {
+			return firstDerivative1;
 		}
 
 		/**
-		 * Returns the mixed derivative operator.
+		 * Returns the second derivative weights with respect to the second
+		 * state variable.
 		 *
-		 * @return The operator {@code d^2/(dx0 dx1)}.
+		 * @return The weights of {@code d^2/dx1^2}.
 		 */
-		private RealMatrix getD01() {
-			return d01;
+		private double[][] getSecondDerivative1() {
+			return secondDerivative1;
 		}
 	}
 
@@ -1172,44 +1333,44 @@ public class FDMThetaMethod2D implements FDMSolver {
 		/**
 		 * The mu0.
 		 */
-		private final RealMatrix mu0;
+		private final double[] mu0;
 		/**
 		 * The mu1.
 		 */
-		private final RealMatrix mu1;
+		private final double[] mu1;
 		/**
 		 * The a00.
 		 */
-		private final RealMatrix a00;
+		private final double[] a00;
 		/**
 		 * The a11.
 		 */
-		private final RealMatrix a11;
+		private final double[] a11;
 		/**
 		 * The a01.
 		 */
-		private final RealMatrix a01;
+		private final double[] a01;
 		/**
 		 * The short rate.
 		 */
 		private final double shortRate;
 
 		/**
-		 * Creates a container for the model coefficient matrices.
+		 * Creates a container for the model coefficients.
 		 *
-		 * @param mu0 The diagonal matrix of first-component drift values.
-		 * @param mu1 The diagonal matrix of second-component drift values.
-		 * @param a00 The diagonal matrix of first-component variances.
-		 * @param a11 The diagonal matrix of second-component variances.
-		 * @param a01 The diagonal matrix of covariances.
+		 * @param mu0 The first-component drift values.
+		 * @param mu1 The second-component drift values.
+		 * @param a00 The first-component variances.
+		 * @param a11 The second-component variances.
+		 * @param a01 The covariances.
 		 * @param shortRate The instantaneous short rate.
 		 */
 		private ModelCoefficients2D(
-				final RealMatrix mu0,
-				final RealMatrix mu1,
-				final RealMatrix a00,
-				final RealMatrix a11,
-				final RealMatrix a01,
+				final double[] mu0,
+				final double[] mu1,
+				final double[] a00,
+				final double[] a11,
+				final double[] a01,
 				final double shortRate) {
 			this.mu0 = mu0;
 			this.mu1 = mu1;
@@ -1220,47 +1381,64 @@ public class FDMThetaMethod2D implements FDMSolver {
 		}
 
 		/**
-		 * Returns the diagonal drift matrix for the first state variable.
+		 * Checks whether the coefficients agree with another set of
+		 * coefficients up to the relative tolerance
+		 * {@link FDMThetaMethod2D#COEFFICIENT_REUSE_TOLERANCE}.
+		 *
+		 * @param other The other coefficients.
+		 * @return {@code true} if all coefficients agree.
+		 */
+		private boolean isEqualTo(final ModelCoefficients2D other) {
+			return isEqual(shortRate, other.shortRate)
+					&& isEqual(mu0, other.mu0)
+					&& isEqual(mu1, other.mu1)
+					&& isEqual(a00, other.a00)
+					&& isEqual(a11, other.a11)
+					&& isEqual(a01, other.a01);
+		}
+
+		/**
+		 * Returns the drifts for the first state variable.
 		 *
-		 * @return The matrix of first-component drifts.
+		 * @return The first-component drifts.
 		 */
-		private RealMatrix getMu0() {
+		private double[] getMu0() {
 			return mu0;
 		}
 
 		/**
-		 * Returns the diagonal drift matrix for the second state variable.
+		 * Returns the drifts for the second state variable.
 		 *
-		 * @return The matrix of second-component drifts.
+		 * @return The second-component drifts.
 		 */
-		private RealMatrix getMu1() {
+		private double[] getMu1() {
 			return mu1;
 		}
 
 		/**
-		 * Returns the diagonal variance matrix for the first state variable.
+		 * Returns the variances for the first state variable.
 		 *
-		 * @return The matrix of first-component variances.
+		 * @return The first-component variances.
 		 */
-		private RealMatrix getA00() {
+		private double[] getA00() {
 			return a00;
 		}
 
 		/**
-		 * Returns the diagonal variance matrix for the second state variable.
+		 * Returns the variances for the second state variable.
 		 *
-		 * @return The matrix of second-component variances.
+		 * @return The second-component variances.
 		 */
-		private RealMatrix getA11() {
+		private double[] getA11() {
 			return a11;
 		}
 
 		/**
-		 * Returns the diagonal covariance matrix.
+		 * Returns the covariances.
 		 *
-		 * @return The matrix of covariances.
+		 * @return The covariances.
 		 */
-		private RealMatrix getA01() {
+		private double[] getA01() {
 			return a01;
 		}
 
@@ -1272,5 +1450,18 @@ public class FDMThetaMethod2D implements FDMSolver {
 		private double getShortRate() {
 			return shortRate;
 		}
+
+		private static boolean isEqual(final double[] a, final double[] b) {
+			for (int k = 0; k < a.length; k++) {
+				if (!isEqual(a[k], b[k])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isEqual(final double a, final double b) {
+			return Math.abs(a - b) <= COEFFICIENT_REUSE_TOLERANCE * Math.max(Math.abs(a), Math.abs(b));
+		}
 	}
 }
@@ -0,0 +1,145 @@
+package net.finmath.finitedifference.solvers;
+
+/**
+ * Utility class providing the preconditioned stabilized bi-conjugate gradient
+ * method (BiCGSTAB) for sparse linear systems {@code A x = b}.
+ * <p>
+ * The method is suited for the non-symmetric systems arising from implicit
+ * finite difference discretizations of convection-diffusion operators. Each
+ * iteration requires two matrix-vector products and two applications of the
+ * preconditioner, such that, together with an {@link IncompleteLUPreconditioner},
+ * the cost per iteration is {@code O(nnz)}.
+ * </p>
+ *
+ * <p>
+ * The iteration is stopped once the Euclidean norm of the residual
+ * {@code b - A x} falls below {@code tolerance} times the norm of {@code b}.
+ * </p>
+ *
+ * References:
+ * <ul>
+ *  <li> van der Vorst, H. A. (1992) Bi-CGSTAB: A fast and smoothly converging variant of Bi-CG for the solution of nonsymmetric linear systems. SIAM Journal on Scientific and Statistical Computing.</li>
+ * </ul>
+ *
+ * @author agent
+ */
+public final class SparseBiCGStab {
+
+	/**
+	 * Creates no instances of this utility class.
+	 */
+	private SparseBiCGStab() {
+	}
+
+	/**
+	 * Solves the linear system {@code matrix * x = rhs}.
+	 *
+	 * @param matrix The system matrix.
+	 * @param preconditioner The (right) preconditioner approximating the inverse of
+	 *     the system matrix.
+	 * @param rhs The right-hand side vector.
+	 * @param initialGuess The initial iterate, e.g., the solution of the
+	 *     previous time step. It is not modified.
+	 * @param maxIterations The maximum number of iterations.
+	 * @param tolerance The stopping tolerance for the relative residual.
+	 * @return The solution vector.
+	 * @throws IllegalStateException If the iteration does not converge within
+	 *     the maximum number of iterations or breaks down.
+	 */
+	public static double[] solve(
+			final CompressedSparseRowMatrix matrix,
+			final IncompleteLUPreconditioner preconditioner,
+			final double[] rhs,
+			final double[] initialGuess,
+			final int maxIterations,
+			final double tolerance) {
+
+		final int n = matrix.getDimension();
+		if (rhs.length != n || initialGuess.length != n) {
+			throw new IllegalArgumentException("Right-hand side and initial guess have to match the matrix dimension.");
+		}
+
+		final double[] x = initialGuess.clone();
+		final double[] r = new double[n];
+		final double[] p = new double[n];
+		final double[] v = new double[n];
+		final double[] s = new double[n];
+		final double[] t = new double[n];
+		final double[] pHat = new double[n];
+		final double[] sHat = new double[n];
+
+		final double normRhs = norm(rhs);
+		if (normRhs == 0.0) {
+			return new double[n];
+		}
+		final double targetResidual = tolerance * normRhs;
+
+		matrix.multiply(x, r);
+		for (int i = 0; i < n; i++) {
+			r[i] = rhs[i] - r[i];
+		}
+		if (norm(r) <= targetResidual) {
+			return x;
+		}
+
+		final double[] rHat = r.clone();
+		double rho = 1.0;
+		double alpha = 1.0;
+		double omega = 1.0;
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			final double rhoNew = dot(rHat, r);
+			if (rhoNew == 0.0 || omega == 0.0) {
+				throw new IllegalStateException("BiCGSTAB broke down after " + iteration + " iterations.");
+			}
+
+			final double beta = (rhoNew / rho) * (alpha / omega);
+			rho = rhoNew;
+			for (int i = 0; i < n; i++) {
+				p[i] = r[i] + beta * (p[i] - omega * v[i]);
+			}
+
+			preconditioner.apply(p, pHat);
+			matrix.multiply(pHat, v);
+			alpha = rho / dot(rHat, v);
+
+			for (int i = 0; i < n; i++) {
+				s[i] = r[i] - alpha * v[i];
+			}
+			if (norm(s) <= targetResidual) {
+				for (int i = 0; i < n; i++) {
+					x[i] += alpha * pHat[i];
+				}
+				return x;
+			}
+
+			preconditioner.apply(s, sHat);
+			matrix.multiply(sHat, t);
+			final double tt = dot(t, t);
+			omega = tt > 0.0 ? dot(t, s) / tt : 0.0;
+
+			for (int i = 0; i < n; i++) {
+				x[i] += alpha * pHat[i] + omega * sHat[i];
+				r[i] = s[i] - omega * t[i];
+			}
+
+			if (norm(r) <= targetResidual) {
+				return x;
+			}
+		}
+
+		throw new IllegalStateException("BiCGSTAB did not converge within " + maxIterations + " iterations.");
+	}
+
+	private static double dot(final double[] a, final double[] b) {
+		double sum = 0.0;
+		for (int i = 0; i < a.length; i++) {
+			sum += a[i] * b[i];
+		}
+		return sum;
+	}
+
+	private static double norm(final double[] a) {
+		return Math.sqrt(dot(a, a));
+	}
+}
@@ -91,4 +91,103 @@ public final class ThomasSolver {
 
 		return x;
 	}
+
+	/**
+	 * Solves a tridiagonal linear system using the Thomas algorithm, writing the
+	 * solution into a caller supplied array.
+	 * <p>
+	 * This variant does not allocate and is intended for hot loops solving many
+	 * systems of the same size, e.g. the line solves of ADI schemes. The
+	 * arithmetic is identical to {@link #solve(double[], double[], double[], double[])},
+	 * hence so is the result. The array {@code solution} may be the same array
+	 * as {@code rhs}.
+	 *
+	 * @param lower The lower diagonal of the system matrix ({@code lower[0]} is not used).
+	 * @param diag The main diagonal of the system matrix.
+	 * @param upper The upper diagonal of the system matrix ({@code upper[n-1]} is not used).
+	 * @param rhs The right-hand side vector of the linear system.
+	 * @param solution Array of length {@code n} receiving the solution vector.
+	 * @param scratch Work array of length at least {@code n}, overwritten.
+	 * @return The array {@code solution}.
+	 */
+	public static double[] solve(
+			final double[] lower,
+			final double[] diag,
+			final double[] upper,
+			final double[] rhs,
+			final double[] solution,
+			final double[] scratch) {
+
+		final int n = diag.length;
+
+		final double[] cPrime = scratch;
+		final double[] x = solution;
+
+		cPrime[0] = upper[0] / diag[0];
+		x[0] = rhs[0] / diag[0];
+
+		for (int i = 1; i < n; i++) {
+			final double denom = diag[i] - lower[i] * cPrime[i - 1];
+			cPrime[i] = i < n - 1 ? upper[i] / denom : 0.0;
+			x[i] = (rhs[i] - lower[i] * x[i - 1]) / denom;
+		}
+
+		for (int i = n - 2; i >= 0; i--) {
+			x[i] = x[i] - cPrime[i] * x[i + 1];
+		}
+
+		return x;
+	}
+
+	/**
+	 * Solves a tridiagonal linear system for several right-hand sides.
+	 * <p>
+	 * The forward elimination of the matrix is performed once and shared by all
+	 * right-hand sides, which are then substituted one after the other. For each
+	 * right-hand side the result is identical to
+	 * {@link #solve(double[], double[], double[], double[])}.
+	 *
+	 * @param lower The lower diagonal of the system matrix ({@code lower[0]} is not used).
+	 * @param diag The main diagonal of the system matrix.
+	 * @param upper The upper diagonal of the system matrix ({@code upper[n-1]} is not used).
+	 * @param rhs The right-hand side vectors, {@code rhs[k]} being the k-th right-hand side.
+	 * @return The solution vectors, one per right-hand side.
+	 */
+	public static double[][] solve(
+			final double[] lower,
+			final double[] diag,
+			final double[] upper,
+			final double[][] rhs) {
+
+		final int n = diag.length;
+
+		final double[] cPrime = new double[n];
+		final double[] denominators = new double[n];
+
+		denominators[0] = diag[0];
+		cPrime[0] = upper[0] / diag[0];
+
+		for (int i = 1; i < n; i++) {
+			denominators[i] = diag[i] - lower[i] * cPrime[i - 1];
+			cPrime[i] = i < n - 1 ? upper[i] / denominators[i] : 0.0;
+		}
+
+		final double[][] solutions = new double[rhs.length][];
+		for (int k = 0; k < rhs.length; k++) {
+			final double[] x = new double[n];
+
+			x[0] = rhs[k][0] / denominators[0];
+			for (int i = 1; i < n; i++) {
+				x[i] = (rhs[k][i] - lower[i] * x[i - 1]) / denominators[i];
+			}
+
+			for (int i = n - 2; i >= 0; i--) {
+				x[i] = x[i] - cPrime[i] * x[i + 1];
+			}
+
+			solutions[k] = x;
+		}
+
+		return solutions;
+	}
 }
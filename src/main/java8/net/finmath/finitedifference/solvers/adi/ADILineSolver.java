@@ -0,0 +1,159 @@
+package net.finmath.finitedifference.solvers.adi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import net.finmath.finitedifference.solvers.ThomasSolver;
+import net.finmath.finitedifference.solvers.TridiagonalMatrix;
+
+/**
+ * Executes the implicit line solves of an ADI sweep.
+ *
+ * <p>
+ * In each direction of an ADI step the implicit part decouples into one
+ * independent tridiagonal system per grid line. This class distributes the
+ * lines of a sweep in contiguous blocks over a {@link ForkJoinPool}: the pool
+ * of the calling thread if the sweep is called from a fork join task, otherwise
+ * the common pool.
+ * Each block owns a {@link Workspace} holding the line right-hand side and the
+ * Thomas scratch buffers, which is reused for all lines of the block, so the
+ * inner solve does not allocate.
+ * </p>
+ *
+ * <p>
+ * Every line is solved by exactly the same arithmetic in serial and parallel
+ * execution and writes to its own disjoint set of grid points, hence the
+ * result does not depend on the number of threads. Small sweeps, and sweeps
+ * in a pool of parallelism one, are run serially on the calling thread. Hence
+ * the number of threads used by a valuation can be limited by running it in a
+ * dedicated pool.
+ * </p>
+ *
+ * <p>
+ * Parallel execution can be disabled by setting the system property
+ * <code>net.finmath.finitedifference.solvers.adi.ADILineSolver.isUseMultiThreadding</code>
+ * to false.
+ * </p>
+ *
+ * @author agent
+ */
+public final class ADILineSolver {
+
+	private static final boolean isUseMultiThreadding = Boolean.parseBoolean(System.getProperty("net.finmath.finitedifference.solvers.adi.ADILineSolver.isUseMultiThreadding", "true"));
+
+	/**
+	 * Minimum number of grid points of a sweep for which the lines are distributed over threads.
+	 */
+	private static final int MIN_GRID_POINTS_FOR_PARALLEL_SWEEP = 4096;
+
+	/**
+	 * Number of blocks per worker thread, allowing some load balancing by work stealing.
+	 */
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	/**
+	 * The solve of a single grid line.
+	 */
+	@FunctionalInterface
+	public interface LineSolve {
+
+		/**
+		 * Solves the line with the given index.
+		 *
+		 * @param line The index of the line within the sweep.
+		 * @param workspace The work arrays of the executing block (not shared with other threads).
+		 */
+		void solve(int line, Workspace workspace);
+	}
+
+	/**
+	 * Work arrays for the solve of lines of a fixed length. A workspace is
+	 * confined to the block of lines executing it.
+	 */
+	public static final class Workspace {
+
+		private final double[] lineRhs;
+		private final double[] solution;
+		private final double[] scratch;
+
+		private Workspace(final int lineLength) {
+			lineRhs = new double[lineLength];
+			solution = new double[lineLength];
+			scratch = new double[lineLength];
+		}
+
+		/**
+		 * Returns the array to be used for the right-hand side of the line. Its content is
+		 * undefined on entry.
+		 *
+		 * @return The right-hand side array of length equal to the line length.
+		 */
+		public double[] getLineRhs() {
+			return lineRhs;
+		}
+
+		/**
+		 * Solves the tridiagonal system of the line with right-hand side {@link #getLineRhs()}.
+		 * The returned array is overwritten by the next solve of this workspace.
+		 *
+		 * @param matrix The tridiagonal line matrix.
+		 * @return The solution of the line.
+		 */
+		public double[] solve(final TridiagonalMatrix matrix) {
+			return ThomasSolver.solve(
+					matrix.getLowerDiagonal(),
+					matrix.getMainDiagonal(),
+					matrix.getUpperDiagonal(),
+					lineRhs,
+					solution,
+					scratch);
+		}
+	}
+
+	private ADILineSolver() {
+	}
+
+	/**
+	 * Solves all lines of a sweep, possibly in parallel on the pool of the
+	 * calling fork join task or on the common pool.
+	 *
+	 * <p>
+	 * The implementation of {@code lineSolve} may read shared state, but has to
+	 * write only to the grid points belonging to its line.
+	 * </p>
+	 *
+	 * @param numberOfLines The number of lines of the sweep.
+	 * @param lineLength The number of grid points per line.
+	 * @param lineSolve The solve of a single line.
+	 */
+	public static void forEachLine(final int numberOfLines, final int lineLength, final LineSolve lineSolve) {
+
+		final int parallelism = ForkJoinTask.inForkJoinPool()
+				? ForkJoinTask.getPool().getParallelism()
+				: ForkJoinPool.getCommonPoolParallelism();
+		final int numberOfBlocks = Math.min(numberOfLines, parallelism * BLOCKS_PER_THREAD);
+
+		if(!isUseMultiThreadding || parallelism < 2 || numberOfBlocks < 2
+				|| (long)numberOfLines * lineLength < MIN_GRID_POINTS_FOR_PARALLEL_SWEEP) {
+			solveLines(0, numberOfLines, lineLength, lineSolve);
+			return;
+		}
+
+		final List<ForkJoinTask<?>> blocks = new ArrayList<>(numberOfBlocks);
+		for(int block = 0; block < numberOfBlocks; block++) {
+			final int firstLine = (int)((long)numberOfLines * block / numberOfBlocks);
+			final int endLine = (int)((long)numberOfLines * (block + 1) / numberOfBlocks);
+			blocks.add(ForkJoinTask.adapt(() -> solveLines(firstLine, endLine, lineLength, lineSolve)));
+		}
+		ForkJoinTask.invokeAll(blocks);
+	}
+
+	private static void solveLines(final int firstLine, final int endLine, final int lineLength, final LineSolve lineSolve) {
+		final Workspace workspace = new Workspace(lineLength);
+		for(int line = firstLine; line < endLine; line++) {
+			lineSolve.solve(line, workspace);
+		}
+	}
+}
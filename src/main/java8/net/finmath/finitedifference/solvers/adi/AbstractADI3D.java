@@ -3,9 +3,6 @@ package net.finmath.finitedifference.solvers.adi;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
-
 import net.finmath.finitedifference.FiniteDifferenceExerciseUtil;
 import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
 import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityProduct;
@@ -14,6 +11,7 @@ import net.finmath.finitedifference.boundaries.BoundaryCondition;
 import net.finmath.finitedifference.grids.Grid;
 import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
 import net.finmath.finitedifference.solvers.FDMSolver;
+import net.finmath.finitedifference.solvers.TimeLayerRecorder;
 import net.finmath.finitedifference.solvers.TridiagonalMatrix;
 import net.finmath.modelling.Exercise;
 
@@ -214,9 +212,65 @@ public abstract class AbstractADI3D implements FDMSolver {
 			final double time,
 			final DoubleTernaryOperator valueAtMaturity,
 			final DoubleQuaternaryOperator exerciseValue) {
+		return rollBack(time, valueAtMaturity, exerciseValue, createFullHistoryRecorder()).getFullHistory();
+	}
+
+	@Override
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleUnaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return getValuesAtTimes(time, (x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0), evaluationTimes);
+	}
+
+	@Override
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleBinaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return getValuesAtTimes(time, (x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0, x1), evaluationTimes);
+	}
+
+	/**
+	 * Returns the values at several evaluation times, keeping only the current
+	 * time layer and the requested snapshots in memory.
+	 *
+	 * @param time The maturity time.
+	 * @param valueAtMaturity The terminal payoff.
+	 * @param evaluationTimes The evaluation times.
+	 * @return The value vectors on the flattened space grid, one per evaluation time.
+	 */
+	public double[][] getValuesAtTimes(
+			final double time,
+			final DoubleTernaryOperator valueAtMaturity,
+			final double[] evaluationTimes) {
+		return rollBack(
+				time,
+				valueAtMaturity,
+				(runningTime, x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0, x1, x2),
+				createSnapshotRecorder(time, evaluationTimes)).getSnapshots();
+	}
 
-		final int timeLength = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps() + 1;
-		final int numberOfTimeSteps = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps();
+	/**
+	 * Rolls the solution back from maturity, passing every computed time layer to
+	 * the given recorder. Only the current layer is kept by the time stepping;
+	 * the roll-back stops at the last time index required by the recorder.
+	 *
+	 * @param time The maturity time.
+	 * @param valueAtMaturity The terminal payoff.
+	 * @param exerciseValue The exercise payoff.
+	 * @param recorder The recorder receiving the time layers.
+	 * @return The recorder.
+	 */
+	protected TimeLayerRecorder rollBack(
+			final double time,
+			final DoubleTernaryOperator valueAtMaturity,
+			final DoubleQuaternaryOperator exerciseValue,
+			final TimeLayerRecorder recorder) {
+
+		final int lastTimeIndex = Math.min(
+				recorder.getLastTimeIndex(),
+				getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps());
 
 		double[] u = new double[getN()];
 		for (int k2 = 0; k2 < getN2(); k2++) {
@@ -232,10 +286,9 @@ public abstract class AbstractADI3D implements FDMSolver {
 		applyInternalConstraints(time, u);
 		u = sanitize(u);
 
-		final RealMatrix solutionSurface = new Array2DRowRealMatrix(getN(), timeLength);
-		solutionSurface.setColumn(0, u.clone());
+		recorder.record(0, u);
 
-		for (int m = 0; m < numberOfTimeSteps; m++) {
+		for (int m = 0; m < lastTimeIndex; m++) {
 			final double dt = getSpaceTimeDiscretization().getTimeDiscretization().getTimeStep(m);
 
 			final double tauNext = getSpaceTimeDiscretization().getTimeDiscretization().getTime(m + 1);
@@ -254,10 +307,21 @@ public abstract class AbstractADI3D implements FDMSolver {
 
 			u = sanitize(u);
 
-			solutionSurface.setColumn(m + 1, u.clone());
+			recorder.record(m + 1, u);
 		}
 
-		return solutionSurface.getData();
+		return recorder;
+	}
+
+	private TimeLayerRecorder createFullHistoryRecorder() {
+		return TimeLayerRecorder.ofFullHistory(
+				getN(),
+				getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps() + 1);
+	}
+
+	private TimeLayerRecorder createSnapshotRecorder(final double time, final double... evaluationTimes) {
+		return TimeLayerRecorder.ofTimeIndices(
+				TimeLayerRecorder.getTimeIndices(getSpaceTimeDiscretization().getTimeDiscretization(), time, evaluationTimes));
 	}
 
 	@Override
@@ -265,11 +329,7 @@ public abstract class AbstractADI3D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleUnaryOperator valueAtMaturity) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getValue(evaluationTime, time, (x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0));
 	}
 
 	/**
@@ -285,11 +345,7 @@ public abstract class AbstractADI3D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getValue(evaluationTime, time, (x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0, x1));
 	}
 
 	/**
@@ -304,11 +360,11 @@ public abstract class AbstractADI3D implements FDMSolver {
 			final double evaluationTime,
 			final double time,
 			final DoubleTernaryOperator valueAtMaturity) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return getValue(
+				evaluationTime,
+				time,
+				valueAtMaturity,
+				(runningTime, x0, x1, x2) -> valueAtMaturity.applyAsDouble(x0, x1, x2));
 	}
 
 	/**
@@ -325,11 +381,8 @@ public abstract class AbstractADI3D implements FDMSolver {
 			final double time,
 			final DoubleTernaryOperator valueAtMaturity,
 			final DoubleQuaternaryOperator exerciseValue) {
-
-		final RealMatrix values = new Array2DRowRealMatrix(getValues(time, valueAtMaturity, exerciseValue));
-		final double tau = time - evaluationTime;
-		final int timeIndex = getSpaceTimeDiscretization().getTimeDiscretization().getTimeIndexNearestLessOrEqual(tau);
-		return values.getColumn(timeIndex);
+		return rollBack(time, valueAtMaturity, exerciseValue, createSnapshotRecorder(time, evaluationTime))
+				.getSnapshot();
 	}
 
 	protected double[] performStableDouglasStep(
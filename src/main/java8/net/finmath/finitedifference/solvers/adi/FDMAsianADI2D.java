@@ -3,7 +3,6 @@ package net.finmath.finitedifference.solvers.adi;
 import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
 import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityProduct;
 import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
-import net.finmath.finitedifference.solvers.ThomasSolver;
 import net.finmath.finitedifference.solvers.TridiagonalMatrix;
 import net.finmath.modelling.Exercise;
 
@@ -209,11 +208,11 @@ public class FDMAsianADI2D extends AbstractADI2D {
 
 		final double[] out = rhs.clone();
 
-		for (int i = 0; i < getN0(); i++) {
+		ADILineSolver.forEachLine(getN0(), getN1(), (i, workspace) -> {
 			final double s = getX0Grid()[i];
 
 			final TridiagonalMatrix m = new TridiagonalMatrix(getN1());
-			final double[] lineRhs = new double[getN1()];
+			final double[] lineRhs = workspace.getLineRhs();
 
 			for (int j = 0; j < getN1(); j++) {
 				lineRhs[j] = rhs[flatten(i, j)];
@@ -268,12 +267,12 @@ public class FDMAsianADI2D extends AbstractADI2D {
 				overwriteBoundaryRow(m, lineRhs, 0, lowerConditions[1].getValue());
 			}
 
-			final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			final double[] solved = workspace.solve(m);
 
 			for (int j = 0; j < getN1(); j++) {
 				out[flatten(i, j)] = solved[j];
 			}
-		}
+		});
 
 		return out;
 	}
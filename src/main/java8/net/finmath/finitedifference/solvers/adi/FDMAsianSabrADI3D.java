@@ -4,7 +4,6 @@ import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDiffer
 import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityProduct;
 import net.finmath.finitedifference.boundaries.BoundaryCondition;
 import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
-import net.finmath.finitedifference.solvers.ThomasSolver;
 import net.finmath.finitedifference.solvers.TridiagonalMatrix;
 import net.finmath.modelling.Exercise;
 
@@ -163,31 +162,32 @@ public class FDMAsianSabrADI3D extends AbstractADI3D {
 
 		final double[] out = rhs.clone();
 
-		for (int i2 = 0; i2 < getN2(); i2++) {
-			for (int i1 = 0; i1 < getN1(); i1++) {
-				final TridiagonalMatrix m =
-						stencilBuilder.buildFirstDirectionLineMatrix(time, dt, getTheta(), i1, i2);
+		ADILineSolver.forEachLine(getN2() * getN1(), getN0(), (line, workspace) -> {
+			final int i1 = line % getN1();
+			final int i2 = line / getN1();
 
-				final double[] lineRhs = new double[getN0()];
-				for (int i0 = 0; i0 < getN0(); i0++) {
-					lineRhs[i0] = rhs[flatten(i0, i1, i2)];
-				}
+			final TridiagonalMatrix m =
+					stencilBuilder.buildFirstDirectionLineMatrix(time, dt, getTheta(), i1, i2);
+
+			final double[] lineRhs = workspace.getLineRhs();
+			for (int i0 = 0; i0 < getN0(); i0++) {
+				lineRhs[i0] = rhs[flatten(i0, i1, i2)];
+			}
 
-				final double lowerBoundaryValue =
-						getLowerBoundaryValueForFirstDirection(time, i1, i2, lineRhs[0]);
-				final double upperBoundaryValue =
-						getUpperBoundaryValueForFirstDirection(time, i1, i2, lineRhs[getN0() - 1]);
+			final double lowerBoundaryValue =
+					getLowerBoundaryValueForFirstDirection(time, i1, i2, lineRhs[0]);
+			final double upperBoundaryValue =
+					getUpperBoundaryValueForFirstDirection(time, i1, i2, lineRhs[getN0() - 1]);
 
-				overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
-				overwriteBoundaryRow(m, lineRhs, getN0() - 1, upperBoundaryValue);
+			overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
+			overwriteBoundaryRow(m, lineRhs, getN0() - 1, upperBoundaryValue);
 
-				final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			final double[] solved = workspace.solve(m);
 
-				for (int i0 = 0; i0 < getN0(); i0++) {
-					out[flatten(i0, i1, i2)] = solved[i0];
-				}
+			for (int i0 = 0; i0 < getN0(); i0++) {
+				out[flatten(i0, i1, i2)] = solved[i0];
 			}
-		}
+		});
 
 		return out;
 	}
@@ -208,31 +208,32 @@ public class FDMAsianSabrADI3D extends AbstractADI3D {
 
 		final double[] out = rhs.clone();
 
-		for (int i2 = 0; i2 < getN2(); i2++) {
-			for (int i0 = 0; i0 < getN0(); i0++) {
-				final TridiagonalMatrix m =
-						stencilBuilder.buildSecondDirectionLineMatrix(time, dt, getTheta(), i0, i2);
+		ADILineSolver.forEachLine(getN2() * getN0(), getN1(), (line, workspace) -> {
+			final int i0 = line % getN0();
+			final int i2 = line / getN0();
 
-				final double[] lineRhs = new double[getN1()];
-				for (int i1 = 0; i1 < getN1(); i1++) {
-					lineRhs[i1] = rhs[flatten(i0, i1, i2)];
-				}
+			final TridiagonalMatrix m =
+					stencilBuilder.buildSecondDirectionLineMatrix(time, dt, getTheta(), i0, i2);
 
-				final double lowerBoundaryValue =
-						getLowerBoundaryValueForSecondDirection(time, i0, i2, lineRhs[0]);
-				final double upperBoundaryValue =
-						getUpperBoundaryValueForSecondDirection(time, i0, i2, lineRhs[getN1() - 1]);
+			final double[] lineRhs = workspace.getLineRhs();
+			for (int i1 = 0; i1 < getN1(); i1++) {
+				lineRhs[i1] = rhs[flatten(i0, i1, i2)];
+			}
 
-				overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
-				overwriteBoundaryRow(m, lineRhs, getN1() - 1, upperBoundaryValue);
+			final double lowerBoundaryValue =
+					getLowerBoundaryValueForSecondDirection(time, i0, i2, lineRhs[0]);
+			final double upperBoundaryValue =
+					getUpperBoundaryValueForSecondDirection(time, i0, i2, lineRhs[getN1() - 1]);
 
-				final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			overwriteBoundaryRow(m, lineRhs, 0, lowerBoundaryValue);
+			overwriteBoundaryRow(m, lineRhs, getN1() - 1, upperBoundaryValue);
 
-				for (int i1 = 0; i1 < getN1(); i1++) {
-					out[flatten(i0, i1, i2)] = solved[i1];
-				}
+			final double[] solved = workspace.solve(m);
+
+			for (int i1 = 0; i1 < getN1(); i1++) {
+				out[flatten(i0, i1, i2)] = solved[i1];
 			}
-		}
+		});
 
 		return out;
 	}
@@ -266,74 +267,75 @@ public class FDMAsianSabrADI3D extends AbstractADI3D {
 
 		final double[] out = rhs.clone();
 
-		for (int i1 = 0; i1 < getN1(); i1++) {
-			for (int i0 = 0; i0 < getN0(); i0++) {
-				final double s = getX0Grid()[i0];
+		ADILineSolver.forEachLine(getN1() * getN0(), getN2(), (line, workspace) -> {
+			final int i0 = line % getN0();
+			final int i1 = line / getN0();
 
-				final TridiagonalMatrix m = new TridiagonalMatrix(getN2());
-				final double[] lineRhs = new double[getN2()];
+			final double s = getX0Grid()[i0];
 
-				for (int i2 = 0; i2 < getN2(); i2++) {
-					lineRhs[i2] = rhs[flatten(i0, i1, i2)];
-				}
+			final TridiagonalMatrix m = new TridiagonalMatrix(getN2());
+			final double[] lineRhs = workspace.getLineRhs();
 
-				/*
-				 * PDE rows for i2 = 0,...,n2-2:
-				 *
-				 * (1 + lambda_k) v_k - lambda_k v_{k+1} = rhs_k
-				 */
-				for (int i2 = 0; i2 < getN2() - 1; i2++) {
-					final double dIUp = getX2Grid()[i2 + 1] - getX2Grid()[i2];
-					final double lambda = getTheta() * dt * s / dIUp;
+			for (int i2 = 0; i2 < getN2(); i2++) {
+				lineRhs[i2] = rhs[flatten(i0, i1, i2)];
+			}
 
-					m.getLowerDiagonal()[i2] = 0.0;
-					m.getMainDiagonal()[i2] = 1.0 + lambda;
-					m.getUpperDiagonal()[i2] = -lambda;
-				}
+			/*
+			 * PDE rows for i2 = 0,...,n2-2:
+			 *
+			 * (1 + lambda_k) v_k - lambda_k v_{k+1} = rhs_k
+			 */
+			for (int i2 = 0; i2 < getN2() - 1; i2++) {
+				final double dIUp = getX2Grid()[i2 + 1] - getX2Grid()[i2];
+				final double lambda = getTheta() * dt * s / dIUp;
+
+				m.getLowerDiagonal()[i2] = 0.0;
+				m.getMainDiagonal()[i2] = 1.0 + lambda;
+				m.getUpperDiagonal()[i2] = -lambda;
+			}
 
-				/*
-				 * Last row: default identity, then overwrite only if upper I
-				 * boundary is Dirichlet.
-				 */
-				m.getLowerDiagonal()[getN2() - 1] = 0.0;
-				m.getMainDiagonal()[getN2() - 1] = 1.0;
-				m.getUpperDiagonal()[getN2() - 1] = 0.0;
-
-				/*
-				 * Upper I boundary is the inflow side.
-				 */
-				final BoundaryCondition[] upperConditions =
-						getModel().getBoundaryConditionsAtUpperBoundary(getProduct(), time, getX0Grid()[i0], getX1Grid()[i1], getX2Grid()[getN2() - 1]);
-
-				if (upperConditions != null
-						&& upperConditions.length > 2
-						&& upperConditions[2] != null
-						&& upperConditions[2].isDirichlet()) {
-					overwriteBoundaryRow(m, lineRhs, getN2() - 1, upperConditions[2].getValue());
-				}
+			/*
+			 * Last row: default identity, then overwrite only if upper I
+			 * boundary is Dirichlet.
+			 */
+			m.getLowerDiagonal()[getN2() - 1] = 0.0;
+			m.getMainDiagonal()[getN2() - 1] = 1.0;
+			m.getUpperDiagonal()[getN2() - 1] = 0.0;
+
+			/*
+			 * Upper I boundary is the inflow side.
+			 */
+			final BoundaryCondition[] upperConditions =
+					getModel().getBoundaryConditionsAtUpperBoundary(getProduct(), time, getX0Grid()[i0], getX1Grid()[i1], getX2Grid()[getN2() - 1]);
+
+			if (upperConditions != null
+					&& upperConditions.length > 2
+					&& upperConditions[2] != null
+					&& upperConditions[2].isDirichlet()) {
+				overwriteBoundaryRow(m, lineRhs, getN2() - 1, upperConditions[2].getValue());
+			}
 
-				/*
-				 * Lower I boundary: overwrite only if explicitly Dirichlet.
-				 * For Asian options this is typically NONE, so row 0 remains a
-				 * PDE row.
-				 */
-				final BoundaryCondition[] lowerConditions =
-						getModel().getBoundaryConditionsAtLowerBoundary(getProduct(), time, getX0Grid()[i0], getX1Grid()[i1], getX2Grid()[0]);
-
-				if (lowerConditions != null
-						&& lowerConditions.length > 2
-						&& lowerConditions[2] != null
-						&& lowerConditions[2].isDirichlet()) {
-					overwriteBoundaryRow(m, lineRhs, 0, lowerConditions[2].getValue());
-				}
+			/*
+			 * Lower I boundary: overwrite only if explicitly Dirichlet.
+			 * For Asian options this is typically NONE, so row 0 remains a
+			 * PDE row.
+			 */
+			final BoundaryCondition[] lowerConditions =
+					getModel().getBoundaryConditionsAtLowerBoundary(getProduct(), time, getX0Grid()[i0], getX1Grid()[i1], getX2Grid()[0]);
+
+			if (lowerConditions != null
+					&& lowerConditions.length > 2
+					&& lowerConditions[2] != null
+					&& lowerConditions[2].isDirichlet()) {
+				overwriteBoundaryRow(m, lineRhs, 0, lowerConditions[2].getValue());
+			}
 
-				final double[] solved = ThomasSolver.solve(m.getLowerDiagonal(), m.getMainDiagonal(), m.getUpperDiagonal(), lineRhs);
+			final double[] solved = workspace.solve(m);
 
-				for (int i2 = 0; i2 < getN2(); i2++) {
-					out[flatten(i0, i1, i2)] = solved[i2];
-				}
+			for (int i2 = 0; i2 < getN2(); i2++) {
+				out[flatten(i0, i1, i2)] = solved[i2];
 			}
-		}
+		});
 
 		return out;
 	}
@@ -1,15 +1,11 @@
 package net.finmath.finitedifference.solvers.adi;
 
 import java.util.function.DoubleBinaryOperator;
-import java.util.function.DoubleUnaryOperator;
-
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
 
 import net.finmath.finitedifference.assetderivativevaluation.models.FDMSabrModel;
 import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityProduct;
 import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
-import net.finmath.finitedifference.solvers.ThomasSolver;
+import net.finmath.finitedifference.solvers.TimeLayerRecorder;
 import net.finmath.finitedifference.solvers.TridiagonalMatrix;
 import net.finmath.modelling.Exercise;
 
@@ -84,46 +80,29 @@ public class FDMBarrierSabrADI2D extends AbstractADI2D {
 	}
 
 	@Override
-	public double[][] getValues(final double time, final DoubleUnaryOperator valueAtMaturity) {
-		return getValues(
-				time,
-				(x0, x1) -> valueAtMaturity.applyAsDouble(x0),
-				(runningTime, x0, x1) -> valueAtMaturity.applyAsDouble(x0));
-	}
-
-	@Override
-	public double[][] getValues(final double time, final DoubleBinaryOperator valueAtMaturity) {
-		return getValues(
-				time,
-				valueAtMaturity,
-				(runningTime, x0, x1) -> valueAtMaturity.applyAsDouble(x0, x1));
-	}
-
-	@Override
-	public double[][] getValues(
+	protected TimeLayerRecorder rollBack(
 			final double time,
 			final DoubleBinaryOperator valueAtMaturity,
-			final DoubleTernaryOperator exerciseValue) {
-
-		final int timeLength = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps() + 1;
-		final int numberOfTimeSteps = getSpaceTimeDiscretization().getTimeDiscretization().getNumberOfTimeSteps();
+			final DoubleTernaryOperator exerciseValue,
+			final DoubleTernaryOperator continuousObstacleValue,
+			final TimeLayerRecorder recorder) {
 
-		double[] u = new double[getN()];
-		for (int j = 0; j < getN1(); j++) {
-			for (int i = 0; i < getN0(); i++) {
-				u[flatten(i, j)] = valueAtMaturity.applyAsDouble(getX0Grid()[i], getX1Grid()[j]);
-			}
+		if (continuousObstacleValue != null) {
+			return super.rollBack(time, valueAtMaturity, exerciseValue, continuousObstacleValue, recorder);
 		}
 
+		final int lastTimeIndex = getLastTimeIndex(recorder);
+
+		double[] u = getTerminalValues(valueAtMaturity);
+
 		applyOuterBoundaries(time, u);
 		applyInternalConstraints(time, u);
 		applyBarrierTraceIfNeeded(time, u);
 		u = sanitize(u);
 
-		final RealMatrix solutionSurface = new Array2DRowRealMatrix(getN(), timeLength);
-		solutionSurface.setColumn(0, u.clone());
+		recorder.record(0, u);
 
-		for (int m = 0; m < numberOfTimeSteps; m++) {
+		for (int m = 0; m < lastTimeIndex; m++) {
 			final double dt = getSpaceTimeDiscretization().getTimeDiscretization().getTimeStep(m);
 
 			final double tauNext = getSpaceTimeDiscretization().getTimeDiscretization().getTime(m + 1);
@@ -146,10 +125,10 @@ public class FDMBarrierSabrADI2D extends AbstractADI2D {
 
 			u = sanitize(u);
 
-			solutionSurface.setColumn(m + 1, u.clone());
+			recorder.record(m + 1, u);
 		}
 
-		return solutionSurface.getData();
+		return recorder;
 	}
 
 	@Override
@@ -164,11 +143,11 @@ public class FDMBarrierSabrADI2D extends AbstractADI2D {
 
 		final double[] out = rhs.clone();
 
-		for (int j = 0; j < getN1(); j++) {
+		ADILineSolver.forEachLine(getN1(), getN0(), (j, workspace) -> {
 			final TridiagonalMatrix matrix =
 					getStencilBuilder().buildFirstDirectionLineMatrix(time, dt, getTheta(), j);
 
-			final double[] lineRhs = new double[getN0()];
+			final double[] lineRhs = workspace.getLineRhs();
 			for (int i = 0; i < getN0(); i++) {
 				lineRhs[i] = rhs[flatten(i, j)];
 			}
@@ -183,17 +162,12 @@ public class FDMBarrierSabrADI2D extends AbstractADI2D {
 
 			overwriteBarrierTraceRow(matrix, lineRhs, j, time);
 
-			final double[] solved = ThomasSolver.solve(
-					matrix.getLowerDiagonal(),
-					matrix.getMainDiagonal(),
-					matrix.getUpperDiagonal(),
-					lineRhs
-					);
+			final double[] solved = workspace.solve(matrix);
 
 			for (int i = 0; i < getN0(); i++) {
 				out[flatten(i, j)] = solved[i];
 			}
-		}
+		});
 
 		return out;
 	}
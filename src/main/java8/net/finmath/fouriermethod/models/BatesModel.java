@@ -358,6 +358,91 @@ public class BatesModel implements CharacteristicFunctionModel {
 
 				return characteristicFunction;
 			}
+
+			@Override
+			public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+				final double drift = Math.log(initialValue) - logDiscountFactorForForward;
+				final double logJumpSize = Math.log(1+k);
+				for(int j=0; j<argumentsReal.length; j++) {
+					// iargument = i z
+					final double ur = -argumentsImaginary[j];
+					final double ui = argumentsReal[j];
+
+					// u^2 - u
+					final double ur2 = ur*ur - ui*ui - ur;
+					final double ui2 = 2.0*ur*ui - ui;
+
+					// c = exp((u^2 - u) delta^2 / 2) (1+k)^u - 1 - u k
+					final double jumpModulus = Math.exp(ur2 * 0.5*delta*delta + ur * logJumpSize);
+					final double jumpPhase = ui2 * 0.5*delta*delta + ui * logJumpSize;
+					final double cr = jumpModulus * Math.cos(jumpPhase) - 1.0 - ur * k;
+					final double ci = jumpModulus * Math.sin(jumpPhase) - ui * k;
+
+					double exponentReal = cr * time*lambda[0] + ur * drift + logDiscountFactorForDiscounting;
+					double exponentImag = ci * time*lambda[0] + ui * drift;
+
+					for(int i = 0; i < numberOfFactors; i++) {
+						// h = (u^2 - u) / 2 + c lambda
+						final double hr = ur2 * 0.5 + cr * lambda[i+1];
+						final double hi = ui2 * 0.5 + ci * lambda[i+1];
+
+						// p = u rho sigma - beta
+						final double pr = ur * rho[i]*sigma[i] - beta[i];
+						final double pi = ui * rho[i]*sigma[i];
+
+						// gamma = sqrt(p^2 - 2 h sigma^2)
+						final double dr = pr*pr - pi*pi - hr * 2*sigma[i]*sigma[i];
+						final double di = 2.0*pr*pi - hi * 2*sigma[i]*sigma[i];
+						final double gr, gi;
+						if(dr == 0.0 && di == 0.0) {
+							gr = 0.0;
+							gi = 0.0;
+						}
+						else {
+							final double t = Math.sqrt((Math.abs(dr) + Math.hypot(dr, di)) / 2.0);
+							gr = dr >= 0.0 ? t : Math.abs(di) / (2.0 * t);
+							gi = dr >= 0.0 ? di / (2.0 * t) : Math.copySign(1.0, di) * t;
+						}
+
+						// e = exp(-gamma T)
+						final double expModulus = Math.exp(-gr * time);
+						final double er = expModulus * Math.cos(gi * time);
+						final double ei = -expModulus * Math.sin(gi * time);
+
+						// p - gamma
+						final double mr = pr - gr;
+						final double mi = pi - gi;
+
+						// w = (p - gamma) (e - 1) / gamma / 2 + e
+						final double gammaNormSquared = gr*gr + gi*gi;
+						final double qr = ((er - 1.0) * gr + ei * gi) / gammaNormSquared;
+						final double qi = (ei * gr - (er - 1.0) * gi) / gammaNormSquared;
+						final double wr = (mr * qr - mi * qi) * 0.5 + er;
+						final double wi = (mr * qi + mi * qr) * 0.5 + ei;
+
+						// a = (p - gamma) (-alpha T / sigma^2) - (log(w) + gamma T) (2 alpha / sigma^2)
+						final double ar = mr * (-alpha[i]*time)/(sigma[i]*sigma[i]) - (Math.log(Math.hypot(wr, wi)) + gr * time) * (2*alpha[i])/(sigma[i]*sigma[i]);
+						final double ai = mi * (-alpha[i]*time)/(sigma[i]*sigma[i]) - (Math.atan2(wi, wr) + gi * time) * (2*alpha[i])/(sigma[i]*sigma[i]);
+
+						// b = -2 h / (p + gamma (e + 1) / (e - 1))
+						final double ratioNormSquared = (er - 1.0) * (er - 1.0) + ei * ei;
+						final double rr = ((er + 1.0) * (er - 1.0) + ei * ei) / ratioNormSquared;
+						final double ri = (ei * (er - 1.0) - (er + 1.0) * ei) / ratioNormSquared;
+						final double nr = pr + gr * rr - gi * ri;
+						final double ni = pi + gr * ri + gi * rr;
+						final double denominatorNormSquared = nr*nr + ni*ni;
+						final double br = -2.0 * (hr * nr + hi * ni) / denominatorNormSquared;
+						final double bi = -2.0 * (hi * nr - hr * ni) / denominatorNormSquared;
+
+						exponentReal += ar + br * volatility[i];
+						exponentImag += ai + bi * volatility[i];
+					}
+
+					final double modulus = Math.exp(exponentReal);
+					valuesReal[j] = modulus * Math.cos(exponentImag);
+					valuesImaginary[j] = modulus * Math.sin(exponentImag);
+				}
+			}
 		};
 	}
 
@@ -103,6 +103,24 @@ public class BlackScholesModel implements CharacteristicFunctionModel {
 						.add(logDiscountFactorForDiscounting)
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+				final double variance = 0.5*volatility*volatility*time;
+				final double drift = Math.log(initialValue)-0.5*volatility*volatility*time-logDiscountFactorForForward;
+				for(int i=0; i<argumentsReal.length; i++) {
+					// iargument = i z
+					final double ur = -argumentsImaginary[i];
+					final double ui = argumentsReal[i];
+
+					final double exponentReal = variance * (ur*ur - ui*ui) + drift * ur + logDiscountFactorForDiscounting;
+					final double exponentImag = variance * 2.0*ur*ui + drift * ui;
+
+					final double modulus = Math.exp(exponentReal);
+					valuesReal[i] = modulus * Math.cos(exponentImag);
+					valuesImaginary[i] = modulus * Math.sin(exponentImag);
+				}
+			}
 		};
 	}
 
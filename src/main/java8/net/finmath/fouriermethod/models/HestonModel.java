@@ -183,6 +183,75 @@ public class HestonModel implements CharacteristicFunctionModel {
 
 				return a.add(b.multiply(volatility*volatility)).add(iargument.multiply(Math.log(initialValue) - logDiscountFactorForForward)).add(logDiscountFactorForDiscounting).exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+				final double drift = Math.log(initialValue) - logDiscountFactorForForward;
+				for(int i=0; i<argumentsReal.length; i++) {
+					// iargument = i z
+					final double ur = -argumentsImaginary[i];
+					final double ui = argumentsReal[i];
+
+					// u^2 - u
+					final double hr = ur*ur - ui*ui - ur;
+					final double hi = 2.0*ur*ui - ui;
+
+					// p = u rho xi - kappa
+					final double pr = ur * rho * xi - kappa;
+					final double pi = ui * rho * xi;
+
+					// gamma = sqrt(p^2 - (u^2 - u) xi^2)
+					final double dr = pr*pr - pi*pi - hr * xi * xi;
+					final double di = 2.0*pr*pi - hi * xi * xi;
+					final double gr, gi;
+					if(dr == 0.0 && di == 0.0) {
+						gr = 0.0;
+						gi = 0.0;
+					}
+					else {
+						final double t = Math.sqrt((Math.abs(dr) + Math.hypot(dr, di)) / 2.0);
+						gr = dr >= 0.0 ? t : Math.abs(di) / (2.0 * t);
+						gi = dr >= 0.0 ? di / (2.0 * t) : Math.copySign(1.0, di) * t;
+					}
+
+					// e = exp(-gamma T)
+					final double expModulus = Math.exp(-gr * time);
+					final double er = expModulus * Math.cos(gi * time);
+					final double ei = -expModulus * Math.sin(gi * time);
+
+					// p - gamma
+					final double mr = pr - gr;
+					final double mi = pi - gi;
+
+					// w = (p - gamma) (e - 1) / gamma / 2 + e
+					final double gammaNormSquared = gr*gr + gi*gi;
+					final double qr = ((er - 1.0) * gr + ei * gi) / gammaNormSquared;
+					final double qi = (ei * gr - (er - 1.0) * gi) / gammaNormSquared;
+					final double wr = (mr * qr - mi * qi) * 0.5 + er;
+					final double wi = (mr * qi + mi * qr) * 0.5 + ei;
+
+					// a = (p - gamma) (-theta kappa T / xi^2) - (log(w) + gamma T) (2 theta kappa / xi^2)
+					final double ar = mr * (-theta*kappa * time) / (xi * xi) - (Math.log(Math.hypot(wr, wi)) + gr * time) * (2 * theta*kappa) / (xi * xi);
+					final double ai = mi * (-theta*kappa * time) / (xi * xi) - (Math.atan2(wi, wr) + gi * time) * (2 * theta*kappa) / (xi * xi);
+
+					// b = -(u^2 - u) / (p + gamma (e + 1) / (e - 1))
+					final double ratioNormSquared = (er - 1.0) * (er - 1.0) + ei * ei;
+					final double rr = ((er + 1.0) * (er - 1.0) + ei * ei) / ratioNormSquared;
+					final double ri = (ei * (er - 1.0) - (er + 1.0) * ei) / ratioNormSquared;
+					final double nr = pr + gr * rr - gi * ri;
+					final double ni = pi + gr * ri + gi * rr;
+					final double denominatorNormSquared = nr*nr + ni*ni;
+					final double br = -(hr * nr + hi * ni) / denominatorNormSquared;
+					final double bi = -(hi * nr - hr * ni) / denominatorNormSquared;
+
+					final double exponentReal = ar + br * volatility*volatility + ur * drift + logDiscountFactorForDiscounting;
+					final double exponentImag = ai + bi * volatility*volatility + ui * drift;
+
+					final double modulus = Math.exp(exponentReal);
+					valuesReal[i] = modulus * Math.cos(exponentImag);
+					valuesImaginary[i] = modulus * Math.sin(exponentImag);
+				}
+			}
 		};
 	}
 
@@ -100,6 +100,31 @@ public class VarianceGammaModel implements CharacteristicFunctionModel {
 						.add(logDiscountFactorForDiscounting))
 						.exp();
 			}
+
+			@Override
+			public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+				final double compensator = time/nu * Math.log(1/(1.0-theta*nu-0.5*sigma*sigma*nu));
+				final double drift = Math.log(initialValue)-logDiscountFactorForForward;
+				for(int i=0; i<argumentsReal.length; i++) {
+					final double zr = argumentsReal[i];
+					final double zi = argumentsImaginary[i];
+					// iargument = i z
+					final double ur = -zi;
+					final double ui = zr;
+
+					// denominator = 1 - i z theta nu + z^2 sigma^2 nu / 2
+					final double denominatorReal = 1.0 - ur*theta*nu + (zr*zr - zi*zi)*0.5*sigma*sigma*nu;
+					final double denominatorImag = -ui*theta*nu + 2.0*zr*zi*0.5*sigma*sigma*nu;
+
+					// firstLevyExponent = -log(denominator) T / nu
+					final double exponentReal = -Math.log(Math.hypot(denominatorReal, denominatorImag))*time/nu - ur*compensator + ur*drift + logDiscountFactorForDiscounting;
+					final double exponentImag = -Math.atan2(denominatorImag, denominatorReal)*time/nu - ui*compensator + ui*drift;
+
+					final double modulus = Math.exp(exponentReal);
+					valuesReal[i] = modulus * Math.cos(exponentImag);
+					valuesImaginary[i] = modulus * Math.sin(exponentImag);
+				}
+			}
 		};
 	}
 
@@ -8,15 +8,11 @@ package net.finmath.fouriermethod.products;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.DoubleUnaryOperator;
-
-import org.apache.commons.math3.complex.Complex;
+import java.util.stream.IntStream;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.fouriermethod.CharacteristicFunction;
 import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
-import net.finmath.integration.RealIntegral;
-import net.finmath.integration.SimpsonRealIntegrator;
 import net.finmath.modelling.Model;
 
 /**
@@ -26,6 +22,11 @@ import net.finmath.modelling.Model;
  */
 public abstract class AbstractFourierTransformProduct implements CharacteristicFunction, FourierTransformProduct {
 
+	private static final double integrationDomainLowerBound = -100.0;
+	private static final double integrationDomainUpperBound = 100.0;
+	private static final int numberOfEvaluationPoints = 20000;
+	private static final int integrationChunkSize = 1024;
+
 	/* (non-Javadoc)
 	 * @see net.finmath.fouriermethod.products.FourierTransformProduct#getValue(double, net.finmath.modelling.Model)
 	 */
@@ -66,17 +67,48 @@ public abstract class AbstractFourierTransformProduct implements CharacteristicF
 		final CharacteristicFunction modelCF = model.apply(getMaturity());
 
 		final double lineOfIntegration = 0.5 * getIntegrationDomainImagUpperBound()+getIntegrationDomainImagLowerBound();
-		final DoubleUnaryOperator integrand = new DoubleUnaryOperator() {
-			@Override
-			public double applyAsDouble(final double real) {
-				final Complex z = new Complex(real,lineOfIntegration);
-				return modelCF.apply(z.negate()).multiply(AbstractFourierTransformProduct.this.apply(z)).getReal();
+
+		/*
+		 * Simpson's rule on [-100, 100] with 20000 points. The integrand Re(phi(-z) g(z)) with z = x + i c is evaluated
+		 * in parallel on chunks of the grid, using the batch evaluation of the characteristic functions.
+		 */
+		final int numberOfIntervals = 2 * ((numberOfEvaluationPoints-1) / 2);
+		final double interval = (integrationDomainUpperBound-integrationDomainLowerBound) / numberOfIntervals;
+		final int numberOfChunks = (numberOfIntervals + integrationChunkSize) / integrationChunkSize;
+
+		final double sum = IntStream.range(0, numberOfChunks).parallel().mapToDouble(chunkIndex -> {
+			final int start = chunkIndex * integrationChunkSize;
+			final int size = Math.min(integrationChunkSize, numberOfIntervals + 1 - start);
+
+			final double[] argumentsReal = new double[size];
+			final double[] argumentsImaginary = new double[size];
+			final double[] argumentsRealNegated = new double[size];
+			final double[] argumentsImaginaryNegated = new double[size];
+			for(int i=0; i<size; i++) {
+				argumentsReal[i] = integrationDomainLowerBound + (start + i) * interval;
+				argumentsImaginary[i] = lineOfIntegration;
+				argumentsRealNegated[i] = -argumentsReal[i];
+				argumentsImaginaryNegated[i] = -lineOfIntegration;
 			}
-		};
 
-		final RealIntegral integrator = new SimpsonRealIntegrator(-100.0, 100.0, 20000, true);
+			final double[] modelReal = new double[size];
+			final double[] modelImaginary = new double[size];
+			modelCF.apply(argumentsRealNegated, argumentsImaginaryNegated, modelReal, modelImaginary);
+
+			final double[] productReal = new double[size];
+			final double[] productImaginary = new double[size];
+			this.apply(argumentsReal, argumentsImaginary, productReal, productImaginary);
+
+			double chunkSum = 0.0;
+			for(int i=0; i<size; i++) {
+				final int index = start + i;
+				final double weight = (index == 0 || index == numberOfIntervals) ? 1.0 : (index % 2 == 1 ? 4.0 : 2.0);
+				chunkSum += weight * (modelReal[i] * productReal[i] - modelImaginary[i] * productImaginary[i]);
+			}
+			return chunkSum;
+		}).sum();
 
-		return integrator.integrate(integrand) / 2.0 / Math.PI;
+		return sum * interval / 3.0 / 2.0 / Math.PI;
 	}
 
 	/* (non-Javadoc)
@@ -53,6 +53,33 @@ public class DigitalOption extends AbstractFourierTransformProduct {
 		return numerator.divide(denominator);
 	}
 
+	@Override
+	public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+		final double logStrike = Math.log(strike);
+		for(int i=0; i<argumentsReal.length; i++) {
+			final double zr = argumentsReal[i];
+			final double zi = argumentsImaginary[i];
+			// iargument = i z
+			final double ur = -zi;
+			final double ui = zr;
+
+			// numerator = strike^(iargument) (iargument + 1)
+			final double powerModulus = Math.exp(ur * logStrike);
+			final double powerReal = powerModulus * Math.cos(ui * logStrike);
+			final double powerImag = powerModulus * Math.sin(ui * logStrike);
+			final double numeratorReal = powerReal * (ur + 1.0) - powerImag * ui;
+			final double numeratorImag = powerReal * ui + powerImag * (ur + 1.0);
+
+			// denominator = z^2 - iargument
+			final double denominatorReal = zr*zr - zi*zi - ur;
+			final double denominatorImag = 2.0*zr*zi - ui;
+			final double denominatorNormSquared = denominatorReal*denominatorReal + denominatorImag*denominatorImag;
+
+			valuesReal[i] = (numeratorReal * denominatorReal + numeratorImag * denominatorImag) / denominatorNormSquared;
+			valuesImaginary[i] = (numeratorImag * denominatorReal - numeratorReal * denominatorImag) / denominatorNormSquared;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.finmath.fouriermethod.products.AbstractProductFourierTransform#getMaturity()
 	 */
@@ -135,6 +135,31 @@ public class EuropeanOption extends AbstractFourierTransformProduct {
 		return numerator.divide(denominator).negate();
 	}
 
+	@Override
+	public void apply(final double[] argumentsReal, final double[] argumentsImaginary, final double[] valuesReal, final double[] valuesImaginary) {
+		final double logStrike = Math.log(strike);
+		for(int i=0; i<argumentsReal.length; i++) {
+			final double zr = argumentsReal[i];
+			final double zi = argumentsImaginary[i];
+			// iargument = i z
+			final double ur = -zi;
+			final double ui = zr;
+
+			// numerator = strike^(iargument + 1)
+			final double numeratorModulus = Math.exp((ur + 1.0) * logStrike);
+			final double numeratorReal = numeratorModulus * Math.cos(ui * logStrike);
+			final double numeratorImag = numeratorModulus * Math.sin(ui * logStrike);
+
+			// denominator = z^2 - iargument
+			final double denominatorReal = zr*zr - zi*zi - ur;
+			final double denominatorImag = 2.0*zr*zi - ui;
+			final double denominatorNormSquared = denominatorReal*denominatorReal + denominatorImag*denominatorImag;
+
+			valuesReal[i] = -(numeratorReal * denominatorReal + numeratorImag * denominatorImag) / denominatorNormSquared;
+			valuesImaginary[i] = -(numeratorImag * denominatorReal - numeratorReal * denominatorImag) / denominatorNormSquared;
+		}
+	}
+
 	@Override
 	public double getValue(final CharacteristicFunctionModel model) throws CalculationException {
 		if(callOrPutSign == CallOrPut.CALL) {
@@ -0,0 +1,237 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod.products.smile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.math3.complex.Complex;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.CharacteristicFunction;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+
+/**
+ * This class computes the prices of a collection of call options for a fixed maturity and a family of strikes
+ * using the COS method of Fang and Oosterlee (2008).
+ *
+ * The density of \( X = \log(S(T)) \) is approximated by a Fourier cosine series on a truncation interval \( [a,b] \),
+ * where the coefficients of the series are given by the characteristic function evaluated at \( u_{k} = k \pi / (b-a) \).
+ * The truncation interval is chosen from the cumulants \( c_{1}, c_{2}, c_{4} \) of \( X \) as
+ * \( [a,b] = [c_{1} - L \sqrt{c_{2} + \sqrt{c_{4}}}, c_{1} + L \sqrt{c_{2} + \sqrt{c_{4}}}] \).
+ * The cumulants are obtained from the characteristic function of the model by finite differences, such that
+ * the method applies to any {@link CharacteristicFunctionModel}.
+ *
+ * The characteristic function is evaluated once per maturity (at <code>numberOfTerms</code> points). Each strike
+ * is then valued in \( O(N) \) without interpolation. Out-of-the-money options are valued directly,
+ * in-the-money options via the put-call parity.
+ *
+ * References:
+ * <ul>
+ *  <li> Fang, F. and Oosterlee, C. W. (2008) A novel pricing method for European options based on Fourier-cosine series expansions. SIAM Journal on Scientific Computing.</li>
+ * </ul>
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class EuropeanOptionSmileByCOS extends EuropeanOptionSmile {
+
+	private static final int defaultNumberOfTerms = 256;
+	private static final double defaultTruncationWidth = 10.0;
+
+	private final int numberOfTerms;
+	private final double truncationWidth;
+
+	/**
+	 * Create the valuation method.
+	 *
+	 * @param underlyingName The name of the underlying.
+	 * @param maturity The maturity.
+	 * @param strikes The strikes.
+	 * @param numberOfTerms The number of terms \( N \) of the cosine series.
+	 * @param truncationWidth The width \( L \) of the truncation interval in terms of the cumulants.
+	 */
+	public EuropeanOptionSmileByCOS(final String underlyingName, final double maturity, final double[] strikes, final int numberOfTerms, final double truncationWidth) {
+		super(underlyingName, maturity, strikes);
+		if(numberOfTerms < 1) {
+			throw new IllegalArgumentException("The number of terms has to be positive.");
+		}
+		if(!(truncationWidth > 0)) {
+			throw new IllegalArgumentException("The truncation width has to be positive.");
+		}
+		this.numberOfTerms = numberOfTerms;
+		this.truncationWidth = truncationWidth;
+	}
+
+	public EuropeanOptionSmileByCOS(final String underlyingName, final double maturity, final double[] strikes) {
+		this(underlyingName, maturity, strikes, defaultNumberOfTerms, defaultTruncationWidth);
+	}
+
+	public EuropeanOptionSmileByCOS(final double maturity, final double[] strikes) {
+		this(null, maturity, strikes);
+	}
+
+	@Override
+	public Map<String, Function<Double, Double>> getValue(final double evaluationTime, final CharacteristicFunctionModel model) throws CalculationException {
+
+		final CharacteristicFunction modelCF = model.apply(getMaturity());
+
+		// The characteristic function is discounted: phi(0) is the discount factor, phi(-i) the discounted forward
+		final double discountFactor = modelCF.apply(Complex.ZERO).getReal();
+		final double forwardDiscounted = modelCF.apply(Complex.I.negate()).getReal();
+
+		final double[] cumulants = getCumulants(modelCF, discountFactor, Math.log(forwardDiscounted / discountFactor));
+		final double width = truncationWidth * Math.sqrt(cumulants[1] + Math.sqrt(Math.max(cumulants[2], 0.0)));
+		final double lowerBound = cumulants[0] - width;
+		final double upperBound = cumulants[0] + width;
+
+		/*
+		 * Coefficients Re(phi(u_k) exp(-i u_k a)) of the cosine series (the first term weighted by 1/2),
+		 * including the factor 2/(b-a) of the payoff coefficients.
+		 */
+		final double[] frequencies = new double[numberOfTerms];
+		for(int k = 0; k<numberOfTerms; k++) {
+			frequencies[k] = k * Math.PI / (upperBound - lowerBound);
+		}
+
+		final double[] valuesReal = new double[numberOfTerms];
+		final double[] valuesImaginary = new double[numberOfTerms];
+		modelCF.apply(frequencies, new double[numberOfTerms], valuesReal, valuesImaginary);
+
+		final double[] coefficients = new double[numberOfTerms];
+		for(int k = 0; k<numberOfTerms; k++) {
+			final double u = frequencies[k];
+			final double valueReal = valuesReal[k] * Math.cos(u * lowerBound) + valuesImaginary[k] * Math.sin(u * lowerBound);
+
+			coefficients[k] = valueReal * 2.0 / (upperBound - lowerBound) * (k == 0 ? 0.5 : 1.0);
+		}
+		if(!isFinite(coefficients)) {
+			throw new CalculationException("Characteristic function is not finite on the integration grid.");
+		}
+
+		final Function<Double, Double> strikeToPrice = strike -> {
+			final double logStrike = Math.log(strike);
+			if(logStrike >= Math.log(forwardDiscounted / discountFactor)) {
+				return getCallValue(frequencies, coefficients, lowerBound, upperBound, logStrike);
+			}
+			else {
+				// Put-call parity C = P + D F - D K
+				return getPutValue(frequencies, coefficients, lowerBound, upperBound, logStrike) + forwardDiscounted - discountFactor * strike;
+			}
+		};
+
+		final HashMap<String, Function<Double, Double>> results = new HashMap<>();
+		results.put("valuePerStrike", strikeToPrice);
+		return results;
+	}
+
+	@Override
+	public EuropeanOptionSmile getCloneWithModifiedParameters(final double maturity, final double[] strikes) {
+		return new EuropeanOptionSmileByCOS(getUnderlyingName(), maturity, strikes, numberOfTerms, truncationWidth);
+	}
+
+	/**
+	 * Value of the call with payoff \( \max(\exp(x)-K,0) \), integrating the cosine series over \( [\log(K), b] \).
+	 */
+	private static double getCallValue(final double[] frequencies, final double[] coefficients, final double lowerBound, final double upperBound, final double logStrike) {
+		if(logStrike >= upperBound) {
+			return 0.0;
+		}
+		final double logStrikeTruncated = Math.max(logStrike, lowerBound);
+		final double strike = Math.exp(logStrike);
+		final double expLower = Math.exp(logStrikeTruncated);
+		final double expUpper = Math.exp(upperBound);
+
+		double value = 0.0;
+		for(int k = 0; k<coefficients.length; k++) {
+			final double omega = frequencies[k];
+			final double cos = Math.cos(omega * (logStrikeTruncated - lowerBound));
+			final double sin = Math.sin(omega * (logStrikeTruncated - lowerBound));
+			final double cosUpper = (k % 2 == 0) ? 1.0 : -1.0;
+
+			// chi_k = int_{c}^{b} exp(x) cos(omega (x-a)) dx, psi_k = int_{c}^{b} cos(omega (x-a)) dx
+			final double chi = (cosUpper * expUpper - cos * expLower - omega * sin * expLower) / (1.0 + omega * omega);
+			final double psi = k == 0 ? upperBound - logStrikeTruncated : -sin / omega;
+
+			value += coefficients[k] * (chi - strike * psi);
+		}
+		return value;
+	}
+
+	/**
+	 * Value of the put with payoff \( \max(K-\exp(x),0) \), integrating the cosine series over \( [a, \log(K)] \).
+	 */
+	private static double getPutValue(final double[] frequencies, final double[] coefficients, final double lowerBound, final double upperBound, final double logStrike) {
+		if(logStrike <= lowerBound) {
+			return 0.0;
+		}
+		final double logStrikeTruncated = Math.min(logStrike, upperBound);
+		final double strike = Math.exp(logStrike);
+		final double expLower = Math.exp(lowerBound);
+		final double expUpper = Math.exp(logStrikeTruncated);
+
+		double value = 0.0;
+		for(int k = 0; k<coefficients.length; k++) {
+			final double omega = frequencies[k];
+			final double cos = Math.cos(omega * (logStrikeTruncated - lowerBound));
+			final double sin = Math.sin(omega * (logStrikeTruncated - lowerBound));
+
+			// chi_k = int_{a}^{c} exp(x) cos(omega (x-a)) dx, psi_k = int_{a}^{c} cos(omega (x-a)) dx
+			final double chi = (cos * expUpper - expLower + omega * sin * expUpper) / (1.0 + omega * omega);
+			final double psi = k == 0 ? logStrikeTruncated - lowerBound : sin / omega;
+
+			value += coefficients[k] * (strike * psi - chi);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the cumulants \( c_{1}, c_{2}, c_{4} \) of \( X \) from finite differences of the cumulant generating
+	 * function \( f(u) = \log(\phi(u)/D) - i u x_{0} \). The shift by \( x_{0} \) (the log-forward) removes the
+	 * fast rotating phase of \( \phi \), such that the principal branch of the logarithm can be used.
+	 *
+	 * The step size is chosen relative to the standard deviation of \( X \), which is estimated in a first pass.
+	 */
+	private static double[] getCumulants(final CharacteristicFunction modelCF, final double discountFactor, final double logForward) throws CalculationException {
+		double[] cumulants = getCumulants(modelCF, discountFactor, logForward, 1E-2);
+		if(cumulants[1] > 0) {
+			cumulants = getCumulants(modelCF, discountFactor, logForward, Math.min(0.1 / Math.sqrt(cumulants[1]), 1.0));
+		}
+
+		if(!isFinite(cumulants) || !(cumulants[1] > 0)) {
+			throw new CalculationException("Failed to determine the cumulants of the characteristic function.");
+		}
+		return cumulants;
+	}
+
+	private static double[] getCumulants(final CharacteristicFunction modelCF, final double discountFactor, final double logForward, final double stepSize) {
+		final Complex f1 = getCumulantGeneratingFunction(modelCF, discountFactor, logForward, stepSize);
+		final Complex f2 = getCumulantGeneratingFunction(modelCF, discountFactor, logForward, 2.0 * stepSize);
+
+		/*
+		 * Re f(u) = -c2 u^2 / 2 + c4 u^4 / 24 - ..., Im f(u) = (c1 - x0) u - c3 u^3 / 6 + ...
+		 */
+		final double c1 = logForward + (8.0 * f1.getImaginary() - f2.getImaginary()) / (6.0 * stepSize);
+		final double c4 = 2.0 * (f2.getReal() - 4.0 * f1.getReal()) / Math.pow(stepSize, 4);
+		final double c2 = -2.0 * f1.getReal() / (stepSize * stepSize) + c4 * stepSize * stepSize / 12.0;
+
+		return new double[] { c1, c2, c4 };
+	}
+
+	private static Complex getCumulantGeneratingFunction(final CharacteristicFunction modelCF, final double discountFactor, final double logForward, final double u) {
+		return modelCF.apply(new Complex(u, 0.0)).multiply(new Complex(Math.cos(u * logForward), -Math.sin(u * logForward))).divide(discountFactor).log();
+	}
+
+	private static boolean isFinite(final double[] values) {
+		for(final double value : values) {
+			if(!Double.isFinite(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
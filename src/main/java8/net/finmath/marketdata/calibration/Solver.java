@@ -28,6 +28,10 @@ import net.finmath.optimizer.SolverException;
  * The calibration is performed as a multi-threaded global optimization.
  * I will greatly profit from a multi-core architecture.
  *
+ * The Jacobian is calculated by finite differences, that is, by one valuation of all
+ * calibration products per parameter. For a calibration where the Jacobian is obtained by
+ * algorithmic differentiation see {@link net.finmath.marketdata2.calibration.Solver}.
+ *
  * @author Christian Fries
  * @version 1.0
  */
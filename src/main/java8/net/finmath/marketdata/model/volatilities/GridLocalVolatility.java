@@ -0,0 +1,294 @@
+package net.finmath.marketdata.model.volatilities;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Local volatility given by a precomputed table on a (time, log-asset value)
+ * grid.
+ *
+ * <p>
+ * The class is intended as a compiled representation of an expensive local
+ * volatility, e.g., {@link DupireLocalVolatility}, where each evaluation
+ * requires several finite differences of an interpolated option surface. The
+ * local volatility is evaluated once on the grid, see
+ * {@link #of(LocalVolatility, TimeDiscretization, double, double, int)}, and
+ * then served by bilinear interpolation in time and log-asset value, with
+ * constant extrapolation outside the grid.
+ * </p>
+ *
+ * <p>
+ * The log-asset grid is equidistant, so locating a grid cell is a single
+ * division. If the time grid is chosen as the time discretization of a Monte
+ * Carlo simulation, evaluations at simulation times hit a grid row and require
+ * interpolation in the asset direction only. The random variable method
+ * {@link #getValue(double, RandomVariable)} locates the time once and then
+ * loops over the realizations without further allocation.
+ * </p>
+ *
+ * @author agent
+ */
+public class GridLocalVolatility implements LocalVolatility {
+
+	/**
+	 * The times of the grid (strictly increasing).
+	 */
+	private final double[] times;
+	/**
+	 * The first log-asset value of the grid.
+	 */
+	private final double logAssetValueMin;
+	/**
+	 * The distance of two log-asset values of the grid.
+	 */
+	private final double logAssetValueStep;
+	/**
+	 * The number of log-asset values of the grid.
+	 */
+	private final int numberOfAssetValues;
+	/**
+	 * The local volatilities, indexed by time index and log-asset index.
+	 */
+	private final double[][] localVolatilities;
+
+	/**
+	 * Creates a local volatility from a table on a (time, log-asset value) grid.
+	 *
+	 * @param times The times of the grid, strictly increasing.
+	 * @param logAssetValueMin The first log-asset value of the equidistant log-asset grid.
+	 * @param logAssetValueStep The distance of two log-asset values of the grid (positive).
+	 * @param localVolatilities The local volatilities, {@code localVolatilities[i][j]} being the value at
+	 *     {@code times[i]} and asset value {@code exp(logAssetValueMin + j * logAssetValueStep)}.
+	 */
+	public GridLocalVolatility(
+			final double[] times,
+			final double logAssetValueMin,
+			final double logAssetValueStep,
+			final double[][] localVolatilities) {
+
+		Objects.requireNonNull(times, "times");
+		Objects.requireNonNull(localVolatilities, "localVolatilities");
+
+		if (times.length == 0 || times.length != localVolatilities.length) {
+			throw new IllegalArgumentException("Number of times must be positive and match the number of rows of localVolatilities.");
+		}
+
+		for (int i = 1; i < times.length; i++) {
+			if (!(times[i] > times[i - 1])) {
+				throw new IllegalArgumentException("times must be strictly increasing.");
+			}
+		}
+
+		if (!(logAssetValueStep > 0.0) || Double.isInfinite(logAssetValueStep)
+				|| Double.isNaN(logAssetValueMin) || Double.isInfinite(logAssetValueMin)) {
+			throw new IllegalArgumentException("logAssetValueMin must be finite and logAssetValueStep must be positive and finite.");
+		}
+
+		final int numberOfAssetValues = localVolatilities[0].length;
+		if (numberOfAssetValues == 0) {
+			throw new IllegalArgumentException("localVolatilities must not be empty.");
+		}
+
+		this.localVolatilities = new double[times.length][];
+		for (int i = 0; i < times.length; i++) {
+			if (localVolatilities[i].length != numberOfAssetValues) {
+				throw new IllegalArgumentException("All rows of localVolatilities must have the same length.");
+			}
+			this.localVolatilities[i] = localVolatilities[i].clone();
+		}
+
+		this.times = times.clone();
+		this.logAssetValueMin = logAssetValueMin;
+		this.logAssetValueStep = logAssetValueStep;
+		this.numberOfAssetValues = numberOfAssetValues;
+	}
+
+	/**
+	 * Evaluates a local volatility on a grid of the given times and log-equidistant asset values.
+	 *
+	 * @param localVolatility The local volatility to evaluate.
+	 * @param times The times of the grid, strictly increasing, e.g. the simulation times.
+	 * @param assetValueMin The smallest asset value of the grid (positive).
+	 * @param assetValueMax The largest asset value of the grid.
+	 * @param numberOfAssetValues The number of asset values of the grid (at least 2).
+	 * @return The local volatility on the grid.
+	 */
+	public static GridLocalVolatility of(
+			final LocalVolatility localVolatility,
+			final double[] times,
+			final double assetValueMin,
+			final double assetValueMax,
+			final int numberOfAssetValues) {
+
+		Objects.requireNonNull(localVolatility, "localVolatility");
+
+		if (!(assetValueMin > 0.0) || !(assetValueMax > assetValueMin) || Double.isInfinite(assetValueMax)) {
+			throw new IllegalArgumentException("Asset value range must satisfy 0 < assetValueMin < assetValueMax < infinity.");
+		}
+
+		if (numberOfAssetValues < 2) {
+			throw new IllegalArgumentException("numberOfAssetValues must be at least 2.");
+		}
+
+		final double logAssetValueMin = Math.log(assetValueMin);
+		final double logAssetValueStep = (Math.log(assetValueMax) - logAssetValueMin) / (numberOfAssetValues - 1);
+
+		final double[][] localVolatilities = new double[times.length][numberOfAssetValues];
+		for (int i = 0; i < times.length; i++) {
+			for (int j = 0; j < numberOfAssetValues; j++) {
+				localVolatilities[i][j] = localVolatility.getValue(times[i], Math.exp(logAssetValueMin + j * logAssetValueStep));
+			}
+		}
+
+		return new GridLocalVolatility(times, logAssetValueMin, logAssetValueStep, localVolatilities);
+	}
+
+	/**
+	 * Evaluates a local volatility on a grid adapted to a simulation time discretization and
+	 * log-equidistant asset values.
+	 *
+	 * @param localVolatility The local volatility to evaluate.
+	 * @param timeDiscretization The time discretization, e.g. of the Monte Carlo simulation.
+	 * @param assetValueMin The smallest asset value of the grid (positive).
+	 * @param assetValueMax The largest asset value of the grid.
+	 * @param numberOfAssetValues The number of asset values of the grid (at least 2).
+	 * @return The local volatility on the grid.
+	 */
+	public static GridLocalVolatility of(
+			final LocalVolatility localVolatility,
+			final TimeDiscretization timeDiscretization,
+			final double assetValueMin,
+			final double assetValueMax,
+			final int numberOfAssetValues) {
+
+		return of(localVolatility, timeDiscretization.getAsDoubleArray(), assetValueMin, assetValueMax, numberOfAssetValues);
+	}
+
+	@Override
+	public double getValue(final double time, final double assetValue) {
+
+		if (assetValue <= 0.0) {
+			return 0.0;
+		}
+
+		final int timeIndex = getTimeIndex(time);
+		final double timeWeight = getTimeWeight(time, timeIndex);
+
+		return getValue(timeIndex, timeWeight, assetValue);
+	}
+
+	@Override
+	public RandomVariable getValue(final double time, final RandomVariable assetValue) {
+
+		final int timeIndex = getTimeIndex(time);
+		final double timeWeight = getTimeWeight(time, timeIndex);
+
+		if (assetValue.isDeterministic()) {
+			final double value = assetValue.doubleValue();
+			return new RandomVariableFromDoubleArray(assetValue.getFiltrationTime(), value > 0.0 ? getValue(timeIndex, timeWeight, value) : 0.0);
+		}
+
+		final double[] values = new double[assetValue.size()];
+		for (int path = 0; path < values.length; path++) {
+			final double value = assetValue.get(path);
+			values[path] = value > 0.0 ? getValue(timeIndex, timeWeight, value) : 0.0;
+		}
+
+		return new RandomVariableFromDoubleArray(assetValue.getFiltrationTime(), values);
+	}
+
+	/**
+	 * Returns the times of the grid.
+	 *
+	 * @return The times of the grid.
+	 */
+	public double[] getTimes() {
+		return times.clone();
+	}
+
+	/**
+	 * Returns the log-asset values of the grid.
+	 *
+	 * @return The log-asset values of the grid.
+	 */
+	public double[] getLogAssetValues() {
+		final double[] logAssetValues = new double[numberOfAssetValues];
+		for (int j = 0; j < numberOfAssetValues; j++) {
+			logAssetValues[j] = logAssetValueMin + j * logAssetValueStep;
+		}
+		return logAssetValues;
+	}
+
+	/**
+	 * Returns the local volatilities on the grid, indexed by time index and log-asset index.
+	 *
+	 * @return The local volatilities on the grid.
+	 */
+	public double[][] getLocalVolatilities() {
+		final double[][] copy = new double[localVolatilities.length][];
+		for (int i = 0; i < localVolatilities.length; i++) {
+			copy[i] = localVolatilities[i].clone();
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the index of the last grid time less or equal to the given time, clamped to the grid.
+	 */
+	private int getTimeIndex(final double time) {
+		final int index = Arrays.binarySearch(times, time);
+		if (index >= 0) {
+			return index;
+		}
+		return Math.max(0, Math.min(-index - 2, times.length - 1));
+	}
+
+	/**
+	 * Returns the weight of the row {@code timeIndex + 1}, zero on a grid time or outside the grid.
+	 */
+	private double getTimeWeight(final double time, final int timeIndex) {
+		if (timeIndex >= times.length - 1 || time <= times[timeIndex]) {
+			return 0.0;
+		}
+		return (time - times[timeIndex]) / (times[timeIndex + 1] - times[timeIndex]);
+	}
+
+	private double getValue(final int timeIndex, final double timeWeight, final double assetValue) {
+
+		final double position = (Math.log(assetValue) - logAssetValueMin) / logAssetValueStep;
+
+		final int assetIndex;
+		final double assetWeight;
+		if (!(position > 0.0)) {
+			assetIndex = 0;
+			assetWeight = 0.0;
+		}
+		else if (position >= numberOfAssetValues - 1) {
+			assetIndex = numberOfAssetValues - 1;
+			assetWeight = 0.0;
+		}
+		else {
+			assetIndex = (int)position;
+			assetWeight = position - assetIndex;
+		}
+
+		final double valueAtTime = interpolate(localVolatilities[timeIndex], assetIndex, assetWeight);
+		if (timeWeight == 0.0) {
+			return valueAtTime;
+		}
+
+		final double valueAtNextTime = interpolate(localVolatilities[timeIndex + 1], assetIndex, assetWeight);
+		return (1.0 - timeWeight) * valueAtTime + timeWeight * valueAtNextTime;
+	}
+
+	private static double interpolate(final double[] row, final int index, final double weight) {
+		if (weight == 0.0) {
+			return row[index];
+		}
+		return (1.0 - weight) * row[index] + weight * row[index + 1];
+	}
+}
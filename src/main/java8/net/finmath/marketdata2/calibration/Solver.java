@@ -13,9 +13,11 @@ import java.util.Vector;
 import net.finmath.marketdata2.model.AnalyticModel;
 import net.finmath.marketdata2.products.AnalyticProduct;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiableFactory;
 import net.finmath.optimizer.SolverException;
 import net.finmath.optimizer.StochasticOptimizer;
 import net.finmath.optimizer.StochasticOptimizerFactory;
+import net.finmath.optimizer.StochasticOptimizerFactoryLevenbergMarquardtAD;
 import net.finmath.optimizer.StochasticPathwiseOptimizerFactoryLevenbergMarquardt;
 import net.finmath.stochastic.RandomVariable;
 
@@ -30,6 +32,12 @@ import net.finmath.stochastic.RandomVariable;
  * The calibration is performed as a multi-threaded global optimization.
  * I will greatly profit from a multi-core architecture.
  *
+ * If the solver is constructed with a {@link RandomVariableDifferentiableFactory},
+ * the calibration parameters are created as differentiable random variables
+ * and the Jacobian of the calibration products with respect to the curve parameters
+ * is obtained by algorithmic differentiation, i.e., from one valuation of each
+ * calibration product, instead of one (bumped) valuation of all products per parameter.
+ *
  * @author Christian Fries
  * @version 1.0
  */
@@ -40,6 +48,7 @@ public class Solver {
 	private final List<Double>						calibrationTargetValues;
 	private final double							calibrationAccuracy;
 	private final ParameterTransformation			parameterTransformation;
+	private final RandomVariableDifferentiableFactory	parameterFactory;
 
 	private StochasticOptimizerFactory		optimizerFactory;
 
@@ -69,6 +78,7 @@ public class Solver {
 		this.evaluationTime = evaluationTime;
 		this.optimizerFactory = optimizerFactory;
 		calibrationAccuracy = 0.0;
+		parameterFactory = null;
 	}
 
 	/**
@@ -81,8 +91,9 @@ public class Solver {
 	 * @param parameterTransformation A parameter transformation, if any, otherwise null.
 	 * @param evaluationTime Evaluation time applied to the calibration products.
 	 * @param calibrationAccuracy The error tolerance of the solver.
+	 * @param parameterFactory If not null, a factory used to create the calibration parameters as differentiable random variables, such that the Jacobian is calculated by algorithmic differentiation.
 	 */
-	public Solver(final AnalyticModel model, final Vector<AnalyticProduct> calibrationProducts, final List<Double> calibrationTargetValues, final ParameterTransformation parameterTransformation, final double evaluationTime, final double calibrationAccuracy) {
+	public Solver(final AnalyticModel model, final Vector<AnalyticProduct> calibrationProducts, final List<Double> calibrationTargetValues, final ParameterTransformation parameterTransformation, final double evaluationTime, final double calibrationAccuracy, final RandomVariableDifferentiableFactory parameterFactory) {
 		super();
 		this.model = model;
 		this.calibrationProducts = calibrationProducts;
@@ -90,9 +101,25 @@ public class Solver {
 		this.parameterTransformation = parameterTransformation;
 		this.evaluationTime = evaluationTime;
 		this.calibrationAccuracy = calibrationAccuracy;
+		this.parameterFactory = parameterFactory;
 		optimizerFactory = null;
 	}
 
+	/**
+	 * Generate a solver for the given parameter objects (independents) and
+	 * objective functions (dependents).
+	 *
+	 * @param model The model from which a calibrated clone should be created.
+	 * @param calibrationProducts The objective functions.
+	 * @param calibrationTargetValues Array of target values for the objective functions.
+	 * @param parameterTransformation A parameter transformation, if any, otherwise null.
+	 * @param evaluationTime Evaluation time applied to the calibration products.
+	 * @param calibrationAccuracy The error tolerance of the solver.
+	 */
+	public Solver(final AnalyticModel model, final Vector<AnalyticProduct> calibrationProducts, final List<Double> calibrationTargetValues, final ParameterTransformation parameterTransformation, final double evaluationTime, final double calibrationAccuracy) {
+		this(model, calibrationProducts, calibrationTargetValues, parameterTransformation, evaluationTime, calibrationAccuracy, null);
+	}
+
 	/**
 	 * Generate a solver for the given parameter objects (independents) and
 	 * objective functions (dependents).
@@ -155,6 +182,13 @@ public class Solver {
 			initialParameters = parameterAggregate.getParameter();
 		}
 
+		// Make the solver parameters independent variables of the algorithmic differentiation
+		if(parameterFactory != null) {
+			for(int i=0; i<initialParameters.length; i++) {
+				initialParameters[i] = parameterFactory.createRandomVariable(initialParameters[i].doubleValue());
+			}
+		}
+
 		final RandomVariable[] zeros				= new RandomVariable[calibrationProducts.size()];
 		final RandomVariable[] ones				= new RandomVariable[calibrationProducts.size()];
 		final RandomVariable[] lowerBound			= new RandomVariable[initialParameters.length];
@@ -182,7 +216,7 @@ public class Solver {
 					}
 					if(calibrationTargetValues != null) {
 						for(int i=0; i<calibrationTargetValues.size(); i++) {
-							values[i].sub(calibrationTargetValues.get(i));
+							values[i] = values[i].sub(calibrationTargetValues.get(i));
 						}
 					}
 				} catch (final CloneNotSupportedException e) {
@@ -193,7 +227,12 @@ public class Solver {
 
 		if(optimizerFactory == null) {
 			final int maxThreads		= Math.min(2 * Math.max(Runtime.getRuntime().availableProcessors(), 1), initialParameters.length);
-			optimizerFactory = new StochasticPathwiseOptimizerFactoryLevenbergMarquardt(maxIterations, calibrationAccuracy, maxThreads);
+			if(parameterFactory != null) {
+				optimizerFactory = new StochasticOptimizerFactoryLevenbergMarquardtAD(maxIterations, calibrationAccuracy, maxThreads);
+			}
+			else {
+				optimizerFactory = new StochasticPathwiseOptimizerFactoryLevenbergMarquardt(maxIterations, calibrationAccuracy, maxThreads);
+			}
 		}
 
 		final StochasticOptimizer optimizer = optimizerFactory.getOptimizer(objectiveFunction, initialParameters, lowerBound, upperBound, zeros);
@@ -206,6 +245,13 @@ public class Solver {
 			bestParameters = parameterTransformation.getParameter(bestParameters);
 		}
 
+		// The calibrated model does not need to keep references to the operator tree of the differentiation
+		if(parameterFactory != null) {
+			for(int i=0; i<bestParameters.length; i++) {
+				bestParameters[i] = bestParameters[i].getValues();
+			}
+		}
+
 		AnalyticModel calibratedModel = null;
 		try {
 
@@ -0,0 +1,262 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.randomnumbers.MersenneTwister;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, generating the increments
+ * one time slice at a time.
+ *
+ * The increments of a time slice (all factors and all paths of a given time index) are
+ * generated from a Mersenne Twister seeded by a counter based seed derived from the pair (seed, time index).
+ * Hence each time slice can be (re-)generated independently of all other time slices.
+ *
+ * Only the most recently used <code>numberOfCachedTimeSlices</code> time slices are kept in memory
+ * (least recently used cache). A time slice which has been evicted is re-generated on demand, giving
+ * the same increments. Hence, the memory requirement of this object does not grow with the number of time steps.
+ *
+ * Note that the increments differ from those of {@link BrownianMotionFromMersenneRandomNumbers}
+ * using the same seed.
+ *
+ * The quadruple (time discretization, number of factors, number of paths, seed)
+ * defines the state of an object of this class.
+ *
+ * The class is immutable and thread safe.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class BrownianMotionFromMersenneRandomNumbersLazyTimeSlices implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = -1853786582472817043L;
+
+	private static final int DEFAULT_NUMBER_OF_CACHED_TIME_SLICES = 16;
+
+	private final TimeDiscretization						timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+	private final int			numberOfCachedTimeSlices;
+
+	private final RandomVariableFactory randomVariableFactory;
+
+	private transient	Map<Integer, RandomVariable[]>	brownianIncrementsCache;
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param numberOfCachedTimeSlices The maximum number of time slices kept in memory.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final int numberOfCachedTimeSlices,
+			final RandomVariableFactory randomVariableFactory) {
+		super();
+		Validate.isTrue(numberOfFactors > 0, "Number of factors must be greater or equal 1 (given %d).", numberOfFactors);
+		Validate.isTrue(numberOfPaths > 0, "Number of paths must be greater or equal 1 (given %d).", numberOfPaths);
+		Validate.isTrue(numberOfCachedTimeSlices > 0, "Number of cached time slices must be greater or equal 1 (given %d).", numberOfCachedTimeSlices);
+
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.numberOfCachedTimeSlices = numberOfCachedTimeSlices;
+
+		this.randomVariableFactory = randomVariableFactory;
+
+		brownianIncrementsCache = createCache(numberOfCachedTimeSlices);
+	}
+
+	/**
+	 * Construct a Brownian motion using a default number of cached time slices.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 */
+	public BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, DEFAULT_NUMBER_OF_CACHED_TIME_SLICES, new RandomVariableFromArrayFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, numberOfCachedTimeSlices, randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), numberOfCachedTimeSlices, randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		RandomVariable[] brownianIncrementsForTimeIndex;
+		synchronized(brownianIncrementsCache) {
+			brownianIncrementsForTimeIndex = brownianIncrementsCache.get(timeIndex);
+			if(brownianIncrementsForTimeIndex == null) {
+				brownianIncrementsForTimeIndex = doGenerateBrownianIncrements(timeIndex);
+				brownianIncrementsCache.put(timeIndex, brownianIncrementsForTimeIndex);
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrementsForTimeIndex[factor];
+	}
+
+	/**
+	 * Generate the Brownian increments of all factors for a given time index.
+	 *
+	 * @param timeIndex The time index.
+	 * @return The array of Brownian increments (one per factor).
+	 */
+	private RandomVariable[] doGenerateBrownianIncrements(final int timeIndex) {
+		// Create random number sequence generator for this time slice
+		final MersenneTwister mersenneTwister = new MersenneTwister(BrownianMotionFromMersenneRandomNumbersParallel.getBlockSeed(seed, timeIndex));
+
+		final double sqrtDeltaT = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+		final double time = timeDiscretization.getTime(timeIndex+1);
+
+		// The loop over path is the outer loop, such that factors correspond to dimensions of the random number generator.
+		final double[][] brownianIncrementsArray = new double[numberOfFactors][numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				// Get uniform random number
+				final double uniformIncrement = mersenneTwister.nextDoubleFast();
+				// Transform uniform to normal using ICDF method
+				brownianIncrementsArray[factor][path] = NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+			}
+		}
+
+		final RandomVariable[] brownianIncrementsForTimeIndex = new RandomVariable[numberOfFactors];
+		for(int factor=0; factor<numberOfFactors; factor++) {
+			brownianIncrementsForTimeIndex[factor] = randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[factor]);
+		}
+
+		return brownianIncrementsForTimeIndex;
+	}
+
+	private static Map<Integer, RandomVariable[]> createCache(final int maximumSize) {
+		return new LinkedHashMap<Integer, RandomVariable[]>(maximumSize+1, 0.75f, true /* accessOrder */) {
+			private static final long serialVersionUID = 4104543287567366541L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Integer, RandomVariable[]> eldest) {
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return Returns the maximum number of time slices kept in memory.
+	 */
+	public int getNumberOfCachedTimeSlices() {
+		return numberOfCachedTimeSlices;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [timeDiscretization=" + timeDiscretization + ", numberOfFactors="
+				+ numberOfFactors + ", numberOfPaths=" + numberOfPaths + ", seed=" + seed
+				+ ", numberOfCachedTimeSlices=" + numberOfCachedTimeSlices
+				+ ", randomVariableFactory=" + randomVariableFactory + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionFromMersenneRandomNumbersLazyTimeSlices that = (BrownianMotionFromMersenneRandomNumbersLazyTimeSlices) o;
+
+		// Note: the size of the cache does not alter the generated numbers and is hence not part of the state.
+		if ((numberOfFactors != that.numberOfFactors) || (numberOfPaths != that.numberOfPaths) || (seed != that.seed)) {
+			return false;
+		}
+		return timeDiscretization.equals(that.timeDiscretization);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		return result;
+	}
+
+	private void readObject(final java.io.ObjectInputStream in) throws ClassNotFoundException, IOException {
+		in.defaultReadObject();
+		// initialization of transients
+		brownianIncrementsCache = createCache(numberOfCachedTimeSlices);
+	}
+}
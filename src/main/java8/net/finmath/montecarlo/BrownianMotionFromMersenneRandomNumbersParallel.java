@@ -0,0 +1,316 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.randomnumbers.MersenneTwister;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, where the paths are generated in parallel.
+ *
+ * The paths are split into blocks of <code>pathBlockSize</code> consecutive paths. Each block
+ * uses its own Mersenne Twister, seeded by a counter based seed derived from the pair (seed, block index).
+ * The blocks are generated in parallel (using a parallel stream, i.e., the common ForkJoinPool).
+ *
+ * Since the random number sequence of a path only depends on the block it belongs to,
+ * the generated increments are bit-identical, regardless of the number of threads used
+ * (and regardless of whether parallel generation is enabled).
+ * Note however, that the increments differ from those of {@link BrownianMotionFromMersenneRandomNumbers}
+ * using the same seed, and that they depend on the block size.
+ *
+ * The quintuple (time discretization, number of factors, number of paths, seed, path block size)
+ * defines the state of an object of this class.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class BrownianMotionFromMersenneRandomNumbersParallel implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = 6216402447937470478L;
+
+	private static final int DEFAULT_PATH_BLOCK_SIZE = 10000;
+
+	private final TimeDiscretization						timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+	private final int			pathBlockSize;
+	private final boolean		isParallel;
+
+	private final RandomVariableFactory randomVariableFactory;
+
+	private transient	RandomVariable[][]	brownianIncrements;
+	private transient 	Object				brownianIncrementsLazyInitLock = new Object();
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param pathBlockSize The number of paths generated from a single random number sequence.
+	 * @param isParallel If true, the path blocks are generated in parallel, otherwise sequentially (the result is the same).
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionFromMersenneRandomNumbersParallel(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final int pathBlockSize,
+			final boolean isParallel,
+			final RandomVariableFactory randomVariableFactory) {
+		super();
+		Validate.isTrue(numberOfFactors > 0, "Number of factors must be greater or equal 1 (given %d).", numberOfFactors);
+		Validate.isTrue(numberOfPaths > 0, "Number of paths must be greater or equal 1 (given %d).", numberOfPaths);
+		Validate.isTrue(pathBlockSize > 0, "Path block size must be greater or equal 1 (given %d).", pathBlockSize);
+
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.pathBlockSize		= pathBlockSize;
+		this.isParallel			= isParallel;
+
+		this.randomVariableFactory = randomVariableFactory;
+
+		brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	/**
+	 * Construct a Brownian motion, generating the path blocks in parallel.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param pathBlockSize The number of paths generated from a single random number sequence.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionFromMersenneRandomNumbersParallel(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final int pathBlockSize,
+			final RandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, pathBlockSize, true, randomVariableFactory);
+	}
+
+	/**
+	 * Construct a Brownian motion, generating the path blocks in parallel, using a default block size.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 */
+	public BrownianMotionFromMersenneRandomNumbersParallel(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, DEFAULT_PATH_BLOCK_SIZE, true, new RandomVariableFromArrayFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionFromMersenneRandomNumbersParallel(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, pathBlockSize, isParallel, randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionFromMersenneRandomNumbersParallel(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), pathBlockSize, isParallel, randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		// Thread safe lazy initialization
+		synchronized(brownianIncrementsLazyInitLock) {
+			if(brownianIncrements == null) {
+				doGenerateBrownianMotion();
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Lazy initialization of brownianIncrement. Synchronized to ensure thread safety of lazy init.
+	 */
+	private void doGenerateBrownianMotion() {
+		if(brownianIncrements != null) {
+			return;	// Nothing to do
+		}
+
+		final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+
+		// Allocate memory
+		final double[][][] brownianIncrementsArray = new double[numberOfTimeSteps][numberOfFactors][numberOfPaths];
+
+		// Pre-calculate square roots of deltaT
+		final double[] sqrtOfTimeStep = new double[numberOfTimeSteps];
+		for(int timeIndex=0; timeIndex<sqrtOfTimeStep.length; timeIndex++) {
+			sqrtOfTimeStep[timeIndex] = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+		}
+
+		/*
+		 * Generate normal distributed independent increments, block by block.
+		 * Each block writes to a disjoint range of paths, hence no synchronization is required.
+		 */
+		final int numberOfBlocks = (numberOfPaths + pathBlockSize - 1) / pathBlockSize;
+		IntStream blocks = IntStream.range(0, numberOfBlocks);
+		if(isParallel) {
+			blocks = blocks.parallel();
+		}
+		blocks.forEach(blockIndex -> {
+			final MersenneTwister mersenneTwister = new MersenneTwister(getBlockSeed(seed, blockIndex));
+
+			final int pathStart = blockIndex * pathBlockSize;
+			final int pathEnd = Math.min(pathStart + pathBlockSize, numberOfPaths);
+			for(int path=pathStart; path<pathEnd; path++) {
+				for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+					final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
+					// Generate uncorrelated Brownian increment
+					for(int factor=0; factor<numberOfFactors; factor++) {
+						// Get uniform random number
+						final double uniformIncrement = mersenneTwister.nextDoubleFast();
+						// Transform uniform to normal using ICDF method
+						brownianIncrementsArray[timeIndex][factor][path] = NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+					}
+				}
+			}
+		});
+
+		// Allocate memory for RandomVariableFromDoubleArray wrapper objects.
+		brownianIncrements = new RandomVariable[numberOfTimeSteps][numberOfFactors];
+
+		// Wrap the values in RandomVariableFromDoubleArray objects
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double time = timeDiscretization.getTime(timeIndex+1);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				brownianIncrements[timeIndex][factor] =
+						randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[timeIndex][factor]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the seed of the random number sequence used for a given block (e.g. a block of paths).
+	 * The seed is a function of (seed, blockIndex) only (a SplitMix64 type hash of the counter),
+	 * such that different blocks use (statistically) unrelated sequences.
+	 *
+	 * @param seed The seed of the Brownian motion.
+	 * @param blockIndex The index of the path block.
+	 * @return The seed of the random number sequence for the given block.
+	 */
+	static long getBlockSeed(final int seed, final int blockIndex) {
+		long z = ((long)seed << 32) + blockIndex + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return Returns the number of paths generated from a single random number sequence.
+	 */
+	public int getPathBlockSize() {
+		return pathBlockSize;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [timeDiscretization=" + timeDiscretization + ", numberOfFactors="
+				+ numberOfFactors + ", numberOfPaths=" + numberOfPaths + ", seed=" + seed
+				+ ", pathBlockSize=" + pathBlockSize + ", isParallel=" + isParallel
+				+ ", randomVariableFactory=" + randomVariableFactory + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionFromMersenneRandomNumbersParallel that = (BrownianMotionFromMersenneRandomNumbersParallel) o;
+
+		// Note: isParallel does not alter the generated numbers and is hence not part of the state.
+		if ((numberOfFactors != that.numberOfFactors) || (numberOfPaths != that.numberOfPaths) || (seed != that.seed) || (pathBlockSize != that.pathBlockSize)) {
+			return false;
+		}
+		return timeDiscretization.equals(that.timeDiscretization);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		result = 31 * result + pathBlockSize;
+		return result;
+	}
+
+	private void readObject(final java.io.ObjectInputStream in) throws ClassNotFoundException, IOException {
+		in.defaultReadObject();
+		// initialization of transients
+		brownianIncrementsLazyInitLock = new Object();
+	}
+}
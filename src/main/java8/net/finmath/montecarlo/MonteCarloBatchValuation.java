@@ -0,0 +1,180 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Valuation of a Monte-Carlo product on a large number of paths, performed in batches of paths.
+ *
+ * The valuation uses a given model as the template for a batch, i.e., each batch has the number of paths
+ * of the given model. For each batch, a clone of the model with a different seed is created via
+ * <code>getCloneWithModifiedData</code> (using the key <code>seed</code>). The seed of a batch is
+ * a counter based seed derived from the pair (seed, batch index).
+ *
+ * The value of the product on each batch is reduced to its {@link MonteCarloValueStatistics}, which are then merged
+ * (in the order of the batch index). The peak memory requirement hence only depends on the number of paths in a batch
+ * (times the number of batches valued in parallel), not on the total number of paths.
+ *
+ * If the batches are valued in parallel, they are distributed over the common ForkJoinPool. Since the merge is performed in
+ * the order of the batch index, the result does not depend on the number of threads used.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class MonteCarloBatchValuation {
+
+	private final MonteCarloSimulationModel	modelForBatch;
+	private final int						numberOfBatches;
+	private final int						seed;
+	private final boolean					isParallel;
+
+	/**
+	 * Create a batched valuation.
+	 *
+	 * @param modelForBatch The model used as template for a batch. Its number of paths is the batch size. It has to support the modification of the <code>seed</code> via <code>getCloneWithModifiedData</code>.
+	 * @param numberOfBatches The number of batches.
+	 * @param seed The seed from which the seeds of the batches are derived.
+	 * @param isParallel If true, the batches are valued in parallel.
+	 */
+	public MonteCarloBatchValuation(final MonteCarloSimulationModel modelForBatch, final int numberOfBatches, final int seed, final boolean isParallel) {
+		super();
+		Validate.notNull(modelForBatch, "Model must not be null.");
+		Validate.isTrue(numberOfBatches > 0, "Number of batches must be greater or equal 1 (given %d).", numberOfBatches);
+
+		this.modelForBatch = modelForBatch;
+		this.numberOfBatches = numberOfBatches;
+		this.seed = seed;
+		this.isParallel = isParallel;
+	}
+
+	/**
+	 * Create a batched valuation, valuing the batches in parallel.
+	 *
+	 * @param modelForBatch The model used as template for a batch. Its number of paths is the batch size. It has to support the modification of the <code>seed</code> via <code>getCloneWithModifiedData</code>.
+	 * @param numberOfBatches The number of batches.
+	 * @param seed The seed from which the seeds of the batches are derived.
+	 */
+	public MonteCarloBatchValuation(final MonteCarloSimulationModel modelForBatch, final int numberOfBatches, final int seed) {
+		this(modelForBatch, numberOfBatches, seed, true);
+	}
+
+	/**
+	 * Returns the model used for the batch with the given index.
+	 *
+	 * @param batchIndex The index of the batch.
+	 * @return The model used for the batch.
+	 * @throws CalculationException Thrown if the model could not be created.
+	 */
+	public MonteCarloSimulationModel getModelForBatch(final int batchIndex) throws CalculationException {
+		final Map<String, Object> dataModified = new HashMap<>();
+		dataModified.put("seed", (int)BrownianMotionFromMersenneRandomNumbersParallel.getBlockSeed(seed, batchIndex));
+		return modelForBatch.getCloneWithModifiedData(dataModified);
+	}
+
+	/**
+	 * Returns the merged statistics of the (undiscounted to time 0) value of the product, as returned from
+	 * <code>product.getValue(evaluationTime, model)</code>, over all batches.
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param product The product.
+	 * @return The statistics of the value over all paths of all batches.
+	 * @throws CalculationException Thrown if the valuation fails.
+	 */
+	public MonteCarloValueStatistics getValueStatistics(final double evaluationTime, final MonteCarloProduct product) throws CalculationException {
+		final MonteCarloValueStatistics[] statisticsOfBatches = new MonteCarloValueStatistics[numberOfBatches];
+
+		IntStream batches = IntStream.range(0, numberOfBatches);
+		if(isParallel) {
+			batches = batches.parallel();
+		}
+		try {
+			batches.forEach(batchIndex -> {
+				try {
+					final MonteCarloSimulationModel model = getModelForBatch(batchIndex);
+					final RandomVariable value = product.getValue(evaluationTime, model);
+					statisticsOfBatches[batchIndex] = new MonteCarloValueStatistics(value, model.getNumberOfPaths());
+				}
+				catch(final CalculationException e) {
+					throw new RuntimeException(e);
+				}
+			});
+		}
+		catch(final RuntimeException e) {
+			if(e.getCause() instanceof CalculationException) {
+				throw (CalculationException)e.getCause();
+			}
+			throw e;
+		}
+
+		// Merge in the order of the batches (to ensure that the result does not depend on the threading)
+		MonteCarloValueStatistics statistics = statisticsOfBatches[0];
+		for(int batchIndex=1; batchIndex<numberOfBatches; batchIndex++) {
+			statistics = statistics.merge(statisticsOfBatches[batchIndex]);
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the value of the product over all batches.
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param product The product.
+	 * @return The value of the product (the average over all paths of all batches).
+	 * @throws CalculationException Thrown if the valuation fails.
+	 */
+	public double getValue(final double evaluationTime, final MonteCarloProduct product) throws CalculationException {
+		return getValueStatistics(evaluationTime, product).getAverage();
+	}
+
+	/**
+	 * Returns the value and error of the product over all batches, using the same keys as
+	 * {@link AbstractMonteCarloProduct#getValues(double, MonteCarloSimulationModel)}, i.e., <code>value</code> and <code>error</code>.
+	 *
+	 * @param evaluationTime The evaluation time.
+	 * @param product The product.
+	 * @return Map containing the value and the standard error.
+	 * @throws CalculationException Thrown if the valuation fails.
+	 */
+	public Map<String, Object> getValues(final double evaluationTime, final MonteCarloProduct product) throws CalculationException {
+		final MonteCarloValueStatistics statistics = getValueStatistics(evaluationTime, product);
+
+		final Map<String, Object> results = new HashMap<>();
+		results.put("value", statistics.getAverage());
+		results.put("error", statistics.getStandardError());
+		results.put("numberOfPaths", statistics.getNumberOfPaths());
+
+		return results;
+	}
+
+	/**
+	 * @return The number of batches.
+	 */
+	public int getNumberOfBatches() {
+		return numberOfBatches;
+	}
+
+	/**
+	 * @return The total number of paths (number of batches times paths per batch).
+	 */
+	public long getNumberOfPaths() {
+		return (long)numberOfBatches * modelForBatch.getNumberOfPaths();
+	}
+
+	@Override
+	public String toString() {
+		return "MonteCarloBatchValuation [modelForBatch=" + modelForBatch + ", numberOfBatches=" + numberOfBatches
+				+ ", seed=" + seed + ", isParallel=" + isParallel + "]";
+	}
+}
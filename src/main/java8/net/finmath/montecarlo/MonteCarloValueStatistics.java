@@ -0,0 +1,297 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Mergeable (sufficient) statistics of the realizations of a random variable.
+ *
+ * The statistics consists of the number of paths, the mean and the sum of squared deviations from the mean
+ * (allowing to calculate variance and standard error), minimum and maximum and a quantile sketch.
+ * Two statistics obtained from disjoint sets of paths can be merged into the statistics of the union of the paths,
+ * see {@link #merge(MonteCarloValueStatistics)}. This allows to value a product on
+ * batches of paths and aggregate the results without keeping all paths in memory.
+ *
+ * Mean and variance are merged exactly (up to floating point errors) using the pairwise update formula of Chan, Golub and LeVeque.
+ * The quantile sketch is a weighted sample of at most <code>sketchSize</code> order statistics. Its
+ * rank error is of the order 1/<code>sketchSize</code>.
+ *
+ * The class is immutable.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class MonteCarloValueStatistics implements Serializable {
+
+	private static final long serialVersionUID = -3207232424683604411L;
+
+	private static final int DEFAULT_SKETCH_SIZE = 1000;
+
+	private final long		numberOfPaths;
+	private final double	mean;
+	private final double	sumOfSquaredDeviations;
+	private final double	min;
+	private final double	max;
+
+	private final int		sketchSize;
+	private final double[]	sketchValues;
+	private final double[]	sketchWeights;
+
+	private MonteCarloValueStatistics(final long numberOfPaths, final double mean, final double sumOfSquaredDeviations, final double min, final double max,
+			final int sketchSize, final double[] sketchValues, final double[] sketchWeights) {
+		super();
+		this.numberOfPaths = numberOfPaths;
+		this.mean = mean;
+		this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+		this.min = min;
+		this.max = max;
+		this.sketchSize = sketchSize;
+		this.sketchValues = sketchValues;
+		this.sketchWeights = sketchWeights;
+	}
+
+	/**
+	 * Create the statistics of the realizations of a given random variable.
+	 *
+	 * @param randomVariable The random variable.
+	 * @param numberOfPaths The number of paths represented by the random variable if it is deterministic (otherwise the number of realizations is used).
+	 * @param sketchSize The maximum number of points kept in the quantile sketch.
+	 */
+	public MonteCarloValueStatistics(final RandomVariable randomVariable, final int numberOfPaths, final int sketchSize) {
+		super();
+		Validate.isTrue(sketchSize > 0, "Sketch size must be greater or equal 1 (given %d).", sketchSize);
+
+		if(randomVariable.isDeterministic()) {
+			final double value = randomVariable.doubleValue();
+			this.numberOfPaths		= numberOfPaths;
+			mean					= value;
+			sumOfSquaredDeviations	= 0.0;
+			min						= value;
+			max						= value;
+			this.sketchSize			= sketchSize;
+			sketchValues			= new double[] { value };
+			sketchWeights			= new double[] { numberOfPaths };
+			return;
+		}
+
+		final double[] realizations = randomVariable.getRealizations();
+		final int size = realizations.length;
+
+		double sum = 0.0;
+		for(final double value : realizations) {
+			sum += value;
+		}
+		final double average = size > 0 ? sum / size : Double.NaN;
+		double sumOfSquares = 0.0;
+		for(final double value : realizations) {
+			sumOfSquares += (value - average) * (value - average);
+		}
+
+		final double[] realizationsSorted = realizations.clone();
+		Arrays.sort(realizationsSorted);
+
+		this.numberOfPaths		= size;
+		mean					= average;
+		sumOfSquaredDeviations	= sumOfSquares;
+		min						= size > 0 ? realizationsSorted[0] : Double.NaN;
+		max						= size > 0 ? realizationsSorted[size-1] : Double.NaN;
+		this.sketchSize			= sketchSize;
+
+		if(size <= sketchSize) {
+			sketchValues = realizationsSorted;
+			sketchWeights = new double[size];
+			Arrays.fill(sketchWeights, 1.0);
+		}
+		else {
+			final double[] weights = new double[size];
+			Arrays.fill(weights, 1.0);
+			final double[][] sketch = compress(realizationsSorted, weights, size, sketchSize);
+			sketchValues = sketch[0];
+			sketchWeights = sketch[1];
+		}
+	}
+
+	/**
+	 * Create the statistics of the realizations of a given random variable using a default sketch size.
+	 *
+	 * @param randomVariable The random variable.
+	 * @param numberOfPaths The number of paths represented by the random variable if it is deterministic (otherwise the number of realizations is used).
+	 */
+	public MonteCarloValueStatistics(final RandomVariable randomVariable, final int numberOfPaths) {
+		this(randomVariable, numberOfPaths, DEFAULT_SKETCH_SIZE);
+	}
+
+	/**
+	 * Create the statistics of the realizations of a given (non-deterministic) random variable using a default sketch size.
+	 *
+	 * @param randomVariable The random variable.
+	 */
+	public MonteCarloValueStatistics(final RandomVariable randomVariable) {
+		this(randomVariable, randomVariable.size(), DEFAULT_SKETCH_SIZE);
+	}
+
+	/**
+	 * Merge this statistics with the statistics of a disjoint set of paths.
+	 *
+	 * @param other The statistics of a disjoint set of paths.
+	 * @return The statistics of the union of the paths.
+	 */
+	public MonteCarloValueStatistics merge(final MonteCarloValueStatistics other) {
+		if(other.numberOfPaths == 0) {
+			return this;
+		}
+		if(numberOfPaths == 0) {
+			return other;
+		}
+
+		final long	mergedNumberOfPaths	= numberOfPaths + other.numberOfPaths;
+		final double delta				= other.mean - mean;
+		final double mergedMean			= mean + delta * other.numberOfPaths / mergedNumberOfPaths;
+		final double mergedSumOfSquares	= sumOfSquaredDeviations + other.sumOfSquaredDeviations + delta * delta * ((double)numberOfPaths * other.numberOfPaths / mergedNumberOfPaths);
+
+		// Merge the sorted sketches
+		final int size = sketchValues.length + other.sketchValues.length;
+		final double[] values = new double[size];
+		final double[] weights = new double[size];
+		int i = 0, j = 0;
+		for(int k=0; k<size; k++) {
+			if(j >= other.sketchValues.length || (i < sketchValues.length && sketchValues[i] <= other.sketchValues[j])) {
+				values[k] = sketchValues[i];
+				weights[k] = sketchWeights[i];
+				i++;
+			}
+			else {
+				values[k] = other.sketchValues[j];
+				weights[k] = other.sketchWeights[j];
+				j++;
+			}
+		}
+
+		final int mergedSketchSize = Math.max(sketchSize, other.sketchSize);
+		final double[][] sketch = size <= mergedSketchSize ? new double[][] { values, weights } : compress(values, weights, mergedNumberOfPaths, mergedSketchSize);
+
+		return new MonteCarloValueStatistics(mergedNumberOfPaths, mergedMean, mergedSumOfSquares, Math.min(min, other.min), Math.max(max, other.max),
+				mergedSketchSize, sketch[0], sketch[1]);
+	}
+
+	/**
+	 * Compress a sorted weighted sample to a given number of points, picking the values at equally spaced cumulative weights.
+	 */
+	private static double[][] compress(final double[] values, final double[] weights, final double totalWeight, final int sketchSize) {
+		final double[] compressedValues = new double[sketchSize];
+		final double[] compressedWeights = new double[sketchSize];
+		final double weightPerPoint = totalWeight / sketchSize;
+
+		int index = 0;
+		double cumulativeWeight = weights[0];
+		for(int k=0; k<sketchSize; k++) {
+			final double targetWeight = (k + 0.5) * weightPerPoint;
+			while(cumulativeWeight < targetWeight && index < values.length-1) {
+				index++;
+				cumulativeWeight += weights[index];
+			}
+			compressedValues[k] = values[index];
+			compressedWeights[k] = weightPerPoint;
+		}
+
+		return new double[][] { compressedValues, compressedWeights };
+	}
+
+	/**
+	 * @return The number of paths.
+	 */
+	public long getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	/**
+	 * @return The average of the realizations.
+	 */
+	public double getAverage() {
+		return mean;
+	}
+
+	/**
+	 * @return The (population) variance of the realizations.
+	 */
+	public double getVariance() {
+		return numberOfPaths > 0 ? sumOfSquaredDeviations / numberOfPaths : Double.NaN;
+	}
+
+	/**
+	 * @return The standard deviation of the realizations.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * @return The standard error (the standard deviation of the Monte-Carlo estimator of the average).
+	 */
+	public double getStandardError() {
+		return getStandardDeviation() / Math.sqrt(numberOfPaths);
+	}
+
+	/**
+	 * @return The minimum of the realizations.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return The maximum of the realizations.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns an approximation of the quantile of the realizations, obtained from the quantile sketch.
+	 * If the number of paths does not exceed the sketch size, the sketch is exact and the value agrees with
+	 * a linear interpolation of the empirical quantile.
+	 *
+	 * @param quantile The quantile level (a number in [0,1]).
+	 * @return The approximated quantile.
+	 */
+	public double getQuantile(final double quantile) {
+		if(sketchValues.length == 0) {
+			return Double.NaN;
+		}
+
+		final double targetWeight = quantile * numberOfPaths;
+
+		// The i-th point of the sketch is located at the mid of its weight
+		double cumulativeWeight = 0.0;
+		double previousPosition = Double.NaN;
+		for(int i=0; i<sketchValues.length; i++) {
+			final double position = cumulativeWeight + sketchWeights[i] / 2.0;
+			if(targetWeight <= position) {
+				if(i == 0) {
+					return sketchValues[0];
+				}
+				final double alpha = (targetWeight - previousPosition) / (position - previousPosition);
+				return sketchValues[i-1] + alpha * (sketchValues[i] - sketchValues[i-1]);
+			}
+			previousPosition = position;
+			cumulativeWeight += sketchWeights[i];
+		}
+
+		return sketchValues[sketchValues.length-1];
+	}
+
+	@Override
+	public String toString() {
+		return "MonteCarloValueStatistics [numberOfPaths=" + numberOfPaths + ", average=" + getAverage()
+		+ ", standardError=" + getStandardError() + ", min=" + min + ", max=" + max + "]";
+	}
+}
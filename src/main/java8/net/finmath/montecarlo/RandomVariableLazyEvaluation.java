@@ -15,6 +15,7 @@ import java.util.stream.IntStream;
 
 import net.finmath.functions.DoubleTernaryOperator;
 import net.finmath.stochastic.RandomVariable;
+import net.finmath.util.QuickSelect;
 
 /**
  * Implements a Monte-Carlo random variable (like <code>RandomVariableFromDoubleArray</code> using
@@ -386,12 +387,19 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double[] realizationsSorted = getRealizations().clone();
-		Arrays.sort(realizationsSorted);
-
 		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
 
-		return realizationsSorted[indexOfQuantileValue];
+		// Selection of the order statistic in O(n), avoiding a full sort.
+		return QuickSelect.select(getRealizations().clone(), indexOfQuantileValue);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		if(isDeterministic() || size() == 0) {
+			return RandomVariable.super.getQuantiles(quantiles);
+		}
+
+		return new RandomVariableFromDoubleArray(time, getRealizations()).getQuantiles(quantiles);
 	}
 
 	/* (non-Javadoc)
@@ -406,7 +414,16 @@ public class RandomVariableLazyEvaluation implements RandomVariable {
 			return Double.NaN;
 		}
 
-		throw new RuntimeException("Method not implemented.");
+		return new RandomVariableFromDoubleArray(time, getRealizations()).getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles, final RandomVariable probabilities) {
+		if(isDeterministic() || size() == 0) {
+			return RandomVariable.super.getQuantiles(quantiles, probabilities);
+		}
+
+		return new RandomVariableFromDoubleArray(time, getRealizations()).getQuantiles(quantiles, probabilities);
 	}
 
 	/* (non-Javadoc)
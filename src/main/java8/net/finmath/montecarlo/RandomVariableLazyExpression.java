@@ -0,0 +1,1085 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Implements a Monte-Carlo random variable (like <code>RandomVariableFromDoubleArray</code>) using
+ * lazy evaluation of an explicit expression graph.
+ *
+ * Arithmetic operations on stochastic random variables do not calculate the realizations, instead they
+ * record a node in a directed acyclic graph of operations. The graph is materialized on the first
+ * access to the realizations (e.g. by <code>get</code>, <code>getAverage</code> or <code>cache</code>).
+ * The materialization
+ * <ol>
+ * 	<li>performs a common sub-expression elimination (identical operations on identical operands are calculated once),</li>
+ * 	<li>compiles the graph to a linear program operating on a small set of registers,</li>
+ * 	<li>evaluates the program in one fused loop, processing blocks of paths in parallel.</li>
+ * </ol>
+ * Operations on deterministic random variables are evaluated immediately.
+ *
+ * The result of the materialization replaces the expression, that is, the graph of the operands is
+ * released once the value has been calculated. To limit the size of a graph (e.g. in a time stepping loop),
+ * an expression is materialized on creation if it consists of more than
+ * <code>net.finmath.montecarlo.RandomVariableLazyExpression.maxNumberOfOperations</code> (default 1024) operations.
+ *
+ * Operations with a random variable of a different type copy the realizations of that random variable
+ * into the graph. The values are bitwise identical to those of <code>RandomVariableFromDoubleArray</code>.
+ *
+ * Accesses performed exclusively through the interface
+ * <code>RandomVariable</code> are thread safe.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class RandomVariableLazyExpression implements RandomVariable {
+
+	private static final long serialVersionUID = -4190876227474432081L;
+
+	private static final int typePriorityDefault = 1;
+
+	private static final int maxNumberOfOperations = Integer.parseInt(System.getProperty("net.finmath.montecarlo.RandomVariableLazyExpression.maxNumberOfOperations","1024"));
+
+	private static final int blockSize = 256;
+
+	/**
+	 * The operations of the expression graph.
+	 */
+	private enum Operator {
+		CONSTANT(0), VALUES(0),
+		ADD(2), SUB(2), MULT(2), DIV(2), CAP(2), FLOOR(2), POW(1),
+		SQUARED(1), SQRT(1), EXP(1), EXPM1(1), LOG(1), SIN(1), COS(1), INVERT(1), ABS(1), ISNAN(1),
+		ACCRUE(2), DISCOUNT(2), CHOOSE(3), ADDPRODUCT(3), ADDRATIO(3), SUBRATIO(3),
+		UNARY_FUNCTION(1), BINARY_FUNCTION(2), TERNARY_FUNCTION(3);
+
+		private final int numberOfOperands;
+
+		Operator(final int numberOfOperands) {
+			this.numberOfOperands = numberOfOperands;
+		}
+	}
+
+	/**
+	 * A node of the expression graph (immutable). A materialized node is represented by an expression with operator <code>VALUES</code>.
+	 */
+	private static class Expression implements Serializable {
+
+		private static final long serialVersionUID = 1919244432734232318L;
+
+		private final Operator operator;
+		private final RandomVariableLazyExpression[] operands;
+		private final double parameter;
+		private final Object function;
+		private final double[] values;
+		private final int numberOfOperations;
+
+		Expression(final Operator operator, final RandomVariableLazyExpression[] operands, final double parameter, final Object function, final double[] values, final int numberOfOperations) {
+			this.operator = operator;
+			this.operands = operands;
+			this.parameter = parameter;
+			this.function = function;
+			this.values = values;
+			this.numberOfOperations = numberOfOperations;
+		}
+	}
+
+	/**
+	 * An instruction of the compiled program. Two instructions are equal if they perform the same operation on the same operands.
+	 */
+	private static class Instruction {
+
+		private final Operator operator;
+		private final int[] operands;
+		private final double parameter;
+		private final Object function;
+		private final double[] values;
+
+		Instruction(final Operator operator, final int[] operands, final double parameter, final Object function, final double[] values) {
+			this.operator = operator;
+			this.operands = operands;
+			this.parameter = parameter;
+			this.function = function;
+			this.values = values;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if(!(other instanceof Instruction)) {
+				return false;
+			}
+			final Instruction instruction = (Instruction)other;
+			return operator == instruction.operator
+					&& Arrays.equals(operands, instruction.operands)
+					&& Double.doubleToLongBits(parameter) == Double.doubleToLongBits(instruction.parameter)
+					&& function == instruction.function
+					&& values == instruction.values;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(operator, Arrays.hashCode(operands), Double.doubleToLongBits(parameter), System.identityHashCode(function), System.identityHashCode(values));
+		}
+	}
+
+	private final double time;
+	private final int size;
+
+	// Data model for the non-stochastic case (if expression==null)
+	private final double valueIfNonStochastic;
+
+	// Expression for the stochastic case, replaced by the values upon materialization
+	private volatile Expression expression;
+
+	/**
+	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
+	 *
+	 * @param value Object implementing <code>RandomVariable</code>.
+	 */
+	public RandomVariableLazyExpression(final RandomVariable value) {
+		super();
+		time = value.getFiltrationTime();
+		size = value.size();
+		if(value.isDeterministic()) {
+			valueIfNonStochastic = value.doubleValue();
+			expression = null;
+		}
+		else {
+			valueIfNonStochastic = Double.NaN;
+			expression = new Expression(Operator.VALUES, null, Double.NaN, null, value.getRealizations(), 0);
+		}
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableLazyExpression(final double value) {
+		this(0.0, value);
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableLazyExpression(final double time, final double value) {
+		super();
+		this.time = time;
+		size = 1;
+		valueIfNonStochastic = value;
+		expression = null;
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * Important: The realizations array is not cloned (no defensive copy is made).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realisations the vector of realizations.
+	 */
+	public RandomVariableLazyExpression(final double time, final double[] realisations) {
+		super();
+		this.time = time;
+		size = realisations.length;
+		valueIfNonStochastic = Double.NaN;
+		expression = new Expression(Operator.VALUES, null, Double.NaN, null, realisations, 0);
+	}
+
+	private RandomVariableLazyExpression(final double time, final int size, final Expression expression) {
+		super();
+		this.time = time;
+		this.size = size;
+		valueIfNonStochastic = Double.NaN;
+		this.expression = expression;
+	}
+
+	/**
+	 * Returns the number of operations which would be performed upon materialization, counting shared
+	 * sub-expressions multiple times.
+	 *
+	 * @return The number of (not materialized) operations of this expression.
+	 */
+	public int getNumberOfOperations() {
+		return isDeterministic() ? 0 : expression.numberOfOperations;
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		return getValuesAsRandomVariableFromDoubleArray().equals(randomVariable);
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		else {
+			return getValuesArray()[pathOrState];
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return expression == null;
+	}
+
+	@Override
+	public double[] getRealizations() {
+		if(isDeterministic()) {
+			return new double[] { valueIfNonStochastic };
+		}
+		else {
+			return getValuesArray().clone();
+		}
+	}
+
+	@Override
+	public Double doubleValue() {
+		return getValuesAsRandomVariableFromDoubleArray().doubleValue();
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return getValuesAsRandomVariableFromDoubleArray().getOperator();
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return getValuesAsRandomVariableFromDoubleArray().getRealizationsStream();
+	}
+
+	@Override
+	public double getMin() {
+		return getValuesAsRandomVariableFromDoubleArray().getMin();
+	}
+
+	@Override
+	public double getMax() {
+		return getValuesAsRandomVariableFromDoubleArray().getMax();
+	}
+
+	@Override
+	public double getAverage() {
+		return getValuesAsRandomVariableFromDoubleArray().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getAverage(probabilities);
+	}
+
+	@Override
+	public double getVariance() {
+		return getValuesAsRandomVariableFromDoubleArray().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getVariance(probabilities);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return getValuesAsRandomVariableFromDoubleArray().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return getValuesAsRandomVariableFromDoubleArray().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getStandardDeviation(probabilities);
+	}
+
+	@Override
+	public double getStandardError() {
+		return getValuesAsRandomVariableFromDoubleArray().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getStandardError(probabilities);
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return getValuesAsRandomVariableFromDoubleArray().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return getValuesAsRandomVariableFromDoubleArray().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles, final RandomVariable probabilities) {
+		return getValuesAsRandomVariableFromDoubleArray().getQuantiles(quantiles, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return getValuesAsRandomVariableFromDoubleArray().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return getValuesAsRandomVariableFromDoubleArray().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return getValuesAsRandomVariableFromDoubleArray().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable cache() {
+		if(!isDeterministic()) {
+			getValuesArray();
+		}
+		return this;
+	}
+
+	/*
+	 * Unary operators
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		return create(Operator.UNARY_FUNCTION, Double.NaN, operator, this);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		return create(Operator.BINARY_FUNCTION, Double.NaN, operator, this, argument);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return create(Operator.TERNARY_FUNCTION, Double.NaN, operator, this, argument1, argument2);
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		return create(Operator.CAP, Double.NaN, null, this, constant(cap));
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		return create(Operator.FLOOR, Double.NaN, null, this, constant(floor));
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		return create(Operator.ADD, Double.NaN, null, this, constant(value));
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		return create(Operator.SUB, Double.NaN, null, this, constant(value));
+	}
+
+	@Override
+	public RandomVariable bus(final double value) {
+		return create(Operator.SUB, Double.NaN, null, constant(value), this);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		return create(Operator.MULT, Double.NaN, null, this, constant(value));
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		return create(Operator.DIV, Double.NaN, null, this, constant(value));
+	}
+
+	@Override
+	public RandomVariable vid(final double value) {
+		return create(Operator.DIV, Double.NaN, null, constant(value), this);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return create(Operator.POW, exponent, null, this);
+	}
+
+	@Override
+	public RandomVariable average() {
+		return constant(getAverage());
+	}
+
+	@Override
+	public RandomVariable squared() {
+		return create(Operator.SQUARED, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return create(Operator.SQRT, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable exp() {
+		return create(Operator.EXP, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable expm1() {
+		return create(Operator.EXPM1, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable log() {
+		return create(Operator.LOG, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return create(Operator.SIN, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return create(Operator.COS, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return create(Operator.INVERT, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return create(Operator.ABS, Double.NaN, null, this);
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		return create(Operator.ISNAN, Double.NaN, null, this);
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+		return create(Operator.ADD, Double.NaN, null, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+		return create(Operator.SUB, Double.NaN, null, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+		return create(Operator.SUB, Double.NaN, null, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+		return create(Operator.MULT, Double.NaN, null, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+		return create(Operator.DIV, Double.NaN, null, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+		return create(Operator.DIV, Double.NaN, null, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable cap) {
+		if(cap.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return cap.cap(this);
+		}
+		return create(Operator.CAP, Double.NaN, null, this, cap);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable floor) {
+		if(floor.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return floor.floor(this);
+		}
+		return create(Operator.FLOOR, Double.NaN, null, this, floor);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+		return create(Operator.ACCRUE, periodLength, null, this, rate);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).invert().mult(this);
+		}
+		return create(Operator.DISCOUNT, periodLength, null, this, rate);
+	}
+
+	/*
+	 * Ternary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic >= 0 ? valueIfTriggerNonNegative : valueIfTriggerNegative;
+		}
+		return create(Operator.CHOOSE, Double.NaN, null, this, valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		return create(Operator.ADDPRODUCT, Double.NaN, null, this, factor1, constant(factor2));
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		return create(Operator.ADDPRODUCT, Double.NaN, null, this, factor1, factor2);
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+		return create(Operator.ADDRATIO, Double.NaN, null, this, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).bus(this);
+		}
+		return create(Operator.SUBRATIO, Double.NaN, null, this, numerator, denominator);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() +
+				"[ realizations=" + (isDeterministic() ? valueIfNonStochastic : Arrays.toString(getValuesArray())) +
+				", isDeterministic()=" + isDeterministic() +
+				", filtrationTime=" + time + "]";
+	}
+
+	/**
+	 * Creates the random variable resulting from applying an operator to the given arguments.
+	 * If all arguments are deterministic, the result is calculated immediately, otherwise a node of the expression graph is created.
+	 *
+	 * @param operator The operator.
+	 * @param parameter An additional (scalar) parameter of the operator.
+	 * @param function The function applied by the operators <code>UNARY_FUNCTION</code>, <code>BINARY_FUNCTION</code>, <code>TERNARY_FUNCTION</code>.
+	 * @param arguments The arguments.
+	 * @return The random variable representing the result.
+	 */
+	private static RandomVariable create(final Operator operator, final double parameter, final Object function, final RandomVariable... arguments) {
+		final RandomVariableLazyExpression[] operands = new RandomVariableLazyExpression[arguments.length];
+
+		double newTime = Double.NEGATIVE_INFINITY;
+		int newSize = 1;
+		long numberOfOperations = 1;
+		boolean isDeterministic = true;
+		for(int i=0; i<arguments.length; i++) {
+			operands[i] = arguments[i] instanceof RandomVariableLazyExpression ? (RandomVariableLazyExpression)arguments[i] : new RandomVariableLazyExpression(arguments[i]);
+			newTime = Math.max(newTime, operands[i].getFiltrationTime());
+			newSize = Math.max(newSize, operands[i].size());
+			numberOfOperations += operands[i].getNumberOfOperations();
+			isDeterministic &= operands[i].isDeterministic();
+		}
+
+		if(isDeterministic) {
+			final double[] values = new double[operands.length];
+			for(int i=0; i<operands.length; i++) {
+				values[i] = operands[i].valueIfNonStochastic;
+			}
+			return new RandomVariableLazyExpression(newTime, apply(operator, parameter, function, values));
+		}
+
+		final RandomVariableLazyExpression result = new RandomVariableLazyExpression(newTime, newSize,
+				new Expression(operator, operands, parameter, function, null, (int)Math.min(numberOfOperations, Integer.MAX_VALUE)));
+
+		// Limit the size of the graph
+		if(numberOfOperations > maxNumberOfOperations) {
+			result.cache();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Applies an operator to scalar arguments.
+	 *
+	 * @param operator The operator.
+	 * @param parameter An additional (scalar) parameter of the operator.
+	 * @param function The function (for function operators).
+	 * @param x The arguments.
+	 * @return The result.
+	 */
+	private static double apply(final Operator operator, final double parameter, final Object function, final double[] x) {
+		switch(operator) {
+		case ADD:				return x[0] + x[1];
+		case SUB:				return x[0] - x[1];
+		case MULT:				return x[0] * x[1];
+		case DIV:				return x[0] / x[1];
+		case CAP:				return Math.min(x[0], x[1]);
+		case FLOOR:				return Math.max(x[0], x[1]);
+		case POW:				return Math.pow(x[0], parameter);
+		case SQUARED:			return x[0] * x[0];
+		case SQRT:				return Math.sqrt(x[0]);
+		case EXP:				return Math.exp(x[0]);
+		case EXPM1:				return Math.expm1(x[0]);
+		case LOG:				return Math.log(x[0]);
+		case SIN:				return Math.sin(x[0]);
+		case COS:				return Math.cos(x[0]);
+		case INVERT:			return 1.0 / x[0];
+		case ABS:				return Math.abs(x[0]);
+		case ISNAN:				return Double.isNaN(x[0]) ? 1.0 : 0.0;
+		case ACCRUE:			return x[0] * (1.0 + x[1] * parameter);
+		case DISCOUNT:			return x[0] / (1.0 + x[1] * parameter);
+		case CHOOSE:			return x[0] >= 0.0 ? x[1] : x[2];
+		case ADDPRODUCT:		return x[0] + x[1] * x[2];
+		case ADDRATIO:			return x[0] + x[1] / x[2];
+		case SUBRATIO:			return x[0] - x[1] / x[2];
+		case UNARY_FUNCTION:	return ((DoubleUnaryOperator)function).applyAsDouble(x[0]);
+		case BINARY_FUNCTION:	return ((DoubleBinaryOperator)function).applyAsDouble(x[0], x[1]);
+		case TERNARY_FUNCTION:	return ((DoubleTernaryOperator)function).applyAsDouble(x[0], x[1], x[2]);
+		default:
+			throw new IllegalArgumentException("Operator " + operator + " cannot be applied.");
+		}
+	}
+
+	/**
+	 * Returns a constant used as argument of an operation, not affecting the filtration time of the result.
+	 *
+	 * @param value The value.
+	 * @return The constant.
+	 */
+	private static RandomVariableLazyExpression constant(final double value) {
+		return new RandomVariableLazyExpression(Double.NEGATIVE_INFINITY, value);
+	}
+
+	private RandomVariableFromDoubleArray getValuesAsRandomVariableFromDoubleArray() {
+		return isDeterministic() ? new RandomVariableFromDoubleArray(time, valueIfNonStochastic) : new RandomVariableFromDoubleArray(time, getValuesArray());
+	}
+
+	/**
+	 * Returns the realizations, materializing the expression if required.
+	 *
+	 * @return The (internal) array of realizations.
+	 */
+	private double[] getValuesArray() {
+		Expression current = expression;
+		if(current.operator != Operator.VALUES) {
+			synchronized(this) {
+				current = expression;
+				if(current.operator != Operator.VALUES) {
+					current = new Expression(Operator.VALUES, null, Double.NaN, null, evaluate(current), 0);
+					expression = current;
+				}
+			}
+		}
+		return current.values;
+	}
+
+	private Expression getExpression() {
+		return isDeterministic() ? new Expression(Operator.CONSTANT, null, valueIfNonStochastic, null, null, 0) : expression;
+	}
+
+	/**
+	 * Compiles the graph of the given expression into a linear program (eliminating common sub-expressions)
+	 * and evaluates it in a fused loop over blocks of paths.
+	 *
+	 * @param rootExpression The expression of this random variable.
+	 * @return The realizations of this random variable.
+	 */
+	private double[] evaluate(final Expression rootExpression) {
+		/*
+		 * Compile: topological ordering of the graph (iterative depth first search) with common sub-expression elimination.
+		 */
+		final List<Instruction> program = new ArrayList<>();
+		final Map<Instruction, Integer> indexOfInstruction = new HashMap<>();
+		final Map<RandomVariableLazyExpression, Integer> indexOfNode = new IdentityHashMap<>();
+		final Map<RandomVariableLazyExpression, Expression> expressionOfNode = new IdentityHashMap<>();
+
+		expressionOfNode.put(this, rootExpression);
+		final Deque<RandomVariableLazyExpression> stack = new ArrayDeque<>();
+		stack.push(this);
+		while(!stack.isEmpty()) {
+			final RandomVariableLazyExpression node = stack.peek();
+			if(indexOfNode.containsKey(node)) {
+				stack.pop();
+				continue;
+			}
+
+			// Take a snapshot of the expression, since other threads may materialize the node
+			final Expression nodeExpression = expressionOfNode.computeIfAbsent(node, RandomVariableLazyExpression::getExpression);
+
+			boolean isOperandsCompiled = true;
+			if(nodeExpression.operands != null) {
+				for(final RandomVariableLazyExpression operand : nodeExpression.operands) {
+					if(!indexOfNode.containsKey(operand)) {
+						stack.push(operand);
+						isOperandsCompiled = false;
+					}
+				}
+			}
+			if(!isOperandsCompiled) {
+				continue;
+			}
+			stack.pop();
+
+			final int[] operands = new int[nodeExpression.operator.numberOfOperands];
+			for(int i=0; i<operands.length; i++) {
+				operands[i] = indexOfNode.get(nodeExpression.operands[i]);
+			}
+			// Commutative operators: normalize the order of the operands
+			if((nodeExpression.operator == Operator.ADD || nodeExpression.operator == Operator.MULT) && operands[0] > operands[1]) {
+				final int swap = operands[0];
+				operands[0] = operands[1];
+				operands[1] = swap;
+			}
+
+			final Instruction instruction = new Instruction(nodeExpression.operator, operands, nodeExpression.parameter, nodeExpression.function, nodeExpression.values);
+			Integer index = indexOfInstruction.get(instruction);
+			if(index == null) {
+				index = program.size();
+				program.add(instruction);
+				indexOfInstruction.put(instruction, index);
+			}
+			indexOfNode.put(node, index);
+		}
+
+		/*
+		 * Register allocation: the result of an instruction occupies a register until its last use.
+		 * Constants occupy a register during the whole evaluation. Values are read directly from their arrays.
+		 */
+		final int numberOfInstructions = program.size();
+		final int root = numberOfInstructions-1;
+		final int[] lastUse = new int[numberOfInstructions];
+		for(int i=0; i<numberOfInstructions; i++) {
+			for(final int operand : program.get(i).operands) {
+				lastUse[operand] = i;
+			}
+		}
+
+		final int[] registerOfInstruction = new int[numberOfInstructions];
+		int numberOfRegisters = 0;
+		for(int i=0; i<numberOfInstructions; i++) {
+			registerOfInstruction[i] = program.get(i).operator == Operator.CONSTANT ? numberOfRegisters++ : -1;
+		}
+
+		final Deque<Integer> freeRegisters = new ArrayDeque<>();
+		for(int i=0; i<root; i++) {
+			final Instruction instruction = program.get(i);
+			if(instruction.operator == Operator.VALUES || instruction.operator == Operator.CONSTANT) {
+				continue;
+			}
+			// Release operands before allocating the result, allowing in-place operations
+			for(final int operand : instruction.operands) {
+				final Operator operatorOfOperand = program.get(operand).operator;
+				if(lastUse[operand] == i && operatorOfOperand != Operator.VALUES && operatorOfOperand != Operator.CONSTANT && !freeRegisters.contains(registerOfInstruction[operand])) {
+					freeRegisters.push(registerOfInstruction[operand]);
+				}
+			}
+			registerOfInstruction[i] = freeRegisters.isEmpty() ? numberOfRegisters++ : freeRegisters.pop();
+		}
+
+		/*
+		 * Evaluate: fused loop over blocks of paths, chunks of blocks in parallel.
+		 */
+		final double[] result = new double[size];
+		final int numberOfBlocks = (size + blockSize - 1) / blockSize;
+		final int numberOfChunks = Math.min(numberOfBlocks, 4 * Runtime.getRuntime().availableProcessors());
+		final int numberOfRegistersUsed = numberOfRegisters;
+
+		final IntStream chunks = IntStream.range(0, numberOfChunks);
+		(numberOfChunks > 1 ? chunks.parallel() : chunks).forEach(chunkIndex -> {
+			final double[][] registers = new double[numberOfRegistersUsed][blockSize];
+
+			// Operand arrays of each instruction. Values are read in place, registers start at offset 0.
+			final double[][][] operandArrays = new double[numberOfInstructions][][];
+			final boolean[][] isOperandValues = new boolean[numberOfInstructions][];
+			for(int i=0; i<numberOfInstructions; i++) {
+				final Instruction instruction = program.get(i);
+				if(instruction.operator == Operator.CONSTANT) {
+					Arrays.fill(registers[registerOfInstruction[i]], instruction.parameter);
+				}
+				operandArrays[i] = new double[instruction.operands.length][];
+				isOperandValues[i] = new boolean[instruction.operands.length];
+				for(int k=0; k<instruction.operands.length; k++) {
+					final Instruction operand = program.get(instruction.operands[k]);
+					isOperandValues[i][k] = operand.operator == Operator.VALUES;
+					operandArrays[i][k] = isOperandValues[i][k] ? operand.values : registers[registerOfInstruction[instruction.operands[k]]];
+				}
+			}
+
+			final int[] operandOffsets = new int[3];
+			final int firstBlock = (int)((long)numberOfBlocks * chunkIndex / numberOfChunks);
+			final int lastBlock = (int)((long)numberOfBlocks * (chunkIndex+1) / numberOfChunks);
+			for(int blockIndex = firstBlock; blockIndex < lastBlock; blockIndex++) {
+				final int offset = blockIndex * blockSize;
+				final int length = Math.min(blockSize, size - offset);
+				for(int i=0; i<numberOfInstructions; i++) {
+					final Instruction instruction = program.get(i);
+					if(instruction.operator == Operator.VALUES || instruction.operator == Operator.CONSTANT) {
+						continue;
+					}
+					for(int k=0; k<instruction.operands.length; k++) {
+						operandOffsets[k] = isOperandValues[i][k] ? offset : 0;
+					}
+					if(i == root) {
+						evaluateBlock(instruction, result, offset, operandArrays[i], operandOffsets, length);
+					}
+					else {
+						evaluateBlock(instruction, registers[registerOfInstruction[i]], 0, operandArrays[i], operandOffsets, length);
+					}
+				}
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * Applies an instruction to a block of realizations.
+	 */
+	private static void evaluateBlock(final Instruction instruction, final double[] r, final int ro, final double[][] operandArrays, final int[] operandOffsets, final int length) {
+		final double[] a = operandArrays.length > 0 ? operandArrays[0] : null;
+		final double[] b = operandArrays.length > 1 ? operandArrays[1] : null;
+		final double[] c = operandArrays.length > 2 ? operandArrays[2] : null;
+		final int ao = operandOffsets[0];
+		final int bo = operandOffsets[1];
+		final int co = operandOffsets[2];
+		final double p = instruction.parameter;
+
+		switch(instruction.operator) {
+		case ADD:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] + b[bo+k];
+			}
+			break;
+		case SUB:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] - b[bo+k];
+			}
+			break;
+		case MULT:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] * b[bo+k];
+			}
+			break;
+		case DIV:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] / b[bo+k];
+			}
+			break;
+		case CAP:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.min(a[ao+k], b[bo+k]);
+			}
+			break;
+		case FLOOR:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.max(a[ao+k], b[bo+k]);
+			}
+			break;
+		case POW:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.pow(a[ao+k], p);
+			}
+			break;
+		case SQUARED:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] * a[ao+k];
+			}
+			break;
+		case SQRT:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.sqrt(a[ao+k]);
+			}
+			break;
+		case EXP:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.exp(a[ao+k]);
+			}
+			break;
+		case EXPM1:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.expm1(a[ao+k]);
+			}
+			break;
+		case LOG:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.log(a[ao+k]);
+			}
+			break;
+		case SIN:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.sin(a[ao+k]);
+			}
+			break;
+		case COS:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.cos(a[ao+k]);
+			}
+			break;
+		case INVERT:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = 1.0 / a[ao+k];
+			}
+			break;
+		case ABS:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Math.abs(a[ao+k]);
+			}
+			break;
+		case ISNAN:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = Double.isNaN(a[ao+k]) ? 1.0 : 0.0;
+			}
+			break;
+		case ACCRUE:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] * (1.0 + b[bo+k] * p);
+			}
+			break;
+		case DISCOUNT:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] / (1.0 + b[bo+k] * p);
+			}
+			break;
+		case CHOOSE:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] >= 0.0 ? b[bo+k] : c[co+k];
+			}
+			break;
+		case ADDPRODUCT:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] + b[bo+k] * c[co+k];
+			}
+			break;
+		case ADDRATIO:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] + b[bo+k] / c[co+k];
+			}
+			break;
+		case SUBRATIO:
+			for(int k=0; k<length; k++) {
+				r[ro+k] = a[ao+k] - b[bo+k] / c[co+k];
+			}
+			break;
+		case UNARY_FUNCTION:
+			final DoubleUnaryOperator unaryFunction = (DoubleUnaryOperator)instruction.function;
+			for(int k=0; k<length; k++) {
+				r[ro+k] = unaryFunction.applyAsDouble(a[ao+k]);
+			}
+			break;
+		case BINARY_FUNCTION:
+			final DoubleBinaryOperator binaryFunction = (DoubleBinaryOperator)instruction.function;
+			for(int k=0; k<length; k++) {
+				r[ro+k] = binaryFunction.applyAsDouble(a[ao+k], b[bo+k]);
+			}
+			break;
+		case TERNARY_FUNCTION:
+			final DoubleTernaryOperator ternaryFunction = (DoubleTernaryOperator)instruction.function;
+			for(int k=0; k<length; k++) {
+				r[ro+k] = ternaryFunction.applyAsDouble(a[ao+k], b[bo+k], c[co+k]);
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("Operator " + instruction.operator + " cannot be evaluated.");
+		}
+	}
+}
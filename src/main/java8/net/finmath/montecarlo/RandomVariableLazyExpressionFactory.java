@@ -0,0 +1,29 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A factory (helper class) to create random variables of type {@link RandomVariableLazyExpression}.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class RandomVariableLazyExpressionFactory extends AbstractRandomVariableFactory {
+
+	private static final long serialVersionUID = -2375493862125016187L;
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new RandomVariableLazyExpression(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		return new RandomVariableLazyExpression(time, values);
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAAD.OperatorTreeNode;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAAD.OperatorType;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * An arena tape recording the operations of {@link RandomVariableDifferentiableAADTape}.
+ *
+ * Each operation is stored at a position of the tape in contiguous primitive arrays: the operator type as
+ * an int opcode, the (tape index, position) of up to three arguments as ints, the argument values required
+ * for the partial derivatives and the (globally increasing) id of the result. The adjoints of the backward sweep are stored in a
+ * reusable array indexed by the tape position.
+ *
+ * A tape is appended only by the thread owning it (see {@link RandomVariableDifferentiableAADTapeFactory}).
+ * Operations may refer to arguments on tapes of other threads. Since the ids are drawn from a global counter, the
+ * backward sweep processes the entries of all tapes of a factory in decreasing id, which is a reverse topological order.
+ *
+ * @author agent
+ * @version 1.0
+ */
+final class AADTape {
+
+	static final int OPCODE_LEAF = -1;
+
+	private static final int MAX_NUMBER_OF_ARGUMENTS = 3;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final OperatorType[] operatorTypes = OperatorType.values();
+	private static final RandomVariable one = new Scalar(1.0);
+
+	private final int tapeIndex;
+
+	private volatile int size;
+	private int[] opcodes;
+	private long[] ids;
+	private int[] argumentTapeIndices;
+	private int[] argumentPositions;
+	private RandomVariable[] argumentValues;
+	private Object[] operators;
+
+	// Adjoints of the backward sweep (reused, all elements are null outside a sweep)
+	private RandomVariable[] adjoints;
+
+	private volatile boolean isActive = true;
+
+	AADTape(final int tapeIndex) {
+		super();
+		this.tapeIndex = tapeIndex;
+		size = 0;
+		opcodes = new int[INITIAL_CAPACITY];
+		ids = new long[INITIAL_CAPACITY];
+		argumentTapeIndices = new int[INITIAL_CAPACITY * MAX_NUMBER_OF_ARGUMENTS];
+		argumentPositions = new int[INITIAL_CAPACITY * MAX_NUMBER_OF_ARGUMENTS];
+		argumentValues = new RandomVariable[INITIAL_CAPACITY * MAX_NUMBER_OF_ARGUMENTS];
+		operators = new Object[INITIAL_CAPACITY];
+		adjoints = new RandomVariable[0];
+	}
+
+	/**
+	 * Record an operation on this tape. Must only be called from the thread owning the tape.
+	 *
+	 * @param opcode The ordinal of the operator type or {@link #OPCODE_LEAF}.
+	 * @param id The id of the result.
+	 * @param arguments The differentiable arguments (null elements are non-differentiable arguments), may be null for a leaf.
+	 * @param values The values of the arguments required to calculate the partial derivatives (elements may be null), may be null.
+	 * @param operator An operator object (e.g. a conditional expectation estimator) or null.
+	 * @return The position of the operation on the tape.
+	 */
+	int record(final int opcode, final long id, final RandomVariableDifferentiableAADTape[] arguments, final RandomVariable[] values, final Object operator) {
+		final int position = size;
+		if(position == opcodes.length) {
+			grow();
+		}
+
+		opcodes[position] = opcode;
+		ids[position] = id;
+		operators[position] = operator;
+		for(int argumentIndex=0; argumentIndex<MAX_NUMBER_OF_ARGUMENTS; argumentIndex++) {
+			final int index = position * MAX_NUMBER_OF_ARGUMENTS + argumentIndex;
+			final RandomVariableDifferentiableAADTape argument = arguments != null && argumentIndex < arguments.length ? arguments[argumentIndex] : null;
+			if(argument != null) {
+				argumentTapeIndices[index] = argument.getTape().getTapeIndex();
+				argumentPositions[index] = argument.getPosition();
+			}
+			else {
+				argumentTapeIndices[index] = -1;
+				argumentPositions[index] = -1;
+			}
+			argumentValues[index] = values != null && argumentIndex < values.length ? values[argumentIndex] : null;
+		}
+
+		size = position + 1;
+
+		return position;
+	}
+
+	private void grow() {
+		final int capacity = opcodes.length * 2;
+		opcodes = Arrays.copyOf(opcodes, capacity);
+		ids = Arrays.copyOf(ids, capacity);
+		argumentTapeIndices = Arrays.copyOf(argumentTapeIndices, capacity * MAX_NUMBER_OF_ARGUMENTS);
+		argumentPositions = Arrays.copyOf(argumentPositions, capacity * MAX_NUMBER_OF_ARGUMENTS);
+		argumentValues = Arrays.copyOf(argumentValues, capacity * MAX_NUMBER_OF_ARGUMENTS);
+		operators = Arrays.copyOf(operators, capacity);
+	}
+
+	int getTapeIndex() {
+		return tapeIndex;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isActive() {
+		return isActive;
+	}
+
+	/**
+	 * Deactivates the tape and releases the recorded data.
+	 */
+	void clear() {
+		isActive = false;
+		size = 0;
+		opcodes = new int[0];
+		ids = new long[0];
+		argumentTapeIndices = new int[0];
+		argumentPositions = new int[0];
+		argumentValues = new RandomVariable[0];
+		operators = new Object[0];
+		adjoints = new RandomVariable[0];
+	}
+
+	/**
+	 * Returns the last position on this tape with an id less or equal the given id.
+	 */
+	private int getLastPositionWithIdNotAfter(final long id) {
+		final int position = Arrays.binarySearch(ids, 0, size, id);
+		return position >= 0 ? position : -position-2;
+	}
+
+	/**
+	 * Performs the backward sweep over the given tapes, starting from the given root.
+	 *
+	 * The method is not thread safe, i.e., a factory must not run two backward sweeps concurrently (the adjoint arrays are re-used).
+	 *
+	 * @param tapes The tapes of the factory (indexed by their tape index).
+	 * @param rootTape The tape of the root.
+	 * @param rootPosition The position of the root on its tape.
+	 * @param independentIDs The ids of the independents for which the derivative is returned. If null, all are returned.
+	 * @param isGradientRetainsLeafNodesOnly If true, only derivatives with respect to leaf nodes are returned.
+	 * @param factory The factory providing the settings of the differentiation.
+	 * @return The gradient map.
+	 */
+	static Map<Long, RandomVariable> getGradient(final AADTape[] tapes, final AADTape rootTape, final int rootPosition, final Set<Long> independentIDs, final boolean isGradientRetainsLeafNodesOnly, final RandomVariableDifferentiableAADFactory factory) {
+		final long rootId = rootTape.ids[rootPosition];
+
+		// Snapshot the arrays and initialize cursors to the last entry recorded before the root
+		final int numberOfTapes = tapes.length;
+		final int[] cursors = new int[numberOfTapes];
+		final RandomVariable[][] adjointsOfTapes = new RandomVariable[numberOfTapes][];
+		for(int tapeIndex=0; tapeIndex<numberOfTapes; tapeIndex++) {
+			final AADTape tape = tapes[tapeIndex];
+			cursors[tapeIndex] = tape.getLastPositionWithIdNotAfter(rootId);
+			if(tape.adjoints.length < tape.size) {
+				tape.adjoints = new RandomVariable[tape.opcodes.length];
+			}
+			adjointsOfTapes[tapeIndex] = tape.adjoints;
+		}
+
+		final Map<Long, RandomVariable> gradient = new HashMap<>();
+
+		adjointsOfTapes[rootTape.tapeIndex][rootPosition] = one;
+		int numberOfPendingAdjoints = 1;
+
+		while(numberOfPendingAdjoints > 0) {
+			// Get the entry with the highest id
+			int tapeIndex = -1;
+			long id = Long.MIN_VALUE;
+			for(int i=0; i<numberOfTapes; i++) {
+				if(cursors[i] >= 0 && tapes[i].ids[cursors[i]] > id) {
+					tapeIndex = i;
+					id = tapes[i].ids[cursors[i]];
+				}
+			}
+			if(tapeIndex < 0) {
+				break;
+			}
+
+			final AADTape tape = tapes[tapeIndex];
+			final int position = cursors[tapeIndex]--;
+			final RandomVariable[] adjoints = adjointsOfTapes[tapeIndex];
+			final RandomVariable derivative = adjoints[position];
+			if(derivative == null) {
+				continue;
+			}
+			adjoints[position] = null;
+			numberOfPendingAdjoints--;
+
+			final int opcode = tape.opcodes[position];
+			if((opcode == OPCODE_LEAF || !isGradientRetainsLeafNodesOnly) && (independentIDs == null || independentIDs.contains(id))) {
+				gradient.put(id, derivative);
+			}
+			if(opcode == OPCODE_LEAF) {
+				continue;
+			}
+
+			// Propagate to the arguments: D_i = D_i + D_m * d f_m / d x_i
+			final OperatorType operatorType = operatorTypes[opcode];
+			final int offset = position * MAX_NUMBER_OF_ARGUMENTS;
+			final RandomVariable X = tape.argumentValues[offset];
+			final RandomVariable Y = tape.argumentValues[offset+1];
+			final RandomVariable Z = tape.argumentValues[offset+2];
+			for(int argumentIndex=0; argumentIndex<MAX_NUMBER_OF_ARGUMENTS; argumentIndex++) {
+				final int argumentTapeIndex = tape.argumentTapeIndices[offset+argumentIndex];
+				if(argumentTapeIndex < 0) {
+					continue;
+				}
+				final int argumentPosition = tape.argumentPositions[offset+argumentIndex];
+
+				final RandomVariable derivativeForArgument = OperatorTreeNode.getDerivativeForArgument(operatorType, tape.operators[position], derivative, argumentIndex, X, factory);
+				final RandomVariable partialDerivative = OperatorTreeNode.getPartialDerivative(operatorType, X, Y, Z, argumentIndex, factory);
+
+				final RandomVariable[] argumentAdjoints = adjointsOfTapes[argumentTapeIndex];
+				final RandomVariable argumentDerivative = argumentAdjoints[argumentPosition];
+				if(argumentDerivative == null) {
+					argumentAdjoints[argumentPosition] = derivativeForArgument.mult(partialDerivative);
+					numberOfPendingAdjoints++;
+				}
+				else {
+					argumentAdjoints[argumentPosition] = argumentDerivative.addProduct(partialDerivative, derivativeForArgument);
+				}
+			}
+		}
+
+		return gradient;
+	}
+}
@@ -61,9 +61,9 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 
 	private final int typePriority;
 
-	private static AtomicLong indexOfNextRandomVariable = new AtomicLong(0);
+	static AtomicLong indexOfNextRandomVariable = new AtomicLong(0);
 
-	private enum OperatorType {
+	enum OperatorType {
 		ADD, MULT, DIV, SUB, SQUARED, SQRT, LOG, SIN, COS, EXP, INVERT, CAP, FLOOR, ABS,
 		ADDPRODUCT, ADDRATIO, SUBRATIO, CHOOSE, DISCOUNT, ACCRUE, POW, MIN, MAX, AVERAGE, VARIANCE,
 		STDEV, STDERROR, SVARIANCE, AVERAGE2, VARIANCE2,
@@ -77,7 +77,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 	 *
 	 * @author Christian Fries
 	 */
-	private static class OperatorTreeNode implements Serializable {
+	static class OperatorTreeNode implements Serializable {
 
 		private static final long serialVersionUID = -8428352552169568990L;
 
@@ -180,26 +180,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 					/*
 					 * Special treatment of some stochastic operators
 					 */
-					switch(operatorType) {
-					case AVERAGE:
-						// Implementation of AVERAGE (see https://ssrn.com/abstract=2995695 for details).
-						derivative = derivative.average();
-						break;
-					case CONDITIONAL_EXPECTATION:
-						// Implementation of CONDITIONAL_EXPECTATION (see https://ssrn.com/abstract=2995695 for details).
-						final ConditionalExpectationEstimator estimator = (ConditionalExpectationEstimator)operator;
-						derivative = estimator.getConditionalExpectation(derivative);
-						break;
-					case CHOOSE:
-						// Implementation of CHOOSE (INDICATOR_FUNCTION)
-						if(argumentIndex == 0 && (factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DENSITY || factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DISTRIBUITON)) {
-							derivative = getDiracDeltaRegression(derivative, argumentValues.get(0));
-						}
-						break;
-					default:
-						// Ordinary operator - nothing to do
-						break;
-					}
+					derivative = getDerivativeForArgument(operatorType, operator, derivative, argumentIndex, argumentValues != null ? argumentValues.get(0) : null, factory);
 
 					/*
 					 * Add the product of current nodes derivative and the vertex partialDerivative to the argument derivative
@@ -237,6 +218,59 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 			final RandomVariable Y = arguments.size() > 1 && argumentValues != null ? argumentValues.get(1) : null;
 			final RandomVariable Z = arguments.size() > 2 && argumentValues != null ? argumentValues.get(2) : null;
 
+			return getPartialDerivative(operatorType, X, Y, Z, differentialIndex, factory);
+		}
+
+		/**
+		 * Applies the special treatment of some stochastic operators (average, conditional expectation, indicator) to the
+		 * derivative of the result, before it is multiplied with the partial derivative with respect to an argument.
+		 *
+		 * @param operatorType The operator type.
+		 * @param operator The operator object (e.g. the conditional expectation estimator), if any.
+		 * @param derivative The derivative of the result.
+		 * @param argumentIndex The index of the argument.
+		 * @param X The value of the first argument (may be null if not retained).
+		 * @param factory The factory providing the settings of the differentiation.
+		 * @return The derivative to be propagated to the argument.
+		 */
+		static RandomVariable getDerivativeForArgument(final OperatorType operatorType, final Object operator, RandomVariable derivative, final int argumentIndex, final RandomVariable X, final RandomVariableDifferentiableAADFactory factory) {
+			switch(operatorType) {
+			case AVERAGE:
+				// Implementation of AVERAGE (see https://ssrn.com/abstract=2995695 for details).
+				derivative = derivative.average();
+				break;
+			case CONDITIONAL_EXPECTATION:
+				// Implementation of CONDITIONAL_EXPECTATION (see https://ssrn.com/abstract=2995695 for details).
+				final ConditionalExpectationEstimator estimator = (ConditionalExpectationEstimator)operator;
+				derivative = estimator.getConditionalExpectation(derivative);
+				break;
+			case CHOOSE:
+				// Implementation of CHOOSE (INDICATOR_FUNCTION)
+				if(argumentIndex == 0 && (factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DENSITY || factory.getDiracDeltaApproximationMethod() == DiracDeltaApproximationMethod.REGRESSION_ON_DISTRIBUITON)) {
+					derivative = getDiracDeltaRegression(derivative, X, factory);
+				}
+				break;
+			default:
+				// Ordinary operator - nothing to do
+				break;
+			}
+
+			return derivative;
+		}
+
+		/**
+		 * Calculate the partial derivative of an operator with respect to an argument.
+		 *
+		 * @param operatorType The operator type.
+		 * @param X The value of the first argument (may be null if not retained).
+		 * @param Y The value of the second argument (may be null if not retained).
+		 * @param Z The value of the third argument (may be null if not retained).
+		 * @param differentialIndex The index of the argument in the functions argument list.
+		 * @param factory The factory providing the settings of the differentiation.
+		 * @return The value of the partial derivative.
+		 */
+		static RandomVariable getPartialDerivative(final OperatorType operatorType, final RandomVariable X, final RandomVariable Y, final RandomVariable Z, final int differentialIndex, final RandomVariableDifferentiableAADFactory factory) {
+
 			RandomVariable derivative;
 
 			switch(operatorType) {
@@ -451,7 +485,7 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 			return derivative;
 		}
 
-		private RandomVariable getDiracDeltaRegression(RandomVariable derivative, final RandomVariable indicator) {
+		private static RandomVariable getDiracDeltaRegression(RandomVariable derivative, final RandomVariable indicator, final RandomVariableDifferentiableAADFactory factory) {
 			final double diracDeltaApproximationWidthPerStdDev = factory.getDiracDeltaApproximationWidthPerStdDev();
 			final double epsilon = diracDeltaApproximationWidthPerStdDev*indicator.getStandardDeviation();
 
@@ -471,11 +505,11 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 				derivative = derivative.mult(localizedOne).div(localizedOne.getAverage());
 			}
 
-			return derivative.mult(getDensityRegression(indicator));
+			return derivative.mult(getDensityRegression(indicator, factory));
 
 		}
 
-		private double getDensityRegression(final RandomVariable indicator) {
+		private static double getDensityRegression(final RandomVariable indicator, final RandomVariableDifferentiableAADFactory factory) {
 			final double diracDeltaApproximationDensityRegressionWidthPerStdDev = factory.getDiracDeltaApproximationDensityRegressionWidthPerStdDev();
 
 			/*
@@ -817,6 +851,11 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 		return getValues().getQuantile(quantile);
 	}
 
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return getValues().getQuantiles(quantiles);
+	}
+
 	@Override
 	public double getQuantile(final double quantile, final RandomVariable probabilities) {
 		return getValues().getQuantile(quantile, probabilities);
@@ -1351,6 +1390,6 @@ public class RandomVariableDifferentiableAAD implements RandomVariableDifferenti
 
 	@Override
 	public RandomVariableDifferentiable getCloneIndependent() {
-		return new RandomVariableDifferentiableAAD(this.getValues());
+		return new RandomVariableDifferentiableAAD(this.getValues(), getFactory());
 	}
 }
@@ -0,0 +1,627 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAAD.OperatorType;
+import net.finmath.stochastic.ConditionalExpectationEstimator;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Implementation of <code>RandomVariableDifferentiable</code> using
+ * the backward algorithmic differentiation (adjoint algorithmic differentiation, AAD),
+ * recording the operations on an arena tape.
+ *
+ * The class implements the same differentiation rules as {@link RandomVariableDifferentiableAAD}
+ * (including the special treatment of the conditional expectation operator and of indicator functions),
+ * but instead of maintaining an operator tree of node objects, each operation is stored at a position of a (thread local) tape
+ * with primitive opcodes and argument indices, see {@link AADTape}. The backward sweep accumulates the adjoints in
+ * an array indexed by the tape position.
+ *
+ * Objects of this class are created by a {@link RandomVariableDifferentiableAADTapeFactory}. The tape keeps the
+ * argument values of all recorded operations until the tapes of the factory are reset, see
+ * {@link RandomVariableDifferentiableAADTapeFactory#resetTapes()}.
+ * Operations with differentiable random variables of other factories treat those as constants.
+ *
+ * Upon de-serialization the random variable becomes a new independent (leaf) on the tape of the de-serializing thread.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class RandomVariableDifferentiableAADTape implements RandomVariableDifferentiable {
+
+	private static final long serialVersionUID = -2153402936510683284L;
+
+	private static final int typePriorityDefault = 3;
+
+	/*
+	 * Data model. We maintain the underlying values and the position on the tape.
+	 */
+	private RandomVariable values;
+	private final RandomVariableDifferentiableAADTapeFactory factory;
+	private final transient AADTape tape;
+	private final transient int position;
+	private final transient long id;
+
+	private RandomVariableDifferentiableAADTape(final RandomVariable values, final RandomVariableDifferentiableAADTapeFactory factory, final OperatorType operatorType, final RandomVariable[] arguments, final Object operator) {
+		super();
+		this.values = values;
+		this.factory = factory;
+
+		final RandomVariableDifferentiableAADTape[] argumentsDifferentiable = arguments != null ? new RandomVariableDifferentiableAADTape[arguments.length] : null;
+		final RandomVariable[] argumentValues = arguments != null ? new RandomVariable[arguments.length] : null;
+		if(arguments != null) {
+			for(int argumentIndex=0; argumentIndex<arguments.length; argumentIndex++) {
+				final RandomVariable argument = arguments[argumentIndex];
+				if(argument instanceof RandomVariableDifferentiableAADTape && ((RandomVariableDifferentiableAADTape)argument).factory == factory) {
+					argumentsDifferentiable[argumentIndex] = (RandomVariableDifferentiableAADTape)argument;
+					if(!argumentsDifferentiable[argumentIndex].tape.isActive()) {
+						throw new IllegalStateException("The random variable has been recorded on a tape which has been reset.");
+					}
+				}
+				argumentValues[argumentIndex] = argument != null ? argument.getValues() : null;
+			}
+			removeArgumentValuesNotRequired(operatorType, argumentsDifferentiable, argumentValues);
+		}
+
+		tape = factory.getTape();
+		id = RandomVariableDifferentiableAAD.indexOfNextRandomVariable.getAndIncrement();
+		position = tape.record(operatorType != null ? operatorType.ordinal() : AADTape.OPCODE_LEAF, id, argumentsDifferentiable, argumentValues, operator);
+	}
+
+	/**
+	 * Create an independent (a leaf on the tape) with given values.
+	 *
+	 * @param values The values.
+	 * @param factory The factory (maintaining the tapes).
+	 */
+	public RandomVariableDifferentiableAADTape(final RandomVariable values, final RandomVariableDifferentiableAADTapeFactory factory) {
+		this(values, factory, null, null, null);
+	}
+
+	/**
+	 * Release the argument values which are not required to calculate the partial derivatives with respect to
+	 * the differentiable arguments (this follows the rules of {@link RandomVariableDifferentiableAAD}).
+	 */
+	private static void removeArgumentValuesNotRequired(final OperatorType operatorType, final RandomVariable[] arguments, final RandomVariable[] argumentValues) {
+		switch(operatorType) {
+		case ADD:
+		case SUB:
+		case AVERAGE:
+			// Addition and average do not need to retain arguments
+			java.util.Arrays.fill(argumentValues, null);
+			break;
+		case MULT:
+			// Product only needs to retain factors on differentiables
+			if(arguments[0] == null) {
+				argumentValues[1] = null;
+			}
+			if(arguments[1] == null) {
+				argumentValues[0] = null;
+			}
+			break;
+		case DIV:
+			// Division only needs to retain numerator if denominator is differentiable
+			if(arguments[1] == null) {
+				argumentValues[0] = null;
+			}
+			break;
+		case ADDPRODUCT:
+			// Addition does not need to retain arguments, addition of product only needs to retain factors on differentiables
+			argumentValues[0] = null;
+			if(arguments[1] == null) {
+				argumentValues[2] = null;
+			}
+			if(arguments[2] == null) {
+				argumentValues[1] = null;
+			}
+			break;
+		case ACCRUE:
+			if(arguments[1] == null && arguments[2] == null) {
+				argumentValues[0] = null;
+			}
+			if(arguments[0] == null && arguments[1] == null) {
+				argumentValues[1] = null;
+			}
+			if(arguments[0] == null && arguments[2] == null) {
+				argumentValues[2] = null;
+			}
+			break;
+		case CHOOSE:
+			if(arguments[0] == null) {
+				argumentValues[1] = null;
+				argumentValues[2] = null;
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private RandomVariableDifferentiableAADTape record(final RandomVariable values, final OperatorType operatorType, final RandomVariable... arguments) {
+		return new RandomVariableDifferentiableAADTape(values, factory, operatorType, arguments, null);
+	}
+
+	AADTape getTape() {
+		return tape;
+	}
+
+	int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns the underlying values.
+	 *
+	 * @return The underling values.
+	 */
+	@Override
+	public RandomVariable getValues() {
+		return values;
+	}
+
+	public RandomVariableDifferentiableAADTapeFactory getFactory() {
+		return factory;
+	}
+
+	@Override
+	public Long getID() {
+		return id;
+	}
+
+	/**
+	 * Returns the gradient of this random variable with respect to the given IDs.
+	 * The method calculates the map \( v \mapsto \frac{d u}{d v} \) where \( u \) denotes <code>this</code>.
+	 *
+	 * Performs a backward automatic differentiation (a backward sweep over the tapes of the factory).
+	 *
+	 * @param independentIDs {@link Set} of IDs of random variables \( v \) with respect to which the gradients \( \frac{d u}{d v} \) will be calculated. If null, derivatives w.r.t. all known independents are returned.
+	 * @return The gradient map.
+	 */
+	@Override
+	public Map<Long, RandomVariable> getGradient(final Set<Long> independentIDs) {
+		return factory.getGradient(tape, position, independentIDs);
+	}
+
+	@Override
+	public Map<Long, RandomVariable> getTangents(final Set<Long> dependentIDs) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public RandomVariableDifferentiable getCloneIndependent() {
+		return new RandomVariableDifferentiableAADTape(getValues(), factory);
+	}
+
+	private Object readResolve() {
+		return new RandomVariableDifferentiableAADTape(values, factory);
+	}
+
+	/*
+	 * The following methods are end points since they return <code>double</double> values.
+	 * You cannot differentiate these results.
+	 */
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		return getValues().equals(randomVariable);
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return getValues().getFiltrationTime();
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		return getValues().get(pathOrState);
+	}
+
+	@Override
+	public int size() {
+		return getValues().size();
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return getValues().isDeterministic();
+	}
+
+	@Override
+	public double[] getRealizations() {
+		return getValues().getRealizations();
+	}
+
+	@Override
+	public Double doubleValue() {
+		return getValues().doubleValue();
+	}
+
+	@Override
+	public double getMin() {
+		return getValues().getMin();
+	}
+
+	@Override
+	public double getMax() {
+		return getValues().getMax();
+	}
+
+	@Override
+	public double getAverage() {
+		return getValues().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		return getValues().getAverage(probabilities);
+	}
+
+	@Override
+	public double getVariance() {
+		return getValues().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		return getValues().getVariance(probabilities);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return getValues().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return getValues().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return getValues().getStandardDeviation(probabilities);
+	}
+
+	@Override
+	public double getStandardError() {
+		return getValues().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return getValues().getStandardError(probabilities);
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return getValues().getQuantile(quantile);
+	}
+
+	@Override
+	public double[] getQuantiles(final double[] quantiles) {
+		return getValues().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return getValues().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return getValues().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return getValues().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return getValues().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	/*
+	 * The following methods are differentiable operations.
+	 */
+
+	@Override
+	public RandomVariable cache() {
+		values = values.cache();
+		return this;
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		return record(getValues().cap(cap), OperatorType.CAP, this, new Scalar(cap));
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		return record(getValues().floor(floor), OperatorType.FLOOR, this, new Scalar(floor));
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		return record(getValues().add(value), OperatorType.ADD, this, null);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		return record(getValues().sub(value), OperatorType.SUB, this, null);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		return record(getValues().mult(value), OperatorType.MULT, this, new Scalar(value));
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		return record(getValues().div(value), OperatorType.DIV, this, new Scalar(value));
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return record(getValues().pow(exponent), OperatorType.POW, this, new Scalar(exponent));
+	}
+
+	@Override
+	public RandomVariable average() {
+		return record(getValues().average(), OperatorType.AVERAGE, this);
+	}
+
+	@Override
+	public RandomVariable getConditionalExpectation(final ConditionalExpectationEstimator estimator) {
+		return new RandomVariableDifferentiableAADTape(getValues().getConditionalExpectation(estimator), factory, OperatorType.CONDITIONAL_EXPECTATION, new RandomVariable[] { this }, estimator);
+	}
+
+	@Override
+	public RandomVariable squared() {
+		return record(getValues().squared(), OperatorType.SQUARED, this);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return record(getValues().sqrt(), OperatorType.SQRT, this);
+	}
+
+	@Override
+	public RandomVariable exp() {
+		return record(getValues().exp(), OperatorType.EXP, this);
+	}
+
+	@Override
+	public RandomVariable log() {
+		return record(getValues().log(), OperatorType.LOG, this);
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return record(getValues().sin(), OperatorType.SIN, this);
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return record(getValues().cos(), OperatorType.COS, this);
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+
+		return record(getValues().add(randomVariable.getValues()), OperatorType.ADD, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+
+		return record(getValues().sub(randomVariable.getValues()), OperatorType.SUB, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+
+		// SUB with swapped arguments
+		return record(getValues().bus(randomVariable.getValues()), OperatorType.SUB, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+
+		return record(getValues().mult(randomVariable.getValues()), OperatorType.MULT, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+
+		return record(getValues().div(randomVariable.getValues()), OperatorType.DIV, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+
+		// DIV with swapped arguments
+		return record(getValues().vid(randomVariable.getValues()), OperatorType.DIV, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+
+		return record(getValues().cap(randomVariable.getValues()), OperatorType.CAP, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable floor) {
+		if(floor.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return floor.floor(this);
+		}
+
+		return record(getValues().floor(floor.getValues()), OperatorType.FLOOR, this, floor);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+
+		return record(getValues().accrue(rate.getValues(), periodLength), OperatorType.ACCRUE, this, rate, new RandomVariableFromDoubleArray(periodLength));
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).invert().mult(this);
+		}
+
+		return record(getValues().discount(rate.getValues(), periodLength), OperatorType.DISCOUNT, this, rate, new RandomVariableFromDoubleArray(periodLength));
+	}
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		return record(getValues().choose(valueIfTriggerNonNegative.getValues(), valueIfTriggerNegative.getValues()), OperatorType.CHOOSE, this, valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return record(getValues().invert(), OperatorType.INVERT, this);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return record(getValues().abs(), OperatorType.ABS, this);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		return record(getValues().addProduct(factor1.getValues(), factor2), OperatorType.ADDPRODUCT, this, factor1, new Scalar(factor2));
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		return record(getValues().addProduct(factor1.getValues(), factor2.getValues()), OperatorType.ADDPRODUCT, this, factor1, factor2);
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+
+		return record(getValues().addRatio(numerator.getValues(), denominator.getValues()), OperatorType.ADDRATIO, this, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+
+		return record(getValues().subRatio(numerator.getValues(), denominator.getValues()), OperatorType.SUBRATIO, this, numerator, denominator);
+	}
+
+	/*
+	 * The following methods are end points, the result is not differentiable.
+	 */
+
+	@Override
+	public RandomVariable isNaN() {
+		return getValues().isNaN();
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return getValues().getOperator();
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return getValues().getRealizationsStream();
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		throw new UnsupportedOperationException("Applying functions is not supported.");
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		throw new UnsupportedOperationException("Applying functions is not supported.");
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		throw new UnsupportedOperationException("Applying functions is not supported.");
+	}
+
+	@Override
+	public String toString() {
+		return "RandomVariableDifferentiableAADTape [values=" + values + ",\n ID=" + getID() + "]";
+	}
+}
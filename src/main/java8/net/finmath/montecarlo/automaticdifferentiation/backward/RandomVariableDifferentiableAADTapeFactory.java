@@ -0,0 +1,166 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.finmath.montecarlo.RandomVariableFactory;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A factory for objects of type {@link RandomVariableDifferentiableAADTape}, an implementation of the
+ * backward algorithmic differentiation recording the operations on an arena tape.
+ *
+ * Each thread records on its own (thread local) tape, hence recording does not require synchronization.
+ * The backward sweeps of a factory are serialized.
+ *
+ * <b>Memory:</b> The tapes are kept by the factory until {@link #resetTapes()} is called. Nothing releases them
+ * automatically. Every recorded operation, together with the values of its arguments, stays reachable from the factory,
+ * even if no random variable depending on it is referenced anymore. This differs from
+ * {@link RandomVariableDifferentiableAADFactory}, where an operation is garbage collected once the last dependent
+ * random variable is no longer reachable. Hence, if the same factory is used in a long loop, e.g., the iterations of a
+ * calibration or the time steps of a long simulation, the memory grows with the total number of operations recorded.
+ * Call {@link #resetTapes()} once the gradients of a valuation have been consumed (e.g., once per calibration iteration)
+ * and create the random variables of the next valuation afterwards. {@link #getNumberOfRecordedOperations()} may be used
+ * to monitor the size of the tapes.
+ *
+ * The factory supports the same properties as {@link RandomVariableDifferentiableAADFactory}.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public class RandomVariableDifferentiableAADTapeFactory extends RandomVariableDifferentiableAADFactory {
+
+	private static final long serialVersionUID = 4915372187315612407L;
+
+	private transient Object tapesLock;
+	private transient List<AADTape> tapes;
+	private transient volatile ThreadLocal<AADTape> tapeOfThread;
+
+	/**
+	 * Create a factory for objects of type {@link RandomVariableDifferentiableAADTape}.
+	 *
+	 * @param randomVariableFactoryForNonDifferentiable Random variable factory for the underlying values.
+	 * @param properties A key value map with properties, see {@link RandomVariableDifferentiableAADFactory#RandomVariableDifferentiableAADFactory(RandomVariableFactory, Map)}.
+	 */
+	public RandomVariableDifferentiableAADTapeFactory(final RandomVariableFactory randomVariableFactoryForNonDifferentiable, final Map<String, Object> properties) {
+		super(randomVariableFactoryForNonDifferentiable, properties);
+		initTapes();
+	}
+
+	/**
+	 * @param properties A key value map with properties.
+	 */
+	public RandomVariableDifferentiableAADTapeFactory(final Map<String, Object> properties) {
+		this(new RandomVariableFromArrayFactory(), properties);
+	}
+
+	/**
+	 * @param randomVariableFactoryForNonDifferentiable Random variable factory for the underlying values.
+	 */
+	public RandomVariableDifferentiableAADTapeFactory(final RandomVariableFactory randomVariableFactoryForNonDifferentiable) {
+		this(randomVariableFactoryForNonDifferentiable, new HashMap<String, Object>());
+	}
+
+	public RandomVariableDifferentiableAADTapeFactory() {
+		this(new RandomVariableFromArrayFactory());
+	}
+
+	@Override
+	public RandomVariableDifferentiable createRandomVariable(final double time, final double value) {
+		return new RandomVariableDifferentiableAADTape(createRandomVariableNonDifferentiable(time, value), this);
+	}
+
+	@Override
+	public RandomVariableDifferentiable createRandomVariable(final double time, final double[] values) {
+		return new RandomVariableDifferentiableAADTape(createRandomVariableNonDifferentiable(time, values), this);
+	}
+
+	/**
+	 * Releases all tapes of this factory. This is the only way to release the memory of the recorded operations.
+	 *
+	 * Random variables created before the reset can no longer be used in
+	 * differentiable operations or gradient calculations (this will result in an {@link IllegalStateException}).
+	 */
+	public void resetTapes() {
+		synchronized (tapesLock) {
+			for(final AADTape tape : tapes) {
+				tape.clear();
+			}
+			tapes = new ArrayList<>();
+			tapeOfThread = ThreadLocal.withInitial(this::createTape);
+		}
+	}
+
+	/**
+	 * @return The number of operations recorded on all tapes of this factory.
+	 */
+	public long getNumberOfRecordedOperations() {
+		synchronized (tapesLock) {
+			long numberOfRecordedOperations = 0;
+			for(final AADTape tape : tapes) {
+				numberOfRecordedOperations += tape.size();
+			}
+			return numberOfRecordedOperations;
+		}
+	}
+
+	/**
+	 * Returns the tape of the calling thread.
+	 *
+	 * @return The tape of the calling thread.
+	 */
+	AADTape getTape() {
+		final AADTape tape = tapeOfThread.get();
+		if(!tape.isActive()) {
+			// The tapes have been reset concurrently
+			tapeOfThread.remove();
+			return tapeOfThread.get();
+		}
+		return tape;
+	}
+
+	Map<Long, RandomVariable> getGradient(final AADTape rootTape, final int rootPosition, final Set<Long> independentIDs) {
+		synchronized (tapesLock) {
+			if(!rootTape.isActive()) {
+				throw new IllegalStateException("The random variable has been recorded on a tape which has been reset.");
+			}
+			final AADTape[] tapesOfFactory = tapes.toArray(new AADTape[tapes.size()]);
+			return AADTape.getGradient(tapesOfFactory, rootTape, rootPosition, independentIDs, isGradientRetainsLeafNodesOnly(), this);
+		}
+	}
+
+	private AADTape createTape() {
+		synchronized (tapesLock) {
+			final AADTape tape = new AADTape(tapes.size());
+			tapes.add(tape);
+			return tape;
+		}
+	}
+
+	private void initTapes() {
+		tapesLock = new Object();
+		tapes = new ArrayList<>();
+		tapeOfThread = ThreadLocal.withInitial(this::createTape);
+	}
+
+	private void readObject(final java.io.ObjectInputStream stream) throws java.io.IOException, ClassNotFoundException {
+		stream.defaultReadObject();
+		initTapes();
+	}
+
+	@Override
+	public String toString() {
+		return "RandomVariableDifferentiableAADTapeFactory [numberOfRecordedOperations=" + getNumberOfRecordedOperations()
+		+ ", toString()=" + super.toString() + "]";
+	}
+}
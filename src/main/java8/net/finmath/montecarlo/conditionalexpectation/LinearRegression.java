@@ -5,18 +5,29 @@
  */
 package net.finmath.montecarlo.conditionalexpectation;
 
-import net.finmath.functions.LinearAlgebra;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+
 import net.finmath.stochastic.RandomVariable;
 
 /**
  * Performs a linear regression on random variables implementing RandomVariable.
  *
+ * The normal equations are accumulated in a single pass over the paths (without creating temporary random variables).
+ * The decomposition of the matrix X<sup>T</sup>X of the basis functions is calculated once and reused for all subsequent
+ * regressions of dependents on the same basis functions.
+ *
  * @author Christian Fries
  */
 public class LinearRegression {
 
 	private final RandomVariable[] basisFunctions;
 
+	private DecompositionSolver solver;
+	private final Object solverLock;
+
 	/**
 	 * Create the linear regression with a set of basis functions.
 	 *
@@ -25,6 +36,7 @@ public class LinearRegression {
 	public LinearRegression(final RandomVariable[] basisFunctions) {
 		super();
 		this.basisFunctions = basisFunctions;
+		solverLock = new Object();	// Lock for LazyInit of solver.
 	}
 
 	/**
@@ -34,56 +46,55 @@ public class LinearRegression {
 	 * @return The vector of regression coefficients.
 	 */
 	public double[] getRegressionCoefficients(final RandomVariable value) {
+		return getRegressionCoefficients(new RandomVariable[] { value })[0];
+	}
+
+	/**
+	 * Get the vectors of regression coefficients for a vector of random variables, regressed on the same basis functions.
+	 *
+	 * @param values The random variables to regress.
+	 * @return The vectors of regression coefficients, where element [k] is the vector of regression coefficients of <code>values[k]</code>.
+	 */
+	public double[][] getRegressionCoefficients(final RandomVariable[] values) {
 		if(basisFunctions.length == 0) {
-			return new double[] { };
-		}
-		else if(basisFunctions.length == 1) {
-			/*
-			 * Regression with one basis function is just a projection on that vector. <b,x>/<b,b>
-			 */
-			return new double[] { value.mult(basisFunctions[0]).getAverage() / basisFunctions[0].squared().getAverage() };
+			return new double[values.length][0];
 		}
-		else if(basisFunctions.length == 2) {
-			/*
-			 * Regression with two basis functions can be solved explicitly if determinant != 0 (otherwise we will fallback to SVD)
-			 */
-			final double a = basisFunctions[0].squared().getAverage();
-			final double b = basisFunctions[0].mult(basisFunctions[1]).average().squared().doubleValue();
-			final double c = b;
-			final double d = basisFunctions[1].squared().getAverage();
 
-			final double determinant =  (a * d - b * c);
-			if(determinant != 0) {
-				final double x = value.mult(basisFunctions[0]).getAverage();
-				final double y = value.mult(basisFunctions[1]).getAverage();
+		double[][] projections = null;
+		final DecompositionSolver solver;
+		synchronized (solverLock) {
+			if(this.solver == null) {
+				// Build X^T X and X^T y in one pass
+				final NormalEquations normalEquations = NormalEquations.of(basisFunctions, values, true);
+				final double[][] gramMatrix = normalEquations.getGramMatrix();
+				projections = normalEquations.getProjections();
 
-				final double alpha0 = (d * x - b * y) / determinant;
-				final double alpha1 = (a * y - c * x) / determinant;
+				if(basisFunctions.length == 1) {
+					/*
+					 * Regression with one basis function is just a projection on that vector. <b,x>/<b,b>
+					 */
+					final double[][] regressionCoefficients = new double[values.length][];
+					for(int k=0; k<values.length; k++) {
+						regressionCoefficients[k] = new double[] { projections[k][0] / gramMatrix[0][0] };
+					}
+					return regressionCoefficients;
+				}
 
-				return new double[] { alpha0, alpha1 };
+				this.solver = new SingularValueDecomposition(new Array2DRowRealMatrix(gramMatrix, false)).getSolver();
 			}
+			solver = this.solver;
 		}
 
-		/*
-		 * General case
-		 */
-
-		// Build regression matrix
-		final double[][] BTB = new double[basisFunctions.length][basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			for(int j=0; j<=i; j++) {
-				final double covariance = basisFunctions[i].mult(basisFunctions[j]).getAverage();
-				BTB[i][j] = covariance;
-				BTB[j][i] = covariance;
-			}
+		if(projections == null) {
+			// Build X^T y, re-using the decomposition of X^T X
+			projections = NormalEquations.of(basisFunctions, values, false).getProjections();
 		}
 
-		final double[] BTX = new double[basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			final double covariance = basisFunctions[i].mult(value).getAverage();
-			BTX[i] = covariance;
+		final double[][] regressionCoefficients = new double[values.length][];
+		for(int k=0; k<values.length; k++) {
+			regressionCoefficients[k] = solver.solve(new ArrayRealVector(projections[k], false)).toArray();
 		}
 
-		return LinearAlgebra.solveLinearEquationLeastSquare(BTB, BTX);
+		return regressionCoefficients;
 	}
 }
@@ -6,7 +6,6 @@
 package net.finmath.montecarlo.conditionalexpectation;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.DecompositionSolver;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 
@@ -100,13 +99,30 @@ public class MonteCarloConditionalExpectationRegression implements ConditionalEx
 		final double[] linearRegressionParameters = getLinearRegressionParameters(randomVariable);
 
 		// Calculate estimate, i.e. X x
-		final RandomVariable[] basisFunctions = basisFunctionsPredictor.getBasisFunctions();
-		RandomVariable conditionalExpectation = basisFunctions[0].mult(linearRegressionParameters[0]);
-		for(int i=1; i<basisFunctions.length; i++) {
-			conditionalExpectation = conditionalExpectation.addProduct(basisFunctions[i], linearRegressionParameters[i]);
+		return getPrediction(linearRegressionParameters);
+	}
+
+	/**
+	 * Return the conditional expectations of a vector of random variables.
+	 *
+	 * The matrix XTX and its decomposition are calculated only once (and cached) and the regression parameters of all
+	 * dependents are obtained from a single solve with the matrix XTy (having one column per dependent).
+	 *
+	 * @param randomVariables The vector of random variables.
+	 * @return The vector of conditional expectations, where element [k] is the conditional expectation of <code>randomVariables[k]</code>.
+	 */
+	@Override
+	public RandomVariable[] getConditionalExpectations(final RandomVariable[] randomVariables) {
+		// Get regression parameters x as the solution of XTX x = XT y for all y
+		final double[][] linearRegressionParameters = getLinearRegressionParameters(randomVariables);
+
+		// Calculate estimates, i.e. X x
+		final RandomVariable[] conditionalExpectations = new RandomVariable[randomVariables.length];
+		for(int k=0; k<randomVariables.length; k++) {
+			conditionalExpectations[k] = getPrediction(linearRegressionParameters[k]);
 		}
 
-		return conditionalExpectation;
+		return conditionalExpectations;
 	}
 
 	/**
@@ -116,39 +132,66 @@ public class MonteCarloConditionalExpectationRegression implements ConditionalEx
 	 * @return The solution x of XTX x = XT y.
 	 */
 	public double[] getLinearRegressionParameters(final RandomVariable dependents) {
+		return getLinearRegressionParameters(new RandomVariable[] { dependents })[0];
+	}
+
+	/**
+	 * Return the solutions x<sub>k</sub> of XTX x<sub>k</sub> = XT y<sub>k</sub> for a given vector of y<sub>k</sub>.
+	 *
+	 * @param dependents The vector of sample vectors of the random variables y<sub>k</sub>.
+	 * @return The vector of solutions, where element [k] is the solution x<sub>k</sub> of XTX x<sub>k</sub> = XT y<sub>k</sub>.
+	 */
+	public double[][] getLinearRegressionParameters(final RandomVariable[] dependents) {
 
 		final RandomVariable[] basisFunctions = basisFunctionsEstimator.getBasisFunctions();
 
+		if(dependents.length == 0) {
+			return new double[0][];
+		}
+
 		/*
 		 * We cache the creation of XTX, or to be precise, the solver, that solves XTX x = z for a given z.
+		 * XTX and XTy are accumulated in a single pass over the paths (see NormalEquations).
 		 */
+		double[][] XTy = null;
+		final DecompositionSolver solver;
 		synchronized (solverLock) {
-			if(solver == null) {
-				// Build XTX - the symmetric matrix consisting of the scalar products of the basis functions.
-				final double[][] XTX = new double[basisFunctions.length][basisFunctions.length];
-				for(int i=0; i<basisFunctions.length; i++) {
-					for(int j=i; j<basisFunctions.length; j++) {
-						XTX[i][j] = basisFunctions[i].mult(basisFunctions[j]).getAverage();	// Scalar product
-						XTX[j][i] = XTX[i][j];												// Symmetric matrix
-					}
-				}
-
-				solver = new SingularValueDecomposition(new Array2DRowRealMatrix(XTX, false)).getSolver();
+			if(this.solver == null) {
+				// Build XTX - the symmetric matrix consisting of the scalar products of the basis functions - together with XTy.
+				final NormalEquations normalEquations = NormalEquations.of(basisFunctions, dependents, true);
+				this.solver = new SingularValueDecomposition(new Array2DRowRealMatrix(normalEquations.getGramMatrix(), false)).getSolver();
+				XTy = normalEquations.getProjections();
 			}
+			solver = this.solver;
 		}
 
-		// Build XTy - the projection of the dependents random variable on the basis functions.
-		final double[] XTy = new double[basisFunctions.length];
-		for(int i=0; i<basisFunctions.length; i++) {
-			XTy[i] = dependents.mult(basisFunctions[i]).getAverage();				// Scalar product
+		if(XTy == null) {
+			// Build XTy - the projection of the dependents random variables on the basis functions.
+			XTy = NormalEquations.of(basisFunctions, dependents, false).getProjections();
 		}
 
-		// Solve X^T X x = X^T y - which gives us the regression coefficients x = linearRegressionParameters
-		final double[] linearRegressionParameters = solver.solve(new ArrayRealVector(XTy)).toArray();
+		// Solve X^T X x = X^T y for all y (one column per dependent) - which gives us the regression coefficients x = linearRegressionParameters
+		final double[][] linearRegressionParameters = solver.solve(new Array2DRowRealMatrix(XTy, false).transpose()).transpose().getData();
 
 		return linearRegressionParameters;
 	}
 
+	/**
+	 * Returns the prediction X x for given regression parameters x, using the basis functions of the predictor.
+	 *
+	 * @param linearRegressionParameters The regression parameters x.
+	 * @return The random variable X x.
+	 */
+	private RandomVariable getPrediction(final double[] linearRegressionParameters) {
+		final RandomVariable[] basisFunctions = basisFunctionsPredictor.getBasisFunctions();
+		RandomVariable conditionalExpectation = basisFunctions[0].mult(linearRegressionParameters[0]);
+		for(int i=1; i<basisFunctions.length; i++) {
+			conditionalExpectation = conditionalExpectation.addProduct(basisFunctions[i], linearRegressionParameters[i]);
+		}
+
+		return conditionalExpectation;
+	}
+
 	public RegressionBasisFunctions getBasisFunctionsEstimator() {
 		return basisFunctionsEstimator;
 	}
@@ -82,6 +82,22 @@ public class MonteCarloConditionalExpectationRegressionLocalizedOnDependents ext
 		this(basisFunctionsEstimator, basisFunctionsPredictor, 4.0);
 	}
 
+	/**
+	 * Return the solutions x<sub>k</sub> of XTX x<sub>k</sub> = XT y<sub>k</sub> for a given vector of y<sub>k</sub>.
+	 * Since the localization depends on the dependent, the regression is performed for each dependent separately.
+	 *
+	 * @param dependents The vector of sample vectors of the random variables y<sub>k</sub>.
+	 * @return The vector of solutions, where element [k] is the solution x<sub>k</sub> of XTX x<sub>k</sub> = XT y<sub>k</sub>.
+	 */
+	@Override
+	public double[][] getLinearRegressionParameters(final RandomVariable[] dependents) {
+		final double[][] linearRegressionParameters = new double[dependents.length][];
+		for(int k=0; k<dependents.length; k++) {
+			linearRegressionParameters[k] = getLinearRegressionParameters(dependents[k]);
+		}
+		return linearRegressionParameters;
+	}
+
 	/**
 	 * Return the solution x of XTX x = XT y for a given y.
 	 * @TODO Performance upon repeated call can be optimized by caching XTX.
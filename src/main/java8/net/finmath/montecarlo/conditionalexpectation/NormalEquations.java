@@ -0,0 +1,189 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.conditionalexpectation;
+
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The matrices of the normal equations of a linear regression, that is, the scalar products
+ * X<sup>T</sup>X (the Gram matrix of the basis functions) and X<sup>T</sup>y (the projections of the dependents
+ * on the basis functions), where the scalar product is the expectation of the product.
+ *
+ * All scalar products are accumulated in a single pass over the paths, without creating the (temporary)
+ * random variables <code>basisFunctions[i].mult(basisFunctions[j])</code>. The paths are processed in blocks,
+ * which may be processed in parallel. The partial sums of the blocks are added in the order of the blocks,
+ * such that the result does not depend on the threading.
+ *
+ * Note: only the values of the random variables are used, i.e., for differentiable random variables no
+ * derivative is propagated through the matrices.
+ *
+ * @author agent
+ * @version 1.0
+ */
+final class NormalEquations {
+
+	private static final int numberOfPathsPerBlock = 4096;
+
+	private static boolean isParallel;
+	static {
+		// Default value is true
+		isParallel = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.conditionalexpectation.NormalEquations.isParallel","true"));
+	}
+
+	private final double[][] gramMatrix;
+	private final double[][] projections;
+
+	private NormalEquations(final double[][] gramMatrix, final double[][] projections) {
+		super();
+		this.gramMatrix = gramMatrix;
+		this.projections = projections;
+	}
+
+	/**
+	 * Accumulate the normal equations in a single pass over the paths.
+	 *
+	 * @param basisFunctions The basis functions X.
+	 * @param dependents The dependents y (may be an empty array).
+	 * @param isGramMatrixRequired If true, the Gram matrix X<sup>T</sup>X is calculated, otherwise only the projections X<sup>T</sup>y are calculated.
+	 * @return The normal equations.
+	 */
+	static NormalEquations of(final RandomVariable[] basisFunctions, final RandomVariable[] dependents, final boolean isGramMatrixRequired) {
+		final int numberOfBasisFunctions = basisFunctions.length;
+		final int numberOfDependents = dependents.length;
+
+		/*
+		 * Get the realizations (or the scalar value for deterministic random variables).
+		 */
+		final double[][] basisFunctionsRealizations = new double[numberOfBasisFunctions][];
+		final double[] basisFunctionsValues = new double[numberOfBasisFunctions];
+		final double[][] dependentsRealizations = new double[numberOfDependents][];
+		final double[] dependentsValues = new double[numberOfDependents];
+
+		int numberOfPaths = 1;
+		for(int i=0; i<numberOfBasisFunctions; i++) {
+			if(basisFunctions[i].isDeterministic()) {
+				basisFunctionsValues[i] = basisFunctions[i].doubleValue();
+			}
+			else {
+				basisFunctionsRealizations[i] = basisFunctions[i].getRealizations();
+				numberOfPaths = Math.max(numberOfPaths, basisFunctionsRealizations[i].length);
+			}
+		}
+		for(int i=0; i<numberOfDependents; i++) {
+			if(dependents[i].isDeterministic()) {
+				dependentsValues[i] = dependents[i].doubleValue();
+			}
+			else {
+				dependentsRealizations[i] = dependents[i].getRealizations();
+				numberOfPaths = Math.max(numberOfPaths, dependentsRealizations[i].length);
+			}
+		}
+		for(final double[] realizations : basisFunctionsRealizations) {
+			Validate.isTrue(realizations == null || realizations.length == numberOfPaths, "Basis functions must have the same number of paths (given %d, expected %d).", realizations == null ? 0 : realizations.length, numberOfPaths);
+		}
+		for(final double[] realizations : dependentsRealizations) {
+			Validate.isTrue(realizations == null || realizations.length == numberOfPaths, "Dependents must have the same number of paths as the basis functions (given %d, expected %d).", realizations == null ? 0 : realizations.length, numberOfPaths);
+		}
+
+		/*
+		 * Accumulate the sums in blocks of paths. The sums are stored in a single vector:
+		 * the lower triangle of X^T X (row by row), followed by X^T y (dependent by dependent).
+		 */
+		final int numberOfGramMatrixElements = isGramMatrixRequired ? numberOfBasisFunctions * (numberOfBasisFunctions+1) / 2 : 0;
+		final int numberOfSums = numberOfGramMatrixElements + numberOfDependents * numberOfBasisFunctions;
+		final int numberOfBlocks = (numberOfPaths + numberOfPathsPerBlock - 1) / numberOfPathsPerBlock;
+		final double[][] sumsOfBlocks = new double[numberOfBlocks][];
+
+		final int numberOfPathsFinal = numberOfPaths;
+		IntStream blocks = IntStream.range(0, numberOfBlocks);
+		if(isParallel && numberOfBlocks > 1) {
+			blocks = blocks.parallel();
+		}
+		blocks.forEach(blockIndex -> {
+			final double[] sums = new double[numberOfSums];
+			final double[] x = new double[numberOfBasisFunctions];
+			final double[] y = new double[numberOfDependents];
+
+			final int pathStart = blockIndex * numberOfPathsPerBlock;
+			final int pathEnd = Math.min(pathStart + numberOfPathsPerBlock, numberOfPathsFinal);
+			for(int path=pathStart; path<pathEnd; path++) {
+				for(int i=0; i<numberOfBasisFunctions; i++) {
+					x[i] = basisFunctionsRealizations[i] != null ? basisFunctionsRealizations[i][path] : basisFunctionsValues[i];
+				}
+				for(int i=0; i<numberOfDependents; i++) {
+					y[i] = dependentsRealizations[i] != null ? dependentsRealizations[i][path] : dependentsValues[i];
+				}
+
+				int sumIndex = 0;
+				if(isGramMatrixRequired) {
+					for(int i=0; i<numberOfBasisFunctions; i++) {
+						final double xi = x[i];
+						for(int j=0; j<=i; j++) {
+							sums[sumIndex++] += xi * x[j];
+						}
+					}
+				}
+				for(int k=0; k<numberOfDependents; k++) {
+					final double yk = y[k];
+					for(int i=0; i<numberOfBasisFunctions; i++) {
+						sums[sumIndex++] += yk * x[i];
+					}
+				}
+			}
+			sumsOfBlocks[blockIndex] = sums;
+		});
+
+		// Add the blocks in a fixed order
+		final double[] sums = new double[numberOfSums];
+		for(final double[] sumsOfBlock : sumsOfBlocks) {
+			for(int sumIndex=0; sumIndex<numberOfSums; sumIndex++) {
+				sums[sumIndex] += sumsOfBlock[sumIndex];
+			}
+		}
+
+		int sumIndex = 0;
+		double[][] gramMatrix = null;
+		if(isGramMatrixRequired) {
+			gramMatrix = new double[numberOfBasisFunctions][numberOfBasisFunctions];
+			for(int i=0; i<numberOfBasisFunctions; i++) {
+				for(int j=0; j<=i; j++) {
+					gramMatrix[i][j] = sums[sumIndex++] / numberOfPaths;
+					gramMatrix[j][i] = gramMatrix[i][j];
+				}
+			}
+		}
+		final double[][] projections = new double[numberOfDependents][numberOfBasisFunctions];
+		for(int k=0; k<numberOfDependents; k++) {
+			for(int i=0; i<numberOfBasisFunctions; i++) {
+				projections[k][i] = sums[sumIndex++] / numberOfPaths;
+			}
+		}
+
+		return new NormalEquations(gramMatrix, projections);
+	}
+
+	/**
+	 * Returns the Gram matrix X<sup>T</sup>X, that is, the matrix of the expectations E(X<sub>i</sub> X<sub>j</sub>).
+	 *
+	 * @return The Gram matrix or null if it was not requested.
+	 */
+	double[][] getGramMatrix() {
+		return gramMatrix;
+	}
+
+	/**
+	 * Returns the projections X<sup>T</sup>y, where element [k][i] is E(y<sub>k</sub> X<sub>i</sub>).
+	 *
+	 * @return The projections of the dependents on the basis functions.
+	 */
+	double[][] getProjections() {
+		return projections;
+	}
+}
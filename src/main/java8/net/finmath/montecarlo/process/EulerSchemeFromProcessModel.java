@@ -9,9 +9,14 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.lang3.Validate;
 
 import net.finmath.concurrency.FutureWrapper;
 import net.finmath.montecarlo.IndependentIncrements;
@@ -53,6 +58,16 @@ import net.finmath.stochastic.RandomVariable;
  * The value \( m \) is called <code>numberOfFactors</code> here.
  * The default for <code>numberOfFactors</code> is 1.
  *
+ * <p>
+ * Within a time step, the components are evolved concurrently. The tasks (each evolving
+ * <code>numberOfComponentsPerTask</code> components) are executed on a given {@link Executor}, see {@link ExecutionStrategy}.
+ * By default the tasks are executed on the shared <code>ForkJoinPool.commonPool()</code>, such that
+ * many concurrent simulations on the same JVM do not create their own threads. Setting the system property
+ * <code>net.finmath.montecarlo.process.EulerSchemeFromProcessModel.isUseMultiThreadding</code> to false
+ * changes the default to serial execution.
+ * The result does not depend on the execution strategy.
+ * </p>
+ *
  * @author Christian Fries
  * @see net.finmath.montecarlo.model.ProcessModel The interface definition contains more details.
  * @version 1.4
@@ -72,12 +87,28 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		PREDICTOR_CORRECTOR_FUNCTIONAL
 	}
 
+	/**
+	 * Predefined strategies for the execution of the evolution of the components within a time step.
+	 * A caller-supplied executor may be used via {@link EulerSchemeFromProcessModel#EulerSchemeFromProcessModel(ProcessModel, IndependentIncrements, Scheme, Executor, int)}.
+	 */
+	public enum ExecutionStrategy {
+		/** The components are evolved in the calling thread. */
+		SERIAL,
+		/** The components are evolved on the shared <code>ForkJoinPool.commonPool()</code>. */
+		SHARED_FORK_JOIN_POOL,
+		/** The components are evolved on virtual threads (requires a Java runtime supporting virtual threads). */
+		VIRTUAL_THREADS
+	}
+
+	private static volatile ExecutorService virtualThreadExecutor;
+
 	private final IndependentIncrements stochasticDriver;
 
 	private final Scheme scheme;
 
-	// Used locally for multi-threadded calculation.
-	private ExecutorService executor;
+	// Used for multi-threadded calculation. If null, the calculation is serial.
+	private final Executor executor;
+	private final int numberOfComponentsPerTask;
 
 	/*
 	 * The storage of the simulated stochastic process.
@@ -92,11 +123,41 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 	 * @param model The model (the SDE specifcation) used to generate the (sampling of the) stochastic process.
 	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
 	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param executor The executor used to evolve the components of a time step. If null, the components are evolved in the calling thread.
+	 * @param numberOfComponentsPerTask The number of components evolved in a single task.
 	 */
-	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme) {
+	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final Executor executor, final int numberOfComponentsPerTask) {
 		super(stochasticDriver.getTimeDiscretization(), model);
+		Validate.isTrue(numberOfComponentsPerTask > 0, "Number of components per task must be greater or equal 1 (given %d).", numberOfComponentsPerTask);
+
 		this.stochasticDriver = stochasticDriver;
 		this.scheme = scheme;
+		this.executor = executor;
+		this.numberOfComponentsPerTask = numberOfComponentsPerTask;
+	}
+
+	/**
+	 * Create an Euler discretization scheme.
+	 *
+	 * @param model The model (the SDE specifcation) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param executionStrategy The strategy used to evolve the components of a time step. See {@link ExecutionStrategy}.
+	 * @param numberOfComponentsPerTask The number of components evolved in a single task.
+	 */
+	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final ExecutionStrategy executionStrategy, final int numberOfComponentsPerTask) {
+		this(model, stochasticDriver, scheme, getExecutor(executionStrategy), numberOfComponentsPerTask);
+	}
+
+	/**
+	 * Create an Euler discretization scheme.
+	 *
+	 * @param model The model (the SDE specifcation) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 */
+	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme) {
+		this(model, stochasticDriver, scheme, getExecutor(isUseMultiThreadding ? ExecutionStrategy.SHARED_FORK_JOIN_POOL : ExecutionStrategy.SERIAL), 1);
 	}
 
 	/**
@@ -106,9 +167,18 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
 	 */
 	public EulerSchemeFromProcessModel(final ProcessModel model, final IndependentIncrements stochasticDriver) {
-		super(stochasticDriver.getTimeDiscretization(), model);
-		this.stochasticDriver = stochasticDriver;
+		this(model, stochasticDriver, getDefaultScheme(model));
+	}
 
+	/**
+	 * Returns the default scheme for a given model. This is {@link Scheme#EULER_FUNCTIONAL},
+	 * unless the model does not provide <code>applyStateSpaceTransformInverse</code>, in which case
+	 * it is {@link Scheme#EULER}.
+	 *
+	 * @param model The model (the SDE specification).
+	 * @return The default scheme.
+	 */
+	static Scheme getDefaultScheme(final ProcessModel model) {
 		Scheme scheme = Scheme.EULER_FUNCTIONAL; // Default, unless applyStateSpaceTransformInverse is not provided
 		try {
 			model.applyStateSpaceTransformInverse(null, 0, 0, null);
@@ -119,7 +189,56 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		}
 		catch(final Exception e) {}
 
-		this.scheme = scheme;
+		return scheme;
+	}
+
+	/**
+	 * Returns the executor for a given execution strategy.
+	 *
+	 * @param executionStrategy The execution strategy.
+	 * @return The executor or null if the execution is serial.
+	 */
+	private static Executor getExecutor(final ExecutionStrategy executionStrategy) {
+		switch(executionStrategy) {
+		case SERIAL:
+			return null;
+		case SHARED_FORK_JOIN_POOL:
+			return ForkJoinPool.commonPool();
+		case VIRTUAL_THREADS:
+			if(virtualThreadExecutor == null) {
+				synchronized(EulerSchemeFromProcessModel.class) {
+					if(virtualThreadExecutor == null) {
+						try {
+							virtualThreadExecutor = (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+						}
+						catch(final ReflectiveOperationException e) {
+							throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime.", e);
+						}
+					}
+				}
+			}
+			return virtualThreadExecutor;
+		default:
+			throw new IllegalArgumentException("Unsupported execution strategy " + executionStrategy + ".");
+		}
+	}
+
+	/**
+	 * Submit a task to the given executor (the task is called directly if the executor is null).
+	 * Tasks submitted to a ForkJoinPool are submitted as ForkJoinTask, such that a worker thread waiting for the result can help executing it.
+	 */
+	private static <V> Future<V> submit(final Executor executor, final Callable<V> worker) throws Exception {
+		if(executor == null) {
+			return new FutureWrapper<>(worker.call());
+		}
+		else if(executor instanceof ForkJoinPool) {
+			return ((ForkJoinPool)executor).submit(worker);
+		}
+		else {
+			final FutureTask<V> task = new FutureTask<>(worker);
+			executor.execute(task);
+			return task;
+		}
 	}
 
 	/**
@@ -137,7 +256,7 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 			}
 		}
 
-		if(discreteProcess[timeIndex][componentIndex] == null) {
+		if(discreteProcess[timeIndex] == null || discreteProcess[timeIndex][componentIndex] == null) {
 			throw new NullPointerException("Generation of process component " + componentIndex + " at time index " + timeIndex + " failed. Likely due to out of memory");
 		}
 
@@ -177,7 +296,7 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		final int numberOfComponents	= this.getNumberOfComponents();
 
 		// Allocate Memory
-		discreteProcess			= new RandomVariable[getTimeDiscretization().getNumberOfTimeSteps() + 1][getNumberOfComponents()];
+		discreteProcess			= new RandomVariable[getTimeDiscretization().getNumberOfTimeSteps() + 1][];
 		discreteProcessWeights	= new RandomVariable[getTimeDiscretization().getNumberOfTimeSteps() + 1];
 
 		// Set initial Monte-Carlo weights
@@ -186,143 +305,158 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		// Set initial value
 		final RandomVariable[] initialState = getInitialState();
 		final RandomVariable[] currentState = new RandomVariable[numberOfComponents];
+		discreteProcess[0] = new RandomVariable[numberOfComponents];
 		for (int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
 			currentState[componentIndex] = initialState[componentIndex];
 			discreteProcess[0][componentIndex] = applyStateSpaceTransform(0, componentIndex, currentState[componentIndex]);
 		}
 
-		/*
-		 * Evolve the process using an Euler scheme.
-		 * The evolution is performed multi-threadded.
-		 * Each component of the vector runs in its own thread.
-		 */
-		executor = Executors.newCachedThreadPool();
-
 		// Evolve process
-		for (int timeIndex2 = 1; timeIndex2 < getTimeDiscretization().getNumberOfTimeSteps()+1; timeIndex2++) {
-			final int timeIndex = timeIndex2;
+		for (int timeIndex = 1; timeIndex < getTimeDiscretization().getNumberOfTimeSteps()+1; timeIndex++) {
 			// Generate process from timeIndex-1 to timeIndex
-			final double deltaT = getTime(timeIndex) - getTime(timeIndex - 1);
+			discreteProcess[timeIndex] = getProcessValueEvolved(this, scheme, executor, numberOfComponentsPerTask, timeIndex, discreteProcess[timeIndex - 1], currentState);
 
-			// Fetch drift vector
-			final RandomVariable[] drift;
-			try {
-				drift = getDrift(timeIndex - 1, discreteProcess[timeIndex - 1], null);
-			}
-			catch(final Exception e) {
-				throw new RuntimeException(e + " - drift calculaton failed at time index " + timeIndex + " (time=" + getTime(timeIndex - 1) + ") . See cause of this exception for details.", e);
-			}
+			// Set Monte-Carlo weights
+			discreteProcessWeights[timeIndex] = discreteProcessWeights[timeIndex - 1];
+		} // End for(timeIndex)
+	}
 
-			// Fetch brownianIncrement vector
-			final RandomVariable[] brownianIncrement	= stochasticDriver.getIncrement(timeIndex - 1);
+	/**
+	 * Evolves the process from timeIndex-1 to timeIndex using the given scheme.
+	 *
+	 * This is the time step of {@link EulerSchemeFromProcessModel}, shared with {@link EulerSchemeFromProcessModelStreaming}
+	 * and {@link EulerSchemeFromProcessModelCheckpointing}.
+	 * The evolution is performed multi-threadded (depending on the executor).
+	 * Each group of numberOfComponentsPerTask components of the vector runs in its own task.
+	 *
+	 * @param process The process providing the drift, the factor loadings and the state space transform of the model.
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param executor The executor used to evolve the components (null if serial).
+	 * @param numberOfComponentsPerTask The number of components evolved in a single task.
+	 * @param timeIndex The time index to evolve to.
+	 * @param previousProcessValue The process value at timeIndex-1.
+	 * @param state The state at timeIndex-1. It is updated to the state at timeIndex.
+	 * @return The process value at timeIndex.
+	 */
+	static RandomVariable[] getProcessValueEvolved(final MonteCarloProcessFromProcessModel process, final Scheme scheme, final Executor executor, final int numberOfComponentsPerTask,
+			final int timeIndex, final RandomVariable[] previousProcessValue, final RandomVariable[] state) {
+		final int numberOfComponents	= process.getNumberOfComponents();
+		final int numberOfTasks			= (numberOfComponents + numberOfComponentsPerTask - 1) / numberOfComponentsPerTask;
 
-			// Calculate new realization
-			final ArrayList<Future<RandomVariable>> discreteProcessAtCurrentTimeIndex = new ArrayList<>(numberOfComponents);
-			for (int componentIndex2 = 0; componentIndex2 < numberOfComponents; componentIndex2++) {
-				final int componentIndex = componentIndex2;
+		final double deltaT = process.getTime(timeIndex) - process.getTime(timeIndex - 1);
 
-				final RandomVariable	driftOfComponent	= drift[componentIndex];
+		// Fetch drift vector
+		final RandomVariable[] drift;
+		try {
+			drift = process.getDrift(timeIndex - 1, previousProcessValue, null);
+		}
+		catch(final Exception e) {
+			throw new RuntimeException(e + " - drift calculaton failed at time index " + timeIndex + " (time=" + process.getTime(timeIndex - 1) + ") . See cause of this exception for details.", e);
+		}
 
-				// Check if the component process has stopped to evolve
-				if (driftOfComponent == null) {
-					discreteProcessAtCurrentTimeIndex.add(componentIndex, null);
-					continue;
+		// Fetch brownianIncrement vector
+		final RandomVariable[] brownianIncrement	= process.getStochasticDriver().getIncrement(timeIndex - 1);
+
+		// Calculate new realization
+		final ArrayList<Future<RandomVariable[]>> processValueOfTasks = new ArrayList<>(numberOfTasks);
+		for (int taskIndex = 0; taskIndex < numberOfTasks; taskIndex++) {
+			final int componentIndexStart	= taskIndex * numberOfComponentsPerTask;
+			final int componentIndexEnd		= Math.min(componentIndexStart + numberOfComponentsPerTask, numberOfComponents);
+
+			final Callable<RandomVariable[]> worker = new  Callable<RandomVariable[]>() {
+				@Override
+				public RandomVariable[] call() {
+					final RandomVariable[] result = new RandomVariable[componentIndexEnd-componentIndexStart];
+					for (int componentIndex = componentIndexStart; componentIndex < componentIndexEnd; componentIndex++) {
+						result[componentIndex-componentIndexStart] = getProcessValueEvolved(componentIndex);
+					}
+					return result;
 				}
 
-				final Callable<RandomVariable> worker = new  Callable<RandomVariable>() {
-					@Override
-					public RandomVariable call() {
-						if(scheme == Scheme.EULER_FUNCTIONAL || scheme == Scheme.PREDICTOR_CORRECTOR_FUNCTIONAL) {
-							currentState[componentIndex] = applyStateSpaceTransformInverse(timeIndex - 1, componentIndex, discreteProcess[timeIndex - 1][componentIndex]);
-						}
-
-						final RandomVariable[]	factorLoadings		= getFactorLoading(timeIndex - 1, componentIndex, discreteProcess[timeIndex - 1]);
+				private RandomVariable getProcessValueEvolved(final int componentIndex) {
+					final RandomVariable	driftOfComponent	= drift[componentIndex];
 
-						// Check if the component process has stopped to evolve
-						if (factorLoadings == null) {
-							return null;
-						}
+					// Check if the component process has stopped to evolve
+					if (driftOfComponent == null) {
+						return null;
+					}
 
-						// Apply drift
-						if(driftOfComponent != null) {
-							currentState[componentIndex] = currentState[componentIndex].addProduct(driftOfComponent, deltaT); // mu DeltaT
-						}
+					if(scheme == Scheme.EULER_FUNCTIONAL || scheme == Scheme.PREDICTOR_CORRECTOR_FUNCTIONAL) {
+						state[componentIndex] = process.applyStateSpaceTransformInverse(timeIndex - 1, componentIndex, previousProcessValue[componentIndex]);
+					}
 
-						// Apply diffusion
-						currentState[componentIndex] = currentState[componentIndex].addSumProduct(factorLoadings, brownianIncrement); // sigma DeltaW
+					final RandomVariable[]	factorLoadings		= process.getFactorLoading(timeIndex - 1, componentIndex, previousProcessValue);
 
-						// Transform the state space to the value space and return it.
-						return applyStateSpaceTransform(timeIndex, componentIndex, currentState[componentIndex]);
+					// Check if the component process has stopped to evolve
+					if (factorLoadings == null) {
+						return null;
 					}
-				};
 
+					// Apply drift
+					state[componentIndex] = state[componentIndex].addProduct(driftOfComponent, deltaT); // mu DeltaT
 
-				/*
-				 * Optional multi-threadding (asynchronous calculation of the components)
-				 */
-				Future<RandomVariable> result = null;
-				try {
-					if(isUseMultiThreadding) {
-						result = executor.submit(worker);
-					} else {
-						result = new FutureWrapper<>(worker.call());
-					}
-				} catch (final Exception e) {
-					throw new RuntimeException("Euler step failed at time index " + timeIndex + " (time=" + getTime(timeIndex) + "). See cause of this exception for details.", e);
+					// Apply diffusion
+					state[componentIndex] = state[componentIndex].addSumProduct(factorLoadings, brownianIncrement); // sigma DeltaW
+
+					// Transform the state space to the value space and return it.
+					return process.applyStateSpaceTransform(timeIndex, componentIndex, state[componentIndex]).cache();
 				}
+			};
 
-				// The following line will add the result of the calculation to the vector discreteProcessAtCurrentTimeIndex
-				discreteProcessAtCurrentTimeIndex.add(componentIndex, result);
+			/*
+			 * Optional multi-threadding (asynchronous calculation of the components)
+			 */
+			try {
+				processValueOfTasks.add(taskIndex, submit(executor, worker));
+			} catch (final Exception e) {
+				throw new RuntimeException("Euler step failed at time index " + timeIndex + " (time=" + process.getTime(timeIndex) + "). See cause of this exception for details.", e);
 			}
+		}
 
-			// Fetch results and move to discreteProcess[timeIndex]
-			for (int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
-				try {
-					final Future<RandomVariable> discreteProcessAtCurrentTimeIndexAndComponent = discreteProcessAtCurrentTimeIndex.get(componentIndex);
-					if(discreteProcessAtCurrentTimeIndexAndComponent != null) {
-						discreteProcess[timeIndex][componentIndex] = discreteProcessAtCurrentTimeIndexAndComponent.get().cache();
+		// Fetch results
+		final RandomVariable[] processValue = new RandomVariable[numberOfComponents];
+		for (int taskIndex = 0; taskIndex < numberOfTasks; taskIndex++) {
+			final int componentIndexStart	= taskIndex * numberOfComponentsPerTask;
+			try {
+				final RandomVariable[] processValueOfComponents = processValueOfTasks.get(taskIndex).get();
+				for(int i=0; i<processValueOfComponents.length; i++) {
+					final int componentIndex = componentIndexStart + i;
+					if(processValueOfComponents[i] != null) {
+						processValue[componentIndex] = processValueOfComponents[i];
 					} else {
-						discreteProcess[timeIndex][componentIndex] = discreteProcess[timeIndex-1][componentIndex];
+						processValue[componentIndex] = previousProcessValue[componentIndex];
 					}
-				} catch (final InterruptedException | ExecutionException e) {
-					throw new RuntimeException("Euler step failed at time index " + timeIndex + " (time=" + getTime(timeIndex) + "). See cause of this exception for details.", e.getCause());
 				}
+			} catch (final InterruptedException | ExecutionException e) {
+				throw new RuntimeException("Euler step failed at time index " + timeIndex + " (time=" + process.getTime(timeIndex) + "). See cause of this exception for details.", e.getCause());
 			}
+		}
 
-			if (scheme == Scheme.PREDICTOR_CORRECTOR || scheme == Scheme.PREDICTOR_CORRECTOR_FUNCTIONAL) {
-				// Apply corrector step to realizations at next time step
+		if (scheme == Scheme.PREDICTOR_CORRECTOR || scheme == Scheme.PREDICTOR_CORRECTOR_FUNCTIONAL) {
+			// Apply corrector step to realizations at next time step
 
-				final RandomVariable[] driftWithPredictor = getDrift(timeIndex - 1, discreteProcess[timeIndex], null);
+			final RandomVariable[] driftWithPredictor = process.getDrift(timeIndex - 1, processValue, null);
 
-				for (int componentIndex = 0; componentIndex < getNumberOfComponents(); componentIndex++) {
-					final RandomVariable driftWithPredictorOfComponent		= driftWithPredictor[componentIndex];
-					final RandomVariable driftWithoutPredictorOfComponent	= drift[componentIndex];
+			for (int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
+				final RandomVariable driftWithPredictorOfComponent		= driftWithPredictor[componentIndex];
+				final RandomVariable driftWithoutPredictorOfComponent	= drift[componentIndex];
 
-					if (driftWithPredictorOfComponent == null || driftWithoutPredictorOfComponent == null) {
-						continue;
-					}
+				if (driftWithPredictorOfComponent == null || driftWithoutPredictorOfComponent == null) {
+					continue;
+				}
 
-					// Calculated the predictor corrector drift adjustment
-					final RandomVariable driftAdjustment = driftWithPredictorOfComponent.sub(driftWithoutPredictorOfComponent).div(2.0).mult(deltaT);
+				// Calculated the predictor corrector drift adjustment
+				final RandomVariable driftAdjustment = driftWithPredictorOfComponent.sub(driftWithoutPredictorOfComponent).div(2.0).mult(deltaT);
 
-					// Add drift adjustment
-					currentState[componentIndex] = currentState[componentIndex].add(driftAdjustment);
+				// Add drift adjustment
+				state[componentIndex] = state[componentIndex].add(driftAdjustment);
 
-					// Re-apply state space transform
-					discreteProcess[timeIndex][componentIndex] = applyStateSpaceTransform(timeIndex, componentIndex, currentState[componentIndex]);
-				} // End for(componentIndex)
-			} // End if(scheme == Scheme.PREDICTOR_CORRECTOR)
+				// Re-apply state space transform
+				processValue[componentIndex] = process.applyStateSpaceTransform(timeIndex, componentIndex, state[componentIndex]);
+			} // End for(componentIndex)
+		} // End if(scheme == Scheme.PREDICTOR_CORRECTOR)
 
-			// Set Monte-Carlo weights
-			discreteProcessWeights[timeIndex] = discreteProcessWeights[timeIndex - 1];
-		} // End for(timeIndex)
-
-		try {
-			executor.shutdown();
-		}
-		catch(final SecurityException e) {
-			// @TODO Improve exception handling here
-		}
+		return processValue;
 	}
 
 	/**
@@ -356,14 +490,28 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 		return scheme;
 	}
 
+	/**
+	 * @return Returns the executor used to evolve the components (null if serial).
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @return Returns the number of components evolved in a single task.
+	 */
+	public int getNumberOfComponentsPerTask() {
+		return numberOfComponentsPerTask;
+	}
+
 	@Override
 	public EulerSchemeFromProcessModel clone() {
-		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver(), scheme);
+		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver(), scheme, executor, numberOfComponentsPerTask);
 	}
 
 	@Override
 	public MonteCarloProcess getCloneWithModifiedModel(ProcessModel model) {
-		return new EulerSchemeFromProcessModel(model, getStochasticDriver(), scheme);
+		return new EulerSchemeFromProcessModel(model, getStochasticDriver(), scheme, executor, numberOfComponentsPerTask);
 	}
 
 	@Override
@@ -387,17 +535,17 @@ public class EulerSchemeFromProcessModel extends MonteCarloProcessFromProcessMod
 
 		final Scheme newScheme = (Scheme) dataModified.getOrDefault("scheme", scheme);
 
-		return new EulerSchemeFromProcessModel(newModel, newStochasticDriver, newScheme);
+		return new EulerSchemeFromProcessModel(newModel, newStochasticDriver, newScheme, executor, numberOfComponentsPerTask);
 	}
 
 	@Override
 	public Object getCloneWithModifiedSeed(final int seed) {
-		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed));
+		return new EulerSchemeFromProcessModel(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed), scheme, executor, numberOfComponentsPerTask);
 	}
 
 	@Override
 	public String toString() {
 		return "EulerSchemeFromProcessModel [stochasticDriver=" + stochasticDriver + ", scheme=" + scheme + ", executor="
-				+ executor + "]";
+				+ executor + ", numberOfComponentsPerTask=" + numberOfComponentsPerTask + "]";
 	}
 }
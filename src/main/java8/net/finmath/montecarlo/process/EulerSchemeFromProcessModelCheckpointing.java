@@ -0,0 +1,491 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+
+import net.finmath.montecarlo.IndependentIncrements;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.Scheme;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * This class implements the numerical schemes of {@link EulerSchemeFromProcessModel} with checkpointing
+ * for the backward (adjoint) automatic differentiation over long time loops.
+ *
+ * <p>
+ * If a model is constructed from a {@link net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiableFactory},
+ * the {@link EulerSchemeFromProcessModel} keeps the operator graph of every time step until the gradient is calculated.
+ * For long time loops (e.g., daily stepping over several decades) this graph dominates the memory requirement.
+ * </p>
+ *
+ * <p>
+ * This class keeps only the state of the process at selected <i>checkpoint</i> time indices. The process values
+ * handed out by {@link #getProcessValue(int, int)} are independent copies (leaf nodes) of the simulated values,
+ * such that the operator graph of the time steps can be released. Time slices between checkpoints are re-evaluated
+ * from the preceding checkpoint on access (forward access is efficient).
+ * </p>
+ *
+ * <p>
+ * The gradient of a value calculated from the process is obtained via {@link #getGradient(RandomVariable, Set)}.
+ * The method performs the backward sweep over the time steps, segment by segment, from the last to the first checkpoint.
+ * Each segment is re-evaluated from its checkpoint with a recursive bisection (in the spirit of binomial checkpointing):
+ * the right half is reverted first, then the left half, such that at most (log<sub>2</sub> of the segment length) additional
+ * states and the operator graph of a single time step are held in memory. The additional computational cost is of order
+ * <i>n</i> log<sub>2</sub>(<i>n</i>) time steps for a segment of <i>n</i> time steps.
+ * </p>
+ *
+ * <p>
+ * The checkpoints are either specified by the user or set at every ceil(sqrt(<i>numberOfTimeSteps</i>))-th time index.
+ * Specifying the single checkpoint 0 gives a memory requirement that grows logarithmically in the number of time steps,
+ * at the cost that a backward access to the process restarts the evolution from the initial value.
+ * </p>
+ *
+ * <p>
+ * The realizations are identical to those of {@link EulerSchemeFromProcessModel} using the same model, stochastic driver and scheme.
+ * Note: models which access the process during the calculation of drift or factor loadings are not supported
+ * and will result in an exception caused by an {@link IllegalStateException}. The re-evaluation releases memory only for
+ * differentiable random variables which do not retain their operations elsewhere, e.g.,
+ * {@link net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAAD}
+ * (an arena tape keeps all recorded operations until it is reset).
+ * </p>
+ *
+ * @author agent
+ * @see EulerSchemeFromProcessModel
+ * @version 1.0
+ */
+public class EulerSchemeFromProcessModelCheckpointing extends MonteCarloProcessFromProcessModel {
+
+	/**
+	 * The state and the process value at a given time index.
+	 */
+	private static class TimeSlice {
+		private final int timeIndex;
+		private final RandomVariable[] state;
+		private final RandomVariable[] processValue;
+
+		TimeSlice(final int timeIndex, final RandomVariable[] state, final RandomVariable[] processValue) {
+			super();
+			this.timeIndex = timeIndex;
+			this.state = state;
+			this.processValue = processValue;
+		}
+	}
+
+	private final IndependentIncrements stochasticDriver;
+
+	private final Scheme scheme;
+
+	private final int[] checkpointTimeIndices;
+
+	/*
+	 * The checkpoints, the current time slice and the time index and component index of
+	 * the independent random variables handed out by getProcessValue.
+	 */
+	private transient TreeMap<Integer, TimeSlice>	checkpoints;
+	private transient TimeSlice						currentTimeSlice;
+	private transient Map<Long, int[]>				timeIndexAndComponentIndexOfIndependent;
+	private transient boolean						isEvolving = false;
+
+	/**
+	 * Create an Euler discretization scheme with checkpointing.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 * @param checkpointTimeIndices The time indices at which the state of the process is stored (the time index 0 is always a checkpoint).
+	 */
+	public EulerSchemeFromProcessModelCheckpointing(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme, final int[] checkpointTimeIndices) {
+		super(stochasticDriver.getTimeDiscretization(), model);
+		this.stochasticDriver = stochasticDriver;
+		this.scheme = scheme;
+
+		final int numberOfTimeSteps = stochasticDriver.getTimeDiscretization().getNumberOfTimeSteps();
+		this.checkpointTimeIndices = Arrays.stream(checkpointTimeIndices).map(timeIndex -> {
+			Validate.isTrue(timeIndex >= 0 && timeIndex <= numberOfTimeSteps, "Checkpoint time index out of bounds (given %d).", timeIndex);
+			return timeIndex;
+		}).sorted().distinct().toArray();
+	}
+
+	/**
+	 * Create an Euler discretization scheme with checkpointing, using checkpoints at every ceil(sqrt(<i>numberOfTimeSteps</i>))-th time index.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 */
+	public EulerSchemeFromProcessModelCheckpointing(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme) {
+		this(model, stochasticDriver, scheme, getDefaultCheckpointTimeIndices(stochasticDriver.getTimeDiscretization().getNumberOfTimeSteps()));
+	}
+
+	/**
+	 * Create an Euler discretization scheme with checkpointing, using the same default scheme as {@link EulerSchemeFromProcessModel}
+	 * and checkpoints at every ceil(sqrt(<i>numberOfTimeSteps</i>))-th time index.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 */
+	public EulerSchemeFromProcessModelCheckpointing(final ProcessModel model, final IndependentIncrements stochasticDriver) {
+		this(model, stochasticDriver, EulerSchemeFromProcessModel.getDefaultScheme(model));
+	}
+
+	private static int[] getDefaultCheckpointTimeIndices(final int numberOfTimeSteps) {
+		final int checkpointDistance = Math.max((int)Math.ceil(Math.sqrt(numberOfTimeSteps)), 1);
+		final int numberOfCheckpoints = numberOfTimeSteps / checkpointDistance + 1;
+		final int[] checkpointTimeIndices = new int[numberOfCheckpoints];
+		for(int checkpointIndex = 0; checkpointIndex < numberOfCheckpoints; checkpointIndex++) {
+			checkpointTimeIndices[checkpointIndex] = checkpointIndex * checkpointDistance;
+		}
+		return checkpointTimeIndices;
+	}
+
+	/**
+	 * This method returns the realization of the process at a certain time index.
+	 *
+	 * For time index 0 the method returns the (differentiable) initial value of the process. For all other
+	 * time indices, the method returns an independent copy of the simulated value, which is tracked by
+	 * {@link #getGradient(RandomVariable, Set)}.
+	 *
+	 * @param timeIndex Time index at which the process should be observed
+	 * @return A vector of process realizations (on path)
+	 */
+	@Override
+	public synchronized RandomVariable getProcessValue(final int timeIndex, final int componentIndex) {
+		if(isEvolving) {
+			throw new IllegalStateException("Access to process at time index " + timeIndex + " during the evolution of a time step is not supported by the checkpointing scheme.");
+		}
+		if(timeIndex < 0 || timeIndex > getTimeDiscretization().getNumberOfTimeSteps()) {
+			throw new ArrayIndexOutOfBoundsException("Index " + timeIndex + " for process time discretization out of bounds.");
+		}
+
+		if(checkpoints == null) {
+			doInitialize();
+		}
+
+		if(timeIndex == 0) {
+			return checkpoints.get(0).processValue[componentIndex];
+		}
+
+		if(currentTimeSlice.timeIndex != timeIndex) {
+			evolveTo(timeIndex);
+		}
+
+		final RandomVariable processValue = currentTimeSlice.processValue[componentIndex];
+		if(processValue instanceof RandomVariableDifferentiable) {
+			timeIndexAndComponentIndexOfIndependent.putIfAbsent(((RandomVariableDifferentiable)processValue).getID(), new int[] { timeIndex, componentIndex });
+		}
+		return processValue;
+	}
+
+	@Override
+	public RandomVariable getMonteCarloWeights(final int timeIndex) {
+		return stochasticDriver.getRandomVariableForConstant(1.0 / getNumberOfPaths());
+	}
+
+	/**
+	 * Returns the gradient of a value calculated from this process (e.g., the value of a product), including the
+	 * dependency of the process on the model parameters.
+	 *
+	 * The method combines the gradient of the value with respect to the process values handed out by
+	 * {@link #getProcessValue(int, int)} with the backward sweep over the time steps of the process,
+	 * re-evaluating the time steps between the checkpoints.
+	 *
+	 * @param value The value, a {@link RandomVariableDifferentiable} calculated from the process values of this object.
+	 * @param independentIDs {@link Set} of IDs of random variables with respect to which the gradients will be calculated. If null, derivatives w.r.t. all known independents are returned.
+	 * @return The gradient map.
+	 */
+	public synchronized Map<Long, RandomVariable> getGradient(final RandomVariable value, final Set<Long> independentIDs) {
+		Validate.isTrue(value instanceof RandomVariableDifferentiable, "The value has to be a RandomVariableDifferentiable (given %s).", value.getClass().getSimpleName());
+
+		final Map<Long, RandomVariable> gradient = new HashMap<>();
+
+		// Separate the adjoints of the process values from the other derivatives
+		final RandomVariable[][] adjointsOfProcessValue = new RandomVariable[getTimeDiscretization().getNumberOfTimes()][];
+		int lastTimeIndex = 0;
+		for(final Map.Entry<Long, RandomVariable> entry : ((RandomVariableDifferentiable)value).getGradient().entrySet()) {
+			final int[] timeIndexAndComponentIndex = timeIndexAndComponentIndexOfIndependent != null ? timeIndexAndComponentIndexOfIndependent.get(entry.getKey()) : null;
+			if(timeIndexAndComponentIndex != null) {
+				final int timeIndex = timeIndexAndComponentIndex[0];
+				if(adjointsOfProcessValue[timeIndex] == null) {
+					adjointsOfProcessValue[timeIndex] = new RandomVariable[getNumberOfComponents()];
+				}
+				adjointsOfProcessValue[timeIndex][timeIndexAndComponentIndex[1]] = add(adjointsOfProcessValue[timeIndex][timeIndexAndComponentIndex[1]], entry.getValue());
+				lastTimeIndex = Math.max(lastTimeIndex, timeIndex);
+			}
+			else {
+				gradient.merge(entry.getKey(), entry.getValue(), RandomVariable::add);
+			}
+		}
+
+		// Backward sweep over the segments between checkpoints
+		isEvolving = true;
+		try {
+			TimeSlice adjointsAtEnd = null;
+			int endTimeIndex = lastTimeIndex;
+			while(endTimeIndex > 0) {
+				final TimeSlice checkpoint = checkpoints.lowerEntry(endTimeIndex).getValue();
+				adjointsAtEnd = revert(checkpoint, endTimeIndex, adjointsAtEnd, adjointsOfProcessValue, gradient);
+				endTimeIndex = checkpoint.timeIndex;
+			}
+		}
+		finally {
+			isEvolving = false;
+		}
+
+		if(independentIDs != null) {
+			gradient.keySet().retainAll(independentIDs);
+		}
+		return gradient;
+	}
+
+	/**
+	 * Performs the backward sweep from a given end time index to the time index of a given start time slice.
+	 *
+	 * @param start The time slice at the start of the segment.
+	 * @param endTimeIndex The time index of the end of the segment.
+	 * @param adjointsAtEnd The adjoints of the state and the process value at the end of the segment (may be null).
+	 * @param adjointsOfProcessValue The adjoints of the process values handed out by {@link #getProcessValue(int, int)}.
+	 * @param gradient The gradient map to which the derivatives with respect to all other random variables are added.
+	 * @return The adjoints of the state and the process value at the start of the segment (may be null).
+	 */
+	private TimeSlice revert(final TimeSlice start, final int endTimeIndex, final TimeSlice adjointsAtEnd, final RandomVariable[][] adjointsOfProcessValue, final Map<Long, RandomVariable> gradient) {
+		if(endTimeIndex - start.timeIndex > 1) {
+			// Bisection: store the state at the middle, revert the right half, then the left half
+			final int middleTimeIndex = (start.timeIndex + endTimeIndex) >>> 1;
+			TimeSlice middle = start;
+			while(middle.timeIndex < middleTimeIndex) {
+				middle = getIndependent(getTimeSliceEvolved(middle));
+			}
+			final TimeSlice adjointsAtMiddle = revert(middle, endTimeIndex, adjointsAtEnd, adjointsOfProcessValue, gradient);
+			return revert(start, middleTimeIndex, adjointsAtMiddle, adjointsOfProcessValue, gradient);
+		}
+
+		// Re-evaluate a single time step and seed it with the adjoints of its results
+		final TimeSlice end = getTimeSliceEvolved(start);
+
+		RandomVariable objective = null;
+		for(int componentIndex = 0; componentIndex < getNumberOfComponents(); componentIndex++) {
+			RandomVariable adjointOfProcessValue = adjointsOfProcessValue[endTimeIndex] != null ? adjointsOfProcessValue[endTimeIndex][componentIndex] : null;
+			RandomVariable adjointOfState = null;
+			if(adjointsAtEnd != null) {
+				adjointOfProcessValue = add(adjointOfProcessValue, adjointsAtEnd.processValue[componentIndex]);
+				adjointOfState = adjointsAtEnd.state[componentIndex];
+			}
+			if(adjointOfProcessValue != null) {
+				objective = add(objective, end.processValue[componentIndex].mult(adjointOfProcessValue));
+			}
+			if(adjointOfState != null) {
+				objective = add(objective, end.state[componentIndex].mult(adjointOfState));
+			}
+		}
+
+		if(!(objective instanceof RandomVariableDifferentiable)) {
+			return null;
+		}
+
+		final Map<Long, RandomVariable> gradientOfStep = ((RandomVariableDifferentiable)objective).getGradient();
+
+		// Extract the adjoints with respect to the (independent) start of the time step. The initial value is differentiated through.
+		final RandomVariable[] adjointsOfStateAtStart = new RandomVariable[getNumberOfComponents()];
+		final RandomVariable[] adjointsOfProcessValueAtStart = new RandomVariable[getNumberOfComponents()];
+		if(start.timeIndex > 0) {
+			for(int componentIndex = 0; componentIndex < getNumberOfComponents(); componentIndex++) {
+				adjointsOfStateAtStart[componentIndex] = removeDerivative(gradientOfStep, start.state[componentIndex]);
+				adjointsOfProcessValueAtStart[componentIndex] = removeDerivative(gradientOfStep, start.processValue[componentIndex]);
+			}
+		}
+
+		for(final Map.Entry<Long, RandomVariable> entry : gradientOfStep.entrySet()) {
+			gradient.merge(entry.getKey(), entry.getValue(), RandomVariable::add);
+		}
+
+		return new TimeSlice(start.timeIndex, adjointsOfStateAtStart, adjointsOfProcessValueAtStart);
+	}
+
+	private void doInitialize() {
+		final int numberOfComponents = getNumberOfComponents();
+
+		final RandomVariable[] initialState = getInitialState();
+		final RandomVariable[] state = new RandomVariable[numberOfComponents];
+		final RandomVariable[] processValue = new RandomVariable[numberOfComponents];
+		for (int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
+			state[componentIndex] = initialState[componentIndex];
+			processValue[componentIndex] = applyStateSpaceTransform(0, componentIndex, state[componentIndex]);
+		}
+
+		checkpoints = new TreeMap<>();
+		checkpoints.put(0, new TimeSlice(0, state, processValue));
+		currentTimeSlice = checkpoints.get(0);
+		timeIndexAndComponentIndexOfIndependent = new HashMap<>();
+	}
+
+	/**
+	 * Evolve the current time slice to the given time index, starting from the closest preceding stored checkpoint
+	 * if the given time index is prior to the current time index or a closer checkpoint is available.
+	 *
+	 * @param timeIndex The target time index.
+	 */
+	private void evolveTo(final int timeIndex) {
+		final TimeSlice checkpoint = checkpoints.floorEntry(timeIndex).getValue();
+		if(currentTimeSlice.timeIndex > timeIndex || currentTimeSlice.timeIndex < checkpoint.timeIndex) {
+			currentTimeSlice = checkpoint;
+		}
+
+		isEvolving = true;
+		try {
+			while(currentTimeSlice.timeIndex < timeIndex) {
+				currentTimeSlice = getIndependent(getTimeSliceEvolved(currentTimeSlice));
+				if(Arrays.binarySearch(checkpointTimeIndices, currentTimeSlice.timeIndex) >= 0) {
+					checkpoints.putIfAbsent(currentTimeSlice.timeIndex, currentTimeSlice);
+				}
+			}
+		}
+		finally {
+			isEvolving = false;
+		}
+	}
+
+	/**
+	 * Evolve the process from the time index of the given time slice to the next time index.
+	 *
+	 * @param timeSlice The time slice at timeIndex-1.
+	 * @return The time slice at timeIndex.
+	 */
+	private TimeSlice getTimeSliceEvolved(final TimeSlice timeSlice) {
+		final int timeIndex = timeSlice.timeIndex + 1;
+
+		final RandomVariable[] state = timeSlice.state.clone();
+		final RandomVariable[] processValue = EulerSchemeFromProcessModel.getProcessValueEvolved(this, scheme, null, getNumberOfComponents(), timeIndex, timeSlice.processValue, state);
+
+		return new TimeSlice(timeIndex, state, processValue);
+	}
+
+	/**
+	 * Returns a time slice where all differentiable random variables are replaced by independent copies,
+	 * releasing the operator graph of the time step.
+	 *
+	 * @param timeSlice A time slice.
+	 * @return The time slice with independent copies.
+	 */
+	private static TimeSlice getIndependent(final TimeSlice timeSlice) {
+		return new TimeSlice(timeSlice.timeIndex, getIndependent(timeSlice.state), getIndependent(timeSlice.processValue));
+	}
+
+	private static RandomVariable[] getIndependent(final RandomVariable[] randomVariables) {
+		final RandomVariable[] independents = new RandomVariable[randomVariables.length];
+		for(int componentIndex = 0; componentIndex < randomVariables.length; componentIndex++) {
+			final RandomVariable randomVariable = randomVariables[componentIndex];
+			independents[componentIndex] = randomVariable instanceof RandomVariableDifferentiable ? ((RandomVariableDifferentiable)randomVariable).getCloneIndependent() : randomVariable;
+		}
+		return independents;
+	}
+
+	private static RandomVariable removeDerivative(final Map<Long, RandomVariable> gradient, final RandomVariable randomVariable) {
+		return randomVariable instanceof RandomVariableDifferentiable ? gradient.remove(((RandomVariableDifferentiable)randomVariable).getID()) : null;
+	}
+
+	private static RandomVariable add(final RandomVariable summand1, final RandomVariable summand2) {
+		if(summand1 == null) {
+			return summand2;
+		}
+		else if(summand2 == null) {
+			return summand1;
+		}
+		else {
+			return summand1.add(summand2);
+		}
+	}
+
+	/**
+	 * @return Returns the numberOfPaths.
+	 */
+	@Override
+	public int getNumberOfPaths() {
+		return stochasticDriver.getNumberOfPaths();
+	}
+
+	/**
+	 * @return Returns the numberOfFactors.
+	 */
+	@Override
+	public int getNumberOfFactors() {
+		return stochasticDriver.getNumberOfFactors();
+	}
+
+	/**
+	 * @return Returns the independent increments interface used in the generation of the process
+	 */
+	@Override
+	public IndependentIncrements getStochasticDriver() {
+		return stochasticDriver;
+	}
+
+	/**
+	 * @return Returns the scheme.
+	 */
+	public Scheme getScheme() {
+		return scheme;
+	}
+
+	/**
+	 * @return Returns the checkpoint time indices.
+	 */
+	public int[] getCheckpointTimeIndices() {
+		return checkpointTimeIndices.clone();
+	}
+
+	@Override
+	public EulerSchemeFromProcessModelCheckpointing clone() {
+		return new EulerSchemeFromProcessModelCheckpointing(getModel(), getStochasticDriver(), scheme, checkpointTimeIndices);
+	}
+
+	@Override
+	public MonteCarloProcess getCloneWithModifiedModel(final ProcessModel model) {
+		return new EulerSchemeFromProcessModelCheckpointing(model, getStochasticDriver(), scheme, checkpointTimeIndices);
+	}
+
+	@Override
+	public MonteCarloProcess getCloneWithModifiedData(final Map<String, Object> dataModified) {
+		final ProcessModel newModel = (ProcessModel) dataModified.getOrDefault("model", getModel());
+
+		if(dataModified.containsKey("seed") && dataModified.containsKey("stochasticDriver")) {
+			throw new IllegalArgumentException("Simultaneous specification of stochasticDriver and seed.");
+		}
+
+		final IndependentIncrements newStochasticDriver;
+		if(dataModified.containsKey("seed")) {
+			newStochasticDriver = getStochasticDriver().getCloneWithModifiedSeed((int)dataModified.get("seed"));
+		}
+		else if(dataModified.containsKey("stochasticDriver")) {
+			newStochasticDriver = (IndependentIncrements) dataModified.getOrDefault("stochasticDriver", stochasticDriver);
+		}
+		else {
+			newStochasticDriver = stochasticDriver;
+		}
+
+		final Scheme newScheme = (Scheme) dataModified.getOrDefault("scheme", scheme);
+
+		return new EulerSchemeFromProcessModelCheckpointing(newModel, newStochasticDriver, newScheme, checkpointTimeIndices);
+	}
+
+	@Override
+	public Object getCloneWithModifiedSeed(final int seed) {
+		return new EulerSchemeFromProcessModelCheckpointing(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed), scheme, checkpointTimeIndices);
+	}
+
+	@Override
+	public String toString() {
+		return "EulerSchemeFromProcessModelCheckpointing [stochasticDriver=" + stochasticDriver + ", scheme=" + scheme
+				+ ", checkpointTimeIndices=" + Arrays.toString(checkpointTimeIndices) + "]";
+	}
+}
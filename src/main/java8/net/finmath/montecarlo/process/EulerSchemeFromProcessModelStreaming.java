@@ -0,0 +1,302 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.finmath.montecarlo.IndependentIncrements;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.Scheme;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * This class implements a forward streaming version of the numerical schemes of {@link EulerSchemeFromProcessModel}.
+ *
+ * <p>
+ * In contrast to {@link EulerSchemeFromProcessModel}, this class does not store the whole (discrete) process.
+ * Only the process at a single time index (the current time slice) is kept in memory. The memory requirement
+ * hence is of order <i>numberOfComponents</i> &times; <i>numberOfPaths</i>, independent of the number of time steps.
+ * The generated realizations are identical to those of {@link EulerSchemeFromProcessModel} using the same model,
+ * stochastic driver and scheme.
+ * </p>
+ *
+ * <p>
+ * The class can be used in two ways:
+ * <ul>
+ * 	<li>Push: consumers register the time indices they require via {@link #addTimeSliceConsumer(int[], TimeSliceConsumer)}.
+ * 	A call to {@link #run()} evolves the process once from the initial time up to the largest registered time index,
+ * 	hands each registered time slice to its consumers (in the order of registration) and drops it afterwards.</li>
+ * 	<li>Pull: {@link #getProcessValue(int, int)} evolves the current time slice forward to the requested time index.
+ * 	Forward (non-decreasing) access is efficient. Accessing a time index prior to the current one restarts the
+ * 	evolution from the initial time. Hence, this mode is suitable for products observing the process in
+ * 	increasing time order only.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Note: models which access the process at time indices different from the current time slice during the
+ * calculation of drift or factor loadings are not supported and will result in an exception caused by an {@link IllegalStateException}.
+ * </p>
+ *
+ * @author agent
+ * @see EulerSchemeFromProcessModel
+ * @version 1.0
+ */
+public class EulerSchemeFromProcessModelStreaming extends MonteCarloProcessFromProcessModel {
+
+	/**
+	 * A consumer of a time slice of the process.
+	 *
+	 * @author agent
+	 */
+	@FunctionalInterface
+	public interface TimeSliceConsumer {
+
+		/**
+		 * Consume the time slice of the process at a given time index.
+		 * The receiver should not keep a reference to the array, but may keep references to its elements.
+		 *
+		 * @param timeIndex The time index of the time slice.
+		 * @param processValue The vector of process realizations at the given time index (one random variable per component).
+		 */
+		void accept(int timeIndex, RandomVariable[] processValue);
+	}
+
+	private final IndependentIncrements stochasticDriver;
+
+	private final Scheme scheme;
+
+	// Registered consumers, sorted by time index
+	private final TreeMap<Integer, List<TimeSliceConsumer>> timeSliceConsumers = new TreeMap<>();
+
+	/*
+	 * The current time slice of the simulated stochastic process.
+	 */
+	private transient int					currentTimeIndex = -1;
+	private transient RandomVariable[]		currentProcessValue;
+	private transient RandomVariable[]		currentState;
+	private transient boolean				isEvolving = false;
+
+	/**
+	 * Create a streaming Euler discretization scheme.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 * @param scheme The scheme to use. See {@link Scheme}.
+	 */
+	public EulerSchemeFromProcessModelStreaming(final ProcessModel model, final IndependentIncrements stochasticDriver, final Scheme scheme) {
+		super(stochasticDriver.getTimeDiscretization(), model);
+		this.stochasticDriver = stochasticDriver;
+		this.scheme = scheme;
+	}
+
+	/**
+	 * Create a streaming Euler discretization scheme using the same default scheme as {@link EulerSchemeFromProcessModel}.
+	 *
+	 * @param model The model (the SDE specification) used to generate the (sampling of the) stochastic process.
+	 * @param stochasticDriver The stochastic driver of the process (e.g. a Brownian motion).
+	 */
+	public EulerSchemeFromProcessModelStreaming(final ProcessModel model, final IndependentIncrements stochasticDriver) {
+		this(model, stochasticDriver, EulerSchemeFromProcessModel.getDefaultScheme(model));
+	}
+
+	/**
+	 * Register a consumer for the time slices at the given time indices.
+	 * The consumer is called during the next call of {@link #run()}.
+	 *
+	 * @param timeIndices The time indices at which the consumer requires the process.
+	 * @param consumer The consumer.
+	 */
+	public synchronized void addTimeSliceConsumer(final int[] timeIndices, final TimeSliceConsumer consumer) {
+		for(final int timeIndex : timeIndices) {
+			if(timeIndex < 0 || timeIndex > getTimeDiscretization().getNumberOfTimeSteps()) {
+				throw new ArrayIndexOutOfBoundsException("Index " + timeIndex + " for process time discretization out of bounds.");
+			}
+			timeSliceConsumers.computeIfAbsent(timeIndex, k -> new ArrayList<>()).add(consumer);
+		}
+	}
+
+	/**
+	 * Evolve the process from the initial time up to the largest registered time index and
+	 * hand the registered time slices to their consumers. Each time slice is dropped after it has been consumed.
+	 *
+	 * After this call, all registered consumers are removed.
+	 */
+	public synchronized void run() {
+		try {
+			for(final Map.Entry<Integer, List<TimeSliceConsumer>> entry : timeSliceConsumers.entrySet()) {
+				final int timeIndex = entry.getKey();
+				evolveTo(timeIndex);
+				for(final TimeSliceConsumer consumer : entry.getValue()) {
+					consumer.accept(timeIndex, currentProcessValue.clone());
+				}
+			}
+		}
+		finally {
+			timeSliceConsumers.clear();
+		}
+	}
+
+	/**
+	 * This method returns the realization of the process at a certain time index.
+	 * Forward access is efficient, access to a time index prior to the current time index restarts the evolution.
+	 *
+	 * @param timeIndex Time index at which the process should be observed
+	 * @return A vector of process realizations (on path)
+	 */
+	@Override
+	public synchronized RandomVariable getProcessValue(final int timeIndex, final int componentIndex) {
+		if(timeIndex != currentTimeIndex) {
+			if(isEvolving) {
+				throw new IllegalStateException("Access to process at time index " + timeIndex + " while evolving time index " + currentTimeIndex + " is not supported by the streaming scheme.");
+			}
+			evolveTo(timeIndex);
+		}
+
+		return currentProcessValue[componentIndex];
+	}
+
+	@Override
+	public RandomVariable getMonteCarloWeights(final int timeIndex) {
+		return stochasticDriver.getRandomVariableForConstant(1.0 / getNumberOfPaths());
+	}
+
+	/**
+	 * Evolve the current time slice to the given time index. If the given time index is prior to the current time index,
+	 * the evolution is restarted from the initial value.
+	 *
+	 * @param timeIndex The target time index.
+	 */
+	private void evolveTo(final int timeIndex) {
+		if(timeIndex < 0 || timeIndex > getTimeDiscretization().getNumberOfTimeSteps()) {
+			throw new ArrayIndexOutOfBoundsException("Index " + timeIndex + " for process time discretization out of bounds.");
+		}
+
+		isEvolving = true;
+		try {
+			if(currentTimeIndex < 0 || timeIndex < currentTimeIndex) {
+				doInitialize();
+			}
+			while(currentTimeIndex < timeIndex) {
+				doEvolveTimeStep(currentTimeIndex+1);
+			}
+		}
+		catch(final RuntimeException e) {
+			// Invalidate state
+			currentTimeIndex = -1;
+			currentProcessValue = null;
+			currentState = null;
+			throw e;
+		}
+		finally {
+			isEvolving = false;
+		}
+	}
+
+	private void doInitialize() {
+		final int numberOfComponents = getNumberOfComponents();
+
+		final RandomVariable[] initialState = getInitialState();
+		currentState = new RandomVariable[numberOfComponents];
+		currentProcessValue = new RandomVariable[numberOfComponents];
+		currentTimeIndex = 0;
+		for (int componentIndex = 0; componentIndex < numberOfComponents; componentIndex++) {
+			currentState[componentIndex] = initialState[componentIndex];
+			currentProcessValue[componentIndex] = applyStateSpaceTransform(0, componentIndex, currentState[componentIndex]);
+		}
+	}
+
+	/**
+	 * Evolve the process from timeIndex-1 to timeIndex.
+	 *
+	 * @param timeIndex The time index to evolve to.
+	 */
+	private void doEvolveTimeStep(final int timeIndex) {
+		final RandomVariable[] processValue = EulerSchemeFromProcessModel.getProcessValueEvolved(this, scheme, null, getNumberOfComponents(), timeIndex, currentProcessValue, currentState);
+
+		// Drop the previous time slice
+		currentProcessValue = processValue;
+		currentTimeIndex = timeIndex;
+	}
+
+	/**
+	 * @return Returns the numberOfPaths.
+	 */
+	@Override
+	public int getNumberOfPaths() {
+		return stochasticDriver.getNumberOfPaths();
+	}
+
+	/**
+	 * @return Returns the numberOfFactors.
+	 */
+	@Override
+	public int getNumberOfFactors() {
+		return stochasticDriver.getNumberOfFactors();
+	}
+
+	/**
+	 * @return Returns the independent increments interface used in the generation of the process
+	 */
+	@Override
+	public IndependentIncrements getStochasticDriver() {
+		return stochasticDriver;
+	}
+
+	/**
+	 * @return Returns the scheme.
+	 */
+	public Scheme getScheme() {
+		return scheme;
+	}
+
+	@Override
+	public EulerSchemeFromProcessModelStreaming clone() {
+		return new EulerSchemeFromProcessModelStreaming(getModel(), getStochasticDriver(), scheme);
+	}
+
+	@Override
+	public MonteCarloProcess getCloneWithModifiedModel(final ProcessModel model) {
+		return new EulerSchemeFromProcessModelStreaming(model, getStochasticDriver(), scheme);
+	}
+
+	@Override
+	public MonteCarloProcess getCloneWithModifiedData(final Map<String, Object> dataModified) {
+		final ProcessModel newModel = (ProcessModel) dataModified.getOrDefault("model", getModel());
+
+		if(dataModified.containsKey("seed") && dataModified.containsKey("stochasticDriver")) {
+			throw new IllegalArgumentException("Simultaneous specification of stochasticDriver and seed.");
+		}
+
+		final IndependentIncrements newStochasticDriver;
+		if(dataModified.containsKey("seed")) {
+			newStochasticDriver = getStochasticDriver().getCloneWithModifiedSeed((int)dataModified.get("seed"));
+		}
+		else if(dataModified.containsKey("stochasticDriver")) {
+			newStochasticDriver = (IndependentIncrements) dataModified.getOrDefault("stochasticDriver", stochasticDriver);
+		}
+		else {
+			newStochasticDriver = stochasticDriver;
+		}
+
+		final Scheme newScheme = (Scheme) dataModified.getOrDefault("scheme", scheme);
+
+		return new EulerSchemeFromProcessModelStreaming(newModel, newStochasticDriver, newScheme);
+	}
+
+	@Override
+	public Object getCloneWithModifiedSeed(final int seed) {
+		return new EulerSchemeFromProcessModelStreaming(getModel(), getStochasticDriver().getCloneWithModifiedSeed(seed), scheme);
+	}
+
+	@Override
+	public String toString() {
+		return "EulerSchemeFromProcessModelStreaming [stochasticDriver=" + stochasticDriver + ", scheme=" + scheme + "]";
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.products;
+
+import net.finmath.montecarlo.MonteCarloProduct;
+
+/**
+ * Interface implemented by products whose value is a weighted sum of the values of other products, that is
+ * \( V(t) = \sum_{i} w_{i} V_{i}(t) \),
+ * where \( V_{i} \) is the value of the component <code>getComponents()[i]</code> and
+ * \( w_{i} \) is the weight <code>getComponentWeights()[i]</code>.
+ *
+ * The decomposition has to hold for all evaluation times and all models. It allows
+ * a valuation engine (like {@link PortfolioMonteCarloProduct}) to value the components
+ * independently, e.g., in parallel.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public interface MonteCarloProductComposite extends MonteCarloProduct {
+
+	/**
+	 * Returns the components of this product.
+	 *
+	 * @return The components of this product.
+	 */
+	MonteCarloProduct[] getComponents();
+
+	/**
+	 * Returns the weights of the components of this product.
+	 *
+	 * @return The weights of the components, an array having the same length as <code>getComponents()</code>.
+	 */
+	double[] getComponentWeights();
+}
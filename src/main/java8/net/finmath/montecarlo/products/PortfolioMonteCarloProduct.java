@@ -7,28 +7,43 @@
 package net.finmath.montecarlo.products;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Vector;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import net.finmath.exception.CalculationException;
 import net.finmath.montecarlo.AbstractMonteCarloProduct;
 import net.finmath.montecarlo.MonteCarloProduct;
 import net.finmath.montecarlo.MonteCarloSimulationModel;
+import net.finmath.montecarlo.interestrate.LIBORModelMonteCarloSimulationModel;
 import net.finmath.stochastic.RandomVariable;
 
 /**
  * A portfolio of products, each product being of AbstractMonteCarloProduct type.
  * The valuation is performed multi-threaded over the portfolio of products.
  *
+ * The valuation runs on a shared <code>ForkJoinPool</code>. Products implementing {@link MonteCarloProductComposite}
+ * (like swaps, swap legs and product collections) are decomposed into their components, such that idle threads
+ * may steal work at the granularity of the components (e.g. the periods of a swap leg). The components are
+ * scheduled by estimated cost (the number of leaf components), largest first. The results are summed in the order
+ * of the components, such that the value does not depend on the scheduling.
+ *
+ * If the model is a {@link LIBORModelMonteCarloSimulationModel}, the (lazily initialized) numeraire cache of the model
+ * is filled once before the parallel valuation starts, such that the tasks do not contend for it. This can be disabled
+ * via the system property <code>net.finmath.montecarlo.products.PortfolioMonteCarloProduct.isPrewarmModelCaches</code>.
+ *
  * @author Christian Fries
- * @version 1.0
+ * @version 1.1
  */
-public class PortfolioMonteCarloProduct extends AbstractMonteCarloProduct {
+public class PortfolioMonteCarloProduct extends AbstractMonteCarloProduct implements MonteCarloProductComposite {
+
+	private static final boolean isPrewarmModelCaches = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.products.PortfolioMonteCarloProduct.isPrewarmModelCaches","true"));
+
+	private static final Map<Integer, ForkJoinPool> sharedExecutors = new ConcurrentHashMap<>();
 
 	private final MonteCarloProduct[] products;
 	private final double[] weights;
@@ -40,7 +55,7 @@ public class PortfolioMonteCarloProduct extends AbstractMonteCarloProduct {
 	 *
 	 * @param products An array of products.
 	 * @param weights An array of weights.
-	 * @param numberOfThreads Number of parallel threads to used. Required to be &gt; 0.
+	 * @param numberOfThreads Number of parallel threads to used. Required to be &gt; 0. If empty, the common <code>ForkJoinPool</code> is used.
 	 */
 	public PortfolioMonteCarloProduct(
 			final MonteCarloProduct[] products,
@@ -90,6 +105,16 @@ public class PortfolioMonteCarloProduct extends AbstractMonteCarloProduct {
 		return weightsOfOne;
 	}
 
+	@Override
+	public MonteCarloProduct[] getComponents() {
+		return products.clone();
+	}
+
+	@Override
+	public double[] getComponentWeights() {
+		return weights.clone();
+	}
+
 	@Override
 	public RandomVariable getValue(final double evaluationTime, final MonteCarloSimulationModel model) throws CalculationException {
 
@@ -97,37 +122,123 @@ public class PortfolioMonteCarloProduct extends AbstractMonteCarloProduct {
 			return null;
 		}
 
-		final int numberOfThreadsEffective = numberOfThreads.orElse(Runtime.getRuntime().availableProcessors());
-		final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreadsEffective);
+		final ValuationTask valuationTask = new ValuationTask(this, 1.0, evaluationTime, model);
+
+		if(isPrewarmModelCaches && valuationTask.getCost() > 1) {
+			prewarmModelCaches(model);
+		}
 
-		RandomVariable value = null;
+		final ForkJoinPool executor = numberOfThreads.isPresent() ? sharedExecutors.computeIfAbsent(numberOfThreads.get(), ForkJoinPool::new) : ForkJoinPool.commonPool();
 		try {
-			// Start calculation threads for each product
-			final Vector<Future<RandomVariable>> values = new Vector<>(products.length);
-			for(int i=0; i<products.length; i++) {
-				final MonteCarloProduct product = products[i];
-				final double weight = weights[i];
-
-				final Callable<RandomVariable> worker = new  Callable<RandomVariable>() {
-					@Override
-					public RandomVariable call() throws CalculationException {
-						return product.getValue(evaluationTime, model).mult(weight);
-					}
-				};
-				values.add(i, executor.submit(worker));
+			return executor.invoke(valuationTask);
+		}
+		catch(final RuntimeException e) {
+			// Unwrap the checked exception of the valuation
+			for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if(cause instanceof CalculationException) {
+					throw (CalculationException)cause;
+				}
 			}
+			throw e;
+		}
+	}
 
-			// Collect and sum results
-			value = values.get(0).get();
-			for(int i=1; i<products.length; i++) {
-				value = value.add(values.get(i).get());
+	/**
+	 * Fills the lazily initialized numeraire cache of a LIBOR model (and, through it, triggers the simulation of the LIBORs),
+	 * such that the parallel valuation does not start by contending for it.
+	 *
+	 * @param model The model.
+	 * @throws CalculationException Thrown if the numeraire calculation failed.
+	 */
+	private static void prewarmModelCaches(final MonteCarloSimulationModel model) throws CalculationException {
+		if(model instanceof LIBORModelMonteCarloSimulationModel) {
+			final LIBORModelMonteCarloSimulationModel liborModel = (LIBORModelMonteCarloSimulationModel)model;
+			final double lastTime = liborModel.getTimeDiscretization().getLastTime();
+			for(final double time : liborModel.getLiborPeriodDiscretization()) {
+				if(time > lastTime) {
+					break;
+				}
+				liborModel.getNumeraire(time);
 			}
-		} catch (InterruptedException | ExecutionException e) {
-			throw new CalculationException(e.getCause());
-		} finally {
-			executor.shutdown();
 		}
+	}
 
-		return value;
+	/**
+	 * Task valuing a product, decomposing it into sub-tasks if it is a {@link MonteCarloProductComposite}.
+	 * The value of the task is the value of the product multiplied by the weight.
+	 */
+	private static class ValuationTask extends RecursiveTask<RandomVariable> {
+
+		private static final long serialVersionUID = 5106474372436396133L;
+
+		private final MonteCarloProduct product;
+		private final double weight;
+		private final double evaluationTime;
+		private final MonteCarloSimulationModel model;
+
+		private final ValuationTask[] subTasks;
+		private final int cost;
+
+		ValuationTask(final MonteCarloProduct product, final double weight, final double evaluationTime, final MonteCarloSimulationModel model) {
+			this.product = product;
+			this.weight = weight;
+			this.evaluationTime = evaluationTime;
+			this.model = model;
+
+			final MonteCarloProduct[] components = product instanceof MonteCarloProductComposite ? ((MonteCarloProductComposite)product).getComponents() : null;
+			if(components != null && components.length > 0) {
+				final double[] componentWeights = ((MonteCarloProductComposite)product).getComponentWeights();
+				subTasks = new ValuationTask[components.length];
+				int costOfSubTasks = 0;
+				for(int i=0; i<components.length; i++) {
+					subTasks[i] = new ValuationTask(components[i], componentWeights[i], evaluationTime, model);
+					costOfSubTasks += subTasks[i].getCost();
+				}
+				cost = costOfSubTasks;
+			}
+			else {
+				subTasks = null;
+				cost = 1;
+			}
+		}
+
+		/**
+		 * Returns the estimated cost of this task, which is the number of products valued by the task.
+		 *
+		 * @return The estimated cost of this task.
+		 */
+		int getCost() {
+			return cost;
+		}
+
+		@Override
+		protected RandomVariable compute() {
+			RandomVariable value;
+			if(subTasks == null) {
+				try {
+					value = product.getValue(evaluationTime, model);
+				}
+				catch(final CalculationException e) {
+					throw new CompletionException(e);
+				}
+			}
+			else {
+				// Fork all but the most expensive sub-task, largest first, such that idle threads steal the expensive ones
+				final ValuationTask[] subTasksByCost = subTasks.clone();
+				Arrays.sort(subTasksByCost, Comparator.comparingInt(ValuationTask::getCost).reversed());
+				for(int i=1; i<subTasksByCost.length; i++) {
+					subTasksByCost[i].fork();
+				}
+				subTasksByCost[0].invoke();
+
+				// Sum in the order of the components
+				value = subTasks[0].join();
+				for(int i=1; i<subTasks.length; i++) {
+					value = value.add(subTasks[i].join());
+				}
+			}
+
+			return weight == 1.0 ? value : value.mult(weight);
+		}
 	}
 }
@@ -8,11 +8,14 @@ package net.finmath.optimizer;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
@@ -109,17 +112,32 @@ import net.finmath.functions.LinearAlgebra;
  * this way the implementation of <code>setValues</code> must be thread-safe.
  * The solver will evaluate the gradient of the value vector in parallel, i.e.,
  * use as many threads as the number of parameters.
+ * If no executor is provided, the solver uses an executor with the given number of threads which is shared among all
+ * optimizers (see {@link #getSharedExecutor(int)}). To create (and shut down) a dedicated executor for each run, set the system property
+ * <code>net.finmath.optimizer.LevenbergMarquardt.isUseSharedExecutor</code> to false.
+ * </p>
+ *
+ * <p>
+ * If the evaluation of the objective function is expensive, the solver may be configured to
+ * replace the re-calculation of the Jacobian after an accepted step by a rank-one (Broyden) update
+ * \( J \leftarrow J + \frac{(\Delta f - J \Delta x) \Delta x^T}{\Delta x^T \Delta x} \),
+ * see {@link #setMaxNumberOfBroydenUpdates(int)}. The full Jacobian is re-calculated after the given number of updates
+ * and whenever a step calculated from an updated Jacobian is rejected.
  * </p>
  *
  * Note: Iteration steps will be logged (java.util.logging) with LogLevel.FINE
  *
  * @author Christian Fries
- * @version 1.6
+ * @version 1.7
  */
 public abstract class LevenbergMarquardt implements Serializable, Cloneable, Optimizer {
 
 	private static final long serialVersionUID = 4560864869394838155L;
 
+	private static final boolean isUseSharedExecutor = Boolean.parseBoolean(System.getProperty("net.finmath.optimizer.LevenbergMarquardt.isUseSharedExecutor","true"));
+
+	private static final Map<Integer, ExecutorService> sharedExecutors = new ConcurrentHashMap<>();
+
 	/**
 	 * The regularization method used to invert the approximation of the
 	 * Hessian matrix.
@@ -170,6 +188,10 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 
 	private boolean isParameterCurrentDerivativeValid = false;
 
+	// Rank-one (Broyden) updates of the Jacobian between full calculations (0 disables the updates)
+	private int maxNumberOfBroydenUpdates = 0;
+	private int numberOfBroydenUpdates = 0;
+
 	// These members will be updated in each iteration. These are members to prevent repeated memory allocation.
 	private double[][]	hessianMatrix = null;
 	private double[]	beta = null;
@@ -514,6 +536,74 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		this.lambdaDivisor = lambdaDivisor;
 	}
 
+	/**
+	 * Get the maximum number of rank-one (Broyden) updates of the Jacobian performed between two full calculations of the Jacobian.
+	 *
+	 * @return the maximum number of Broyden updates (0 if the Jacobian is re-calculated after every accepted step).
+	 */
+	public int getMaxNumberOfBroydenUpdates() {
+		return maxNumberOfBroydenUpdates;
+	}
+
+	/**
+	 * Set the maximum number of rank-one (Broyden) updates of the Jacobian performed between two full calculations of the Jacobian.
+	 *
+	 * After an accepted step \( \Delta x \) with value change \( \Delta f \) the Jacobian is updated by
+	 * \( J \leftarrow J + \frac{(\Delta f - J \Delta x) \Delta x^T}{\Delta x^T \Delta x} \)
+	 * instead of calling {@link #setDerivatives(double[], double[][])}, which (for finite differences) requires one evaluation
+	 * of the objective function per parameter. The full Jacobian is re-calculated after the given number of updates and whenever
+	 * a step calculated from an updated Jacobian is rejected.
+	 *
+	 * @param maxNumberOfBroydenUpdates The maximum number of Broyden updates. If 0 (default), the Jacobian is re-calculated after every accepted step.
+	 * @return Self reference to this optimizer.
+	 */
+	public LevenbergMarquardt setMaxNumberOfBroydenUpdates(final int maxNumberOfBroydenUpdates) {
+		if(done()) {
+			throw new UnsupportedOperationException("Solver cannot be modified after it has run.");
+		}
+		if(maxNumberOfBroydenUpdates < 0) {
+			throw new IllegalArgumentException("Parameter maxNumberOfBroydenUpdates is required to be >= 0.");
+		}
+		this.maxNumberOfBroydenUpdates = maxNumberOfBroydenUpdates;
+		return this;
+	}
+
+	/**
+	 * Returns a long-lived executor with the given number of threads, shared by all optimizers which are not
+	 * provided with an executor. The executor uses daemon threads and must not be shut down.
+	 *
+	 * The executor is a work-stealing pool, such that objective functions running an optimizer themselves
+	 * (using the same executor) do not block the executor.
+	 *
+	 * @param numberOfThreads The number of threads.
+	 * @return The shared executor for the given number of threads.
+	 */
+	public static ExecutorService getSharedExecutor(final int numberOfThreads) {
+		return sharedExecutors.computeIfAbsent(numberOfThreads, ForkJoinPool::new);
+	}
+
+	/**
+	 * Release an executor used by a run of an optimizer. Shared executors are not shut down.
+	 *
+	 * @param executor The executor.
+	 */
+	static void releaseExecutor(final ExecutorService executor) {
+		if(!sharedExecutors.containsValue(executor)) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns an executor with the given number of threads for a run of an optimizer.
+	 * The executor has to be released by {@link #releaseExecutor(ExecutorService)}.
+	 *
+	 * @param numberOfThreads The number of threads.
+	 * @return The executor.
+	 */
+	static ExecutorService getExecutor(final int numberOfThreads) {
+		return isUseSharedExecutor ? getSharedExecutor(numberOfThreads) : Executors.newFixedThreadPool(numberOfThreads);
+	}
+
 	@Override
 	public double[] getBestFitParameters() {
 		return parameterCurrent;
@@ -641,7 +731,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		// Create an executor for concurrent evaluation of derivatives
 		if(numberOfThreads > 1) {
 			if(executor == null) {
-				executor = Executors.newFixedThreadPool(numberOfThreads);
+				executor = getExecutor(numberOfThreads);
 				executorShutdownWhenDone = true;
 			}
 		}
@@ -664,6 +754,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 			beta = new double[parameterCurrent.length];
 
 			iteration = 0;
+			numberOfBroydenUpdates = 0;
 
 			while(true) {
 				// Count iterations
@@ -682,14 +773,20 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 				if(errorMeanSquaredTest < errorMeanSquaredCurrent) {
 					errorRootMeanSquaredChange = Math.sqrt(errorMeanSquaredCurrent) - Math.sqrt(errorMeanSquaredTest);
 
+					if(isParameterCurrentDerivativeValid && numberOfBroydenUpdates < maxNumberOfBroydenUpdates) {
+						// Derivative is updated
+						updateDerivativeBroyden();
+					}
+					else {
+						// Derivative has to be recalculated
+						isParameterCurrentDerivativeValid = false;
+					}
+
 					// Accept point
 					System.arraycopy(parameterTest, 0, parameterCurrent, 0, parameterCurrent.length);
 					System.arraycopy(valueTest, 0, valueCurrent, 0, valueCurrent.length);
 					errorMeanSquaredCurrent		= errorMeanSquaredTest;
 
-					// Derivative has to be recalculated
-					isParameterCurrentDerivativeValid = false;
-
 					// Decrease lambda (move faster)
 					lambda			/= lambdaDivisor;
 				} else {
@@ -697,6 +794,11 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 
 					// Reject point, increase lambda (move slower)
 					lambda				*= lambdaMultiplicator;
+
+					// If the step was calculated from an updated derivative, the derivative has to be recalculated
+					if(numberOfBroydenUpdates > 0) {
+						isParameterCurrentDerivativeValid = false;
+					}
 				}
 
 				// Update a new parameter trial, if we are not done
@@ -724,7 +826,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		finally {
 			// Shutdown executor if present.
 			if(executor != null && executorShutdownWhenDone) {
-				executor.shutdown();
+				releaseExecutor(executor);
 				executor = null;
 			}
 		}
@@ -750,6 +852,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		if (!isParameterCurrentDerivativeValid) {
 			this.setDerivatives(parameterCurrent, derivativeCurrent);
 			isParameterCurrentDerivativeValid = true;
+			numberOfBroydenUpdates = 0;
 		}
 
 		/*
@@ -815,6 +918,36 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 		}
 	}
 
+	/**
+	 * Apply a rank-one (Broyden) update to the derivative, using the step from parameterCurrent to parameterTest,
+	 * that is \( J \leftarrow J + \frac{(\Delta f - J \Delta x) \Delta x^T}{\Delta x^T \Delta x} \).
+	 */
+	private void updateDerivativeBroyden() {
+		double parameterIncrementSquared = 0.0;
+		for (int i = 0; i < parameterCurrent.length; i++) {
+			final double parameterIncrementElement = parameterTest[i] - parameterCurrent[i];
+			parameterIncrementSquared += parameterIncrementElement * parameterIncrementElement;
+		}
+		if(parameterIncrementSquared == 0.0) {
+			return;
+		}
+
+		for (int valueIndex = 0; valueIndex < valueCurrent.length; valueIndex++) {
+			// Secant error (\Delta f - J \Delta x) / (\Delta x^T \Delta x)
+			double secantError = valueTest[valueIndex] - valueCurrent[valueIndex];
+			for (int i = 0; i < parameterCurrent.length; i++) {
+				secantError -= derivativeCurrent[i][valueIndex] * (parameterTest[i] - parameterCurrent[i]);
+			}
+			secantError /= parameterIncrementSquared;
+
+			for (int i = 0; i < parameterCurrent.length; i++) {
+				derivativeCurrent[i][valueIndex] += secantError * (parameterTest[i] - parameterCurrent[i]);
+			}
+		}
+
+		numberOfBroydenUpdates++;
+	}
+
 	/**
 	 * Create a clone of this LevenbergMarquardt optimizer.
 	 *
@@ -826,6 +959,7 @@ public abstract class LevenbergMarquardt implements Serializable, Cloneable, Opt
 	public LevenbergMarquardt clone() throws CloneNotSupportedException {
 		final LevenbergMarquardt clonedOptimizer = (LevenbergMarquardt)super.clone();
 		clonedOptimizer.isParameterCurrentDerivativeValid = false;
+		clonedOptimizer.numberOfBroydenUpdates = 0;
 		clonedOptimizer.iteration = 0;
 		clonedOptimizer.errorMeanSquaredCurrent	= Double.POSITIVE_INFINITY;
 		clonedOptimizer.errorRootMeanSquaredChange	= Double.POSITIVE_INFINITY;
@@ -12,7 +12,6 @@ import java.util.Vector;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
@@ -470,7 +469,7 @@ public abstract class StochasticLevenbergMarquardt implements Serializable, Clon
 		// Create an executor for concurrent evaluation of derivatives
 		if(numberOfThreads > 1) {
 			if(executor == null) {
-				executor = Executors.newFixedThreadPool(numberOfThreads);
+				executor = LevenbergMarquardt.getExecutor(numberOfThreads);
 				executorShutdownWhenDone = true;
 			}
 		}
@@ -623,7 +622,7 @@ public abstract class StochasticLevenbergMarquardt implements Serializable, Clon
 		finally {
 			// Shutdown executor if present.
 			if(executor != null && executorShutdownWhenDone) {
-				executor.shutdown();
+				LevenbergMarquardt.releaseExecutor(executor);
 				executor = null;
 			}
 		}
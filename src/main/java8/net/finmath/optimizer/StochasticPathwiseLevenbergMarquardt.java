@@ -12,7 +12,6 @@ import java.util.Vector;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
@@ -234,7 +233,7 @@ public abstract class StochasticPathwiseLevenbergMarquardt implements Serializab
 	 * @param numberOfThreads Maximum number of threads. <i>Warning</i>: If this number is larger than one, the implementation of setValues has to be thread safe!
 	 */
 	public StochasticPathwiseLevenbergMarquardt(final RandomVariable[] initialParameters, final RandomVariable[] targetValues, final int maxIteration, final int numberOfThreads) {
-		this(initialParameters, targetValues, null, null, maxIteration, null, numberOfThreads > 1 ? Executors.newFixedThreadPool(numberOfThreads) : null);
+		this(initialParameters, targetValues, null, null, maxIteration, null, numberOfThreads > 1 ? LevenbergMarquardt.getSharedExecutor(numberOfThreads) : null);
 	}
 
 	/**
@@ -624,7 +623,7 @@ public abstract class StochasticPathwiseLevenbergMarquardt implements Serializab
 		finally {
 			// Shutdown executor if present.
 			if(executor != null && executorShutdownWhenDone) {
-				executor.shutdown();
+				LevenbergMarquardt.releaseExecutor(executor);
 				executor = null;
 			}
 		}
@@ -228,6 +228,37 @@ public interface RandomVariable extends Serializable {
 	 */
 	double getQuantile(double quantile, RandomVariable probabilities);
 
+	/**
+	 * Returns the quantile values for a given vector of quantile levels, see {@link #getQuantile(double)}.
+	 * Implementations may override this method to calculate all quantiles from a single sort of the realizations.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The vector of quantile values assuming equi-distribution.
+	 */
+	default double[] getQuantiles(final double[] quantiles) {
+		final double[] quantileValues = new double[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = getQuantile(quantiles[i]);
+		}
+		return quantileValues;
+	}
+
+	/**
+	 * Returns the quantile values for a given vector of quantile levels, see {@link #getQuantile(double, RandomVariable)}.
+	 * Implementations may override this method to calculate all quantiles from a single sort of the realizations.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @param probabilities The probability weights.
+	 * @return The vector of quantile values assuming the given probability weights.
+	 */
+	default double[] getQuantiles(final double[] quantiles, final RandomVariable probabilities) {
+		final double[] quantileValues = new double[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			quantileValues[i] = getQuantile(quantiles[i], probabilities);
+		}
+		return quantileValues;
+	}
+
 	/**
 	 * Returns the expectation over a quantile for this given random variable.
 	 * The method will consider picewise constant values (with constant extrapolation) in the random variable.
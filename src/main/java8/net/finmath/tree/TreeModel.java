@@ -99,7 +99,7 @@ public interface TreeModel extends Model {
 	 *
 	 * Examples:
 	 *  - Binomial CRR/JR: {0, 1} interpreted as {up, down}
-	 *  - Trinomial Boyle: {0, 1, 2} interpreted as {up, mid, down}
+	 *  - Trinomial Boyle: {2, 1, 0} interpreted as {up, mid, down}
 	 *
 	 * Path-dependent products that build a full non-recombining tree (exponential growth)
 	 * can use this to map their parent recombining state index to the child's recombining
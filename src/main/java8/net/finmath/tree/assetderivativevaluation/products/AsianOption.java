@@ -16,7 +16,9 @@ package net.finmath.tree.assetderivativevaluation.products;
  *
  * The averaging can be performed on any subset of the time grid by specifying fixingTimeIndices.
  *
- * No path compression: number of nodes at level j is B^j.
+ * By default, the option is valued on the full path tree without compression: number of nodes at level j is B^j.
+ * If a number of representative states is given, the running sum is used as representative state of a
+ * node-compressed tree, see {@link AbstractPathDependentProduct}.
  */
 public class AsianOption extends AbstractPathDependentProduct {
 
@@ -35,11 +37,31 @@ public class AsianOption extends AbstractPathDependentProduct {
 		this.strike = strike;
 	}
 
+	/**
+	 * @param maturity Maturity in model time units.
+	 * @param strike Strike K.
+	 * @param fixingTimeIndices Subset of model time indices included in the average.
+	 * @param numberOfRepresentativeStates Number of representative running sums per node of the node-compressed tree.
+	 */
+	public AsianOption(
+			final double maturity,
+			final double strike,
+			final int[] fixingTimeIndices,
+			final int numberOfRepresentativeStates) {
+		super(maturity, fixingTimeIndices, numberOfRepresentativeStates);
+		this.strike = strike;
+	}
+
 	@Override
 	protected int getNumberOfStateVariables() {
 		return 2; // sum, count
 	}
 
+	@Override
+	protected int getRepresentativeStateIndex() {
+		return 0; // sum, the count only depends on the time index
+	}
+
 	@Override
 	protected void initializeState(
 			final double spotAtNode,
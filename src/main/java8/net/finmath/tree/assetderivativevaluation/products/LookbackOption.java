@@ -0,0 +1,118 @@
+package net.finmath.tree.assetderivativevaluation.products;
+
+import net.finmath.modelling.products.CallOrPut;
+
+/**
+ * Floating-strike lookback option on a tree.
+ *
+ * Payoff at maturity:
+ * <ul>
+ * 	<li>Call: max(S(T) - min, 0)</li>
+ * 	<li>Put: max(max - S(T), 0)</li>
+ * </ul>
+ * where min (max) is the minimum (maximum) of the spot over the fixingTimeIndices.
+ *
+ * State variables:
+ * <ul>
+ * 	<li>state[0] = running minimum (call) or maximum (put) of the fixing spots,
+ * 		+/- infinity before the first fixing</li>
+ * </ul>
+ *
+ * By default, the option is valued on the full path tree (exponential growth). If a number of representative
+ * states is given, the running extremum is used as representative state of a node-compressed tree,
+ * see {@link AbstractPathDependentProduct}.
+ *
+ * @author agent
+ */
+public class LookbackOption extends AbstractPathDependentProduct {
+
+	private final CallOrPut callOrPut;
+
+	/**
+	 * @param maturity Maturity in model time units.
+	 * @param fixingTimeIndices Subset of model time indices monitored for the extremum.
+	 * @param callOrPut Call (payoff S(T) - min) or put (payoff max - S(T)).
+	 */
+	public LookbackOption(
+			final double maturity,
+			final int[] fixingTimeIndices,
+			final CallOrPut callOrPut) {
+		this(maturity, fixingTimeIndices, callOrPut, 0);
+	}
+
+	/**
+	 * @param maturity Maturity in model time units.
+	 * @param fixingTimeIndices Subset of model time indices monitored for the extremum.
+	 * @param callOrPut Call (payoff S(T) - min) or put (payoff max - S(T)).
+	 * @param numberOfRepresentativeStates Number of representative extrema per node of the node-compressed tree, 0 for the full path tree.
+	 */
+	public LookbackOption(
+			final double maturity,
+			final int[] fixingTimeIndices,
+			final CallOrPut callOrPut,
+			final int numberOfRepresentativeStates) {
+		super(maturity, fixingTimeIndices, numberOfRepresentativeStates);
+		if(callOrPut == null) {
+			throw new IllegalArgumentException("callOrPut must not be null.");
+		}
+		this.callOrPut = callOrPut;
+	}
+
+	@Override
+	protected int getNumberOfStateVariables() {
+		return 1; // running extremum
+	}
+
+	@Override
+	protected int getRepresentativeStateIndex() {
+		return 0;
+	}
+
+	@Override
+	protected void initializeState(
+			final double spotAtNode,
+			final int timeIndex,
+			final boolean isFixing,
+			final double[] stateOut) {
+
+		stateOut[0] = isFixing ? spotAtNode : getExtremumBeforeFirstFixing();
+	}
+
+	@Override
+	protected void evolveState(
+			final double[] parentState,
+			final double spotAtChild,
+			final int timeIndexChild,
+			final boolean isFixingChild,
+			final double[] childStateOut) {
+
+		if(!isFixingChild) {
+			childStateOut[0] = parentState[0];
+		}
+		else if(callOrPut == CallOrPut.CALL) {
+			childStateOut[0] = Math.min(parentState[0], spotAtChild);
+		}
+		else {
+			childStateOut[0] = Math.max(parentState[0], spotAtChild);
+		}
+	}
+
+	@Override
+	protected double payoff(
+			final double[] terminalState,
+			final double spotAtMaturity) {
+
+		final double extremum = terminalState[0];
+
+		// Defensive guard: empty fixing set.
+		if(Double.isInfinite(extremum)) {
+			return 0.0;
+		}
+
+		return callOrPut == CallOrPut.CALL ? Math.max(spotAtMaturity - extremum, 0.0) : Math.max(extremum - spotAtMaturity, 0.0);
+	}
+
+	private double getExtremumBeforeFirstFixing() {
+		return callOrPut == CallOrPut.CALL ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+	}
+}
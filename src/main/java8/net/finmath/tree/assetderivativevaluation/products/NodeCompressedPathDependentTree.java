@@ -0,0 +1,303 @@
+package net.finmath.tree.assetderivativevaluation.products;
+
+import java.util.Arrays;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.tree.TreeModel;
+
+/**
+ * Node-compressed (state-bucketed) backward induction for path-dependent products
+ * on a recombining tree, in the spirit of the Hull–White representative average method.
+ *
+ * Instead of following every path, each recombining node (time index, state index) carries
+ * a fixed number K of representative values of one path-state variable (the "representative state",
+ * e.g. the running sum of an Asian option or the running extremum of a lookback option):
+ * <ul>
+ * 	<li>A forward pass determines, for each node, the smallest and largest value of the representative
+ * 		state attainable by paths reaching that node. The K representative values are geometrically spaced
+ * 		in this range (equally spaced if the range is not positive).</li>
+ * 	<li>The backward induction values each representative state of a node by evolving it along each branch
+ * 		and interpolating the value at the child node in the child's representative states. Cubic
+ * 		interpolation is used, since the interpolation error accumulates over the time steps.</li>
+ * </ul>
+ *
+ * The remaining state variables must be path independent, i.e., only depend on the node (e.g. the fixing
+ * count of an Asian option with fixings on the time grid). The evolution of the representative state has
+ * to be monotone in the parent's representative state (true for running sums, minima and maxima).
+ *
+ * Memory and time are of order (number of nodes) &times; K &times; (branching factor), i.e. polynomial
+ * in the number of time steps.
+ *
+ * @author agent
+ */
+final class NodeCompressedPathDependentTree {
+
+	private static final double TOLERANCE = 1E-12;
+
+	private NodeCompressedPathDependentTree() {
+	}
+
+	/**
+	 * Values the product by node-compressed backward induction.
+	 *
+	 * @param product The product.
+	 * @param model The tree model.
+	 * @param k0 The time index of the root node.
+	 * @param n The time index of maturity.
+	 * @param childShift The child state index shift of the model.
+	 * @param numberOfRepresentatives The number K of representative states per node.
+	 * @param isKeepLevels If true, the values of all levels are returned, otherwise only the root level.
+	 * @return The values per level (flattened as state index times K plus representative index); only the first element is set if {@code isKeepLevels} is false.
+	 */
+	static RandomVariable[] getValues(
+			final AbstractPathDependentProduct product,
+			final TreeModel model,
+			final int k0,
+			final int n,
+			final int[] childShift,
+			final int numberOfRepresentatives,
+			final boolean isKeepLevels) {
+
+		final int steps = n - k0;
+		final int numberOfBranches = childShift.length;
+		final int maxShift = Arrays.stream(childShift).max().getAsInt();
+		final int numberOfStateVariables = product.getNumberOfStateVariables();
+		final int representativeStateIndex = product.getRepresentativeStateIndex();
+
+		if(representativeStateIndex < 0 || representativeStateIndex >= numberOfStateVariables) {
+			throw new IllegalArgumentException("Product does not specify a valid representative state index for node compression.");
+		}
+
+		/*
+		 * Forward pass: range of the representative state and path independent state variables per node.
+		 */
+		final double[][] lowerBound = new double[steps + 1][];
+		final double[][] upperBound = new double[steps + 1][];
+		final double[][] nodeState = new double[steps + 1][];
+
+		lowerBound[0] = new double[1];
+		upperBound[0] = new double[1];
+		nodeState[0] = new double[numberOfStateVariables];
+
+		final double spot0 = model.getSpotAtGivenTimeIndexRV(k0).get(0);
+		final double[] rootState = new double[numberOfStateVariables];
+		product.initializeState(spot0, k0, product.isFixingTimeIndex(k0), rootState);
+		System.arraycopy(rootState, 0, nodeState[0], 0, numberOfStateVariables);
+		lowerBound[0][0] = rootState[representativeStateIndex];
+		upperBound[0][0] = rootState[representativeStateIndex];
+
+		final double[] parentState = new double[numberOfStateVariables];
+		final double[] childState = new double[numberOfStateVariables];
+
+		for(int j = 1; j <= steps; j++) {
+			final int timeIndex = k0 + j;
+			final boolean isFixing = product.isFixingTimeIndex(timeIndex);
+			final RandomVariable spot = model.getSpotAtGivenTimeIndexRV(timeIndex);
+
+			final int parentNodes = lowerBound[j - 1].length;
+			final int nodes = maxShift * j + 1;
+
+			lowerBound[j] = new double[nodes];
+			upperBound[j] = new double[nodes];
+			nodeState[j] = new double[nodes * numberOfStateVariables];
+			Arrays.fill(lowerBound[j], Double.POSITIVE_INFINITY);
+			Arrays.fill(upperBound[j], Double.NEGATIVE_INFINITY);
+			final boolean[] isReached = new boolean[nodes];
+
+			for(int parent = 0; parent < parentNodes; parent++) {
+				if(!(lowerBound[j - 1][parent] <= upperBound[j - 1][parent])) {
+					continue;
+				}
+
+				for(int b = 0; b < numberOfBranches; b++) {
+					final int child = parent + childShift[b];
+					final double spotChild = spot.get(child);
+
+					System.arraycopy(nodeState[j - 1], parent * numberOfStateVariables, parentState, 0, numberOfStateVariables);
+
+					parentState[representativeStateIndex] = upperBound[j - 1][parent];
+					product.evolveState(parentState, spotChild, timeIndex, isFixing, childState);
+					final double childStateOfUpper = childState[representativeStateIndex];
+
+					parentState[representativeStateIndex] = lowerBound[j - 1][parent];
+					product.evolveState(parentState, spotChild, timeIndex, isFixing, childState);
+					final double childStateOfLower = childState[representativeStateIndex];
+
+					lowerBound[j][child] = Math.min(lowerBound[j][child], Math.min(childStateOfLower, childStateOfUpper));
+					upperBound[j][child] = Math.max(upperBound[j][child], Math.max(childStateOfLower, childStateOfUpper));
+
+					final int childOffset = child * numberOfStateVariables;
+					if(!isReached[child]) {
+						System.arraycopy(childState, 0, nodeState[j], childOffset, numberOfStateVariables);
+						isReached[child] = true;
+					}
+					else {
+						for(int i = 0; i < numberOfStateVariables; i++) {
+							final double existing = nodeState[j][childOffset + i];
+							if(i != representativeStateIndex && Math.abs(existing - childState[i]) > TOLERANCE * (1.0 + Math.abs(existing))) {
+								throw new IllegalArgumentException("State variable " + i + " is path dependent. Only the representative state variable may depend on the path for node compression.");
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/*
+		 * Backward induction on the representative states.
+		 */
+		final RandomVariable[] levels = new RandomVariable[steps + 1];
+		final double[] transitionProbabilities = new double[numberOfBranches];
+		final double[] spotChildren = new double[numberOfBranches];
+
+		final RandomVariable spotN = model.getSpotAtGivenTimeIndexRV(n);
+		double[] representativesNext = getRepresentatives(lowerBound[steps], upperBound[steps], numberOfRepresentatives);
+		double[] valuesNext = new double[lowerBound[steps].length * numberOfRepresentatives];
+		for(int node = 0; node < lowerBound[steps].length; node++) {
+			if(!(lowerBound[steps][node] <= upperBound[steps][node])) {
+				continue;
+			}
+			System.arraycopy(nodeState[steps], node * numberOfStateVariables, parentState, 0, numberOfStateVariables);
+			for(int k = 0; k < numberOfRepresentatives; k++) {
+				parentState[representativeStateIndex] = representativesNext[node * numberOfRepresentatives + k];
+				valuesNext[node * numberOfRepresentatives + k] = product.payoff(parentState, spotN.get(node));
+			}
+		}
+		if(isKeepLevels || steps == 0) {
+			levels[steps] = new RandomVariableFromDoubleArray(n * model.getTimeStep(), valuesNext);
+		}
+
+		for(int j = steps - 1; j >= 0; j--) {
+			final int timeIndex = k0 + j;
+			final int timeIndexChild = timeIndex + 1;
+			final boolean isFixingChild = product.isFixingTimeIndex(timeIndexChild);
+			final RandomVariable spotChildLevel = model.getSpotAtGivenTimeIndexRV(timeIndexChild);
+			final double df = model.getOneStepDiscountFactor(timeIndex);
+
+			final int nodes = lowerBound[j].length;
+			final double[] representativesHere = getRepresentatives(lowerBound[j], upperBound[j], numberOfRepresentatives);
+			final double[] valuesHere = new double[nodes * numberOfRepresentatives];
+
+			for(int node = 0; node < nodes; node++) {
+				if(!(lowerBound[j][node] <= upperBound[j][node])) {
+					continue;
+				}
+
+				for(int b = 0; b < numberOfBranches; b++) {
+					transitionProbabilities[b] = model.getTransitionProbability(timeIndex, node, b);
+					spotChildren[b] = spotChildLevel.get(node + childShift[b]);
+				}
+
+				System.arraycopy(nodeState[j], node * numberOfStateVariables, parentState, 0, numberOfStateVariables);
+				for(int k = 0; k < numberOfRepresentatives; k++) {
+					parentState[representativeStateIndex] = representativesHere[node * numberOfRepresentatives + k];
+
+					double sum = 0.0;
+					for(int b = 0; b < numberOfBranches; b++) {
+						final int child = node + childShift[b];
+						product.evolveState(parentState, spotChildren[b], timeIndexChild, isFixingChild, childState);
+
+						final double valueChild = interpolate(
+								valuesNext,
+								representativesNext,
+								child * numberOfRepresentatives,
+								numberOfRepresentatives,
+								lowerBound[j + 1][child],
+								upperBound[j + 1][child],
+								childState[representativeStateIndex]);
+
+						sum += transitionProbabilities[b] * valueChild;
+					}
+					valuesHere[node * numberOfRepresentatives + k] = df * sum;
+				}
+			}
+
+			if(isKeepLevels || j == 0) {
+				levels[j] = new RandomVariableFromDoubleArray(timeIndex * model.getTimeStep(), valuesHere);
+			}
+			valuesNext = valuesHere;
+			representativesNext = representativesHere;
+		}
+
+		return levels;
+	}
+
+	/**
+	 * Returns the K representative values of each node of a level, flattened as node index times K plus
+	 * representative index. As in the Hull–White method the values are geometrically spaced between the
+	 * smallest and largest attainable state if this range is positive, otherwise equally spaced.
+	 */
+	private static double[] getRepresentatives(final double[] lower, final double[] upper, final int numberOfRepresentatives) {
+		final double[] representatives = new double[lower.length * numberOfRepresentatives];
+		for(int node = 0; node < lower.length; node++) {
+			final int offset = node * numberOfRepresentatives;
+			if(!(upper[node] > lower[node])) {
+				Arrays.fill(representatives, offset, offset + numberOfRepresentatives, lower[node]);
+				continue;
+			}
+			final boolean isGeometric = isGeometricSpacing(lower[node], upper[node]);
+			for(int k = 0; k < numberOfRepresentatives - 1; k++) {
+				representatives[offset + k] = isGeometric
+						? lower[node] * Math.exp(Math.log(upper[node] / lower[node]) * k / (numberOfRepresentatives - 1))
+								: lower[node] + (upper[node] - lower[node]) * k / (numberOfRepresentatives - 1);
+			}
+			representatives[offset + numberOfRepresentatives - 1] = upper[node];
+		}
+		return representatives;
+	}
+
+	/**
+	 * Cubic (for fewer than four representatives linear) interpolation of node values in the representative
+	 * state, constant extrapolation.
+	 */
+	private static double interpolate(
+			final double[] values,
+			final double[] representatives,
+			final int offset,
+			final int numberOfRepresentatives,
+			final double lower,
+			final double upper,
+			final double representativeState) {
+
+		if(!(upper > lower)) {
+			return values[offset];
+		}
+
+		final double position = isGeometricSpacing(lower, upper)
+				? Math.log(representativeState / lower) / Math.log(upper / lower) * (numberOfRepresentatives - 1)
+						: (representativeState - lower) / (upper - lower) * (numberOfRepresentatives - 1);
+		if(!(position > 0.0)) {
+			return values[offset];
+		}
+		if(position >= numberOfRepresentatives - 1) {
+			return values[offset + numberOfRepresentatives - 1];
+		}
+
+		if(numberOfRepresentatives < 4) {
+			final int index = offset + (int)position;
+			final double weight = (representativeState - representatives[index]) / (representatives[index + 1] - representatives[index]);
+			return (1.0 - weight) * values[index] + weight * values[index + 1];
+		}
+
+		// Cubic Lagrange interpolation on the four surrounding representatives (shifted at the ends)
+		final int index = offset + Math.max(0, Math.min((int)position - 1, numberOfRepresentatives - 4));
+		final double x0 = representatives[index];
+		final double x1 = representatives[index + 1];
+		final double x2 = representatives[index + 2];
+		final double x3 = representatives[index + 3];
+		final double d0 = representativeState - x0;
+		final double d1 = representativeState - x1;
+		final double d2 = representativeState - x2;
+		final double d3 = representativeState - x3;
+
+		return values[index] * d1 * d2 * d3 / ((x0 - x1) * (x0 - x2) * (x0 - x3))
+				+ values[index + 1] * d0 * d2 * d3 / ((x1 - x0) * (x1 - x2) * (x1 - x3))
+				+ values[index + 2] * d0 * d1 * d3 / ((x2 - x0) * (x2 - x1) * (x2 - x3))
+				+ values[index + 3] * d0 * d1 * d2 / ((x3 - x0) * (x3 - x1) * (x3 - x2));
+	}
+
+	private static boolean isGeometricSpacing(final double lower, final double upper) {
+		return lower > 0.0 && upper < Double.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.util;
+
+/**
+ * Selection of the k-th smallest element of an array in expected linear time (Hoare's quickselect).
+ *
+ * The methods partially reorder the given array in place. The order used is the same as the one of
+ * <code>java.util.Arrays.sort</code>, i.e., the order of <code>Double.compare</code> (<code>Float.compare</code>),
+ * such that <code>select(values, k)</code> agrees with the element <code>k</code> of the sorted array.
+ *
+ * @author agent
+ * @version 1.0
+ */
+public final class QuickSelect {
+
+	private QuickSelect() {
+		// This class only has static methods
+	}
+
+	/**
+	 * Returns the k-th smallest element (zero based) of the array.
+	 * The array is partially reordered such that all elements left of k are less or equal and
+	 * all elements right of k are greater or equal to the k-th element.
+	 *
+	 * @param values The array (will be reordered).
+	 * @param k The index of the order statistic (zero based).
+	 * @return The k-th smallest element, i.e., the element at index k of the sorted array.
+	 */
+	public static double select(final double[] values, final int k) {
+		return select(values, k, 0, values.length-1);
+	}
+
+	/**
+	 * Returns the k-th smallest element (zero based) of the array, considering only the elements in the range [left, right].
+	 *
+	 * @param values The array (will be reordered within [left, right]).
+	 * @param k The index of the order statistic (zero based, required to be in [left, right]).
+	 * @param left First index of the range.
+	 * @param right Last index of the range (inclusive).
+	 * @return The element at index k of the array, when the range [left, right] is sorted.
+	 */
+	public static double select(final double[] values, final int k, int left, int right) {
+		if(k < left || k > right) {
+			throw new IndexOutOfBoundsException("Index " + k + " not in range [" + left + ", " + right + "].");
+		}
+
+		while(right > left) {
+			// Median of three pivot
+			final int middle = (left + right) >>> 1;
+			if(Double.compare(values[middle], values[left]) < 0) {
+				swap(values, middle, left);
+			}
+			if(Double.compare(values[right], values[left]) < 0) {
+				swap(values, right, left);
+			}
+			if(Double.compare(values[right], values[middle]) < 0) {
+				swap(values, right, middle);
+			}
+			final double pivot = values[middle];
+
+			// Hoare partition
+			int i = left;
+			int j = right;
+			while(i <= j) {
+				while(Double.compare(values[i], pivot) < 0) {
+					i++;
+				}
+				while(Double.compare(values[j], pivot) > 0) {
+					j--;
+				}
+				if(i <= j) {
+					swap(values, i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if(k <= j) {
+				right = j;
+			}
+			else if(k >= i) {
+				left = i;
+			}
+			else {
+				break;
+			}
+		}
+
+		return values[k];
+	}
+
+	/**
+	 * Returns the k-th smallest element (zero based) of the array.
+	 * The array is partially reordered such that all elements left of k are less or equal and
+	 * all elements right of k are greater or equal to the k-th element.
+	 *
+	 * @param values The array (will be reordered).
+	 * @param k The index of the order statistic (zero based).
+	 * @return The k-th smallest element, i.e., the element at index k of the sorted array.
+	 */
+	public static float select(final float[] values, final int k) {
+		return select(values, k, 0, values.length-1);
+	}
+
+	/**
+	 * Returns the k-th smallest element (zero based) of the array, considering only the elements in the range [left, right].
+	 *
+	 * @param values The array (will be reordered within [left, right]).
+	 * @param k The index of the order statistic (zero based, required to be in [left, right]).
+	 * @param left First index of the range.
+	 * @param right Last index of the range (inclusive).
+	 * @return The element at index k of the array, when the range [left, right] is sorted.
+	 */
+	public static float select(final float[] values, final int k, int left, int right) {
+		if(k < left || k > right) {
+			throw new IndexOutOfBoundsException("Index " + k + " not in range [" + left + ", " + right + "].");
+		}
+
+		while(right > left) {
+			// Median of three pivot
+			final int middle = (left + right) >>> 1;
+			if(Float.compare(values[middle], values[left]) < 0) {
+				swap(values, middle, left);
+			}
+			if(Float.compare(values[right], values[left]) < 0) {
+				swap(values, right, left);
+			}
+			if(Float.compare(values[right], values[middle]) < 0) {
+				swap(values, right, middle);
+			}
+			final float pivot = values[middle];
+
+			// Hoare partition
+			int i = left;
+			int j = right;
+			while(i <= j) {
+				while(Float.compare(values[i], pivot) < 0) {
+					i++;
+				}
+				while(Float.compare(values[j], pivot) > 0) {
+					j--;
+				}
+				if(i <= j) {
+					swap(values, i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if(k <= j) {
+				right = j;
+			}
+			else if(k >= i) {
+				left = i;
+			}
+			else {
+				break;
+			}
+		}
+
+		return values[k];
+	}
+
+	private static void swap(final double[] values, final int i, final int j) {
+		final double temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+
+	private static void swap(final float[] values, final int i, final int j) {
+		final float temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+}
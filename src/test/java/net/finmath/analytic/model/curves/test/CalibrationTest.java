@@ -31,6 +31,7 @@ import net.finmath.marketdata2.model.curves.ForwardCurveInterface;
 import net.finmath.marketdata2.model.curves.ForwardCurveInterpolation;
 import net.finmath.marketdata2.products.AnalyticProduct;
 import net.finmath.marketdata2.products.Swap;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAADFactory;
 import net.finmath.optimizer.SolverException;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.RegularSchedule;
@@ -252,4 +253,51 @@ public class CalibrationTest {
 
 		System.out.println("__________________________________________________________________________________________\n");
 	}
+
+	@Test
+	public void testCalibrationWithAlgorithmicDifferentiation() throws SolverException {
+
+		/*
+		 * Calibrate the same single-curve setup twice: with a finite difference Jacobian and with a Jacobian
+		 * obtained by algorithmic differentiation. Both have to give the same curve.
+		 */
+		final double[] maturities = new double[] {0.0,  1.0,  2.0,  3.0,  4.0,  5.0,  7.0, 10.0};
+		final double[] swapRates = new double[] {      0.01, 0.015, 0.02, 0.022, 0.025, 0.027, 0.03};
+
+		final Vector<AnalyticProduct> calibrationProducts = new Vector<>();
+		for(int i=0; i<swapRates.length; i++) {
+			final int numberOfPeriods = (int)Math.round(maturities[i+1] * 2);
+			calibrationProducts.add(new Swap(new RegularSchedule(new TimeDiscretizationFromArray(0.0, numberOfPeriods, 0.5)), null, swapRates[i], "discountCurve", new RegularSchedule(new TimeDiscretizationFromArray(0.0, numberOfPeriods, 0.5)), "forwardCurve", 0.0, "discountCurve"));
+		}
+
+		final double[] discountFactors = new double[maturities.length];
+		for(int i=0; i<maturities.length; i++) {
+			discountFactors[i] = Math.exp(-0.02 * maturities[i]);
+		}
+
+		final AnalyticModel[] calibratedModels = new AnalyticModel[2];
+		for(int mode=0; mode<2; mode++) {
+			final DiscountCurveInterpolation discountCurve = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors(
+					"discountCurve", maturities, discountFactors, interpolationMethod, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+			final ForwardCurveInterface forwardCurve = new ForwardCurveFromDiscountCurve("forwardCurve", discountCurve.getName(), null, null);
+
+			final AnalyticModelFromCurvesAndVols model = new AnalyticModelFromCurvesAndVols(new Curve[] { discountCurve, forwardCurve });
+
+			final Set<ParameterObject> curvesToCalibrate = new HashSet<>();
+			curvesToCalibrate.add(discountCurve);
+
+			final Solver solver = new Solver(model, calibrationProducts, null, null, 0.0, 0.0, mode == 1 ? new RandomVariableDifferentiableAADFactory() : null);
+			calibratedModels[mode] = solver.getCalibratedModel(curvesToCalibrate);
+
+			for(final AnalyticProduct calibrationProduct : calibrationProducts) {
+				Assert.assertEquals("Calibration error", 0.0, calibrationProduct.getValue(0.0, calibratedModels[mode]).getAverage(), 1E-12);
+			}
+		}
+
+		for(double time = 0.25; time < 10.0; time += 0.25) {
+			final RandomVariable discountFactorFiniteDifferences = ((DiscountCurveInterpolation)calibratedModels[0].getCurve("discountCurve")).getDiscountFactor(calibratedModels[0], time);
+			final RandomVariable discountFactorAlgorithmicDifferentiation = ((DiscountCurveInterpolation)calibratedModels[1].getCurve("discountCurve")).getDiscountFactor(calibratedModels[1], time);
+			Assert.assertEquals("Discount factor", discountFactorFiniteDifferences.doubleValue(), discountFactorAlgorithmicDifferentiation.doubleValue(), 1E-10);
+		}
+	}
 }
@@ -0,0 +1,198 @@
+package net.finmath.finitedifference.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMBlackScholesModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMHestonModel;
+import net.finmath.finitedifference.assetderivativevaluation.products.BarrierOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.FiniteDifferenceEquityProduct;
+import net.finmath.finitedifference.grids.Grid;
+import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
+import net.finmath.finitedifference.grids.UniformGrid;
+import net.finmath.finitedifference.solvers.adi.FDMHestonADI2D;
+import net.finmath.modelling.AmericanExercise;
+import net.finmath.modelling.EuropeanExercise;
+import net.finmath.modelling.products.BarrierType;
+import net.finmath.modelling.products.CallOrPut;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the batched valuation {@link FDMSolver#getBatchValues(double, double, List)}.
+ *
+ * The batch shares the assembly (and in 1D the factorization) of the time step operator between entries with
+ * the same Dirichlet rows, but performs the same arithmetic as a single valuation. Hence each entry has to agree
+ * exactly with the value of a solver constructed with the product of that entry. The batches contain plain
+ * calls and puts (outer boundaries only) as well as down-and-out and up-and-out barriers, which have different
+ * Dirichlet rows and thus use different operators.
+ *
+ * @author agent
+ */
+public class FDMBatchValuationTest {
+
+	private static final double MATURITY = 1.0;
+
+	@Test
+	public void testThetaMethod1DBatchAgreesWithSingleValuations() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new UniformGrid(150, 0.0, 300.0),
+				new TimeDiscretizationFromArray(0.0, 50, MATURITY / 50),
+				0.5,
+				new double[] { 100.0 });
+		final FDMBlackScholesModel model = new FDMBlackScholesModel(100.0, 0.05, 0.01, 0.25, spaceTimeDiscretization);
+		final double[] spots = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+
+		final List<FiniteDifferenceEquityProduct> products = new ArrayList<>();
+		final List<DoubleUnaryOperator> payoffs = new ArrayList<>();
+		addOptionsAndBarriers(products, payoffs);
+
+		final List<FDMTerminalCondition> terminalConditions = new ArrayList<>();
+		for(int k = 0; k < products.size(); k++) {
+			terminalConditions.add(new FDMTerminalCondition(products.get(k), getTerminalValues(spots, new double[] { 0.0 }, payoffs.get(k))));
+		}
+		// An entry without product uses the product of the solver
+		terminalConditions.add(new FDMTerminalCondition(getTerminalValues(spots, new double[] { 0.0 }, payoffs.get(0))));
+
+		final FDMSolver batchSolver = new FDMThetaMethod1D(model, products.get(0), spaceTimeDiscretization, new EuropeanExercise(MATURITY));
+
+		for(final double evaluationTime : new double[] { 0.0, 0.5 }) {
+			final double[][] batchValues = batchSolver.getBatchValues(evaluationTime, MATURITY, terminalConditions);
+
+			Assert.assertEquals("Number of batch values", terminalConditions.size(), batchValues.length);
+			for(int k = 0; k < products.size(); k++) {
+				final FDMSolver solver = new FDMThetaMethod1D(model, products.get(k), spaceTimeDiscretization, new EuropeanExercise(MATURITY));
+				final double[] values = solver.getValue(evaluationTime, MATURITY, terminalConditions.get(k).getTerminalValues());
+
+				Assert.assertArrayEquals("Batch entry " + k + " at time " + evaluationTime, values, batchValues[k], 0.0);
+			}
+			Assert.assertArrayEquals("Batch entry without product at time " + evaluationTime, batchValues[0], batchValues[products.size()], 0.0);
+		}
+
+		// The barriers have to be effective, otherwise the test would not cover different Dirichlet rows
+		final double[][] batchValues = batchSolver.getBatchValues(0.0, MATURITY, terminalConditions);
+		final int downAndOutIndex = 4;
+		final int upAndOutIndex = 6;
+		final int spotIndex = 50;
+		Assert.assertEquals("Spot", 100.0, spots[spotIndex], 1E-12);
+		Assert.assertTrue("Down-and-out is cheaper than the call", batchValues[downAndOutIndex][spotIndex] < batchValues[0][spotIndex]);
+		Assert.assertTrue("Up-and-out is cheaper than the call", batchValues[upAndOutIndex][spotIndex] < batchValues[0][spotIndex]);
+	}
+
+	@Test
+	public void testThetaMethod2DBatchAgreesWithSingleValuations() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(30, 0.0, 300.0), new UniformGrid(10, 0.0, 0.5) },
+				new TimeDiscretizationFromArray(0.0, 10, MATURITY / 10),
+				0.5,
+				new double[] { 100.0, 0.04 });
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+		final double[] spots = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		final double[] variances = spaceTimeDiscretization.getSpaceGrid(1).getGrid();
+
+		final List<FiniteDifferenceEquityProduct> products = new ArrayList<>();
+		final List<DoubleUnaryOperator> payoffs = new ArrayList<>();
+		addOptionsAndBarriers(products, payoffs);
+
+		final List<FDMTerminalCondition> terminalConditions = new ArrayList<>();
+		for(int k = 0; k < products.size(); k++) {
+			terminalConditions.add(new FDMTerminalCondition(products.get(k), getTerminalValues(spots, variances, payoffs.get(k))));
+		}
+
+		final double[][] batchValues = new FDMThetaMethod2D(model, products.get(0), spaceTimeDiscretization, new EuropeanExercise(MATURITY))
+				.getBatchValues(0.0, MATURITY, terminalConditions);
+
+		for(int k = 0; k < products.size(); k++) {
+			final FDMSolver solver = new FDMThetaMethod2D(model, products.get(k), spaceTimeDiscretization, new EuropeanExercise(MATURITY));
+			final double[] values = solver.getValue(0.0, MATURITY, payoffs.get(k));
+
+			Assert.assertArrayEquals("Batch entry " + k, values, batchValues[k], 0.0);
+		}
+	}
+
+	@Test
+	public void testBatchWithEarlyExerciseIsRejected() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new UniformGrid(40, 0.0, 300.0),
+				new TimeDiscretizationFromArray(0.0, 10, MATURITY / 10),
+				0.5,
+				new double[] { 100.0 });
+		final FDMBlackScholesModel model = new FDMBlackScholesModel(100.0, 0.05, 0.01, 0.25, spaceTimeDiscretization);
+		final FDMSolver solver = new FDMThetaMethod1D(
+				model, new EuropeanOption(MATURITY, 100.0, CallOrPut.PUT), spaceTimeDiscretization, new AmericanExercise(0.0, MATURITY));
+
+		try {
+			solver.getBatchValues(0.0, MATURITY, Arrays.asList(new FDMTerminalCondition(new double[41])));
+			Assert.fail("Expected IllegalArgumentException.");
+		}
+		catch(final IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testBatchEntriesWithProductAreUnsupportedByADI() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(20, 0.0, 300.0), new UniformGrid(8, 0.0, 0.5) },
+				new TimeDiscretizationFromArray(0.0, 10, MATURITY / 10),
+				0.5,
+				new double[] { 100.0, 0.04 });
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+		final double[] spots = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		final double[] variances = spaceTimeDiscretization.getSpaceGrid(1).getGrid();
+
+		final EuropeanOption call = new EuropeanOption(MATURITY, 100.0, CallOrPut.CALL);
+		final FDMSolver solver = new FDMHestonADI2D(model, call, spaceTimeDiscretization, new EuropeanExercise(MATURITY));
+
+		final BarrierOption barrierOption = new BarrierOption(null, MATURITY, 100.0, 80.0, 0.0, CallOrPut.CALL, BarrierType.DOWN_OUT);
+		final List<FDMTerminalCondition> terminalConditions = Arrays.asList(
+				new FDMTerminalCondition(barrierOption, getTerminalValues(spots, variances, spot -> spot <= 80.0 ? 0.0 : Math.max(spot - 100.0, 0.0))));
+
+		try {
+			solver.getBatchValues(0.0, MATURITY, terminalConditions);
+			Assert.fail("Expected UnsupportedOperationException.");
+		}
+		catch(final UnsupportedOperationException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Adds calls, puts, down-and-out calls (two with rebate) and up-and-out calls with their payoffs.
+	 */
+	private static void addOptionsAndBarriers(final List<FiniteDifferenceEquityProduct> products, final List<DoubleUnaryOperator> payoffs) {
+		for(final double strike : new double[] { 90.0, 110.0 }) {
+			products.add(new EuropeanOption(MATURITY, strike, CallOrPut.CALL));
+			payoffs.add(spot -> Math.max(spot - strike, 0.0));
+			products.add(new EuropeanOption(MATURITY, strike, CallOrPut.PUT));
+			payoffs.add(spot -> Math.max(strike - spot, 0.0));
+		}
+		for(final double rebate : new double[] { 0.0, 0.5 }) {
+			products.add(new BarrierOption(null, MATURITY, 90.0, 80.0, rebate, CallOrPut.CALL, BarrierType.DOWN_OUT));
+			payoffs.add(spot -> spot <= 80.0 ? rebate : Math.max(spot - 90.0, 0.0));
+		}
+		for(final double strike : new double[] { 90.0, 100.0 }) {
+			products.add(new BarrierOption(null, MATURITY, strike, 140.0, 0.0, CallOrPut.CALL, BarrierType.UP_OUT));
+			payoffs.add(spot -> spot >= 140.0 ? 0.0 : Math.max(spot - strike, 0.0));
+		}
+	}
+
+	private static double[] getTerminalValues(final double[] spots, final double[] variances, final DoubleUnaryOperator payoff) {
+		final double[] terminalValues = new double[spots.length * variances.length];
+		for(int i1 = 0; i1 < variances.length; i1++) {
+			for(int i0 = 0; i0 < spots.length; i0++) {
+				terminalValues[i0 + i1 * spots.length] = payoff.applyAsDouble(spots[i0]);
+			}
+		}
+		return terminalValues;
+	}
+
+	private static FDMHestonModel createHestonModel(final SpaceTimeDiscretization spaceTimeDiscretization) {
+		return new FDMHestonModel(100.0, 0.04, 0.05, 0.0, 1.5, 0.04, 0.3, -0.7, spaceTimeDiscretization);
+	}
+}
@@ -0,0 +1,153 @@
+package net.finmath.finitedifference.solvers;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMBlackScholesModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMHestonModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
+import net.finmath.finitedifference.assetderivativevaluation.products.AsianOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.BarrierOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.finitedifference.grids.Grid;
+import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
+import net.finmath.finitedifference.grids.UniformGrid;
+import net.finmath.finitedifference.solvers.adi.AbstractADI3D;
+import net.finmath.finitedifference.solvers.adi.BarrierPDEMode;
+import net.finmath.finitedifference.solvers.adi.FDMBarrierHestonADI2D;
+import net.finmath.finitedifference.solvers.adi.FDMHestonADI2D;
+import net.finmath.modelling.AmericanExercise;
+import net.finmath.modelling.EuropeanExercise;
+import net.finmath.modelling.Exercise;
+import net.finmath.modelling.products.BarrierType;
+import net.finmath.modelling.products.CallOrPut;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests that the value-only roll-back of the finite difference solvers, which keeps only the current time layer,
+ * gives the same result as the full time history:
+ * <ul>
+ * 	<li>{@link FDMSolver#getValuesAtTimes(double, DoubleUnaryOperator, double[])} returns the matching columns of
+ * 		{@link FDMSolver#getValues(double, DoubleUnaryOperator)},</li>
+ * 	<li>{@link FDMSolver#getValue(double, double, DoubleUnaryOperator)} returns the matching column, in particular
+ * 		the last column for evaluation time 0.</li>
+ * </ul>
+ * Both use the same time stepping, hence the values have to agree exactly.
+ *
+ * @author agent
+ */
+public class FDMSolverTimeLayersTest {
+
+	private static final double MATURITY = 1.0;
+	private static final double STRIKE = 100.0;
+
+	private static final double[] EVALUATION_TIMES = new double[] { 0.5, 0.0, 0.25, 0.5, 0.95 };
+
+	private static final DoubleUnaryOperator PUT_PAYOFF = spot -> Math.max(STRIKE - spot, 0.0);
+	private static final DoubleUnaryOperator CALL_PAYOFF = spot -> Math.max(spot - STRIKE, 0.0);
+
+	@Test
+	public void testThetaMethod1D() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new UniformGrid(120, 0.0, 300.0),
+				new TimeDiscretizationFromArray(0.0, 40, MATURITY / 40),
+				0.5,
+				new double[] { 100.0 });
+		final FDMBlackScholesModel model = new FDMBlackScholesModel(100.0, 0.05, 0.01, 0.25, spaceTimeDiscretization);
+
+		for(final Exercise exercise : new Exercise[] { new EuropeanExercise(MATURITY), new AmericanExercise(0.0, MATURITY) }) {
+			final FDMSolver solver = new FDMThetaMethod1D(model, new EuropeanOption(MATURITY, STRIKE, CallOrPut.PUT), spaceTimeDiscretization, exercise);
+
+			assertTimeLayersAgreeWithFullHistory(solver, spaceTimeDiscretization.getTimeDiscretization(), PUT_PAYOFF);
+		}
+	}
+
+	@Test
+	public void testHestonADI2D() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = createHestonSpaceTimeDiscretization();
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		for(final Exercise exercise : new Exercise[] { new EuropeanExercise(MATURITY), new AmericanExercise(0.0, MATURITY) }) {
+			final FDMSolver solver = new FDMHestonADI2D(model, new EuropeanOption(MATURITY, STRIKE, CallOrPut.PUT), spaceTimeDiscretization, exercise);
+
+			assertTimeLayersAgreeWithFullHistory(solver, spaceTimeDiscretization.getTimeDiscretization(), PUT_PAYOFF);
+		}
+	}
+
+	@Test
+	public void testBarrierHestonADI2D() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = createHestonSpaceTimeDiscretization();
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final BarrierOption barrierOption = new BarrierOption(null, MATURITY, STRIKE, 80.0, 0.0, CallOrPut.CALL, BarrierType.DOWN_OUT);
+		final FDMSolver solver = new FDMBarrierHestonADI2D(
+				model, barrierOption, spaceTimeDiscretization, new EuropeanExercise(MATURITY), BarrierPDEMode.OUT_STANDARD, null);
+
+		assertTimeLayersAgreeWithFullHistory(solver, spaceTimeDiscretization.getTimeDiscretization(), CALL_PAYOFF);
+	}
+
+	@Test
+	public void testAsianHestonADI3D() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(20, 0.0, 300.0), new UniformGrid(8, 0.0, 0.6) },
+				new TimeDiscretizationFromArray(0.0, 10, MATURITY / 10),
+				0.5,
+				new double[] { 100.0, 0.04 });
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final AsianOption asianOption = new AsianOption(MATURITY, STRIKE, CallOrPut.CALL);
+		final FiniteDifferenceEquityModel liftedModel = asianOption.getLiftedModel(model);
+		final AbstractADI3D solver = (AbstractADI3D)asianOption.getSolver(liftedModel);
+
+		final AbstractADI3D.DoubleTernaryOperator payoff = (spot, variance, integral) -> Math.max(integral / MATURITY - STRIKE, 0.0);
+		final TimeDiscretization timeDiscretization = liftedModel.getSpaceTimeDiscretization().getTimeDiscretization();
+
+		final double[][] fullHistory = solver.getValues(MATURITY, payoff);
+		final double[][] snapshots = solver.getValuesAtTimes(MATURITY, payoff, EVALUATION_TIMES);
+
+		for(int k = 0; k < EVALUATION_TIMES.length; k++) {
+			final double[] column = getColumn(fullHistory, timeDiscretization.getTimeIndexNearestLessOrEqual(MATURITY - EVALUATION_TIMES[k]));
+			Assert.assertArrayEquals("Snapshot at time " + EVALUATION_TIMES[k], column, snapshots[k], 0.0);
+			Assert.assertArrayEquals("Value at time " + EVALUATION_TIMES[k], column, solver.getValue(EVALUATION_TIMES[k], MATURITY, payoff), 0.0);
+		}
+		Assert.assertArrayEquals("Value at time 0", getColumn(fullHistory, fullHistory[0].length - 1), solver.getValue(0.0, MATURITY, payoff), 0.0);
+	}
+
+	private static void assertTimeLayersAgreeWithFullHistory(final FDMSolver solver, final TimeDiscretization timeDiscretization, final DoubleUnaryOperator payoff) {
+		final double[][] fullHistory = solver.getValues(MATURITY, payoff);
+		final double[][] snapshots = solver.getValuesAtTimes(MATURITY, payoff, EVALUATION_TIMES);
+
+		Assert.assertEquals("Number of snapshots", EVALUATION_TIMES.length, snapshots.length);
+		for(int k = 0; k < EVALUATION_TIMES.length; k++) {
+			final double[] column = getColumn(fullHistory, timeDiscretization.getTimeIndexNearestLessOrEqual(MATURITY - EVALUATION_TIMES[k]));
+			Assert.assertArrayEquals("Snapshot at time " + EVALUATION_TIMES[k], column, snapshots[k], 0.0);
+			Assert.assertArrayEquals("Value at time " + EVALUATION_TIMES[k], column, solver.getValue(EVALUATION_TIMES[k], MATURITY, payoff), 0.0);
+		}
+
+		// The rolling-layer value at time 0 is the last column of the full history
+		Assert.assertArrayEquals("Value at time 0", getColumn(fullHistory, fullHistory[0].length - 1), solver.getValue(0.0, MATURITY, payoff), 0.0);
+	}
+
+	private static double[] getColumn(final double[][] values, final int timeIndex) {
+		final double[] column = new double[values.length];
+		for(int i = 0; i < values.length; i++) {
+			column[i] = values[i][timeIndex];
+		}
+		return column;
+	}
+
+	private static SpaceTimeDiscretization createHestonSpaceTimeDiscretization() {
+		return new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(60, 0.0, 300.0), new UniformGrid(20, 0.0, 0.6) },
+				new TimeDiscretizationFromArray(0.0, 20, MATURITY / 20),
+				0.5,
+				new double[] { 100.0, 0.04 });
+	}
+
+	private static FDMHestonModel createHestonModel(final SpaceTimeDiscretization spaceTimeDiscretization) {
+		return new FDMHestonModel(100.0, 0.04, 0.05, 0.0, 1.5, 0.04, 0.3, -0.7, spaceTimeDiscretization);
+	}
+}
@@ -0,0 +1,122 @@
+package net.finmath.finitedifference.solvers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMHestonModel;
+import net.finmath.finitedifference.assetderivativevaluation.products.AmericanOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.finitedifference.grids.Grid;
+import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
+import net.finmath.finitedifference.grids.UniformGrid;
+import net.finmath.modelling.AmericanExercise;
+import net.finmath.modelling.EuropeanExercise;
+import net.finmath.modelling.products.CallOrPut;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the two-dimensional theta-method solver {@link FDMThetaMethod2D} on a small Heston grid.
+ *
+ * The reference values have been calculated with the previous implementation of the solver,
+ * which assembled the operator as a dense matrix and solved each time step by LU decomposition.
+ *
+ * @author agent
+ */
+public class FDMThetaMethod2DTest {
+
+	private static final double MATURITY = 1.0;
+	private static final double STRIKE = 100.0;
+
+	private static final int NUMBER_OF_SPOT_STEPS = 24;
+	private static final int NUMBER_OF_VARIANCE_STEPS = 12;
+	private static final int NUMBER_OF_TIME_STEPS = 20;
+
+	/*
+	 * The grid has spot nodes at multiples of 12.5 and variance nodes at multiples of 0.04,
+	 * hence (spot, variance) = (100, 0.04) is the node with indices (8, 1).
+	 */
+	private static final int SPOT_INDEX = 8;
+	private static final int VARIANCE_INDEX = 1;
+
+	private static final double REFERENCE_EUROPEAN_CALL = 9.557684157114217;
+	private static final double REFERENCE_AMERICAN_PUT = 5.194917107504404;
+	private static final double REFERENCE_AMERICAN_PUT_NEXT_VARIANCE = 7.331151144750688;
+
+	private static final double TOLERANCE = 1E-8;
+
+	@Test
+	public void testEuropeanCall() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = createSpaceTimeDiscretization();
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final FDMThetaMethod2D solver = new FDMThetaMethod2D(
+				model,
+				new EuropeanOption(MATURITY, STRIKE, CallOrPut.CALL),
+				spaceTimeDiscretization,
+				new EuropeanExercise(MATURITY));
+
+		final double[] values = solver.getValue(0.0, MATURITY, (spot, variance) -> Math.max(spot - STRIKE, 0.0));
+
+		Assert.assertEquals("Number of grid nodes", (NUMBER_OF_SPOT_STEPS + 1) * (NUMBER_OF_VARIANCE_STEPS + 1), values.length);
+		Assert.assertEquals("European call", REFERENCE_EUROPEAN_CALL, values[getFlattenedIndex(SPOT_INDEX, VARIANCE_INDEX)], TOLERANCE);
+	}
+
+	@Test
+	public void testAmericanPut() {
+		final SpaceTimeDiscretization spaceTimeDiscretization = createSpaceTimeDiscretization();
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final double[] americanValues = new FDMThetaMethod2D(
+				model,
+				new AmericanOption(MATURITY, STRIKE, CallOrPut.PUT),
+				spaceTimeDiscretization,
+				new AmericanExercise(0.0, MATURITY)).getValue(0.0, MATURITY, (spot, variance) -> Math.max(STRIKE - spot, 0.0));
+
+		final double[] europeanValues = new FDMThetaMethod2D(
+				model,
+				new EuropeanOption(MATURITY, STRIKE, CallOrPut.PUT),
+				spaceTimeDiscretization,
+				new EuropeanExercise(MATURITY)).getValue(0.0, MATURITY, (spot, variance) -> Math.max(STRIKE - spot, 0.0));
+
+		Assert.assertEquals("American put", REFERENCE_AMERICAN_PUT, americanValues[getFlattenedIndex(SPOT_INDEX, VARIANCE_INDEX)], TOLERANCE);
+		Assert.assertEquals("American put", REFERENCE_AMERICAN_PUT_NEXT_VARIANCE, americanValues[getFlattenedIndex(SPOT_INDEX, VARIANCE_INDEX + 1)], TOLERANCE);
+
+		// In the interior of the grid (away from the Dirichlet boundaries) the American put dominates the exercise value and the European put
+		final double[] spots = spaceTimeDiscretization.getSpaceGrid(0).getGrid();
+		for(int i1 = 1; i1 < NUMBER_OF_VARIANCE_STEPS; i1++) {
+			for(int i0 = 1; i0 < NUMBER_OF_SPOT_STEPS; i0++) {
+				final int k = getFlattenedIndex(i0, i1);
+				Assert.assertTrue("American put dominates exercise value", americanValues[k] >= Math.max(STRIKE - spots[i0], 0.0) - 1E-10);
+				Assert.assertTrue("American put dominates European put", americanValues[k] >= europeanValues[k] - 1E-10);
+			}
+		}
+	}
+
+	private static int getFlattenedIndex(final int spotIndex, final int varianceIndex) {
+		return spotIndex + varianceIndex * (NUMBER_OF_SPOT_STEPS + 1);
+	}
+
+	private static SpaceTimeDiscretization createSpaceTimeDiscretization() {
+		return new SpaceTimeDiscretization(
+				new Grid[] {
+						new UniformGrid(NUMBER_OF_SPOT_STEPS, 0.0, 300.0),
+						new UniformGrid(NUMBER_OF_VARIANCE_STEPS, 0.0, 0.48)
+				},
+				new TimeDiscretizationFromArray(0.0, NUMBER_OF_TIME_STEPS, MATURITY / NUMBER_OF_TIME_STEPS),
+				0.5,
+				new double[] { 100.0, 0.04 });
+	}
+
+	private static FDMHestonModel createHestonModel(final SpaceTimeDiscretization spaceTimeDiscretization) {
+		return new FDMHestonModel(
+				100.0,		// initial value
+				0.04,		// initial variance
+				0.05,		// risk free rate
+				0.0,		// dividend yield
+				1.5,		// kappa
+				0.04,		// theta
+				0.3,		// xi
+				-0.7,		// rho
+				spaceTimeDiscretization);
+	}
+}
@@ -0,0 +1,235 @@
+package net.finmath.finitedifference.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the sparse linear algebra used by {@link FDMThetaMethod2D}: {@link CompressedSparseRowMatrix},
+ * {@link SparseBiCGStab} with {@link IncompleteLUPreconditioner} and {@link ProjectedSparseSOR}.
+ *
+ * @author agent
+ */
+public class SparseSolversTest {
+
+	@Test
+	public void testMultiply() {
+		/*
+		 *     |  4  -1   0   0.5 |
+		 * A = | -2   5  -1   0   |
+		 *     |  0  -1   4  -1   |
+		 *     |  1   0  -1.5 3   |
+		 */
+		final CompressedSparseRowMatrix matrix = new CompressedSparseRowMatrix(
+				new int[] { 0, 3, 6, 9, 12 },
+				new int[] { 0, 1, 3,   0, 1, 2,   1, 2, 3,   0, 2, 3 },
+				new double[] { 4.0, -1.0, 0.5,   -2.0, 5.0, -1.0,   -1.0, 4.0, -1.0,   1.0, -1.5, 3.0 });
+
+		final double[] vector = new double[] { 1.0, 2.0, -1.0, 0.5 };
+		final double[] result = new double[4];
+		matrix.multiply(vector, result);
+
+		Assert.assertArrayEquals(new double[] { 2.25, 9.0, -6.5, 4.0 }, result, 1E-15);
+
+		Assert.assertEquals("Dimension", 4, matrix.getDimension());
+		Assert.assertEquals("Entry", -1.5, matrix.getEntry(3, 2), 0.0);
+		Assert.assertEquals("Entry outside pattern", 0.0, matrix.getEntry(0, 2), 0.0);
+
+		// alpha * I + beta * A, and identity rows
+		final CompressedSparseRowMatrix linearCombination = matrix.getLinearCombinationWithIdentity(1.0, -0.5);
+		linearCombination.setRowToIdentity(2);
+		linearCombination.multiply(vector, result);
+
+		Assert.assertArrayEquals(new double[] { 1.0 - 0.5 * 2.25, 2.0 - 0.5 * 9.0, -1.0, 0.5 - 0.5 * 4.0 }, result, 1E-15);
+		Assert.assertEquals("Matrix is not modified by linear combination", 4.0, matrix.getEntry(2, 2), 0.0);
+	}
+
+	@Test
+	public void testIncompleteLUOfTridiagonalMatrixIsExact() {
+		// For a tridiagonal matrix there is no fill-in, hence ILU(0) is the exact LU decomposition
+		final int n = 20;
+		final double[] lower = new double[n];
+		final double[] diagonal = new double[n];
+		final double[] upper = new double[n];
+		for(int i = 0; i < n; i++) {
+			lower[i] = -1.0 - 0.05 * i;
+			diagonal[i] = 3.0 + 0.1 * Math.sin(i);
+			upper[i] = -0.5;
+		}
+
+		final List<Integer> columns = new ArrayList<>();
+		final List<Double> values = new ArrayList<>();
+		final int[] rowPointers = new int[n + 1];
+		for(int i = 0; i < n; i++) {
+			if(i > 0) {
+				columns.add(i - 1);
+				values.add(lower[i]);
+			}
+			columns.add(i);
+			values.add(diagonal[i]);
+			if(i < n - 1) {
+				columns.add(i + 1);
+				values.add(upper[i]);
+			}
+			rowPointers[i + 1] = columns.size();
+		}
+		final CompressedSparseRowMatrix matrix = new CompressedSparseRowMatrix(
+				rowPointers,
+				columns.stream().mapToInt(Integer::intValue).toArray(),
+				values.stream().mapToDouble(Double::doubleValue).toArray());
+
+		final double[] rhs = createRightHandSide(n);
+		final double[] solution = new double[n];
+		new IncompleteLUPreconditioner(matrix).apply(rhs, solution);
+
+		Assert.assertArrayEquals(ThomasSolver.solve(lower, diagonal, upper, rhs), solution, 1E-12);
+	}
+
+	@Test
+	public void testBiCGStabWithIncompleteLUAgainstDirectSolve() {
+		final int n0 = 12;
+		final int n1 = 9;
+		final CompressedSparseRowMatrix matrix = createConvectionDiffusionMatrix(n0, n1);
+		final double[] rhs = createRightHandSide(n0 * n1);
+
+		final double[] solution = SparseBiCGStab.solve(matrix, new IncompleteLUPreconditioner(matrix), rhs, new double[rhs.length], 200, 1E-13);
+
+		final double[] directSolution = new LUDecomposition(toDense(matrix)).getSolver().solve(new ArrayRealVector(rhs)).toArray();
+
+		Assert.assertArrayEquals(directSolution, solution, 1E-10);
+
+		// Starting from the solution, no iteration is required
+		Assert.assertArrayEquals(directSolution, SparseBiCGStab.solve(matrix, new IncompleteLUPreconditioner(matrix), rhs, directSolution, 0, 1E-10), 1E-10);
+	}
+
+	@Test
+	public void testBiCGStabThrowsIfNotConverged() {
+		final CompressedSparseRowMatrix matrix = createConvectionDiffusionMatrix(12, 9);
+		final double[] rhs = createRightHandSide(matrix.getDimension());
+
+		// Without preconditioning (ILU of the identity) three iterations are not sufficient
+		final IncompleteLUPreconditioner identity = new IncompleteLUPreconditioner(matrix.getLinearCombinationWithIdentity(1.0, 0.0));
+
+		try {
+			SparseBiCGStab.solve(matrix, identity, rhs, new double[rhs.length], 3, 1E-14);
+			Assert.fail("Expected IllegalStateException.");
+		}
+		catch(final IllegalStateException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testProjectedSORRespectsObstacle() {
+		final int n0 = 12;
+		final int n1 = 9;
+		final int n = n0 * n1;
+		final CompressedSparseRowMatrix matrix = createConvectionDiffusionMatrix(n0, n1);
+		final double[] rhs = createRightHandSide(n);
+
+		final double[] obstacle = new double[n];
+		for(int i = 0; i < n; i++) {
+			obstacle[i] = 0.05 * Math.cos(0.3 * i);
+		}
+
+		final double[] solution = ProjectedSparseSOR.solve(matrix, rhs, obstacle, new double[n], 1.2, 2000, 1E-14);
+
+		final double[] residual = new double[n];
+		matrix.multiply(solution, residual);
+
+		int numberOfActiveNodes = 0;
+		int numberOfInactiveNodes = 0;
+		for(int i = 0; i < n; i++) {
+			residual[i] -= rhs[i];
+
+			Assert.assertTrue("Solution respects obstacle", solution[i] >= obstacle[i]);
+			Assert.assertTrue("A x >= b", residual[i] >= -1E-10);
+			if(solution[i] > obstacle[i] + 1E-10) {
+				numberOfInactiveNodes++;
+				Assert.assertEquals("A x = b where the obstacle is not active", 0.0, residual[i], 1E-10);
+			}
+			else {
+				numberOfActiveNodes++;
+			}
+		}
+
+		// The test is only meaningful if both sets are non-empty
+		Assert.assertTrue("Obstacle is active at some nodes", numberOfActiveNodes > 0);
+		Assert.assertTrue("Obstacle is inactive at some nodes", numberOfInactiveNodes > 0);
+	}
+
+	/**
+	 * Creates the matrix I - dt * L of an implicit step of a convection-diffusion operator L with
+	 * mixed derivative on a n0 x n1 grid (nine point stencil, non-symmetric).
+	 */
+	private static CompressedSparseRowMatrix createConvectionDiffusionMatrix(final int n0, final int n1) {
+		final double dt = 0.4;
+		final double diffusion0 = 1.0;
+		final double diffusion1 = 0.7;
+		final double mixed = 0.2;
+		final double convection0 = 0.8;
+		final double convection1 = -0.5;
+
+		final List<Integer> columns = new ArrayList<>();
+		final List<Double> values = new ArrayList<>();
+		final int[] rowPointers = new int[n0 * n1 + 1];
+		for(int i1 = 0; i1 < n1; i1++) {
+			for(int i0 = 0; i0 < n0; i0++) {
+				final int row = i0 + i1 * n0;
+				for(int d1 = -1; d1 <= 1; d1++) {
+					for(int d0 = -1; d0 <= 1; d0++) {
+						final int j0 = i0 + d0;
+						final int j1 = i1 + d1;
+						if(j0 < 0 || j0 >= n0 || j1 < 0 || j1 >= n1) {
+							continue;
+						}
+
+						double generator = 0.0;
+						if(d1 == 0) {
+							generator += diffusion0 * (d0 == 0 ? -2.0 : 1.0) + convection0 * 0.5 * d0;
+						}
+						if(d0 == 0) {
+							generator += diffusion1 * (d1 == 0 ? -2.0 : 1.0) + convection1 * 0.5 * d1;
+						}
+						if(d0 != 0 && d1 != 0) {
+							generator += 0.25 * mixed * d0 * d1;
+						}
+
+						columns.add(j0 + j1 * n0);
+						values.add((d0 == 0 && d1 == 0 ? 1.0 : 0.0) - dt * generator);
+					}
+				}
+				rowPointers[row + 1] = columns.size();
+			}
+		}
+
+		return new CompressedSparseRowMatrix(
+				rowPointers,
+				columns.stream().mapToInt(Integer::intValue).toArray(),
+				values.stream().mapToDouble(Double::doubleValue).toArray());
+	}
+
+	private static double[] createRightHandSide(final int n) {
+		final double[] rhs = new double[n];
+		for(int i = 0; i < n; i++) {
+			rhs[i] = Math.sin(0.1 * i) + 0.01 * i;
+		}
+		return rhs;
+	}
+
+	private static Array2DRowRealMatrix toDense(final CompressedSparseRowMatrix matrix) {
+		final int n = matrix.getDimension();
+		final double[][] dense = new double[n][n];
+		for(int i = 0; i < n; i++) {
+			for(int j = 0; j < n; j++) {
+				dense[i][j] = matrix.getEntry(i, j);
+			}
+		}
+		return new Array2DRowRealMatrix(dense, false);
+	}
+}
@@ -0,0 +1,104 @@
+package net.finmath.finitedifference.solvers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the variants of {@link ThomasSolver}: the non-allocating solve using caller supplied buffers and the
+ * multiple right-hand side solve perform the same arithmetic as the allocating solve, hence the results have
+ * to agree exactly.
+ *
+ * @author agent
+ */
+public class ThomasSolverTest {
+
+	private static final int SIZE = 25;
+
+	@Test
+	public void testSolveWithBuffersAgreesWithAllocatingSolve() {
+		final double[] lower = createLowerDiagonal();
+		final double[] diagonal = createMainDiagonal();
+		final double[] upper = createUpperDiagonal();
+
+		final double[] solution = new double[SIZE];
+		final double[] scratch = new double[SIZE];
+
+		for(int k = 0; k < 3; k++) {
+			final double[] rhs = createRightHandSide(k);
+			final double[] rhsCopy = rhs.clone();
+
+			final double[] expected = ThomasSolver.solve(lower, diagonal, upper, rhs);
+
+			// The buffers are reused from the previous solve, i.e., they are not zero on entry
+			final double[] result = ThomasSolver.solve(lower, diagonal, upper, rhs, solution, scratch);
+
+			Assert.assertSame("Returns the solution buffer", solution, result);
+			Assert.assertArrayEquals("Solution for right-hand side " + k, expected, result, 0.0);
+			Assert.assertArrayEquals("Right-hand side is not modified", rhsCopy, rhs, 0.0);
+
+			// In-place solve, overwriting the right-hand side by the solution
+			Assert.assertArrayEquals("In-place solution for right-hand side " + k, expected, ThomasSolver.solve(lower, diagonal, upper, rhsCopy, rhsCopy, scratch), 0.0);
+		}
+
+		// The solution solves the system
+		final double[] rhs = createRightHandSide(0);
+		final double[] x = ThomasSolver.solve(lower, diagonal, upper, rhs, solution, scratch);
+		for(int i = 0; i < SIZE; i++) {
+			double product = diagonal[i] * x[i];
+			if(i > 0) {
+				product += lower[i] * x[i - 1];
+			}
+			if(i < SIZE - 1) {
+				product += upper[i] * x[i + 1];
+			}
+			Assert.assertEquals("Row " + i, rhs[i], product, 1E-12);
+		}
+	}
+
+	@Test
+	public void testSolveWithMultipleRightHandSidesAgreesWithSingleSolves() {
+		final double[] lower = createLowerDiagonal();
+		final double[] diagonal = createMainDiagonal();
+		final double[] upper = createUpperDiagonal();
+
+		final double[][] rhs = new double[][] { createRightHandSide(0), createRightHandSide(1), createRightHandSide(2) };
+		final double[][] solutions = ThomasSolver.solve(lower, diagonal, upper, rhs);
+
+		Assert.assertEquals("Number of solutions", rhs.length, solutions.length);
+		for(int k = 0; k < rhs.length; k++) {
+			Assert.assertArrayEquals("Solution for right-hand side " + k, ThomasSolver.solve(lower, diagonal, upper, rhs[k]), solutions[k], 0.0);
+		}
+	}
+
+	private static double[] createLowerDiagonal() {
+		final double[] lower = new double[SIZE];
+		for(int i = 1; i < SIZE; i++) {
+			lower[i] = -1.0 - 0.02 * i;
+		}
+		return lower;
+	}
+
+	private static double[] createMainDiagonal() {
+		final double[] diagonal = new double[SIZE];
+		for(int i = 0; i < SIZE; i++) {
+			diagonal[i] = 3.5 + 0.3 * Math.cos(i);
+		}
+		return diagonal;
+	}
+
+	private static double[] createUpperDiagonal() {
+		final double[] upper = new double[SIZE];
+		for(int i = 0; i < SIZE - 1; i++) {
+			upper[i] = -0.8 + 0.01 * i;
+		}
+		return upper;
+	}
+
+	private static double[] createRightHandSide(final int k) {
+		final double[] rhs = new double[SIZE];
+		for(int i = 0; i < SIZE; i++) {
+			rhs[i] = Math.sin(0.2 * i + k) + 0.1 * k * i;
+		}
+		return rhs;
+	}
+}
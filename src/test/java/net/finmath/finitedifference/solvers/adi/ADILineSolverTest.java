@@ -0,0 +1,132 @@
+package net.finmath.finitedifference.solvers.adi;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.finitedifference.assetderivativevaluation.models.FDMHestonModel;
+import net.finmath.finitedifference.assetderivativevaluation.models.FiniteDifferenceEquityModel;
+import net.finmath.finitedifference.assetderivativevaluation.products.AsianOption;
+import net.finmath.finitedifference.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.finitedifference.grids.Grid;
+import net.finmath.finitedifference.grids.SpaceTimeDiscretization;
+import net.finmath.finitedifference.grids.UniformGrid;
+import net.finmath.modelling.AmericanExercise;
+import net.finmath.modelling.products.CallOrPut;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests that the ADI solvers give the same values if the line solves of a sweep are distributed over several
+ * threads by {@link ADILineSolver} as in serial execution.
+ *
+ * The sweeps are executed in a dedicated pool: a pool of parallelism one runs them serially, a pool of
+ * parallelism four distributes them in blocks (independent of the number of processors of the machine).
+ * The grids are large enough to exceed the minimum sweep size for parallel execution.
+ *
+ * @author agent
+ */
+public class ADILineSolverTest {
+
+	private static final double MATURITY = 1.0;
+	private static final double STRIKE = 100.0;
+
+	private static final int MIN_GRID_POINTS_FOR_PARALLEL_SWEEP = 4096;
+
+	@Test
+	public void testForEachLineDistributesLinesOverBlocks() throws InterruptedException, ExecutionException {
+		final int numberOfLines = 64;
+		final int lineLength = 128;
+
+		final int[] serialCalls = new int[numberOfLines];
+		final Set<ADILineSolver.Workspace> serialWorkspaces = Collections.newSetFromMap(new IdentityHashMap<>());
+		runInPool(1, () -> {
+			ADILineSolver.forEachLine(numberOfLines, lineLength, (line, workspace) -> {
+				serialCalls[line]++;
+				serialWorkspaces.add(workspace);
+			});
+			return null;
+		});
+
+		final int[] parallelCalls = new int[numberOfLines];
+		final Set<ADILineSolver.Workspace> parallelWorkspaces = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		runInPool(4, () -> {
+			ADILineSolver.forEachLine(numberOfLines, lineLength, (line, workspace) -> {
+				// Each line is written by exactly one block
+				parallelCalls[line]++;
+				parallelWorkspaces.add(workspace);
+			});
+			return null;
+		});
+
+		for(int line = 0; line < numberOfLines; line++) {
+			Assert.assertEquals("Serial solves of line " + line, 1, serialCalls[line]);
+			Assert.assertEquals("Parallel solves of line " + line, 1, parallelCalls[line]);
+		}
+		Assert.assertEquals("Serial execution uses a single workspace", 1, serialWorkspaces.size());
+		Assert.assertTrue("Parallel execution uses one workspace per block", parallelWorkspaces.size() > 1);
+	}
+
+	@Test
+	public void testHestonAmericanParallelEqualsSerial() throws InterruptedException, ExecutionException {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(100, 0.0, 300.0), new UniformGrid(50, 0.0, 0.6) },
+				new TimeDiscretizationFromArray(0.0, 20, MATURITY / 20),
+				0.5,
+				new double[] { 100.0, 0.04 });
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final FDMHestonADI2D solver = new FDMHestonADI2D(
+				model, new EuropeanOption(MATURITY, STRIKE, CallOrPut.PUT), spaceTimeDiscretization, new AmericanExercise(0.0, MATURITY));
+
+		final Callable<double[]> valuation = () -> solver.getValue(0.0, MATURITY, spot -> Math.max(STRIKE - spot, 0.0));
+
+		final double[] serialValues = runInPool(1, valuation);
+		final double[] parallelValues = runInPool(4, valuation);
+
+		Assert.assertTrue("Grid is large enough for parallel sweeps", serialValues.length >= MIN_GRID_POINTS_FOR_PARALLEL_SWEEP);
+		Assert.assertArrayEquals("Parallel values equal serial values", serialValues, parallelValues, 0.0);
+	}
+
+	@Test
+	public void testAsianHestonParallelEqualsSerial() throws InterruptedException, ExecutionException {
+		final SpaceTimeDiscretization spaceTimeDiscretization = new SpaceTimeDiscretization(
+				new Grid[] { new UniformGrid(40, 0.0, 300.0), new UniformGrid(12, 0.0, 0.6) },
+				new TimeDiscretizationFromArray(0.0, 10, MATURITY / 10),
+				0.5,
+				new double[] { 100.0, 0.04 });
+		final FDMHestonModel model = createHestonModel(spaceTimeDiscretization);
+
+		final AsianOption asianOption = new AsianOption(MATURITY, STRIKE, CallOrPut.CALL);
+		final FiniteDifferenceEquityModel liftedModel = asianOption.getLiftedModel(model);
+		final AbstractADI3D solver = (AbstractADI3D)asianOption.getSolver(liftedModel);
+
+		final AbstractADI3D.DoubleTernaryOperator payoff = (spot, variance, integral) -> Math.max(integral / MATURITY - STRIKE, 0.0);
+		final Callable<double[]> valuation = () -> solver.getValue(0.0, MATURITY, payoff);
+
+		final double[] serialValues = runInPool(1, valuation);
+		final double[] parallelValues = runInPool(4, valuation);
+
+		Assert.assertTrue("Grid is large enough for parallel sweeps", serialValues.length >= MIN_GRID_POINTS_FOR_PARALLEL_SWEEP);
+		Assert.assertArrayEquals("Parallel values equal serial values", serialValues, parallelValues, 0.0);
+	}
+
+	private static <T> T runInPool(final int parallelism, final Callable<T> task) throws InterruptedException, ExecutionException {
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.submit(task).get();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static FDMHestonModel createHestonModel(final SpaceTimeDiscretization spaceTimeDiscretization) {
+		return new FDMHestonModel(100.0, 0.04, 0.05, 0.0, 1.5, 0.04, 0.3, -0.7, spaceTimeDiscretization);
+	}
+}
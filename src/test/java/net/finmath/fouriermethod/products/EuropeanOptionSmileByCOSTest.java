@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod.products;
+
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.models.MertonModel;
+import net.finmath.fouriermethod.models.VarianceGammaModel;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmile;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByCOS;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByFractionalFFT;
+import net.finmath.functions.AnalyticFormulas;
+
+/**
+ * This class tests the COS method against the Black-Scholes closed-form solution
+ * and against the fractional FFT for other models.
+ *
+ * @author agent
+ */
+public class EuropeanOptionSmileByCOSTest {
+
+	private static final double initialValue	= 100.0;
+	private static final double volatility		= 0.25;
+	private static final double riskFreeRate	= 0.05;
+
+	@Test
+	public void testBlackScholes() throws CalculationException {
+
+		final double[] strikes = new double[] { 40, 60, 80, 90, 100, 110, 120, 160, 250 };
+
+		final CharacteristicFunctionModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility);
+
+		for(final double maturity : new double[] { 0.02, 0.25, 1.0, 3.0 }) {
+			final EuropeanOptionSmile smile = new EuropeanOptionSmileByCOS(maturity, strikes);
+			final Function<Double, Double> valuePerStrike = smile.getValue(0.0, model).get("valuePerStrike");
+
+			for(final double strike : strikes) {
+				final double valueAnalytic = AnalyticFormulas.blackScholesOptionValue(initialValue, riskFreeRate, volatility, maturity, strike);
+				Assert.assertEquals("Value for maturity " + maturity + " and strike " + strike, valueAnalytic, valuePerStrike.apply(strike), 1E-10);
+			}
+		}
+	}
+
+	@Test
+	public void testAgreesWithFractionalFFT() throws CalculationException {
+
+		final double[] strikes = new double[] { 0.7, 0.8, 0.9, 0.95, 1.0, 1.05, 1.1, 1.2, 1.4 };
+
+		final CharacteristicFunctionModel[] models = new CharacteristicFunctionModel[] {
+				new HestonModel(1.0, riskFreeRate, 0.2, 0.04, 1.5, 0.6, -0.7),
+				new MertonModel(1.0, riskFreeRate, 0.2, 0.5, -0.1, 0.15),
+				new VarianceGammaModel(1.0, riskFreeRate, riskFreeRate, 0.12, -0.14, 0.2)
+		};
+
+		for(final CharacteristicFunctionModel model : models) {
+			for(final double maturity : new double[] { 0.5, 2.0 }) {
+				final EuropeanOptionSmile smile = new EuropeanOptionSmileByCOS(maturity, strikes);
+				final Function<Double, Double> valuePerStrike = smile.getValue(0.0, model).get("valuePerStrike");
+				final Function<Double, Double> valuePerStrikeFFT = new EuropeanOptionSmileByFractionalFFT(maturity, strikes).getValue(0.0, model).get("valuePerStrike");
+				final Function<Double, Double> valuePerStrikeOfClone = smile.getCloneWithModifiedParameters(maturity, strikes).getValue(0.0, model).get("valuePerStrike");
+
+				for(final double strike : strikes) {
+					final String message = model.getClass().getSimpleName() + " maturity " + maturity + " strike " + strike;
+					Assert.assertEquals(message, valuePerStrikeFFT.apply(strike), valuePerStrike.apply(strike), 1E-6);
+					Assert.assertEquals(message, valuePerStrike.apply(strike), valuePerStrikeOfClone.apply(strike), 0.0);
+				}
+			}
+		}
+	}
+}
@@ -39,6 +39,7 @@ public class RandomVariableTest {
 			{ new RandomVariableFromArrayFactory(true /* isUseDoublePrecisionFloatingPointImplementation */) },
 			{ new RandomVariableFromArrayFactory(false /* isUseDoublePrecisionFloatingPointImplementation */) },
 			{ new RandomVariableLazyEvaluationFactory() },
+			{ new RandomVariableLazyExpressionFactory() },
 			{ new RandomVariableDifferentiableAADFactory() },
 			{ new RandomVariableDifferentiableADFactory() },
 		});
@@ -172,6 +173,59 @@ public class RandomVariableTest {
 		Assert.assertEquals(2.33, q99, 1E-2);
 	}
 
+	@Test
+	public void testGetQuantilesAgainstSort() {
+
+		final int seed = 3141;
+		final int numberOfSamplePoints = 10001;
+
+		final MersenneTwister mersenneTwister = new MersenneTwister(seed);
+		final double[] samples = new double[numberOfSamplePoints];
+		for(int i = 0; i< numberOfSamplePoints; i++) {
+			// Use values with ties
+			samples[i] = Math.round(100 * mersenneTwister.nextDouble()) / 10.0;
+		}
+
+		final RandomVariable randomVariable = randomVariableFactory.createRandomVariable(0.0,samples);
+
+		final double[] realizationsSorted = randomVariable.getRealizations().clone();
+		Arrays.sort(realizationsSorted);
+
+		final double[] quantiles = { 0.0, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 1.0 };
+		final double[] quantileValues = randomVariable.getQuantiles(quantiles);
+		for(int i=0; i<quantiles.length; i++) {
+			final int index = Math.min(Math.max((int)Math.round((numberOfSamplePoints+1) * quantiles[i] - 1), 0), numberOfSamplePoints-1);
+			Assert.assertEquals("Quantile " + quantiles[i], realizationsSorted[index], randomVariable.getQuantile(quantiles[i]), 0.0);
+			Assert.assertEquals("Quantile " + quantiles[i], realizationsSorted[index], quantileValues[i], 0.0);
+		}
+
+		// Quantile expectation
+		final int indexStart = (int)Math.round((numberOfSamplePoints+1) * 0.05 - 1);
+		final int indexEnd = (int)Math.round((numberOfSamplePoints+1) * 0.25 - 1);
+		double quantileExpectation = 0.0;
+		for(int i=indexStart; i<=indexEnd; i++) {
+			quantileExpectation += realizationsSorted[i];
+		}
+		quantileExpectation /= (indexEnd-indexStart+1);
+		Assert.assertEquals(quantileExpectation, randomVariable.getQuantileExpectation(0.05, 0.25), 1E-12);
+	}
+
+	@Test
+	public void testGetQuantileWithProbabilities() {
+
+		final RandomVariable randomVariable = randomVariableFactory.createRandomVariable(0.0,
+				new double[] { 4.0,  1.0, 3.0, 2.0 } );
+
+		final RandomVariable probabilities = randomVariableFactory.createRandomVariable(0.0,
+				new double[] { 0.1,  0.4, 0.2, 0.3 } );
+
+		// Cumulative probabilities of the sorted values 1, 2, 3, 4 are 0.4, 0.7, 0.9, 1.0
+		final double[] quantileValues = randomVariable.getQuantiles(new double[] { 0.0, 0.39, 0.41, 0.69, 0.71, 0.95, 1.0 }, probabilities);
+		Assert.assertArrayEquals(new double[] { 1.0, 1.0, 2.0, 2.0, 3.0, 4.0, 4.0 }, quantileValues, 0.0);
+
+		Assert.assertEquals(3.0, randomVariable.getQuantile(0.8, probabilities), 0.0);
+	}
+
 	@Test
 	public void testAdd() {
 
@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.automaticdifferentiation.backward;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.AssetModelMonteCarloSimulationModel;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.AsianOption;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiableFactory;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link RandomVariableDifferentiableAADTape}, comparing the gradients with {@link RandomVariableDifferentiableAAD}.
+ *
+ * @author agent
+ */
+public class RandomVariableDifferentiableAADTapeTest {
+
+	@Test
+	public void testRecordingOnMultipleThreads() {
+		final RandomVariableDifferentiableAADTapeFactory factory = new RandomVariableDifferentiableAADTapeFactory();
+
+		final RandomVariableDifferentiable x = factory.createRandomVariable(0.0, new double[] { 0.5, 1.0, 1.5, 2.0 });
+
+		// Record the summands on the threads of the common pool
+		final int numberOfSummands = 100;
+		final RandomVariable[] summands = new RandomVariable[numberOfSummands];
+		IntStream.range(0, numberOfSummands).parallel().forEach(i -> summands[i] = x.mult(i * 0.01).exp().mult(x));
+
+		RandomVariable sum = summands[0];
+		for(int i=1; i<numberOfSummands; i++) {
+			sum = sum.add(summands[i]);
+		}
+
+		final Map<Long, RandomVariable> gradient = ((RandomVariableDifferentiable)sum).getGradient();
+		Assert.assertEquals("Gradient only contains the independent", 1, gradient.size());
+
+		// d/dx x exp(a x) = exp(a x) (1 + a x)
+		RandomVariable derivativeAnalytic = x.mult(0.0);
+		for(int i=0; i<numberOfSummands; i++) {
+			final double a = i * 0.01;
+			derivativeAnalytic = derivativeAnalytic.add(x.getValues().mult(a).exp().mult(x.getValues().mult(a).add(1.0)));
+		}
+
+		final RandomVariable derivative = gradient.get(x.getID());
+		Assert.assertEquals(0.0, derivative.sub(derivativeAnalytic.getValues()).abs().getMax(), 1E-10);
+
+		// A second gradient evaluation re-uses the adjoint arrays
+		final RandomVariable derivative2 = ((RandomVariableDifferentiable)sum).getGradient().get(x.getID());
+		Assert.assertEquals(0.0, derivative2.sub(derivative).abs().getMax(), 0.0);
+	}
+
+	@Test
+	public void testGradientAgreesWithOperatorTree() throws CalculationException {
+		final double[] sensitivitiesTape = getSensitivities(new RandomVariableDifferentiableAADTapeFactory(new RandomVariableFromArrayFactory()));
+		final double[] sensitivitiesTree = getSensitivities(new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory()));
+
+		Assert.assertArrayEquals(sensitivitiesTree, sensitivitiesTape, 1E-12);
+	}
+
+	@Test
+	public void testResetTapes() {
+		final RandomVariableDifferentiableAADTapeFactory factory = new RandomVariableDifferentiableAADTapeFactory();
+
+		final RandomVariableDifferentiable x = factory.createRandomVariable(2.0);
+		final RandomVariable y = x.squared();
+		Assert.assertTrue(factory.getNumberOfRecordedOperations() >= 2);
+
+		factory.resetTapes();
+		Assert.assertEquals(0, factory.getNumberOfRecordedOperations());
+
+		try {
+			((RandomVariableDifferentiable)y).getGradient();
+			Assert.fail("Expected IllegalStateException.");
+		}
+		catch(final IllegalStateException e) {
+			// Expected
+		}
+
+		final RandomVariableDifferentiable z = factory.createRandomVariable(3.0);
+		Assert.assertEquals(6.0, ((RandomVariableDifferentiable)z.squared()).getGradient().get(z.getID()).doubleValue(), 0.0);
+	}
+
+	private static double[] getSensitivities(final RandomVariableDifferentiableFactory randomVariableFactory) throws CalculationException {
+		final RandomVariableDifferentiable initialValue	= randomVariableFactory.createRandomVariable(1.0);
+		final RandomVariableDifferentiable riskFreeRate	= randomVariableFactory.createRandomVariable(0.05);
+		final RandomVariableDifferentiable volatility	= randomVariableFactory.createRandomVariable(0.30);
+
+		final BlackScholesModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility, randomVariableFactory);
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.1);
+		final EulerSchemeFromProcessModel process = new EulerSchemeFromProcessModel(model, new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, 10000, 3141));
+		final AssetModelMonteCarloSimulationModel monteCarloModel = new MonteCarloAssetModel(model, process);
+
+		final AsianOption product = new AsianOption(2.0, 1.05, new TimeDiscretizationFromArray(0.0, 0.5, 1.0, 1.5, 2.0));
+		final RandomVariable value = product.getValue(0.0, monteCarloModel);
+
+		final Map<Long, RandomVariable> gradient = ((RandomVariableDifferentiable)value).getGradient();
+
+		return new double[] {
+				value.getAverage(),
+				gradient.get(initialValue.getID()).getAverage(),
+				gradient.get(riskFreeRate.getID()).getAverage(),
+				gradient.get(volatility.getID()).getAverage()
+		};
+	}
+}
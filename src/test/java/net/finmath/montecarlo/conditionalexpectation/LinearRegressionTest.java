@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.conditionalexpectation;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.functions.LinearAlgebra;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Tests for {@link LinearRegression} and the fused accumulation of the normal equations.
+ *
+ * @author agent
+ */
+public class LinearRegressionTest {
+
+	private static final int numberOfPaths = 100000;
+
+	private final RandomVariable[] basisFunctions;
+	private final RandomVariable noise;
+
+	public LinearRegressionTest() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final double[] x = new double[numberOfPaths];
+		final double[] epsilon = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			x[i] = mersenneTwister.nextDouble() * 2.0 - 1.0;
+			epsilon[i] = mersenneTwister.nextGaussian() * 0.1;
+		}
+		final RandomVariable randomVariableX = new RandomVariableFromDoubleArray(0.0, x);
+		basisFunctions = new RandomVariable[] { new Scalar(1.0), randomVariableX, randomVariableX.squared(), randomVariableX.pow(3) };
+		noise = new RandomVariableFromDoubleArray(0.0, epsilon);
+	}
+
+	@Test
+	public void testNormalEquationsAgainstScalarProducts() {
+		final RandomVariable dependent = basisFunctions[1].exp().add(noise);
+
+		final NormalEquations normalEquations = NormalEquations.of(basisFunctions, new RandomVariable[] { dependent }, true);
+		for(int i=0; i<basisFunctions.length; i++) {
+			for(int j=0; j<basisFunctions.length; j++) {
+				Assert.assertEquals(basisFunctions[i].mult(basisFunctions[j]).getAverage(), normalEquations.getGramMatrix()[i][j], 1E-12);
+			}
+			Assert.assertEquals(dependent.mult(basisFunctions[i]).getAverage(), normalEquations.getProjections()[0][i], 1E-12);
+		}
+	}
+
+	@Test
+	public void testRegressionCoefficients() {
+		final double[] coefficients = { 0.5, -1.0, 2.0, 0.25 };
+		RandomVariable dependent = noise;
+		for(int i=0; i<basisFunctions.length; i++) {
+			dependent = dependent.addProduct(basisFunctions[i], coefficients[i]);
+		}
+
+		final LinearRegression linearRegression = new LinearRegression(basisFunctions);
+		final double[] regressionCoefficients = linearRegression.getRegressionCoefficients(dependent);
+
+		Assert.assertArrayEquals(coefficients, regressionCoefficients, 1E-2);
+
+		// Compare with the solution of the normal equations build from the scalar products
+		final double[][] BTB = new double[basisFunctions.length][basisFunctions.length];
+		final double[] BTX = new double[basisFunctions.length];
+		for(int i=0; i<basisFunctions.length; i++) {
+			for(int j=0; j<basisFunctions.length; j++) {
+				BTB[i][j] = basisFunctions[i].mult(basisFunctions[j]).getAverage();
+			}
+			BTX[i] = basisFunctions[i].mult(dependent).getAverage();
+		}
+		Assert.assertArrayEquals(LinearAlgebra.solveLinearEquationLeastSquare(BTB, BTX), regressionCoefficients, 1E-10);
+	}
+
+	@Test
+	public void testMultipleDependents() {
+		final RandomVariable[] dependents = new RandomVariable[] {
+				basisFunctions[1].exp().add(noise),
+				basisFunctions[1].cos(),
+				new Scalar(2.0),
+				basisFunctions[2].sub(noise)
+		};
+
+		final double[][] regressionCoefficients = new LinearRegression(basisFunctions).getRegressionCoefficients(dependents);
+
+		// The same linear regression object is used for consecutive calls (re-using the decomposition)
+		final LinearRegression linearRegression = new LinearRegression(basisFunctions);
+		for(int k=0; k<dependents.length; k++) {
+			Assert.assertArrayEquals(linearRegression.getRegressionCoefficients(dependents[k]), regressionCoefficients[k], 1E-12);
+		}
+
+		// Constant is regressed on the constant basis function
+		Assert.assertArrayEquals(new double[] { 2.0, 0.0, 0.0, 0.0 }, regressionCoefficients[2], 1E-10);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.conditionalexpectation;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.ConditionalExpectationEstimator;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.stochastic.Scalar;
+
+/**
+ * Tests for the regression of multiple dependents in {@link MonteCarloConditionalExpectationRegression}.
+ *
+ * @author agent
+ */
+public class MonteCarloConditionalExpectationRegressionTest {
+
+	private static final int numberOfPaths = 50000;
+
+	private final RandomVariable[] basisFunctions;
+	private final RandomVariable[] dependents;
+
+	public MonteCarloConditionalExpectationRegressionTest() {
+		final MersenneTwister mersenneTwister = new MersenneTwister(3141);
+		final double[] x = new double[numberOfPaths];
+		final double[] epsilon = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			x[i] = mersenneTwister.nextGaussian();
+			epsilon[i] = mersenneTwister.nextGaussian();
+		}
+		final RandomVariable randomVariableX = new RandomVariableFromDoubleArray(0.0, x);
+		final RandomVariable noise = new RandomVariableFromDoubleArray(0.0, epsilon);
+
+		basisFunctions = new RandomVariable[] { new Scalar(1.0), randomVariableX, randomVariableX.squared() };
+
+		dependents = new RandomVariable[20];
+		for(int k=0; k<dependents.length; k++) {
+			// Values of call options on X with different strikes plus some noise
+			dependents[k] = randomVariableX.sub(-1.0 + 0.1 * k).floor(0.0).addProduct(noise, 0.1 * k);
+		}
+	}
+
+	@Test
+	public void testMultipleDependentsAgainstSingleDependent() {
+		final MonteCarloConditionalExpectationRegression conditionalExpectationOperator = new MonteCarloConditionalExpectationRegression(basisFunctions);
+
+		final double[][] linearRegressionParameters = conditionalExpectationOperator.getLinearRegressionParameters(dependents);
+		final RandomVariable[] conditionalExpectations = conditionalExpectationOperator.getConditionalExpectations(dependents);
+
+		for(int k=0; k<dependents.length; k++) {
+			// A new estimator to ensure that the calculation does not rely on the cache
+			final MonteCarloConditionalExpectationRegression conditionalExpectationOperatorSingle = new MonteCarloConditionalExpectationRegression(basisFunctions);
+
+			Assert.assertArrayEquals(conditionalExpectationOperatorSingle.getLinearRegressionParameters(dependents[k]), linearRegressionParameters[k], 1E-12);
+			Assert.assertEquals(0.0, conditionalExpectationOperatorSingle.getConditionalExpectation(dependents[k]).sub(conditionalExpectations[k]).getStandardDeviation(), 1E-12);
+		}
+	}
+
+	@Test
+	public void testProjectionProperty() {
+		final ConditionalExpectationEstimator conditionalExpectationOperator = new MonteCarloConditionalExpectationRegression(basisFunctions);
+
+		final RandomVariable[] conditionalExpectations = conditionalExpectationOperator.getConditionalExpectations(dependents);
+
+		// The residual is orthogonal to the basis functions
+		for(int k=0; k<dependents.length; k++) {
+			final RandomVariable residual = dependents[k].sub(conditionalExpectations[k]);
+			for(final RandomVariable basisFunction : basisFunctions) {
+				Assert.assertEquals(0.0, residual.mult(basisFunction).getAverage(), 1E-10);
+			}
+		}
+	}
+
+	@Test
+	public void testLocalizedOnDependents() {
+		final MonteCarloConditionalExpectationRegression conditionalExpectationOperator = new MonteCarloConditionalExpectationRegressionLocalizedOnDependents(basisFunctions, 4.0);
+
+		final double[][] linearRegressionParameters = conditionalExpectationOperator.getLinearRegressionParameters(dependents);
+		for(int k=0; k<dependents.length; k++) {
+			Assert.assertArrayEquals(conditionalExpectationOperator.getLinearRegressionParameters(dependents[k]), linearRegressionParameters[k], 1E-12);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.IndependentIncrements;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.interestrate.LIBORMarketModelValuationTest;
+import net.finmath.montecarlo.interestrate.LIBORModelMonteCarloSimulationModel;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.ExecutionStrategy;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel.Scheme;
+
+/**
+ * Tests for the execution strategies of {@link EulerSchemeFromProcessModel}.
+ *
+ * @author agent
+ */
+public class EulerSchemeFromProcessModelTest {
+
+	@Test
+	public void testExecutionStrategiesGiveIdenticalResults() throws CalculationException {
+		final LIBORModelMonteCarloSimulationModel simulation = LIBORMarketModelValuationTest.createLIBORMarketModel(new RandomVariableFromArrayFactory(), 2000, 3, 0.1);
+		final ProcessModel model = simulation.getModel();
+		final IndependentIncrements brownianMotion = simulation.getProcess().getStochasticDriver();
+
+		final MonteCarloProcess processSerial = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.PREDICTOR_CORRECTOR, ExecutionStrategy.SERIAL, 1);
+		final MonteCarloProcess processForkJoin = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.PREDICTOR_CORRECTOR, ExecutionStrategy.SHARED_FORK_JOIN_POOL, 7);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final MonteCarloProcess processExecutor = new EulerSchemeFromProcessModel(model, brownianMotion, Scheme.PREDICTOR_CORRECTOR, executor, 3);
+
+			final int lastTimeIndex = processSerial.getTimeDiscretization().getNumberOfTimeSteps();
+			for(int componentIndex=0; componentIndex<processSerial.getNumberOfComponents(); componentIndex++) {
+				final double[] valuesSerial = processSerial.getProcessValue(lastTimeIndex, componentIndex).getRealizations();
+				Assert.assertArrayEquals(valuesSerial, processForkJoin.getProcessValue(lastTimeIndex, componentIndex).getRealizations(), 0.0);
+				Assert.assertArrayEquals(valuesSerial, processExecutor.getProcessValue(lastTimeIndex, componentIndex).getRealizations(), 0.0);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testClonePreservesExecutionStrategy() {
+		final LIBORModelMonteCarloSimulationModel simulation;
+		try {
+			simulation = LIBORMarketModelValuationTest.createLIBORMarketModel(new RandomVariableFromArrayFactory(), 100, 1, 0.1);
+		}
+		catch(final CalculationException e) {
+			throw new RuntimeException(e);
+		}
+
+		final EulerSchemeFromProcessModel process = new EulerSchemeFromProcessModel(simulation.getModel(), simulation.getProcess().getStochasticDriver(), Scheme.EULER, ExecutionStrategy.SERIAL, 5);
+		final EulerSchemeFromProcessModel processCloned = (EulerSchemeFromProcessModel)process.getCloneWithModifiedSeed(1234);
+
+		Assert.assertNull(processCloned.getExecutor());
+		Assert.assertEquals(5, processCloned.getNumberOfComponentsPerTask());
+		Assert.assertEquals(Scheme.EULER, processCloned.getScheme());
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.products;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.MonteCarloProduct;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.interestrate.LIBORModelMonteCarloSimulationModel;
+import net.finmath.montecarlo.interestrate.LIBORMonteCarloSimulationFromLIBORModel;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.interestrate.products.Caplet;
+import net.finmath.montecarlo.interestrate.products.Swap;
+import net.finmath.montecarlo.interestrate.products.components.NotionalFromConstant;
+import net.finmath.montecarlo.interestrate.products.indices.LIBORIndex;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.Schedule;
+import net.finmath.time.ScheduleGenerator;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+import net.finmath.time.businessdaycalendar.BusinessdayCalendarExcludingTARGETHolidays;
+
+/**
+ * Tests for {@link PortfolioMonteCarloProduct}, comparing the parallel valuation with a serial valuation.
+ *
+ * @author agent
+ */
+public class PortfolioMonteCarloProductTest {
+
+	private final LocalDate referenceDate = LocalDate.of(2014, 8, 12);
+
+	@Test
+	public void testValueAgreesWithSerialValuation() throws CalculationException {
+		final MonteCarloProduct[] products = new MonteCarloProduct[] {
+				createSwap("10Y", 0.04),
+				new Caplet(2.0, 0.5, 0.04),
+				createSwap("2Y", 0.03),
+				new PortfolioMonteCarloProduct(new MonteCarloProduct[] { new Caplet(5.0, 0.5, 0.05), createSwap("5Y", 0.035) }, new double[] { 2.0, -0.5 }),
+				new Caplet(1.0, 0.5, 0.03)
+		};
+		final double[] weights = new double[] { 1.0, 3.0, -2.0, 0.5, 1.0 };
+
+		for(final Optional<Integer> numberOfThreads : new Optional[] { Optional.empty(), Optional.of(3) }) {
+			final LIBORModelMonteCarloSimulationModel model = createLIBORMarketModel();
+
+			final RandomVariable value = new PortfolioMonteCarloProduct(products, weights, numberOfThreads).getValue(0.0, model);
+
+			RandomVariable valueSerial = products[0].getValue(0.0, model).mult(weights[0]);
+			for(int i=1; i<products.length; i++) {
+				valueSerial = valueSerial.add(products[i].getValue(0.0, model).mult(weights[i]));
+			}
+
+			Assert.assertEquals("Number of threads " + numberOfThreads, 0.0, value.sub(valueSerial).abs().getMax(), 0.0);
+		}
+	}
+
+	@Test
+	public void testCalculationExceptionIsPropagated() {
+		final MonteCarloProduct failingProduct = new net.finmath.montecarlo.AbstractMonteCarloProduct() {
+			@Override
+			public RandomVariable getValue(final double evaluationTime, final net.finmath.montecarlo.MonteCarloSimulationModel model) throws CalculationException {
+				throw new CalculationException("Failed.");
+			}
+		};
+
+		try {
+			new PortfolioMonteCarloProduct(new MonteCarloProduct[] { new Caplet(1.0, 0.5, 0.03), failingProduct }).getValue(0.0, createLIBORMarketModel());
+			Assert.fail("Expected CalculationException.");
+		}
+		catch(final CalculationException e) {
+			Assert.assertEquals("Failed.", e.getMessage());
+		}
+	}
+
+	private Swap createSwap(final String maturity, final double swapRate) {
+		final Schedule schedule = ScheduleGenerator.createScheduleFromConventions(referenceDate, 2, "0D", maturity, "semiannual", "30/360", "first", "following", new BusinessdayCalendarExcludingTARGETHolidays(), -2, 0);
+		return new Swap(new NotionalFromConstant(1.0), schedule, new LIBORIndex(0.0, 0.5), 0.0, schedule, null, swapRate);
+	}
+
+	private static LIBORModelMonteCarloSimulationModel createLIBORMarketModel() {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 30, 0.5);
+		final TimeDiscretization liborPeriodDiscretization = new TimeDiscretizationFromArray(0.0, 30, 0.5);
+
+		final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+				"forwardCurve",
+				new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0},
+				new double[] {0.02, 0.025, 0.03, 0.035, 0.04},
+				0.5);
+
+		final LIBORCovarianceModelFromVolatilityAndCorrelation covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false),
+				new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, 3, 0.1));
+
+		final Map<String, String> properties = new HashMap<>();
+		properties.put("measure", LIBORMarketModelFromCovarianceModel.Measure.SPOT.name());
+		properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.LOGNORMAL.name());
+
+		try {
+			final LIBORMarketModelFromCovarianceModel liborMarketModel = LIBORMarketModelFromCovarianceModel.of(liborPeriodDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve),
+					new RandomVariableFromArrayFactory(), covarianceModel, null, properties);
+
+			return new LIBORMonteCarloSimulationFromLIBORModel(new EulerSchemeFromProcessModel(liborMarketModel, new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 3, 5000, 3141)));
+		}
+		catch(final CalculationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import net.finmath.exception.CalculationException;
+import net.finmath.modelling.products.CallOrPut;
 import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
 import net.finmath.montecarlo.assetderivativevaluation.AssetModelMonteCarloSimulationModel;
 import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
@@ -17,7 +18,9 @@ import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.TimeDiscretization;
 import net.finmath.time.TimeDiscretizationFromArray;
 // Tree side:
+import net.finmath.tree.assetderivativevaluation.models.BoyleTrinomial;
 import net.finmath.tree.assetderivativevaluation.models.CoxRossRubinsteinModel;
+import net.finmath.tree.assetderivativevaluation.products.LookbackOption;
 
 
 /**
@@ -126,4 +129,66 @@ public class PathDependentOptionTreeTest {
 
 		Assert.assertEquals("Tree vs Monte Carlo price mismatch", mcValue, treeValue, tolerance);
 	}
+
+	@Test
+	public void testNodeCompressedTreeVersusFullTree() {
+
+		final double S0 = 100.0;
+		final double r  = 0.04;
+		final double sigma = 0.25;
+
+		final double maturity = 1.0;
+		final double strike   = 90.0;
+
+		final int numberOfTimeSteps = 12;
+		final int[] fixingTimeIndices = IntStream.rangeClosed(0, numberOfTimeSteps).toArray();
+
+		final TreeModel treeModel =
+				new CoxRossRubinsteinModel(S0, r, sigma, maturity, maturity / numberOfTimeSteps);
+
+		final double asianFull = new net.finmath.tree.assetderivativevaluation.products.AsianOption(
+				maturity, strike, fixingTimeIndices).getValue(treeModel);
+		final double asianCompressed = new net.finmath.tree.assetderivativevaluation.products.AsianOption(
+				maturity, strike, fixingTimeIndices, 50).getValue(treeModel);
+
+		final double lookbackFull = new LookbackOption(
+				maturity, fixingTimeIndices, CallOrPut.CALL).getValue(treeModel);
+		final double lookbackCompressed = new LookbackOption(
+				maturity, fixingTimeIndices, CallOrPut.CALL, 50).getValue(treeModel);
+
+		System.out.println("Asian option (full tree)       : " + asianFull);
+		System.out.println("Asian option (compressed tree) : " + asianCompressed);
+		System.out.println("Lookback call (full tree)      : " + lookbackFull);
+		System.out.println("Lookback call (compressed tree): " + lookbackCompressed);
+
+		Assert.assertEquals("Asian: compressed vs full tree", asianFull, asianCompressed, 1.0e-3);
+		Assert.assertEquals("Lookback: compressed vs full tree", lookbackFull, lookbackCompressed, 5.0e-2);
+	}
+
+	@Test
+	public void testNodeCompressedTreeWithManyTimeSteps() {
+
+		final double S0 = 100.0;
+		final double r  = 0.04;
+		final double sigma = 0.25;
+
+		final double maturity = 1.0;
+		final double strike   = 90.0;
+
+		// A full path tree would have 2^500 (3^500) terminal nodes.
+		final int numberOfTimeSteps = 500;
+		final int[] fixingTimeIndices = IntStream.rangeClosed(0, numberOfTimeSteps).toArray();
+
+		final net.finmath.tree.assetderivativevaluation.products.AsianOption treeAsian =
+				new net.finmath.tree.assetderivativevaluation.products.AsianOption(
+						maturity, strike, fixingTimeIndices, 50);
+
+		final double valueBinomial = treeAsian.getValue(new CoxRossRubinsteinModel(S0, r, sigma, maturity, maturity / numberOfTimeSteps));
+		final double valueTrinomial = treeAsian.getValue(new BoyleTrinomial(S0, r, sigma, maturity, maturity / numberOfTimeSteps));
+
+		System.out.println("Asian option (CRR, 500 steps)  : " + valueBinomial);
+		System.out.println("Asian option (Boyle, 500 steps): " + valueTrinomial);
+
+		Assert.assertEquals("Binomial vs trinomial compressed tree", valueBinomial, valueTrinomial, 1.0e-2);
+	}
 }
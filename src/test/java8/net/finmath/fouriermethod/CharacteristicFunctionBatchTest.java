@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.fouriermethod.models.BatesModel;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.models.MertonModel;
+import net.finmath.fouriermethod.models.VarianceGammaModel;
+import net.finmath.fouriermethod.products.DigitalOption;
+import net.finmath.fouriermethod.products.EuropeanOption;
+
+/**
+ * Tests that the batch evaluation of characteristic functions agrees with the evaluation for single arguments.
+ *
+ * @author agent
+ */
+public class CharacteristicFunctionBatchTest {
+
+	private final double[] argumentsReal;
+	private final double[] argumentsImaginary;
+
+	public CharacteristicFunctionBatchTest() {
+		final double[] lines = new double[] { -1.5, -0.5, 0.0, 0.5 };
+		final int numberOfPointsPerLine = 201;
+		argumentsReal = new double[lines.length * numberOfPointsPerLine];
+		argumentsImaginary = new double[lines.length * numberOfPointsPerLine];
+		for(int j=0; j<lines.length; j++) {
+			for(int i=0; i<numberOfPointsPerLine; i++) {
+				argumentsReal[j*numberOfPointsPerLine + i] = -50.0 + 0.5 * i + 0.01;
+				argumentsImaginary[j*numberOfPointsPerLine + i] = lines[j];
+			}
+		}
+	}
+
+	@Test
+	public void testModels() {
+		final CharacteristicFunctionModel[] models = new CharacteristicFunctionModel[] {
+				new BlackScholesModel(100.0, 0.05, 0.25),
+				new MertonModel(100.0, 0.05, 0.2, 0.5, -0.1, 0.15),
+				new VarianceGammaModel(100.0, 0.05, 0.03, 0.12, -0.14, 0.2),
+				new HestonModel(100.0, 0.05, 0.2, 0.04, 1.5, 0.6, -0.7),
+				new BatesModel(100.0, 0.05, 0.2, 0.06, 1.5, 0.6, -0.7, 0.1, 0.5, -0.1, 0.15),
+				new BatesModel(100.0, 0.05, 0.03, new double[] { 0.04, 0.02 }, new double[] { 0.06, 0.01 }, new double[] { 1.5, 0.3 },
+						new double[] { 0.6, 0.2 }, new double[] { -0.7, -0.3 }, new double[] { 0.1, 0.5, 1.0 }, -0.1, 0.15)
+		};
+
+		for(final CharacteristicFunctionModel model : models) {
+			for(final double time : new double[] { 0.1, 2.0 }) {
+				assertBatchAgreesWithSingleEvaluation(model.getClass().getSimpleName() + " " + time, model.apply(time));
+			}
+		}
+	}
+
+	@Test
+	public void testProducts() {
+		assertBatchAgreesWithSingleEvaluation("EuropeanOption", new EuropeanOption(1.0, 95.0));
+		assertBatchAgreesWithSingleEvaluation("DigitalOption", new DigitalOption(1.0, 95.0));
+	}
+
+	private void assertBatchAgreesWithSingleEvaluation(final String message, final CharacteristicFunction characteristicFunction) {
+		final double[] valuesReal = new double[argumentsReal.length];
+		final double[] valuesImaginary = new double[argumentsReal.length];
+		characteristicFunction.apply(argumentsReal, argumentsImaginary, valuesReal, valuesImaginary);
+
+		for(int i=0; i<argumentsReal.length; i++) {
+			final Complex value = characteristicFunction.apply(new Complex(argumentsReal[i], argumentsImaginary[i]));
+			final double tolerance = 1E-12 * Math.max(1.0, value.abs());
+			Assert.assertEquals(message + " real part at " + i, value.getReal(), valuesReal[i], tolerance);
+			Assert.assertEquals(message + " imaginary part at " + i, value.getImaginary(), valuesImaginary[i], tolerance);
+		}
+	}
+}
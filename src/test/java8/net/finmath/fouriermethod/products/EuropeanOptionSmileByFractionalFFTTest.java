@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.fouriermethod.products;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.fouriermethod.models.BlackScholesModel;
+import net.finmath.fouriermethod.models.CharacteristicFunctionModel;
+import net.finmath.fouriermethod.models.HestonModel;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmile;
+import net.finmath.fouriermethod.products.smile.EuropeanOptionSmileByFractionalFFT;
+import net.finmath.functions.AnalyticFormulas;
+
+/**
+ * This class tests the fractional FFT smile valuation against the Black-Scholes closed-form solution
+ * and against the valuation of single options by direct integration.
+ *
+ * @author agent
+ */
+public class EuropeanOptionSmileByFractionalFFTTest {
+
+	private static final double initialValue	= 100.0;
+	private static final double volatility		= 0.25;
+	private static final double riskFreeRate	= 0.05;
+
+	@Test
+	public void testBlackScholes() throws CalculationException {
+
+		final double[] strikes = new double[] { 60, 70, 80, 90, 95, 100, 105, 110, 120, 140, 160 };
+
+		final CharacteristicFunctionModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility);
+
+		for(final double maturity : new double[] { 0.25, 1.0, 3.0 }) {
+			final EuropeanOptionSmile smile = new EuropeanOptionSmileByFractionalFFT(maturity, strikes);
+			final Function<Double, Double> valuePerStrike = smile.getValue(0.0, model).get("valuePerStrike");
+
+			for(final double strike : strikes) {
+				final double valueAnalytic = AnalyticFormulas.blackScholesOptionValue(initialValue, riskFreeRate, volatility, maturity, strike);
+				Assert.assertEquals("Value for maturity " + maturity + " and strike " + strike, valueAnalytic, valuePerStrike.apply(strike), 1E-6);
+			}
+		}
+	}
+
+	@Test
+	public void testHestonAgreesWithDirectIntegration() throws CalculationException {
+
+		final double[] strikes = new double[] { 0.7, 0.8, 0.9, 0.95, 1.0, 1.05, 1.1, 1.2, 1.4 };
+		final double maturity = 2.0;
+
+		final CharacteristicFunctionModel model = new HestonModel(1.0, riskFreeRate, 0.2, 0.04, 1.5, 0.6, -0.7);
+
+		final EuropeanOptionSmile smile = new EuropeanOptionSmileByFractionalFFT(maturity, strikes);
+		final Map<String, Function<Double, Double>> results = smile.getValue(0.0, model);
+
+		// The clone uses the same integration parameters
+		final Function<Double, Double> valuePerStrikeOfClone = smile.getCloneWithModifiedParameters(maturity, strikes).getValue(0.0, model).get("valuePerStrike");
+
+		for(final double strike : strikes) {
+			final double valueIntegration = new EuropeanOption(maturity, strike).getValue(model);
+			final double value = results.get("valuePerStrike").apply(strike);
+			Assert.assertEquals("Value for strike " + strike, valueIntegration, value, 1E-6);
+			Assert.assertEquals("Value of clone for strike " + strike, value, valuePerStrikeOfClone.apply(strike), 0.0);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package net.finmath.marketdata.model.volatilities;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.marketdata.model.curves.CurveInterpolation.ExtrapolationMethod;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationEntity;
+import net.finmath.marketdata.model.curves.CurveInterpolation.InterpolationMethod;
+import net.finmath.marketdata.model.curves.DiscountCurve;
+import net.finmath.marketdata.model.curves.DiscountCurveInterpolation;
+import net.finmath.marketdata.model.volatilities.VolatilitySurface.QuotingConvention;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test of the grid representation of a local volatility, {@link GridLocalVolatility}.
+ *
+ * @author agent
+ */
+public class GridLocalVolatilityTest {
+
+	private static final double[] TIMES = { 0.0, 0.5, 1.5, 3.0 };
+	private static final double LOG_ASSET_VALUE_MIN = Math.log(50.0);
+	private static final double LOG_ASSET_VALUE_STEP = 0.1;
+	private static final int NUMBER_OF_ASSET_VALUES = 15;
+
+	@Test
+	public void testValuesAtGridNodes() {
+		final double[][] table = createTable((time, logAssetValue) -> 0.2 + 0.05 * Math.sin(3.0 * time + 7.0 * logAssetValue));
+		final GridLocalVolatility localVolatility = new GridLocalVolatility(TIMES, LOG_ASSET_VALUE_MIN, LOG_ASSET_VALUE_STEP, table);
+
+		final double[] logAssetValues = localVolatility.getLogAssetValues();
+		Assert.assertArrayEquals("Times", TIMES, localVolatility.getTimes(), 0.0);
+		Assert.assertEquals("Number of asset values", NUMBER_OF_ASSET_VALUES, logAssetValues.length);
+		Assert.assertArrayEquals("Local volatilities", table[2], localVolatility.getLocalVolatilities()[2], 0.0);
+
+		for(int i = 0; i < TIMES.length; i++) {
+			for(int j = 0; j < NUMBER_OF_ASSET_VALUES; j++) {
+				Assert.assertEquals("Local volatility at node (" + i + "," + j + ")",
+						table[i][j], localVolatility.getValue(TIMES[i], Math.exp(logAssetValues[j])), 1E-12);
+			}
+		}
+	}
+
+	@Test
+	public void testBilinearInterpolation() {
+		// A function bilinear in time and log-asset value is reproduced exactly inside each cell
+		final double[][] table = createTable((time, logAssetValue) -> 0.3 - 0.02 * time + 0.1 * (logAssetValue - 4.0) + 0.04 * time * (logAssetValue - 4.0));
+		final GridLocalVolatility localVolatility = new GridLocalVolatility(TIMES, LOG_ASSET_VALUE_MIN, LOG_ASSET_VALUE_STEP, table);
+
+		final Random random = new Random(3141);
+		for(int sample = 0; sample < 200; sample++) {
+			final int timeIndex = random.nextInt(TIMES.length - 1);
+			final int assetIndex = random.nextInt(NUMBER_OF_ASSET_VALUES - 1);
+			final double timeWeight = random.nextDouble();
+			final double assetWeight = random.nextDouble();
+
+			final double time = TIMES[timeIndex] + timeWeight * (TIMES[timeIndex + 1] - TIMES[timeIndex]);
+			final double logAssetValue = LOG_ASSET_VALUE_MIN + (assetIndex + assetWeight) * LOG_ASSET_VALUE_STEP;
+
+			final double expected =
+					(1.0 - timeWeight) * ((1.0 - assetWeight) * table[timeIndex][assetIndex] + assetWeight * table[timeIndex][assetIndex + 1])
+					+ timeWeight * ((1.0 - assetWeight) * table[timeIndex + 1][assetIndex] + assetWeight * table[timeIndex + 1][assetIndex + 1]);
+
+			Assert.assertEquals("Bilinear interpolation", expected, localVolatility.getValue(time, Math.exp(logAssetValue)), 1E-12);
+		}
+
+		// Cell center is the average of the four corners
+		final double center = localVolatility.getValue(1.0, Math.exp(LOG_ASSET_VALUE_MIN + 2.5 * LOG_ASSET_VALUE_STEP));
+		Assert.assertEquals("Cell center", (table[1][2] + table[1][3] + table[2][2] + table[2][3]) / 4.0, center, 1E-12);
+	}
+
+	@Test
+	public void testConstantExtrapolation() {
+		final double[][] table = createTable((time, logAssetValue) -> 0.15 + 0.1 * time + 0.2 * (logAssetValue - LOG_ASSET_VALUE_MIN));
+		final GridLocalVolatility localVolatility = new GridLocalVolatility(TIMES, LOG_ASSET_VALUE_MIN, LOG_ASSET_VALUE_STEP, table);
+
+		final int lastTimeIndex = TIMES.length - 1;
+		final int lastAssetIndex = NUMBER_OF_ASSET_VALUES - 1;
+		final double assetValueBelow = Math.exp(LOG_ASSET_VALUE_MIN) * 0.5;
+		final double assetValueAbove = Math.exp(LOG_ASSET_VALUE_MIN + lastAssetIndex * LOG_ASSET_VALUE_STEP) * 2.0;
+		final double assetValueInside = Math.exp(LOG_ASSET_VALUE_MIN + 4.0 * LOG_ASSET_VALUE_STEP);
+
+		// Asset value outside the grid
+		Assert.assertEquals("Below first asset value", table[1][0], localVolatility.getValue(TIMES[1], assetValueBelow), 0.0);
+		Assert.assertEquals("Above last asset value", table[1][lastAssetIndex], localVolatility.getValue(TIMES[1], assetValueAbove), 0.0);
+
+		// Time outside the grid
+		Assert.assertEquals("Before first time", table[0][4], localVolatility.getValue(-1.0, assetValueInside), 1E-12);
+		Assert.assertEquals("After last time", table[lastTimeIndex][4], localVolatility.getValue(10.0, assetValueInside), 1E-12);
+
+		// Both outside the grid
+		Assert.assertEquals("Corner", table[0][0], localVolatility.getValue(-1.0, assetValueBelow), 0.0);
+		Assert.assertEquals("Corner", table[lastTimeIndex][lastAssetIndex], localVolatility.getValue(10.0, assetValueAbove), 0.0);
+
+		// Between two times, below the grid in asset: linear in time along the first column
+		Assert.assertEquals("Time interpolation outside asset grid", 0.5 * (table[1][0] + table[2][0]), localVolatility.getValue(1.0, assetValueBelow), 1E-12);
+
+		// Non-positive asset values
+		Assert.assertEquals("Zero asset value", 0.0, localVolatility.getValue(TIMES[1], 0.0), 0.0);
+		Assert.assertEquals("Negative asset value", 0.0, localVolatility.getValue(TIMES[1], -1.0), 0.0);
+	}
+
+	@Test
+	public void testRandomVariableAgreesWithScalar() {
+		final double[][] table = createTable((time, logAssetValue) -> 0.2 + 0.05 * Math.cos(2.0 * time - 5.0 * logAssetValue));
+		final GridLocalVolatility localVolatility = new GridLocalVolatility(TIMES, LOG_ASSET_VALUE_MIN, LOG_ASSET_VALUE_STEP, table);
+
+		final Random random = new Random(2718);
+		final double[] assetValues = new double[1000];
+		for(int path = 0; path < assetValues.length; path++) {
+			assetValues[path] = 100.0 * Math.exp(0.6 * random.nextGaussian());
+		}
+		// Include values outside the grid and non-positive values
+		assetValues[0] = 0.0;
+		assetValues[1] = -10.0;
+		assetValues[2] = 1.0;
+		assetValues[3] = 1E6;
+
+		for(final double time : new double[] { -0.5, 0.0, 0.5, 0.7, 3.0, 4.0 }) {
+			final RandomVariable values = localVolatility.getValue(time, new RandomVariableFromDoubleArray(time, assetValues));
+
+			Assert.assertEquals("Filtration time", time, values.getFiltrationTime(), 0.0);
+			for(int path = 0; path < assetValues.length; path++) {
+				Assert.assertEquals("Path " + path + " at time " + time, localVolatility.getValue(time, assetValues[path]), values.get(path), 0.0);
+			}
+
+			final RandomVariable deterministicValue = localVolatility.getValue(time, new RandomVariableFromDoubleArray(105.0));
+			Assert.assertTrue("Deterministic", deterministicValue.isDeterministic());
+			Assert.assertEquals("Deterministic at time " + time, localVolatility.getValue(time, 105.0), deterministicValue.doubleValue(), 0.0);
+		}
+	}
+
+	@Test
+	public void testAgreementWithDupireLocalVolatility() {
+		final DupireLocalVolatility dupireLocalVolatility = new DupireLocalVolatility(createOptionSurface());
+
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 100, 0.02);
+		final GridLocalVolatility gridLocalVolatility = dupireLocalVolatility.getGridLocalVolatility(timeDiscretization, 40.0, 250.0, 200);
+
+		// At grid nodes the values are those of the Dupire local volatility
+		final double[] logAssetValues = gridLocalVolatility.getLogAssetValues();
+		for(int timeIndex = 10; timeIndex <= 100; timeIndex += 15) {
+			for(int assetIndex = 40; assetIndex < 160; assetIndex += 7) {
+				final double time = timeDiscretization.getTime(timeIndex);
+				final double assetValue = Math.exp(logAssetValues[assetIndex]);
+				Assert.assertEquals("Local volatility at grid node", dupireLocalVolatility.getValue(time, assetValue), gridLocalVolatility.getValue(time, assetValue), 1E-10);
+			}
+		}
+
+		/*
+		 * Inside the range of quoted strikes and maturities the interpolation error is small. The Dupire local volatility
+		 * has kinks at the quoted strikes (the smile is interpolated piecewise), where the error is largest
+		 * (about 1.7% at the strike 70).
+		 */
+		final Random random = new Random(1);
+		for(int sample = 0; sample < 2000; sample++) {
+			final double time = 0.25 + 1.75 * random.nextDouble();
+			final double assetValue = 70.0 + 70.0 * random.nextDouble();
+
+			final double dupireValue = dupireLocalVolatility.getValue(time, assetValue);
+			Assert.assertEquals("Local volatility at time " + time + " and asset value " + assetValue,
+					dupireValue, gridLocalVolatility.getValue(time, assetValue), 2.5E-2 * dupireValue);
+		}
+	}
+
+	private interface TableFunction {
+		double apply(double time, double logAssetValue);
+	}
+
+	private static double[][] createTable(final TableFunction function) {
+		final double[][] table = new double[TIMES.length][NUMBER_OF_ASSET_VALUES];
+		for(int i = 0; i < TIMES.length; i++) {
+			for(int j = 0; j < NUMBER_OF_ASSET_VALUES; j++) {
+				table[i][j] = function.apply(TIMES[i], LOG_ASSET_VALUE_MIN + j * LOG_ASSET_VALUE_STEP);
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Creates a surface of log-normal volatilities with skew and smile, spot 100 and rate 3%.
+	 */
+	private static OptionSurfaceDataInterpolated createOptionSurface() {
+		final LocalDate referenceDate = LocalDate.of(2024, 1, 1);
+		final double spot = 100.0;
+		final double rate = 0.03;
+
+		final double[] times = { 0.0, 1.0, 2.0, 3.0 };
+		final double[] discountFactors = new double[times.length];
+		final double[] forwards = new double[times.length];
+		for(int i = 0; i < times.length; i++) {
+			discountFactors[i] = Math.exp(-rate * times[i]);
+			forwards[i] = spot * Math.exp(rate * times[i]);
+		}
+		final DiscountCurve discountCurve = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors(
+				"discount", times, discountFactors, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+		final DiscountCurve equityForwardCurve = DiscountCurveInterpolation.createDiscountCurveFromDiscountFactors(
+				"forward", times, forwards, InterpolationMethod.LINEAR, ExtrapolationMethod.CONSTANT, InterpolationEntity.LOG_OF_VALUE);
+
+		final double[] strikes = { 60, 70, 80, 90, 100, 110, 120, 130, 140, 160 };
+		final double[] maturities = { 0.25, 0.5, 1.0, 2.0 };
+		final OptionSmileData[] smiles = new OptionSmileData[maturities.length];
+		for(int m = 0; m < maturities.length; m++) {
+			final double[] volatilities = new double[strikes.length];
+			for(int i = 0; i < strikes.length; i++) {
+				final double moneyness = Math.log(strikes[i] / spot);
+				volatilities[i] = 0.2 + 0.1 * moneyness * moneyness - 0.05 * moneyness + 0.01 * maturities[m];
+			}
+			smiles[m] = new OptionSmileData("underlying", referenceDate, strikes, maturities[m], volatilities, QuotingConvention.VOLATILITYLOGNORMAL);
+		}
+
+		return new OptionSurfaceDataInterpolated(smiles, discountCurve, equityForwardCurve);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link BrownianMotionFromMersenneRandomNumbersLazyTimeSlices}.
+ *
+ * @author agent
+ */
+public class BrownianMotionFromMersenneRandomNumbersLazyTimeSlicesTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 50, 0.25);
+	private final int numberOfFactors = 2;
+	private final int numberOfPaths = 50000;
+	private final int seed = 3141;
+
+	@Test
+	public void testEvictedTimeSlicesAreRegeneratedIdentically() {
+		final BrownianMotion brownianMotionSmallCache = new BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(timeDiscretization, numberOfFactors, numberOfPaths, seed, 2, new RandomVariableFromArrayFactory());
+		final BrownianMotion brownianMotionLargeCache = new BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(timeDiscretization, numberOfFactors, numberOfPaths, seed, 100, new RandomVariableFromArrayFactory());
+
+		final double[] firstIncrement = brownianMotionSmallCache.getBrownianIncrement(0, 1).getRealizations().clone();
+
+		// Walk forward, evicting the first time slice
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				Assert.assertArrayEquals(
+						brownianMotionLargeCache.getBrownianIncrement(timeIndex, factor).getRealizations(),
+						brownianMotionSmallCache.getBrownianIncrement(timeIndex, factor).getRealizations(),
+						0.0);
+			}
+		}
+
+		Assert.assertArrayEquals(firstIncrement, brownianMotionSmallCache.getBrownianIncrement(0, 1).getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testMoments() {
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbersLazyTimeSlices(timeDiscretization, numberOfFactors, numberOfPaths, seed);
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			final double timeStep = timeDiscretization.getTimeStep(timeIndex);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				Assert.assertEquals("Mean", 0.0, increment.getAverage(), 4.0 * Math.sqrt(timeStep / numberOfPaths));
+				Assert.assertEquals("Variance", timeStep, increment.getVariance(), 0.03 * timeStep);
+			}
+		}
+
+		// Different time slices need to be uncorrelated
+		final RandomVariable w0 = brownianMotion.getBrownianIncrement(0, 0);
+		final RandomVariable w1 = brownianMotion.getBrownianIncrement(1, 0);
+		Assert.assertEquals("Covariance", 0.0, w0.mult(w1).getAverage(), 0.03 * timeDiscretization.getTimeStep(0));
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link BrownianMotionFromMersenneRandomNumbersParallel}.
+ *
+ * @author agent
+ */
+public class BrownianMotionFromMersenneRandomNumbersParallelTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.5);
+	private final int numberOfFactors = 3;
+	private final int numberOfPaths = 100003;
+	private final int seed = 3141;
+
+	@Test
+	public void testParallelAndSerialGenerationAreIdentical() {
+		final BrownianMotion brownianMotionParallel = new BrownianMotionFromMersenneRandomNumbersParallel(timeDiscretization, numberOfFactors, numberOfPaths, seed, 1000, true, new RandomVariableFromArrayFactory());
+		final BrownianMotion brownianMotionSerial = new BrownianMotionFromMersenneRandomNumbersParallel(timeDiscretization, numberOfFactors, numberOfPaths, seed, 1000, false, new RandomVariableFromArrayFactory());
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				Assert.assertArrayEquals("Increment " + timeIndex + ", " + factor,
+						brownianMotionSerial.getBrownianIncrement(timeIndex, factor).getRealizations(),
+						brownianMotionParallel.getBrownianIncrement(timeIndex, factor).getRealizations(),
+						0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testMoments() {
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbersParallel(timeDiscretization, numberOfFactors, numberOfPaths, seed, 1000, new RandomVariableFromArrayFactory());
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			final double timeStep = timeDiscretization.getTimeStep(timeIndex);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				Assert.assertEquals("Mean", 0.0, increment.getAverage(), 4.0 * Math.sqrt(timeStep / numberOfPaths));
+				Assert.assertEquals("Variance", timeStep, increment.getVariance(), 0.02 * timeStep);
+			}
+		}
+
+		// Different factors need to be uncorrelated
+		final RandomVariable w0 = brownianMotion.getBrownianIncrement(0, 0);
+		final RandomVariable w1 = brownianMotion.getBrownianIncrement(0, 1);
+		Assert.assertEquals("Covariance", 0.0, w0.mult(w1).getAverage(), 0.02 * timeDiscretization.getTimeStep(0));
+	}
+
+	@Test
+	public void testBlocksAreIndependent() {
+		// Two blocks must not generate the same sequence
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbersParallel(timeDiscretization, 1, 20, seed, 10, new RandomVariableFromArrayFactory());
+		final double[] realizations = brownianMotion.getBrownianIncrement(0, 0).getRealizations();
+		for(int path=0; path<10; path++) {
+			Assert.assertNotEquals(realizations[path], realizations[path+10], 0.0);
+		}
+	}
+}
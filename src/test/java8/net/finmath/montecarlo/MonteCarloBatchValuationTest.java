@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.functions.AnalyticFormulas;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloBlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.EuropeanOption;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link MonteCarloBatchValuation} and {@link MonteCarloValueStatistics}.
+ *
+ * @author agent
+ */
+public class MonteCarloBatchValuationTest {
+
+	@Test
+	public void testMergedStatisticsAgreeWithFullStatistics() {
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(new TimeDiscretizationFromArray(0.0, 1.0), 1, 100000, 3141);
+		final RandomVariable randomVariable = brownianMotion.getBrownianIncrement(0, 0).exp();
+		final double[] realizations = randomVariable.getRealizations();
+
+		MonteCarloValueStatistics statisticsMerged = null;
+		final int numberOfBatches = 7;
+		for(int batchIndex=0; batchIndex<numberOfBatches; batchIndex++) {
+			final int start = batchIndex * realizations.length / numberOfBatches;
+			final int end = (batchIndex+1) * realizations.length / numberOfBatches;
+			final double[] batchRealizations = java.util.Arrays.copyOfRange(realizations, start, end);
+			final MonteCarloValueStatistics statisticsOfBatch = new MonteCarloValueStatistics(new RandomVariableFromDoubleArray(0.0, batchRealizations));
+			statisticsMerged = statisticsMerged == null ? statisticsOfBatch : statisticsMerged.merge(statisticsOfBatch);
+		}
+
+		Assert.assertEquals(realizations.length, statisticsMerged.getNumberOfPaths());
+		Assert.assertEquals(randomVariable.getAverage(), statisticsMerged.getAverage(), 1E-12);
+		Assert.assertEquals(randomVariable.getVariance(), statisticsMerged.getVariance(), 1E-10);
+		Assert.assertEquals(randomVariable.getStandardError(), statisticsMerged.getStandardError(), 1E-12);
+		Assert.assertEquals(randomVariable.getMin(), statisticsMerged.getMin(), 0.0);
+		Assert.assertEquals(randomVariable.getMax(), statisticsMerged.getMax(), 0.0);
+		for(final double quantile : new double[] { 0.01, 0.1, 0.5, 0.9, 0.99 }) {
+			Assert.assertEquals("Quantile " + quantile, randomVariable.getQuantile(quantile), statisticsMerged.getQuantile(quantile), 0.01 * randomVariable.getQuantile(quantile));
+		}
+	}
+
+	@Test
+	public void testBatchValuationOfEuropeanOption() throws CalculationException {
+		final double initialValue = 100.0;
+		final double riskFreeRate = 0.05;
+		final double volatility = 0.30;
+		final double maturity = 2.0;
+		final double strike = 110.0;
+
+		final MonteCarloSimulationModel modelForBatch = new MonteCarloBlackScholesModel(new TimeDiscretizationFromArray(0.0, 4, 0.5), 20000, initialValue, riskFreeRate, volatility);
+		final EuropeanOption option = new EuropeanOption(maturity, strike);
+
+		final MonteCarloBatchValuation valuationParallel = new MonteCarloBatchValuation(modelForBatch, 16, 3141, true);
+		final MonteCarloBatchValuation valuationSerial = new MonteCarloBatchValuation(modelForBatch, 16, 3141, false);
+
+		final MonteCarloValueStatistics statistics = valuationParallel.getValueStatistics(0.0, option);
+		final double valueAnalytic = AnalyticFormulas.blackScholesOptionValue(initialValue, riskFreeRate, volatility, maturity, strike);
+
+		Assert.assertEquals(16 * 20000, statistics.getNumberOfPaths());
+		Assert.assertEquals(valueAnalytic, statistics.getAverage(), 4.0 * statistics.getStandardError());
+
+		// Result does not depend on threading
+		Assert.assertEquals(statistics.getAverage(), valuationSerial.getValue(0.0, option), 0.0);
+
+		// Batches use different seeds
+		Assert.assertNotEquals(
+				option.getValue(0.0, valuationSerial.getModelForBatch(0)).getAverage(),
+				option.getValue(0.0, valuationSerial.getModelForBatch(1)).getAverage(), 0.0);
+	}
+}
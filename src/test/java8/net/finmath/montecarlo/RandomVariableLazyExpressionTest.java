@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests for {@link RandomVariableLazyExpression}, comparing the values with {@link RandomVariableFromDoubleArray}.
+ *
+ * @author agent
+ */
+public class RandomVariableLazyExpressionTest {
+
+	private static final int numberOfPaths = 100003;
+
+	@Test
+	public void testValuesAgreeWithRandomVariableFromDoubleArray() {
+		final RandomVariableFactory factoryArray = new RandomVariableFromArrayFactory();
+		final RandomVariableFactory factoryLazy = new RandomVariableLazyExpressionFactory();
+
+		// A payoff with shared sub-expressions, e.g. max(S exp(...) - K, 0) / N
+		final Function<RandomVariableFactory, RandomVariable> payoff = factory -> {
+			final RandomVariable x = factory.createRandomVariable(1.0, getRealizations(3141));
+			final RandomVariable y = factory.createRandomVariable(0.5, getRealizations(2718));
+			final RandomVariable spot = factory.createRandomVariable(100.0);
+
+			final RandomVariable drift = x.mult(0.2).add(-0.02);
+			final RandomVariable underlying = spot.mult(drift.exp());
+			final RandomVariable numeraire = y.mult(0.01).add(0.03).accrue(y, 0.5).discount(x.abs(), 0.25);
+			final RandomVariable exercise = underlying.sub(100.0).floor(0.0).div(numeraire);
+			final RandomVariable other = drift.exp().squared().addProduct(x, y).addRatio(x, y.abs().add(1.0)).subRatio(y, x.cap(1.0).add(2.0));
+			final RandomVariable chosen = x.choose(exercise, other.bus(1.0).vid(2.0));
+
+			return chosen.add(x.sqrt().isNaN()).add(y.pow(2.0).log().sin()).mult(drift.exp().cos().invert())
+					.add(x.apply(z -> z * z + 1.0)).add(x.apply((a, b) -> a * b, y)).add(x.apply((a, b, c) -> a + b * c, y, exercise));
+		};
+
+		final RandomVariable valueArray = payoff.apply(factoryArray);
+		final RandomVariable valueLazy = payoff.apply(factoryLazy);
+
+		Assert.assertTrue(valueLazy instanceof RandomVariableLazyExpression);
+		Assert.assertEquals(numberOfPaths, valueLazy.size());
+		Assert.assertEquals(valueArray.getFiltrationTime(), valueLazy.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals(valueArray.getRealizations(), valueLazy.getRealizations(), 0.0);
+		Assert.assertEquals(valueArray.getAverage(), valueLazy.getAverage(), 0.0);
+	}
+
+	@Test
+	public void testMixedTypesAndDeterministicOperands() {
+		final double[] realizations = getRealizations(3141);
+		final RandomVariable array = new RandomVariableFromDoubleArray(0.0, realizations);
+		final RandomVariable lazy = new RandomVariableLazyExpression(0.0, realizations);
+
+		final RandomVariable constant = new RandomVariableLazyExpression(2.0).mult(3.0).add(1.0);
+		Assert.assertTrue(constant.isDeterministic());
+		Assert.assertEquals(7.0, constant.doubleValue(), 0.0);
+
+		final RandomVariable valueArray = array.mult(array).add(array).mult(7.0);
+		final RandomVariable valueLazy = lazy.mult(array).add(lazy).mult(constant);
+		Assert.assertArrayEquals(valueArray.getRealizations(), valueLazy.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testLongChainIsMaterializedIncrementally() {
+		final double[] realizations = getRealizations(3141);
+		RandomVariable valueArray = new RandomVariableFromDoubleArray(0.0, realizations);
+		RandomVariable valueLazy = new RandomVariableLazyExpression(0.0, realizations);
+		for(int i=0; i<3000; i++) {
+			valueArray = valueArray.mult(0.999).add(valueArray.squared().mult(1E-4));
+			valueLazy = valueLazy.mult(0.999).add(valueLazy.squared().mult(1E-4));
+		}
+
+		Assert.assertTrue(((RandomVariableLazyExpression)valueLazy).getNumberOfOperations() <= 1024);
+		Assert.assertArrayEquals(valueArray.getRealizations(), valueLazy.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testConcurrentMaterialization() {
+		final RandomVariable x = new RandomVariableLazyExpression(0.0, getRealizations(3141));
+		final RandomVariable shared = x.exp().mult(x);
+
+		// Materialize shared sub-expressions of different expressions concurrently
+		final RandomVariable[] values = new RandomVariable[16];
+		for(int i=0; i<values.length; i++) {
+			values[i] = shared.add(i);
+		}
+		final double[] averages = java.util.stream.IntStream.range(0, 64).parallel().mapToDouble(i -> i % 2 == 0 ? values[i % 16].getAverage() : shared.getAverage() + (i % 16)).toArray();
+
+		for(int i=0; i<averages.length; i++) {
+			Assert.assertEquals(shared.getAverage() + (i % 16), averages[i], 1E-12);
+		}
+	}
+
+	private static double[] getRealizations(final int seed) {
+		final MersenneTwister mersenneTwister = new MersenneTwister(seed);
+		final double[] realizations = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = mersenneTwister.nextDouble() * 2.0 - 0.5;
+		}
+		return realizations;
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.interestrate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.AbstractLIBORCovarianceModelParametric;
+import net.finmath.montecarlo.interestrate.models.covariance.DisplacedLocalVolatilityModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCorrelationModelExponentialDecay;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelFromVolatilityAndCorrelation;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORVolatilityModelFourParameterExponentialForm;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.montecarlo.process.MonteCarloProcess;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the fused drift kernel of {@link LIBORMarketModelFromCovarianceModel} against the generic implementation.
+ *
+ * @author agent
+ */
+public class LIBORMarketModelDriftTest {
+
+	private static final int numberOfFactors = 3;
+	private static final int numberOfPaths = 3000;
+
+	private final TimeDiscretization liborPeriodDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.5);
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.5);
+
+	private final ForwardCurve forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards(
+			"forwardCurve",
+			new double[] {0.5 , 1.0 , 2.0 , 5.0 , 40.0},
+			new double[] {0.02, 0.025, 0.03, 0.035, 0.04},
+			0.5);
+
+	@Test
+	public void testFusedDriftAgreesWithGenericDrift() throws CalculationException {
+		final AbstractLIBORCovarianceModelParametric covarianceModel = new LIBORCovarianceModelFromVolatilityAndCorrelation(timeDiscretization, liborPeriodDiscretization,
+				new LIBORVolatilityModelFourParameterExponentialForm(timeDiscretization, liborPeriodDiscretization, 0.2, 0.0, 0.25, 0.3, false),
+				new LIBORCorrelationModelExponentialDecay(timeDiscretization, liborPeriodDiscretization, numberOfFactors, 0.1));
+
+		// The displaced model has stochastic factor loadings
+		final LIBORCovarianceModel[] covarianceModels = new LIBORCovarianceModel[] { covarianceModel, new DisplacedLocalVolatilityModel(covarianceModel, 0.05, false) };
+
+		final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		for(final LIBORCovarianceModel covarianceModelUsed : covarianceModels) {
+			for(final LIBORMarketModelFromCovarianceModel.Measure measure : LIBORMarketModelFromCovarianceModel.Measure.values()) {
+				for(final LIBORMarketModelFromCovarianceModel.StateSpace stateSpace : LIBORMarketModelFromCovarianceModel.StateSpace.values()) {
+					final Map<String, String> properties = new HashMap<>();
+					properties.put("measure", measure.name());
+					properties.put("stateSpace", stateSpace.name());
+
+					final LIBORMarketModelFromCovarianceModel model = LIBORMarketModelFromCovarianceModel.of(liborPeriodDiscretization, null, forwardCurve, new DiscountCurveFromForwardCurve(forwardCurve),
+							new RandomVariableFromArrayFactory(), covarianceModelUsed, null, properties);
+					final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+
+					for(final int timeIndex : new int[] { 0, 1, 10, 25 }) {
+						final RandomVariable[] realization = new RandomVariable[model.getNumberOfComponents()];
+						final RandomVariable[] realizationGeneric = new RandomVariable[model.getNumberOfComponents()];
+						for(int componentIndex=0; componentIndex<realization.length; componentIndex++) {
+							realization[componentIndex] = process.getProcessValue(timeIndex, componentIndex);
+							realizationGeneric[componentIndex] = new RandomVariableFromDoubleArray(realization[componentIndex]) { private static final long serialVersionUID = 1L; };
+						}
+
+						// The fused kernel does not apply to subclasses of RandomVariableFromDoubleArray
+						final RandomVariable[] drift = model.getDrift(process, timeIndex, realization, null);
+						final RandomVariable[] driftGeneric = model.getDrift(process, timeIndex, realizationGeneric, null);
+
+						for(int componentIndex=0; componentIndex<realization.length; componentIndex++) {
+							final String message = covarianceModelUsed.getClass().getSimpleName() + " " + measure + " " + stateSpace + " " + timeIndex + " " + componentIndex;
+							if(driftGeneric[componentIndex] == null) {
+								Assert.assertNull(message, drift[componentIndex]);
+							}
+							else {
+								Assert.assertEquals(message, 0.0, drift[componentIndex].sub(driftGeneric[componentIndex]).abs().getMax(), 0.0);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.montecarlo.assetderivativevaluation.MonteCarloAssetModel;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.assetderivativevaluation.products.AsianOption;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiable;
+import net.finmath.montecarlo.automaticdifferentiation.RandomVariableDifferentiableFactory;
+import net.finmath.montecarlo.automaticdifferentiation.backward.RandomVariableDifferentiableAADFactory;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link EulerSchemeFromProcessModelCheckpointing}, comparing values and gradients with {@link EulerSchemeFromProcessModel}.
+ *
+ * @author agent
+ */
+public class EulerSchemeFromProcessModelCheckpointingTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.05);
+	private final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, 5000, 3141);
+	private final RandomVariableDifferentiableFactory randomVariableFactory = new RandomVariableDifferentiableAADFactory(new RandomVariableFromArrayFactory());
+
+	private final RandomVariableDifferentiable initialValue	= randomVariableFactory.createRandomVariable(1.0);
+	private final RandomVariableDifferentiable riskFreeRate	= randomVariableFactory.createRandomVariable(0.05);
+	private final RandomVariableDifferentiable volatility	= randomVariableFactory.createRandomVariable(0.30);
+
+	private final BlackScholesModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility, randomVariableFactory);
+
+	private final AsianOption product = new AsianOption(2.0, 1.05, new TimeDiscretizationFromArray(0.0, 0.25, 0.5, 0.75, 1.0, 1.25, 1.5, 1.75, 2.0));
+
+	@Test
+	public void testGradientAgreesWithEulerScheme() throws CalculationException {
+		final int[][] checkpointTimeIndicesCases = new int[][] { null, { 0 }, { 0, 7, 13, 31 } };
+
+		for(final EulerSchemeFromProcessModel.Scheme scheme : EulerSchemeFromProcessModel.Scheme.values()) {
+			final double[] sensitivities = getSensitivities(new EulerSchemeFromProcessModel(model, brownianMotion, scheme));
+
+			for(final int[] checkpointTimeIndices : checkpointTimeIndicesCases) {
+				final EulerSchemeFromProcessModelCheckpointing process = checkpointTimeIndices == null
+						? new EulerSchemeFromProcessModelCheckpointing(model, brownianMotion, scheme)
+								: new EulerSchemeFromProcessModelCheckpointing(model, brownianMotion, scheme, checkpointTimeIndices);
+
+				Assert.assertArrayEquals(process.toString(), sensitivities, getSensitivities(process), 1E-12);
+			}
+		}
+	}
+
+	@Test
+	public void testBackwardAccessAgreesWithEulerScheme() throws CalculationException {
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+		final MonteCarloProcess processCheckpointing = new EulerSchemeFromProcessModelCheckpointing(model, brownianMotion, EulerSchemeFromProcessModel.getDefaultScheme(model), new int[] { 0, 10, 20 });
+
+		for(final int timeIndex : new int[] { 40, 3, 25, 12, 0, 19 }) {
+			Assert.assertArrayEquals("Time index " + timeIndex,
+					process.getProcessValue(timeIndex, 0).getRealizations(),
+					processCheckpointing.getProcessValue(timeIndex, 0).getRealizations(),
+					0.0);
+		}
+	}
+
+	private double[] getSensitivities(final MonteCarloProcess process) throws CalculationException {
+		final RandomVariable value = product.getValue(0.0, new MonteCarloAssetModel(model, process));
+
+		final Map<Long, RandomVariable> gradient = process instanceof EulerSchemeFromProcessModelCheckpointing
+				? ((EulerSchemeFromProcessModelCheckpointing)process).getGradient(value, null)
+						: ((RandomVariableDifferentiable)value).getGradient();
+
+		return new double[] {
+				value.getAverage(),
+				gradient.get(initialValue.getID()).getAverage(),
+				gradient.get(riskFreeRate.getID()).getAverage(),
+				gradient.get(volatility.getID()).getAverage()
+		};
+	}
+}
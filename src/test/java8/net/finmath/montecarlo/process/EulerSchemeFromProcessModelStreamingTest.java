@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. Contact: email@christian-fries.de.
+ *
+ * Created on 17.10.2026
+ */
+package net.finmath.montecarlo.process;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionFromMersenneRandomNumbers;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.model.ProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests for {@link EulerSchemeFromProcessModelStreaming}.
+ *
+ * @author agent
+ */
+public class EulerSchemeFromProcessModelStreamingTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 40, 0.25);
+	private final BrownianMotion brownianMotion = new BrownianMotionFromMersenneRandomNumbers(timeDiscretization, 1, 10000, 3141);
+	private final ProcessModel model = new BlackScholesModel(100.0, 0.05, 0.30);
+
+	@Test
+	public void testPullAccessAgreesWithEulerScheme() throws CalculationException {
+		for(final EulerSchemeFromProcessModel.Scheme scheme : EulerSchemeFromProcessModel.Scheme.values()) {
+			final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion, scheme);
+			final MonteCarloProcess processStreaming = new EulerSchemeFromProcessModelStreaming(model, brownianMotion, scheme);
+
+			for(int timeIndex=0; timeIndex<=timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				Assert.assertArrayEquals(scheme + " at " + timeIndex,
+						process.getProcessValue(timeIndex, 0).getRealizations(),
+						processStreaming.getProcessValue(timeIndex, 0).getRealizations(),
+						0.0);
+			}
+
+			// Backward access restarts the evolution
+			Assert.assertArrayEquals(
+					process.getProcessValue(3, 0).getRealizations(),
+					processStreaming.getProcessValue(3, 0).getRealizations(),
+					0.0);
+		}
+	}
+
+	@Test
+	public void testPushAccessAgreesWithEulerScheme() throws CalculationException {
+		final MonteCarloProcess process = new EulerSchemeFromProcessModel(model, brownianMotion);
+		final EulerSchemeFromProcessModelStreaming processStreaming = new EulerSchemeFromProcessModelStreaming(model, brownianMotion);
+
+		final int[] timeIndices = new int[] { 4, 12, 40 };
+		final RandomVariable[] values = new RandomVariable[timeIndices.length];
+		final int[] counter = new int[1];
+		processStreaming.addTimeSliceConsumer(timeIndices, (timeIndex, processValue) -> {
+			Assert.assertEquals(timeIndices[counter[0]], timeIndex);
+			values[counter[0]++] = processValue[0];
+		});
+		processStreaming.run();
+
+		Assert.assertEquals(timeIndices.length, counter[0]);
+		for(int i=0; i<timeIndices.length; i++) {
+			Assert.assertArrayEquals(process.getProcessValue(timeIndices[i], 0).getRealizations(), values[i].getRealizations(), 0.0);
+		}
+
+		// Consumers are removed after the run
+		processStreaming.run();
+		Assert.assertEquals(timeIndices.length, counter[0]);
+	}
+}
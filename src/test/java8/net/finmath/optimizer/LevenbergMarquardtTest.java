@@ -8,10 +8,13 @@ package net.finmath.optimizer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import net.finmath.optimizer.Optimizer.ObjectiveFunction;
+
 /**
  * Unit tests for the LevenbergMarquardt optimizer.
  *
@@ -296,4 +299,76 @@ public class LevenbergMarquardtTest {
 
 		Assert.assertEquals(0.0, optimizer.getRootMeanSquaredError(), 2E-4);
 	}
+
+	@Test
+	public void testBroydenUpdates() throws SolverException {
+		final int numberOfParameters = 10;
+		final int numberOfValues = 40;
+
+		// A mildly non-linear system with known solution
+		final double[] parametersExact = new double[numberOfParameters];
+		final double[][] coefficients = new double[numberOfValues][numberOfParameters];
+		for(int i=0; i<numberOfParameters; i++) {
+			parametersExact[i] = 0.1 * (i+1);
+		}
+		for(int k=0; k<numberOfValues; k++) {
+			for(int i=0; i<numberOfParameters; i++) {
+				coefficients[k][i] = Math.cos(0.37 * (k+1) * (i+1));
+			}
+		}
+
+		final AtomicInteger numberOfValuations = new AtomicInteger();
+		final ObjectiveFunction objectiveFunction = (parameters, values) -> {
+			numberOfValuations.incrementAndGet();
+			for(int k=0; k<numberOfValues; k++) {
+				double linear = 0.0;
+				for(int i=0; i<numberOfParameters; i++) {
+					linear += coefficients[k][i] * parameters[i];
+				}
+				values[k] = linear + 0.1 * Math.exp(0.5 * linear);
+			}
+		};
+
+		final double[] targetValues = new double[numberOfValues];
+		objectiveFunction.setValues(parametersExact, targetValues);
+
+		final int[] numberOfIterationsForBroydenUpdates = new int[3];
+		final int[] numberOfValuationsForBroydenUpdates = new int[3];
+		final int[] maxNumberOfBroydenUpdates = new int[] { 0, 5, 20 };
+		for(int testIndex=0; testIndex<maxNumberOfBroydenUpdates.length; testIndex++) {
+			final LevenbergMarquardt optimizer = new LevenbergMarquardt(new double[numberOfParameters], targetValues, 500, 4) {
+				private static final long serialVersionUID = -2010939454512519567L;
+
+				@Override
+				public void setValues(final double[] parameters, final double[] values) throws SolverException {
+					objectiveFunction.setValues(parameters, values);
+				}
+			};
+			optimizer.setMaxNumberOfBroydenUpdates(maxNumberOfBroydenUpdates[testIndex]);
+			optimizer.setErrorTolerance(1E-12);
+
+			numberOfValuations.set(0);
+			optimizer.run();
+			numberOfIterationsForBroydenUpdates[testIndex] = optimizer.getIterations();
+			numberOfValuationsForBroydenUpdates[testIndex] = numberOfValuations.get();
+
+			Assert.assertArrayEquals(parametersExact, optimizer.getBestFitParameters(), 1E-8);
+		}
+
+		Assert.assertTrue("Broyden updates reduce the number of valuations", numberOfValuationsForBroydenUpdates[1] < numberOfValuationsForBroydenUpdates[0]);
+		Assert.assertTrue("Broyden updates reduce the number of valuations", numberOfValuationsForBroydenUpdates[2] < numberOfValuationsForBroydenUpdates[0]);
+
+		// The rank-one updates may cost some iterations, but the convergence should not degrade substantially
+		Assert.assertTrue("Broyden updates preserve the convergence", numberOfIterationsForBroydenUpdates[1] <= 2 * numberOfIterationsForBroydenUpdates[0]);
+		Assert.assertTrue("Broyden updates preserve the convergence", numberOfIterationsForBroydenUpdates[2] <= 2 * numberOfIterationsForBroydenUpdates[0]);
+
+		// If the number of updates exceeds the number of iterations, a single Jacobian (one valuation per parameter) is calculated
+		Assert.assertTrue("Single Jacobian calculation", numberOfValuationsForBroydenUpdates[2] <= 1 + numberOfParameters + numberOfIterationsForBroydenUpdates[2]);
+	}
+
+	@Test
+	public void testSharedExecutor() {
+		Assert.assertSame(LevenbergMarquardt.getSharedExecutor(4), LevenbergMarquardt.getSharedExecutor(4));
+		Assert.assertNotSame(LevenbergMarquardt.getSharedExecutor(4), LevenbergMarquardt.getSharedExecutor(2));
+	}
 }